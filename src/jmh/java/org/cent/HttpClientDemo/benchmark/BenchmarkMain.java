@@ -0,0 +1,39 @@
+package org.cent.HttpClientDemo.benchmark;
+
+import org.cent.HttpClientDemo.util.transport.Http2Transport;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+
+import java.util.Arrays;
+
+/**
+ * 基准测试入口（gradle jmh），参数与org.openjdk.jmh.Main相同
+ * 当前jdk不支持HTTP/2传输引擎（jdk11以下）且未指定transport参数时只运行transport=http1，跳过http2取值而不是让其失败
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (!Http2Transport.isSupported() && !hasTransportParam(args)) {
+            args = Arrays.copyOf(args, args.length + 2);
+            args[args.length - 2] = "-p";
+            args[args.length - 1] = "transport=http1";
+        }
+        Main.main(args);
+    }
+
+    private static boolean hasTransportParam(String[] args) {
+        try {
+            return new CommandLineOptions(args).getParameter("transport").hasValue();
+        } catch (CommandLineOptionException e) {
+            // 参数有误时交由Main报告
+            return true;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.cent.HttpClientDemo.benchmark;
+
+import io.micrometer.core.instrument.Metrics;
+import org.cent.HttpClientDemo.util.MyExecutors;
+import org.cent.HttpClientDemo.util.MyHttpAsyncClientUtil;
+import org.cent.HttpClientDemo.util.MyHttpClientUtil;
+import org.cent.HttpClientDemo.util.MyHttpRequest;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.cent.HttpClientDemo.util.transport.Http2Transport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同步/异步客户端对比基准测试，请求本地ApiController的回显接口（/post-string文本、/post-json json）
+ * 每次操作发送一批concurrency个并发请求并等待全部完成，得分为每批吞吐量/耗时分布（SampleTime给出百分位）
+ * 各客户端均读取完整响应体（与业务调用一致），默认附加gc分析器可得每次操作分配字节数，线程维度的并发可再通过-t参数叠加
+ * virtualThreadPost为同步客户端在虚拟线程上提交请求，与asyncPost的IO reactor模型对比，须在jdk21+上运行（gradle jmh -PjmhJava=jdk21的java路径），
+ * 低版本jdk回退为平台线程池
+ * transport=http2时各客户端经HTTP/2传输引擎（h2c多路复用）发送，须在jdk11+上运行，低版本jdk由BenchmarkMain跳过该取值
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpClientBenchmark {
+
+    // 请求体字节数，回显接口响应体同样大小
+    @Param({"64", "4096", "65536"})
+    private int payloadSize;
+
+    // 每次操作并发请求数
+    @Param({"1", "16", "64"})
+    private int concurrency;
+
+    // 回显接口
+    @Param({"/post-string", "/post-json"})
+    private String endpoint;
+
+    // 传输方式：http1为内置连接池，http2为HTTP/2传输引擎（jdk11+）
+    @Param({"http1", "http2"})
+    private String transport;
+
+    private String url;
+    private boolean json;
+    private String payload;
+    private MyHttpClientUtil syncClient;
+    // 在虚拟线程上提交请求的同步客户端，与syncClient连接池互不影响
+    private MyHttpClientUtil virtualClient;
+    private MyHttpAsyncClientUtil asyncClient;
+    // 同步客户端并发调用线程
+    private ExecutorService syncCallers;
+    // 同步客户端虚拟线程调用线程池
+    private ExecutorService virtualCallers;
+    // HTTP/2传输引擎，transport=http1时为空
+    private Http2Transport http2Transport;
+    private MyHttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp(LocalServerState server) {
+        url = server.getBaseUrl() + endpoint;
+        json = endpoint.endsWith("json");
+        payload = payload(payloadSize, json);
+        syncClient = new MyHttpClientUtil();
+        asyncClient = new MyHttpAsyncClientUtil();
+        syncCallers = Executors.newFixedThreadPool(concurrency);
+        virtualCallers = MyExecutors.newVirtualThreadExecutor(concurrency);
+        virtualClient = new MyHttpClientUtil();
+        virtualClient.setExecutor(virtualCallers);
+        request = json ? MyHttpRequest.postJson(url, null, payload) : MyHttpRequest.post(url, null, payload);
+        if ("http2".equals(transport)) {
+            if (!Http2Transport.isSupported()) {
+                throw new IllegalStateException("HTTP/2 transport requires jdk11+, run with -p transport=http1");
+            }
+            http2Transport = new Http2Transport(60000, 60000, 100, Metrics.globalRegistry);
+            syncClient.setTransport(http2Transport);
+            virtualClient.setTransport(http2Transport);
+            asyncClient.setTransport(http2Transport);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        syncCallers.shutdownNow();
+        virtualCallers.shutdownNow();
+        syncClient.close();
+        virtualClient.close();
+        asyncClient.close();
+        if (http2Transport != null) {
+            http2Transport.close();
+        }
+    }
+
+    @Benchmark
+    public long syncPost() throws Exception {
+        if (concurrency == 1) {
+            return syncPostOnce();
+        }
+        Future<?>[] futures = new Future<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            futures[i] = syncCallers.submit(this::syncPostOnce);
+        }
+        long bytes = 0;
+        for (Future<?> future : futures) {
+            bytes += (Long) future.get();
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public long asyncPost() {
+        List<CompletableFuture<MyHttpResponse>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(json ? asyncClient.postJson(url, null, payload) : asyncClient.post(url, null, payload));
+        }
+        long bytes = 0;
+        for (CompletableFuture<MyHttpResponse> future : futures) {
+            bytes += future.join().getBody().length;
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public long virtualThreadPost() {
+        List<CompletableFuture<MyHttpResponse>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(virtualClient.submit(request));
+        }
+        long bytes = 0;
+        for (CompletableFuture<MyHttpResponse> future : futures) {
+            bytes += future.join().getBody().length;
+        }
+        return bytes;
+    }
+
+    /**
+     * 同步发送一次请求并读取完整响应体，返回响应体字节数
+     */
+    private long syncPostOnce() {
+        MyHttpResponse response = json ? syncClient.postJson(url, null, payload) : syncClient.post(url, null, payload);
+        if (response == null) {
+            throw new IllegalStateException("request failed: " + url);
+        }
+        return response.getBody().length;
+    }
+
+    /**
+     * 约size字节的请求体，json接口为单个字符串字段的对象
+     */
+    private static String payload(int size, boolean json) {
+        String prefix = json ? "{\"data\":\"" : "";
+        String suffix = json ? "\"}" : "";
+        char[] chars = new char[Math.max(size - prefix.length() - suffix.length(), 0)];
+        Arrays.fill(chars, 'x');
+        return prefix + new String(chars) + suffix;
+    }
+}
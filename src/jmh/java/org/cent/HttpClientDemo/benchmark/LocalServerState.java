@@ -0,0 +1,63 @@
+package org.cent.HttpClientDemo.benchmark;
+
+import org.cent.HttpClientDemo.HttpClientDemoApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * 基准测试本地被测服务，在基准测试进程内随机端口启动HttpClientDemoApplication（ApiController）
+ * 同一明文端口同时支持HTTP/1.1及h2c
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+@State(Scope.Benchmark)
+public class LocalServerState {
+
+    private ConfigurableApplicationContext context;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // ApiController逐个打印请求体，控制台输出会成为瓶颈，基准测试进程内静默标准输出
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+
+        context = new SpringApplicationBuilder(HttpClientDemoApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties("server.port=0", "server.http2.enabled=true", "logging.level.root=warn")
+                .run();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * 被测服务地址（协议+主机+端口）
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+}
@@ -0,0 +1,135 @@
+package org.cent.HttpClientDemo.benchmark;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicNameValuePair;
+import org.cent.HttpClientDemo.util.template.RequestTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求构造开销基准测试（不发送请求），对比工具类按url逐次构造请求与预编译请求模板
+ * 结合gc分析器（gradle jmh默认附加）的gc.alloc.rate.norm对比每个请求的分配字节数：
+ * gradle jmh -PjmhArgs="RequestTemplateBenchmark"
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestTemplateBenchmark {
+
+    private static final String URL = "http://service.internal:8080/api/v1/items";
+
+    private Map<String, String> queryParams;
+    private Map<String, String> formParams;
+    private String body;
+    private RequestTemplate template;
+
+    @Setup
+    public void setUp() {
+        queryParams = new LinkedHashMap<>();
+        queryParams.put("id", "12345");
+        queryParams.put("fields", "name,price");
+        formParams = new LinkedHashMap<>();
+        formParams.put("user", "vincent");
+        formParams.put("action", "update item");
+        formParams.put("count", "3");
+        body = "{\"id\":12345,\"name\":\"item\"}";
+        template = RequestTemplate.builder(URL).header("accept", "application/json").build();
+    }
+
+    /**
+     * 与工具类get一致：URIBuilder解析url并附加参数，逐个添加请求头
+     */
+    @Benchmark
+    public HttpGet adHocGet() throws URISyntaxException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("accept", "application/json");
+        URIBuilder uriBuilder = new URIBuilder(URL);
+        for (Map.Entry<String, String> param : queryParams.entrySet()) {
+            uriBuilder.addParameter(param.getKey(), param.getValue());
+        }
+        HttpGet httpGet = new HttpGet(uriBuilder.build());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            httpGet.addHeader(header.getKey(), header.getValue());
+        }
+        return httpGet;
+    }
+
+    @Benchmark
+    public HttpGet templateGet() {
+        return template.newGet(queryParams);
+    }
+
+    /**
+     * 与工具类post一致：默认请求头HashMap，StringEntity，HttpPost解析url
+     */
+    @Benchmark
+    public HttpPost adHocPost() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("accept", "application/json");
+        headers.put("content-type", "text/plain; charset=UTF-8");
+        HttpPost httpPost = new HttpPost(URL);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            httpPost.addHeader(header.getKey(), header.getValue());
+        }
+        httpPost.setEntity(new StringEntity(body, "utf-8"));
+        return httpPost;
+    }
+
+    @Benchmark
+    public HttpPost templatePost() {
+        return template.newPost(body);
+    }
+
+    /**
+     * 与工具类postForm一致：NameValuePair列表，UrlEncodedFormEntity
+     */
+    @Benchmark
+    public HttpPost adHocPostForm() throws UnsupportedEncodingException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("accept", "application/json");
+        headers.put("content-type", "application/x-www-form-urlencoded; charset=UTF-8");
+        List<NameValuePair> pairList = new ArrayList<>();
+        for (Map.Entry<String, String> param : formParams.entrySet()) {
+            pairList.add(new BasicNameValuePair(param.getKey(), param.getValue()));
+        }
+        HttpPost httpPost = new HttpPost(URL);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            httpPost.addHeader(header.getKey(), header.getValue());
+        }
+        httpPost.setEntity(new UrlEncodedFormEntity(pairList));
+        return httpPost;
+    }
+
+    @Benchmark
+    public HttpPost templatePostForm() {
+        return template.newPostForm(formParams);
+    }
+}
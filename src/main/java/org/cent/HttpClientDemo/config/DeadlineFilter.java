@@ -0,0 +1,53 @@
+package org.cent.HttpClientDemo.config;
+
+import org.cent.HttpClientDemo.util.deadline.Deadline;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 入站请求截止时间：按X-Request-Timeout请求头（剩余毫秒数）或默认超时绑定到处理线程，
+ * 处理期间经工具类发出的请求共用该截止时间并继续向下游传播；到达时已到期直接返回504
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    // 未携带截止时间的入站请求的默认超时，为空时不限制
+    private final Duration defaultTimeout;
+
+    public DeadlineFilter(Duration defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Deadline deadline = Deadline.parse(request.getHeader(Deadline.HEADER));
+        if (deadline == null && defaultTimeout != null) {
+            deadline = Deadline.after(defaultTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (deadline == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (deadline.isExpired()) {
+            response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "deadline exceeded");
+            return;
+        }
+        Deadline.Scope scope = deadline.attach();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.cent.HttpClientDemo.config;
+
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 明文端口启用h2c（HTTP/1.1 Upgrade协商HTTP/2），供HTTP/2传输引擎在本地直接压测ApiController
+ * Spring Boot的server.http2.enabled只在启用ssl时为tomcat添加HTTP/2协议（h2），未启用ssl时由此补充
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "server.http2", name = "enabled", havingValue = "true")
+public class H2cServerConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> h2cCustomizer() {
+        return factory -> {
+            if (factory.getSsl() == null || !factory.getSsl().isEnabled()) {
+                factory.addConnectorCustomizers(connector -> {
+                    Http2Protocol http2 = new Http2Protocol();
+                    // 放大流控窗口（默认64KB）：上百个并发流同时上传数KB请求体时，默认窗口下tomcat与jdk客户端会互相等待窗口更新而卡死
+                    http2.setInitialWindowSize(1 << 20);
+                    connector.addUpgradeProtocol(http2);
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package org.cent.HttpClientDemo.config;
+
+import io.micrometer.core.instrument.Metrics;
+import org.cent.HttpClientDemo.util.MyClientRegistry;
+import org.cent.HttpClientDemo.util.MyHttpAsyncClientUtil;
+import org.cent.HttpClientDemo.util.MyHttpClientUtil;
+import org.cent.HttpClientDemo.util.balance.LoadBalancer;
+import org.cent.HttpClientDemo.util.callback.CallbackExecutor;
+import org.cent.HttpClientDemo.util.transport.Http2Transport;
+import org.cent.HttpClientDemo.util.transport.HttpTransport;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * http客户端Bean配置
+ * 工具类Bean随容器创建并持有连接池引用直到容器关闭，连接池不会因使用间隙引用计数归零而被反复销毁重建
+ * httpclient.transport.protocol=HTTP_2时两个工具类共享同一个HTTP/2传输引擎
+ * httpclient.callback.mode=WORKER（默认）时异步工具类的响应回调在有界回调线程池执行
+ * 入站请求的截止时间（X-Request-Timeout或httpclient.deadline.default-timeout）由DeadlineFilter绑定到处理线程，传播到出站请求
+ * httpclient.clients.<名称>.*配置的命名客户端由MyClientRegistry按名称获取，各自独立的连接池及请求策略，不使用传输引擎
+ * httpclient.services.<服务名>.*配置的逻辑服务由两个工具类及命名客户端共享的LoadBalancer在副本间负载均衡（lb://服务名/路径）
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "httpclient.transport", name = "protocol", havingValue = "HTTP_2")
+    public HttpTransport httpTransport(HttpClientProperties properties) {
+        HttpClientProperties.Transport transport = properties.getTransport();
+        return new Http2Transport(transport.getConnectTimeout().toMillis(), transport.getRequestTimeout().toMillis(),
+                transport.getMaxConcurrentStreams(), Metrics.globalRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "httpclient.callback", name = "mode", havingValue = "WORKER", matchIfMissing = true)
+    public CallbackExecutor callbackExecutor(HttpClientProperties properties) {
+        HttpClientProperties.Callback callback = properties.getCallback();
+        return new CallbackExecutor("httpclient-callback", callback.getThreads(), callback.getQueueCapacity(),
+                callback.getOverflow(), Metrics.globalRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public LoadBalancer loadBalancer(HttpClientProperties properties) {
+        LoadBalancer loadBalancer = new LoadBalancer(Metrics.globalRegistry);
+        properties.getServices().forEach((name, service) -> {
+            if (service.getFile() != null) {
+                loadBalancer.watch(name, Paths.get(service.getFile()), service.getRefreshPeriod().toMillis(),
+                        service.toConfig());
+            } else {
+                loadBalancer.register(name, service.getEndpoints(), service.toConfig());
+            }
+        });
+        return loadBalancer;
+    }
+
+    @Bean(destroyMethod = "close")
+    public MyHttpClientUtil myHttpClientUtil(HttpClientProperties properties, ObjectProvider<HttpTransport> transport,
+                                             LoadBalancer loadBalancer) {
+        MyHttpClientUtil httpClientUtil = new MyHttpClientUtil(properties.getPool().toConfig());
+        transport.ifAvailable(httpClientUtil::setTransport);
+        httpClientUtil.setLoadBalancer(loadBalancer);
+        return httpClientUtil;
+    }
+
+    @Bean(destroyMethod = "close")
+    public MyHttpAsyncClientUtil myHttpAsyncClientUtil(HttpClientProperties properties,
+                                                       ObjectProvider<HttpTransport> transport,
+                                                       ObjectProvider<CallbackExecutor> callbackExecutor,
+                                                       LoadBalancer loadBalancer) {
+        MyHttpAsyncClientUtil httpAsyncClientUtil = new MyHttpAsyncClientUtil(properties.getPool().toConfig());
+        transport.ifAvailable(httpAsyncClientUtil::setTransport);
+        callbackExecutor.ifAvailable(httpAsyncClientUtil::setCallbackExecutor);
+        httpAsyncClientUtil.setLoadBalancer(loadBalancer);
+        return httpAsyncClientUtil;
+    }
+
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(HttpClientProperties properties) {
+        FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(
+                new DeadlineFilter(properties.getDeadline().getDefaultTimeout()));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    @Bean(destroyMethod = "close")
+    public MyClientRegistry myClientRegistry(HttpClientProperties properties,
+                                             ObjectProvider<CallbackExecutor> callbackExecutor,
+                                             LoadBalancer loadBalancer) {
+        MyClientRegistry registry = new MyClientRegistry(properties.toClientConfigs());
+        properties.getClients().forEach((name, client) ->
+                registry.setPolicies(name, client.toPolicies(name, Metrics.globalRegistry)));
+        callbackExecutor.ifAvailable(registry::setCallbackExecutor);
+        registry.setLoadBalancer(loadBalancer);
+        return registry;
+    }
+
+    @Bean
+    public HttpClientLifecycle httpClientLifecycle(HttpClientProperties properties,
+                                                   MyHttpClientUtil httpClientUtil,
+                                                   MyHttpAsyncClientUtil httpAsyncClientUtil,
+                                                   MyClientRegistry clientRegistry) {
+        return new HttpClientLifecycle(properties, httpClientUtil, httpAsyncClientUtil, clientRegistry);
+    }
+}
@@ -0,0 +1,77 @@
+package org.cent.HttpClientDemo.config;
+
+import org.cent.HttpClientDemo.util.MyClientRegistry;
+import org.cent.HttpClientDemo.util.MyHttpAsyncClientUtil;
+import org.cent.HttpClientDemo.util.MyHttpClientUtil;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * http客户端生命周期管理
+ * 启动时向配置的路由预先建立连接，首批请求不承担DNS解析及建连（TLS握手）耗时；
+ * 停止时等待在途请求完成（不超过drainTimeout），之后容器再销毁客户端Bean关闭连接池
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class HttpClientLifecycle implements SmartLifecycle {
+
+    private final HttpClientProperties properties;
+    private final MyHttpClientUtil httpClientUtil;
+    private final MyHttpAsyncClientUtil httpAsyncClientUtil;
+    private final MyClientRegistry clientRegistry;
+    private volatile boolean running = false;
+
+    public HttpClientLifecycle(HttpClientProperties properties,
+                               MyHttpClientUtil httpClientUtil,
+                               MyHttpAsyncClientUtil httpAsyncClientUtil,
+                               MyClientRegistry clientRegistry) {
+        this.properties = properties;
+        this.httpClientUtil = httpClientUtil;
+        this.httpAsyncClientUtil = httpAsyncClientUtil;
+        this.clientRegistry = clientRegistry;
+    }
+
+    @Override
+    public void start() {
+        int connections = properties.getWarmup().getConnectionsPerRoute();
+        for (String route : properties.getWarmup().getRoutes()) {
+            int sync = httpClientUtil.warmUp(route, connections);
+            int async = httpAsyncClientUtil.warmUp(route, connections);
+            System.out.println("warm up " + route + ": sync=" + sync + "/" + connections + ", async=" + async + "/" + connections);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // 同步、异步及命名客户端共用一个截止时间
+        long deadline = System.nanoTime() + properties.getShutdown().getDrainTimeout().toNanos();
+        boolean drained = httpClientUtil.awaitIdle(remainingMillis(deadline))
+                & httpAsyncClientUtil.awaitIdle(remainingMillis(deadline))
+                & clientRegistry.awaitIdle(remainingMillis(deadline));
+        if (!drained) {
+            System.out.println("http client drain timeout, in flight: sync=" + httpClientUtil.getInFlight()
+                    + ", async=" + httpAsyncClientUtil.getInFlight() + ", named=" + clientRegistry.getInFlight());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 最先启动、最后停止：其他组件停止后才排空客户端请求
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE;
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+}
@@ -0,0 +1,692 @@
+package org.cent.HttpClientDemo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.cent.HttpClientDemo.util.MyClientPolicies;
+import org.cent.HttpClientDemo.util.balance.BalancingStrategy;
+import org.cent.HttpClientDemo.util.balance.LoadBalancerConfig;
+import org.cent.HttpClientDemo.util.breaker.CircuitBreaker;
+import org.cent.HttpClientDemo.util.breaker.CircuitBreakerConfig;
+import org.cent.HttpClientDemo.util.cache.HttpResponseCache;
+import org.cent.HttpClientDemo.util.cache.RequestCoalescer;
+import org.cent.HttpClientDemo.util.callback.CallbackExecutor;
+import org.cent.HttpClientDemo.util.compress.ContentCoding;
+import org.cent.HttpClientDemo.util.compress.RequestCompressor;
+import org.cent.HttpClientDemo.util.limit.AdmissionConfig;
+import org.cent.HttpClientDemo.util.limit.AdmissionController;
+import org.cent.HttpClientDemo.util.pool.ConnectionPoolConfig;
+import org.cent.HttpClientDemo.util.retry.RetryConfig;
+import org.cent.HttpClientDemo.util.retry.RetryExecutor;
+import org.cent.HttpClientDemo.util.transport.TransportProtocol;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * http客户端配置（httpclient.*）
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+@ConfigurationProperties(prefix = "httpclient")
+public class HttpClientProperties {
+
+    private final Transport transport = new Transport();
+    private final Pool pool = new Pool();
+    private final Callback callback = new Callback();
+    private final Warmup warmup = new Warmup();
+    private final Shutdown shutdown = new Shutdown();
+    private final Deadline deadline = new Deadline();
+    // 命名客户端（httpclient.clients.<名称>.*），各自独立的连接池及请求策略，未配置的项取默认值（不继承httpclient.pool）
+    private final Map<String, Client> clients = new LinkedHashMap<>();
+    // 逻辑服务（httpclient.services.<服务名>.*），请求地址写作lb://服务名/路径时在其副本间负载均衡
+    private final Map<String, Service> services = new LinkedHashMap<>();
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Callback getCallback() {
+        return callback;
+    }
+
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
+    public Shutdown getShutdown() {
+        return shutdown;
+    }
+
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    public Map<String, Client> getClients() {
+        return clients;
+    }
+
+    public Map<String, Service> getServices() {
+        return services;
+    }
+
+    /**
+     * 命名客户端的连接池配置
+     */
+    public Map<String, ConnectionPoolConfig> toClientConfigs() {
+        Map<String, ConnectionPoolConfig> configs = new LinkedHashMap<>();
+        clients.forEach((name, client) -> configs.put(name, client.toConfig()));
+        return configs;
+    }
+
+    /**
+     * 传输引擎：HTTP_1_1为内置HttpClient 4.x连接池，HTTP_2为多路复用的jdk HttpClient（须jdk11+）
+     */
+    public static class Transport {
+
+        private TransportProtocol protocol = TransportProtocol.HTTP_1_1;
+        // HTTP/2引擎建立连接超时
+        private Duration connectTimeout = Duration.ofSeconds(60);
+        // HTTP/2引擎请求超时（发送到收到响应头）
+        private Duration requestTimeout = Duration.ofSeconds(60);
+        // HTTP/2引擎每个路由最多在途流数，超出时本地排队
+        private int maxConcurrentStreams = 100;
+
+        public TransportProtocol getProtocol() {
+            return protocol;
+        }
+
+        public void setProtocol(TransportProtocol protocol) {
+            this.protocol = protocol;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        public void setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        public int getMaxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+
+        public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+    }
+
+    /**
+     * 连接池：容量、超时、IO线程数，及连接回收（空闲超时、最长存活时间、清理周期及租用前失效检查）
+     */
+    public static class Pool {
+
+        // 最大连接数
+        private int maxTotal = 100;
+        // 每路最大连接数
+        private int maxPerRoute = 100;
+        // 建连超时
+        private Duration connectTimeout = Duration.ofSeconds(60);
+        // 读取超时（数据包间隔）
+        private Duration socketTimeout = Duration.ofSeconds(60);
+        // 从连接池获取连接超时
+        private Duration connectionRequestTimeout = Duration.ofSeconds(3);
+        // IO线程数（仅异步客户端）
+        private int ioThreads = Runtime.getRuntime().availableProcessors();
+
+        // 空闲超时，响应未声明Keep-Alive时也以此作为保持时间
+        private Duration idleTimeout = Duration.ofSeconds(30);
+        // 连接最长存活时间，0为不限制
+        private Duration maxLifetime = Duration.ofMinutes(5);
+        // 后台清理周期
+        private Duration evictionPeriod = Duration.ofSeconds(5);
+        // 空闲超过该时间后租用前检查连接是否失效（仅同步客户端）
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public void setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+        }
+
+        public int getMaxPerRoute() {
+            return maxPerRoute;
+        }
+
+        public void setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = maxPerRoute;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getSocketTimeout() {
+            return socketTimeout;
+        }
+
+        public void setSocketTimeout(Duration socketTimeout) {
+            this.socketTimeout = socketTimeout;
+        }
+
+        public Duration getConnectionRequestTimeout() {
+            return connectionRequestTimeout;
+        }
+
+        public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+            this.connectionRequestTimeout = connectionRequestTimeout;
+        }
+
+        public int getIoThreads() {
+            return ioThreads;
+        }
+
+        public void setIoThreads(int ioThreads) {
+            this.ioThreads = ioThreads;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public Duration getMaxLifetime() {
+            return maxLifetime;
+        }
+
+        public void setMaxLifetime(Duration maxLifetime) {
+            this.maxLifetime = maxLifetime;
+        }
+
+        public Duration getEvictionPeriod() {
+            return evictionPeriod;
+        }
+
+        public void setEvictionPeriod(Duration evictionPeriod) {
+            this.evictionPeriod = evictionPeriod;
+        }
+
+        public Duration getValidateAfterInactivity() {
+            return validateAfterInactivity;
+        }
+
+        public void setValidateAfterInactivity(Duration validateAfterInactivity) {
+            this.validateAfterInactivity = validateAfterInactivity;
+        }
+
+        /**
+         * 转换为连接池配置
+         */
+        public ConnectionPoolConfig toConfig() {
+            ConnectionPoolConfig config = new ConnectionPoolConfig();
+            config.setMaxTotal(maxTotal);
+            config.setMaxPerRoute(maxPerRoute);
+            config.setConnectTimeoutMillis((int) connectTimeout.toMillis());
+            config.setSocketTimeoutMillis((int) socketTimeout.toMillis());
+            config.setConnectionRequestTimeoutMillis((int) connectionRequestTimeout.toMillis());
+            config.setIoThreadCount(ioThreads);
+            config.setIdleTimeoutMillis(idleTimeout.toMillis());
+            config.setMaxLifetimeMillis(maxLifetime.toMillis());
+            config.setEvictionPeriodMillis(evictionPeriod.toMillis());
+            config.setValidateAfterInactivityMillis((int) validateAfterInactivity.toMillis());
+            return config;
+        }
+    }
+
+    /**
+     * 命名客户端：连接池配置同{@link Pool}，另可启用各自的请求策略（重试及对冲、熔断、准入控制、响应缓存、请求合并、请求体压缩）
+     * 策略均默认关闭；重试及准入控制仅异步客户端支持，其余策略由同名的同步及异步客户端共享
+     */
+    public static class Client extends Pool {
+
+        private final Retry retry = new Retry();
+        private final Breaker breaker = new Breaker();
+        private final Admission admission = new Admission();
+        private final Cache cache = new Cache();
+        private final Coalesce coalesce = new Coalesce();
+        private final Compression compression = new Compression();
+
+        public Retry getRetry() {
+            return retry;
+        }
+
+        public Breaker getBreaker() {
+            return breaker;
+        }
+
+        public Admission getAdmission() {
+            return admission;
+        }
+
+        public Cache getCache() {
+            return cache;
+        }
+
+        public Coalesce getCoalesce() {
+            return coalesce;
+        }
+
+        public Compression getCompression() {
+            return compression;
+        }
+
+        /**
+         * 按已启用的策略创建请求策略实例
+         *
+         * @param name     客户端名称（响应缓存指标cache标签）
+         * @param registry 指标注册表
+         */
+        public MyClientPolicies toPolicies(String name, MeterRegistry registry) {
+            MyClientPolicies policies = new MyClientPolicies();
+            if (retry.isEnabled()) {
+                policies.setRetryExecutor(new RetryExecutor(retry, registry));
+            }
+            if (breaker.isEnabled()) {
+                policies.setCircuitBreaker(new CircuitBreaker(breaker, registry));
+            }
+            if (admission.isEnabled()) {
+                policies.setAdmissionController(new AdmissionController(admission));
+            }
+            if (cache.isEnabled()) {
+                policies.setResponseCache(new HttpResponseCache(name, cache.getMaxSize().toBytes(),
+                        cache.isOffHeap(), registry));
+            }
+            if (coalesce.isEnabled()) {
+                policies.setRequestCoalescer(new RequestCoalescer(coalesce.getKeyHeaders(), registry));
+            }
+            if (compression.isEnabled()) {
+                policies.setRequestCompressor(new RequestCompressor(compression.getCoding(), compression.getMinSize()));
+            }
+            return policies;
+        }
+
+        /**
+         * 幂等请求重试及对冲（仅异步客户端），配置项见{@link RetryConfig}
+         */
+        public static class Retry extends RetryConfig {
+
+            private boolean enabled = false;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+
+        /**
+         * 按路由熔断，配置项见{@link CircuitBreakerConfig}
+         */
+        public static class Breaker extends CircuitBreakerConfig {
+
+            private boolean enabled = false;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+
+        /**
+         * 按路由准入控制（仅异步客户端），配置项见{@link AdmissionConfig}
+         */
+        public static class Admission extends AdmissionConfig {
+
+            private boolean enabled = false;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+
+        /**
+         * get请求响应缓存
+         */
+        public static class Cache {
+
+            private boolean enabled = false;
+            // 缓存响应体总大小上限，超出时淘汰最久未访问的缓存
+            private DataSize maxSize = DataSize.ofMegabytes(64);
+            // 是否把响应体存放在堆外直接内存
+            private boolean offHeap = false;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public DataSize getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(DataSize maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public boolean isOffHeap() {
+                return offHeap;
+            }
+
+            public void setOffHeap(boolean offHeap) {
+                this.offHeap = offHeap;
+            }
+        }
+
+        /**
+         * 相同get请求合并
+         */
+        public static class Coalesce {
+
+            private boolean enabled = false;
+            // 参与合并key的请求头，值不同的请求不合并
+            private List<String> keyHeaders = new ArrayList<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public List<String> getKeyHeaders() {
+                return keyHeaders;
+            }
+
+            public void setKeyHeaders(List<String> keyHeaders) {
+                this.keyHeaders = keyHeaders;
+            }
+        }
+
+        /**
+         * 请求体压缩（上游须支持对应编码）
+         */
+        public static class Compression {
+
+            private boolean enabled = false;
+            // 压缩编码
+            private ContentCoding coding = ContentCoding.GZIP;
+            // 请求体不小于该字节数时压缩
+            private int minSize = 1024;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public ContentCoding getCoding() {
+                return coding;
+            }
+
+            public void setCoding(ContentCoding coding) {
+                this.coding = coding;
+            }
+
+            public int getMinSize() {
+                return minSize;
+            }
+
+            public void setMinSize(int minSize) {
+                this.minSize = minSize;
+            }
+        }
+    }
+
+    /**
+     * 异步客户端响应回调：在IO线程执行，或移到有界回调线程池执行
+     */
+    public static class Callback {
+
+        /**
+         * 回调执行位置
+         */
+        public enum Mode {
+            // IO线程直接执行，延迟最低，但慢回调会阻塞网络读写
+            IO_THREAD,
+            // 回调线程池执行
+            WORKER
+        }
+
+        private Mode mode = Mode.WORKER;
+        // 回调线程数
+        private int threads = Runtime.getRuntime().availableProcessors() * 2;
+        // 回调等待队列容量
+        private int queueCapacity = 10000;
+        // 队列满时的溢出策略
+        private CallbackExecutor.OverflowPolicy overflow = CallbackExecutor.OverflowPolicy.CALLER_RUNS;
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public CallbackExecutor.OverflowPolicy getOverflow() {
+            return overflow;
+        }
+
+        public void setOverflow(CallbackExecutor.OverflowPolicy overflow) {
+            this.overflow = overflow;
+        }
+    }
+
+    /**
+     * 启动预热：预解析域名并预先建立连接
+     */
+    public static class Warmup {
+
+        // 预热路由（协议+主机+端口），为空时不预热
+        private List<String> routes = new ArrayList<>();
+        // 每个路由预先建立的连接数
+        private int connectionsPerRoute = 2;
+
+        public List<String> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(List<String> routes) {
+            this.routes = routes;
+        }
+
+        public int getConnectionsPerRoute() {
+            return connectionsPerRoute;
+        }
+
+        public void setConnectionsPerRoute(int connectionsPerRoute) {
+            this.connectionsPerRoute = connectionsPerRoute;
+        }
+    }
+
+    /**
+     * 停止：等待在途请求完成后再关闭连接池
+     */
+    public static class Shutdown {
+
+        // 等待在途请求完成的最长时间，同步及异步客户端共用
+        private Duration drainTimeout = Duration.ofSeconds(10);
+
+        public Duration getDrainTimeout() {
+            return drainTimeout;
+        }
+
+        public void setDrainTimeout(Duration drainTimeout) {
+            this.drainTimeout = drainTimeout;
+        }
+    }
+
+    /**
+     * 入站请求截止时间：未携带X-Request-Timeout请求头时的默认超时，处理期间发出的请求共用
+     */
+    public static class Deadline {
+
+        // 默认超时，为空时不限制
+        private Duration defaultTimeout;
+
+        public Duration getDefaultTimeout() {
+            return defaultTimeout;
+        }
+
+        public void setDefaultTimeout(Duration defaultTimeout) {
+            this.defaultTimeout = defaultTimeout;
+        }
+    }
+
+    /**
+     * 逻辑服务：副本来源（静态列表或定期检查的文件）、选择策略及被动摘除异常副本
+     */
+    public static class Service {
+
+        // 副本地址（协议+主机+端口），设置了file时忽略
+        private List<String> endpoints = new ArrayList<>();
+        // 副本列表文件（每行一个地址，忽略空行及#注释），修改后自动重新读取
+        private String file;
+        // 检查副本列表文件是否修改的周期
+        private Duration refreshPeriod = Duration.ofSeconds(5);
+        // 选择策略：LEAST_OUTSTANDING（在途请求数）或EWMA（响应时间加权）
+        private BalancingStrategy strategy = BalancingStrategy.LEAST_OUTSTANDING;
+        // EWMA衰减时间常数
+        private Duration decay = Duration.ofSeconds(10);
+        // 连续失败该次数后摘除副本
+        private int consecutiveFailures = 5;
+        // 基础摘除时间，随连续被摘除次数倍增
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+        // 同时被摘除副本数占比上限（百分比）
+        private int maxEjectionPercent = 50;
+
+        public List<String> getEndpoints() {
+            return endpoints;
+        }
+
+        public void setEndpoints(List<String> endpoints) {
+            this.endpoints = endpoints;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public Duration getRefreshPeriod() {
+            return refreshPeriod;
+        }
+
+        public void setRefreshPeriod(Duration refreshPeriod) {
+            this.refreshPeriod = refreshPeriod;
+        }
+
+        public BalancingStrategy getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(BalancingStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        public Duration getDecay() {
+            return decay;
+        }
+
+        public void setDecay(Duration decay) {
+            this.decay = decay;
+        }
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public void setConsecutiveFailures(int consecutiveFailures) {
+            this.consecutiveFailures = consecutiveFailures;
+        }
+
+        public Duration getBaseEjectionTime() {
+            return baseEjectionTime;
+        }
+
+        public void setBaseEjectionTime(Duration baseEjectionTime) {
+            this.baseEjectionTime = baseEjectionTime;
+        }
+
+        public int getMaxEjectionPercent() {
+            return maxEjectionPercent;
+        }
+
+        public void setMaxEjectionPercent(int maxEjectionPercent) {
+            this.maxEjectionPercent = maxEjectionPercent;
+        }
+
+        /**
+         * 负载均衡配置
+         */
+        public LoadBalancerConfig toConfig() {
+            LoadBalancerConfig config = new LoadBalancerConfig();
+            config.setStrategy(strategy);
+            config.setDecayMillis(decay.toMillis());
+            config.setConsecutiveFailures(consecutiveFailures);
+            config.setBaseEjectionMillis(baseEjectionTime.toMillis());
+            config.setMaxEjectionPercent(maxEjectionPercent);
+            return config;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.cent.HttpClientDemo.config;
+
+import org.cent.HttpClientDemo.controller.LoadTestServlet;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 压测服务端配置，以loadtest profile启动（--spring.profiles.active=loadtest）
+ * 在/load/*注册异步servlet，作为基准测试及故障测试中高吞吐的上游替身，不经DispatcherServlet及消息转换
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+@Configuration
+@Profile("loadtest")
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestConfig {
+
+    @Bean
+    public ServletRegistrationBean<LoadTestServlet> loadTestServlet(LoadTestProperties properties) {
+        ServletRegistrationBean<LoadTestServlet> registration =
+                new ServletRegistrationBean<>(new LoadTestServlet(properties), "/load/*");
+        registration.setAsyncSupported(true);
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+}
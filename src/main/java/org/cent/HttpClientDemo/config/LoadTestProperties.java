@@ -0,0 +1,133 @@
+package org.cent.HttpClientDemo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 压测服务端配置（loadtest.*），仅loadtest profile生效
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+@ConfigurationProperties(prefix = "loadtest")
+public class LoadTestProperties {
+
+    // /load/bytes默认响应体字节数，可由请求参数size覆盖
+    private int responseSize = 1024;
+    // 响应体字节数上限（预先生成的响应内容大小）
+    private int maxResponseSize = 16 * 1024 * 1024;
+    // 注入错误的比例（0~1），命中时不处理请求体直接返回errorStatus
+    private double errorRate = 0;
+    private int errorStatus = 503;
+    private final Latency latency = new Latency();
+
+    public int getResponseSize() {
+        return responseSize;
+    }
+
+    public void setResponseSize(int responseSize) {
+        this.responseSize = responseSize;
+    }
+
+    public int getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    public void setMaxResponseSize(int maxResponseSize) {
+        this.maxResponseSize = maxResponseSize;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    public Latency getLatency() {
+        return latency;
+    }
+
+    /**
+     * 延迟分布
+     */
+    public enum Distribution {
+        // 固定为mean
+        FIXED,
+        // [0, 2*mean)均匀分布
+        UNIFORM,
+        // 均值为mean的指数分布（长尾）
+        EXPONENTIAL
+    }
+
+    /**
+     * 注入的响应延迟，延迟期间不占用容器线程
+     */
+    public static class Latency {
+
+        private Distribution distribution = Distribution.FIXED;
+        private Duration mean = Duration.ZERO;
+        // 延迟上限，截断长尾
+        private Duration max = Duration.ofSeconds(10);
+
+        public Distribution getDistribution() {
+            return distribution;
+        }
+
+        public void setDistribution(Distribution distribution) {
+            this.distribution = distribution;
+        }
+
+        public Duration getMean() {
+            return mean;
+        }
+
+        public void setMean(Duration mean) {
+            this.mean = mean;
+        }
+
+        public Duration getMax() {
+            return max;
+        }
+
+        public void setMax(Duration max) {
+            this.max = max;
+        }
+
+        /**
+         * 按分布抽样一次延迟
+         *
+         * @return 延迟微秒数，不超过max
+         */
+        public long sampleMicros() {
+            long meanMicros = mean.toNanos() / 1000;
+            if (meanMicros <= 0) {
+                return 0;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long micros;
+            switch (distribution) {
+                case UNIFORM:
+                    micros = random.nextLong(2 * meanMicros);
+                    break;
+                case EXPONENTIAL:
+                    micros = (long) (-meanMicros * Math.log(1 - random.nextDouble()));
+                    break;
+                default:
+                    micros = meanMicros;
+            }
+            return Math.min(micros, max.toNanos() / 1000);
+        }
+    }
+}
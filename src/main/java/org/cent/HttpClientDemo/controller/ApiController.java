@@ -1,6 +1,12 @@
 package org.cent.HttpClientDemo.controller;
 
 import org.apache.http.HttpRequest;
+import org.cent.HttpClientDemo.util.MyHttpClientUtil;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.cent.HttpClientDemo.util.deadline.Deadline;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
@@ -15,6 +21,12 @@ import java.util.Map;
 @RestController
 public class ApiController {
 
+    private final MyHttpClientUtil httpClientUtil;
+
+    public ApiController(MyHttpClientUtil httpClientUtil) {
+        this.httpClientUtil = httpClientUtil;
+    }
+
     @PostMapping("/post-json")
     public Map<String, Object> postJson(@RequestBody Map<String, Object> json) {
         System.out.println(json.toString());
@@ -26,4 +38,22 @@ public class ApiController {
         System.out.println(reqbody);
         return reqbody;
     }
+
+    /**
+     * 经同步工具类把json转发到本服务/post-json，入站请求的截止时间（X-Request-Timeout）随出站请求传播
+     * 截止时间已到时返回504，其他转发失败返回502
+     */
+    @PostMapping("/relay-json")
+    public ResponseEntity<String> relayJson(@RequestBody String json, HttpServletRequest request) {
+        String url = "http://localhost:" + request.getLocalPort() + "/post-json";
+        MyHttpResponse response = httpClientUtil.postJson(url, null, json);
+        if (response == null) {
+            Deadline deadline = Deadline.current();
+            return ResponseEntity.status(deadline != null && deadline.isExpired()
+                    ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY).build();
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.getBodyAsString());
+    }
 }
@@ -0,0 +1,336 @@
+package org.cent.HttpClientDemo.controller;
+
+import org.cent.HttpClientDemo.config.LoadTestProperties;
+import org.cent.HttpClientDemo.util.MyBufferPool;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 压测服务端servlet（loadtest profile），请求体流式回显或丢弃，不整体读入内存、不打印
+ * <ul>
+ * <li>/load/echo：请求体原样流式回显，保留content-type</li>
+ * <li>/load/discard：读取并丢弃请求体，返回204</li>
+ * <li>/load/bytes?size=N：丢弃请求体，返回N字节响应体（默认loadtest.response-size）</li>
+ * </ul>
+ * 请求转为servlet异步，请求体及响应体以非阻塞IO（ReadListener/WriteListener）读写，等待客户端收发时不占用容器线程，
+ * 慢客户端不会耗尽容器线程池
+ * 按loadtest.latency注入延迟：由单个定时线程到期后交回容器线程池处理
+ * 按loadtest.error-rate注入错误：命中的请求（延迟后）直接返回loadtest.error-status
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class LoadTestServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private final LoadTestProperties properties;
+    private final MyBufferPool bufferPool = MyBufferPool.DEFAULT;
+    // 预先生成的响应内容，/load/bytes按size截取前N字节
+    private byte[] payload;
+    private ScheduledThreadPoolExecutor scheduler;
+
+    public LoadTestServlet(LoadTestProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 请求处理者（内部使用），注册读写监听器后立即返回，处理完成时结束异步请求
+     */
+    private interface Handler {
+        void handle(AsyncContext async) throws IOException;
+    }
+
+    /**
+     * 请求体读完后的动作（内部使用）
+     */
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    @Override
+    public void init() {
+        payload = new byte[properties.getMaxResponseSize()];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) ('a' + i % 26);
+        }
+        scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "loadtest-latency");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Handler handler;
+        String path = request.getPathInfo();
+        if ("/echo".equals(path)) {
+            handler = this::echo;
+        } else if ("/discard".equals(path)) {
+            handler = this::discard;
+        } else if ("/bytes".equals(path)) {
+            handler = this::bytes;
+        } else {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        double errorRate = properties.getErrorRate();
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            handler = this::error;
+        }
+
+        AsyncContext async = request.startAsync();
+        async.setTimeout(0);
+        long delayMicros = properties.getLatency().sampleMicros();
+        if (delayMicros <= 0) {
+            start(handler, async);
+            return;
+        }
+
+        // 延迟期间释放容器线程，到期后在容器线程池继续处理
+        Handler delayed = handler;
+        scheduler.schedule(() -> async.start(() -> start(delayed, async)), delayMicros, TimeUnit.MICROSECONDS);
+    }
+
+    private static void start(Handler handler, AsyncContext async) {
+        try {
+            handler.handle(async);
+        } catch (IOException | RuntimeException e) {
+            // 客户端已断开
+            async.complete();
+        }
+    }
+
+    private void echo(AsyncContext async) throws IOException {
+        HttpServletRequest request = (HttpServletRequest) async.getRequest();
+        HttpServletResponse response = (HttpServletResponse) async.getResponse();
+        if (request.getContentType() != null) {
+            response.setContentType(request.getContentType());
+        }
+        long length = request.getContentLengthLong();
+        if (length >= 0) {
+            response.setContentLengthLong(length);
+        }
+        Echo echo = new Echo(async);
+        echo.in.setReadListener(echo);
+        echo.out.setWriteListener(echo);
+    }
+
+    private void discard(AsyncContext async) throws IOException {
+        HttpServletResponse response = (HttpServletResponse) async.getResponse();
+        drain(async, () -> {
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            async.complete();
+        });
+    }
+
+    private void bytes(AsyncContext async) throws IOException {
+        HttpServletRequest request = (HttpServletRequest) async.getRequest();
+        HttpServletResponse response = (HttpServletResponse) async.getResponse();
+        int size = properties.getResponseSize();
+        String sizeParam = request.getParameter("size");
+        if (sizeParam != null) {
+            try {
+                size = Integer.parseInt(sizeParam);
+            } catch (NumberFormatException e) {
+                size = -1;
+            }
+            if (size < 0 || size > payload.length) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "size must be between 0 and " + payload.length);
+                async.complete();
+                return;
+            }
+        }
+        int length = size;
+        drain(async, () -> {
+            response.setContentType("application/octet-stream");
+            response.setContentLength(length);
+            response.getOutputStream().setWriteListener(new Send(async, payload, length));
+        });
+    }
+
+    private void error(AsyncContext async) {
+        HttpServletResponse response = (HttpServletResponse) async.getResponse();
+        response.setStatus(properties.getErrorStatus());
+        response.setContentLength(0);
+        async.complete();
+    }
+
+    /**
+     * 非阻塞读取并丢弃请求体，读完后执行then，连接可继续复用
+     */
+    private void drain(AsyncContext async, Action then) throws IOException {
+        ServletInputStream in = async.getRequest().getInputStream();
+        Drain drain = new Drain(async, in, then);
+        in.setReadListener(drain);
+        // 没有请求体时容器不回调onAllDataRead
+        if (in.isFinished()) {
+            drain.onAllDataRead();
+        }
+    }
+
+    /**
+     * 丢弃请求体的读监听器，读完或出错时只处理一次
+     */
+    private final class Drain implements ReadListener {
+
+        private final AsyncContext async;
+        private final ServletInputStream in;
+        private final Action then;
+        private byte[] buffer = bufferPool.acquire();
+
+        Drain(AsyncContext async, ServletInputStream in, Action then) {
+            this.async = async;
+            this.in = in;
+            this.then = then;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            while (in.isReady() && in.read(buffer) != -1) {
+                // 丢弃
+            }
+        }
+
+        @Override
+        public void onAllDataRead() throws IOException {
+            if (release()) {
+                then.run();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (release()) {
+                async.complete();
+            }
+        }
+
+        private synchronized boolean release() {
+            if (buffer == null) {
+                return false;
+            }
+            bufferPool.release(buffer);
+            buffer = null;
+            return true;
+        }
+    }
+
+    /**
+     * 非阻塞回显：请求体可读且响应可写时搬运一块，响应不可写时暂停读取（背压），读完且写出后结束
+     * 读写回调由容器串行调用，状态仍加锁以防万一
+     */
+    private final class Echo implements ReadListener, WriteListener {
+
+        private final AsyncContext async;
+        private final ServletInputStream in;
+        private final ServletOutputStream out;
+        private byte[] buffer;
+
+        Echo(AsyncContext async) throws IOException {
+            this.async = async;
+            this.in = async.getRequest().getInputStream();
+            this.out = async.getResponse().getOutputStream();
+            this.buffer = bufferPool.acquire();
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            pump();
+        }
+
+        @Override
+        public void onAllDataRead() throws IOException {
+            pump();
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            pump();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            finish();
+        }
+
+        private synchronized void pump() throws IOException {
+            while (buffer != null && out.isReady()) {
+                if (in.isFinished()) {
+                    finish();
+                    return;
+                }
+                if (!in.isReady()) {
+                    return;
+                }
+                int read = in.read(buffer);
+                if (read > 0) {
+                    out.write(buffer, 0, read);
+                }
+            }
+        }
+
+        private synchronized void finish() {
+            if (buffer == null) {
+                return;
+            }
+            bufferPool.release(buffer);
+            buffer = null;
+            async.complete();
+        }
+    }
+
+    /**
+     * 非阻塞写出响应体：响应可写时写出一块，全部写出且可写（已发送）后结束
+     */
+    private final class Send implements WriteListener {
+
+        private final AsyncContext async;
+        private final byte[] data;
+        private final int length;
+        private int offset;
+
+        Send(AsyncContext async, byte[] data, int length) {
+            this.async = async;
+            this.data = data;
+            this.length = length;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            ServletOutputStream out = async.getResponse().getOutputStream();
+            while (out.isReady()) {
+                if (offset == length) {
+                    async.complete();
+                    return;
+                }
+                int chunk = Math.min(bufferPool.getBufferSize(), length - offset);
+                out.write(data, offset, chunk);
+                offset += chunk;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            async.complete();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package org.cent.HttpClientDemo.loadgen;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import org.cent.HttpClientDemo.util.MyExecutors;
+import org.cent.HttpClientDemo.util.MyHttpAsyncClientUtil;
+import org.cent.HttpClientDemo.util.MyHttpClientUtil;
+import org.cent.HttpClientDemo.util.MyHttpRequest;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * 开放模型压测工具：按固定到达速率发送请求，不因响应变慢而降低发送速率
+ * 每个请求的延迟从其计划发送时刻起算（修正协调遗漏），同时记录从实际发送时刻起算的服务时间
+ * 用法：gradle loadgen -PloadgenArgs="--url=http://localhost:8080/load/echo --rate=1000 --duration=30s --body=hello"
+ * <pre>
+ * --url=URL              目标地址（必填）
+ * --rate=N               每秒请求数，默认100
+ * --duration=30s         测量时长，默认30s
+ * --warmup=5s            预热时长（照常发送但不计入结果），默认0
+ * --client=async|sync    使用的工具类，默认async；sync经submit在调用线程池（jdk21+为虚拟线程）中发送
+ * --method=GET|POST      默认GET，指定body时默认POST
+ * --body=TEXT            请求体
+ * --header=Name:Value    请求头，可重复
+ * --max-in-flight=N      最多在途请求数，超出时丢弃并计为dropped，默认10000
+ * --report-interval=1s   周期报告间隔，默认1s
+ * --json=PATH            结果json输出文件（含完整直方图，用于回归对比）
+ * </pre>
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class LoadGenerator {
+
+    private final MyHttpRequest request;
+    private final Function<MyHttpRequest, CompletableFuture<MyHttpResponse>> sender;
+    private final double rate;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // 计入结果的在途请求，测量结束后等待超时仍未完成的按超时记录
+    private final Set<Pending> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param request     请求描述
+     * @param sender      发送请求，返回异步响应结果
+     * @param rate        每秒请求数
+     * @param warmup      预热时长
+     * @param duration    测量时长
+     * @param maxInFlight 最多在途请求数
+     */
+    public LoadGenerator(MyHttpRequest request, Function<MyHttpRequest, CompletableFuture<MyHttpResponse>> sender,
+                         double rate, Duration warmup, Duration duration, int maxInFlight) {
+        this.request = request;
+        this.sender = sender;
+        this.rate = rate;
+        this.warmupNanos = warmup.toNanos();
+        this.durationNanos = duration.toNanos();
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * 执行压测，阻塞直到测量时长结束且在途请求完成（最多再等待drainTimeout）
+     * 等待超时仍在途的请求按超时记录，延迟截至放弃等待时刻，之后才完成的请求不再记录
+     *
+     * @param out            周期报告输出流，为空时不输出
+     * @param reportInterval 周期报告间隔
+     * @param drainTimeout   测量结束后等待在途请求完成的最长时间
+     * @return 压测结果
+     */
+    public LoadReport run(PrintStream out, Duration reportInterval, Duration drainTimeout) {
+        LoadReport report = new LoadReport();
+        long start = System.nanoTime();
+        long measureStart = start + warmupNanos;
+        long end = measureStart + durationNanos;
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(
+                MyExecutors.daemonThreadFactory("loadgen-report"));
+        long periodNanos = reportInterval.toNanos();
+        reporter.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            if (now >= measureStart) {
+                report.interval(out, (now - measureStart) / 1e9, periodNanos / 1e9);
+            }
+        }, warmupNanos + periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+
+        try {
+            // 按计划时刻发送，计划时刻由序号计算，发送滞后不累积为速率下降
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * 1e9 / rate);
+                if (intended >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = intended >= measureStart;
+                if (inFlight.get() >= maxInFlight) {
+                    if (measured) {
+                        report.dropped();
+                    }
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                long sent = System.nanoTime();
+                Pending tracked = measured ? new Pending(intended, sent) : null;
+                if (tracked != null) {
+                    pending.add(tracked);
+                }
+                CompletableFuture<MyHttpResponse> future;
+                try {
+                    future = sender.apply(request);
+                } catch (RuntimeException e) {
+                    future = new CompletableFuture<>();
+                    future.completeExceptionally(e);
+                }
+                future.whenComplete((response, ex) -> {
+                    long done = System.nanoTime();
+                    inFlight.decrementAndGet();
+                    if (tracked != null && tracked.claim()) {
+                        pending.remove(tracked);
+                        report.record(intended, sent, done, response, ex);
+                    }
+                });
+            }
+
+            long deadline = System.nanoTime() + drainTimeout.toNanos();
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+            long now = System.nanoTime();
+            for (Pending tracked : pending) {
+                if (tracked.claim()) {
+                    report.timedOut(tracked.intended, tracked.sent, now);
+                }
+            }
+            pending.clear();
+        } finally {
+            reporter.shutdownNow();
+        }
+        report.finish(Math.max(System.nanoTime(), end) - measureStart);
+        return report;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                usage("invalid argument: " + arg);
+                return;
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if ("header".equals(key)) {
+                int colon = value.indexOf(':');
+                if (colon <= 0) {
+                    usage("invalid header: " + value);
+                    return;
+                }
+                headers.put(value.substring(0, colon).trim(), value.substring(colon + 1).trim());
+            } else {
+                options.put(key, value);
+            }
+        }
+        String url = options.get("url");
+        if (url == null) {
+            usage("--url is required");
+            return;
+        }
+        String body = options.get("body");
+        String method = options.getOrDefault("method", body == null ? MyHttpRequest.GET : MyHttpRequest.POST).toUpperCase();
+        MyHttpRequest request = MyHttpRequest.GET.equals(method)
+                ? MyHttpRequest.get(url, headers.isEmpty() ? null : headers, null)
+                : MyHttpRequest.post(url, headers.isEmpty() ? null : headers, body == null ? "" : body);
+        double rate = Double.parseDouble(options.getOrDefault("rate", "100"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "0s"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "30s"));
+        Duration reportInterval = DurationStyle.detectAndParse(options.getOrDefault("report-interval", "1s"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "10000"));
+        String client = options.getOrDefault("client", "async");
+
+        System.out.printf("%s %s at %.1f req/s for %ss (warmup %ss), %s client%n", method, url, rate,
+                duration.getSeconds(), warmup.getSeconds(), client);
+        LoadReport report;
+        if ("sync".equals(client)) {
+            try (MyHttpClientUtil myHttpClientUtil = new MyHttpClientUtil()) {
+                report = new LoadGenerator(request, myHttpClientUtil::submit, rate, warmup, duration, maxInFlight)
+                        .run(System.out, reportInterval, Duration.ofSeconds(30));
+            }
+        } else {
+            try (MyHttpAsyncClientUtil myHttpAsyncClientUtil = new MyHttpAsyncClientUtil()) {
+                report = new LoadGenerator(request, myHttpAsyncClientUtil::execute, rate, warmup, duration, maxInFlight)
+                        .run(System.out, reportInterval, Duration.ofSeconds(30));
+            }
+        }
+        report.print(System.out);
+
+        String jsonPath = options.get("json");
+        if (jsonPath != null) {
+            JSONObject json = new JSONObject(true);
+            json.put("url", url);
+            json.put("method", method);
+            json.put("client", client);
+            json.put("targetRate", rate);
+            json.putAll(report.toJson());
+            Files.write(Paths.get(jsonPath), JSON.toJSONString(json, SerializerFeature.PrettyFormat).getBytes(StandardCharsets.UTF_8));
+            System.out.println("results written to " + jsonPath);
+        }
+    }
+
+    /**
+     * 计入结果的在途请求，完成回调与等待超时只有先认领的一方记录
+     */
+    private static final class Pending {
+
+        private final long intended;
+        private final long sent;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        Pending(long intended, long sent) {
+            this.intended = intended;
+            this.sent = sent;
+        }
+
+        boolean claim() {
+            return recorded.compareAndSet(false, true);
+        }
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("usage: LoadGenerator --url=URL [--rate=100] [--duration=30s] [--warmup=0s] [--client=async|sync]"
+                + " [--method=GET|POST] [--body=TEXT] [--header=Name:Value]... [--max-in-flight=10000]"
+                + " [--report-interval=1s] [--json=PATH]");
+    }
+}
@@ -0,0 +1,226 @@
+package org.cent.HttpClientDemo.loadgen;
+
+import com.alibaba.fastjson.JSONObject;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 压测结果统计，线程安全
+ * 同时记录两种延迟（微秒）：按计划发送时刻计算的修正延迟（包含压测端排队、发送滞后，消除协调遗漏），
+ * 及按实际发送时刻计算的服务时间；二者差距大说明请求在客户端（连接池、调用线程）排队
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class LoadReport {
+
+    // 可记录的最大延迟（微秒），超出按最大值记录
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double[] PERCENTILES = {50, 75, 90, 99, 99.9, 99.99};
+
+    private final Recorder corrected = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Recorder uncorrected = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram totalCorrected = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram totalUncorrected = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private long elapsedNanos;
+    // finish之后到达的结果不再记录
+    private volatile boolean finished;
+
+    /**
+     * 记录一个完成的请求
+     *
+     * @param intendedNanos 计划发送时刻
+     * @param sentNanos     实际发送时刻
+     * @param doneNanos     完成时刻
+     * @param response      响应结果，同步客户端请求异常时为null
+     * @param ex            异步请求异常，成功时为null
+     */
+    public void record(long intendedNanos, long sentNanos, long doneNanos, MyHttpResponse response, Throwable ex) {
+        if (finished) {
+            return;
+        }
+        corrected.recordValue(toMicros(doneNanos - intendedNanos));
+        uncorrected.recordValue(toMicros(doneNanos - sentNanos));
+        completed.increment();
+        String error = classify(response, ex);
+        if (error != null) {
+            errors.computeIfAbsent(error, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * 记录一个测量结束后等待超时仍未完成的请求，延迟截至当前时刻计算（实际延迟不小于此值），计为timeout错误
+     *
+     * @param intendedNanos 计划发送时刻
+     * @param sentNanos     实际发送时刻
+     * @param nowNanos      放弃等待的时刻
+     */
+    public void timedOut(long intendedNanos, long sentNanos, long nowNanos) {
+        if (finished) {
+            return;
+        }
+        corrected.recordValue(toMicros(nowNanos - intendedNanos));
+        uncorrected.recordValue(toMicros(nowNanos - sentNanos));
+        completed.increment();
+        errors.computeIfAbsent("timeout", k -> new LongAdder()).increment();
+    }
+
+    /**
+     * 记录一个因在途请求数达到上限而未发送的请求（压测端过载，计入错误而非延迟）
+     */
+    public void dropped() {
+        dropped.increment();
+    }
+
+    /**
+     * 汇总本周期数据并输出一行周期报告，由报告线程定时调用
+     *
+     * @param out        输出流
+     * @param elapsedSec 压测已进行秒数
+     * @param periodSec  周期秒数
+     */
+    public synchronized void interval(PrintStream out, double elapsedSec, double periodSec) {
+        Histogram period = corrected.getIntervalHistogram();
+        totalCorrected.add(period);
+        totalUncorrected.add(uncorrected.getIntervalHistogram());
+        long count = period.getTotalCount();
+        if (out != null) {
+            out.printf("%7.1fs %10.1f req/s  p50 %9.3f  p99 %9.3f  max %9.3f ms  errors %d%n", elapsedSec,
+                    count / periodSec, millis(period.getValueAtPercentile(50)), millis(period.getValueAtPercentile(99)),
+                    millis(period.getMaxValue()), getErrorCount());
+        }
+    }
+
+    /**
+     * 结束统计，汇总剩余数据，之后到达的结果不再记录
+     *
+     * @param elapsedNanos 测量时长（不含预热）
+     */
+    public synchronized void finish(long elapsedNanos) {
+        finished = true;
+        interval(null, 0, 1);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getErrorCount() {
+        long count = dropped.sum();
+        for (LongAdder adder : errors.values()) {
+            count += adder.sum();
+        }
+        return count;
+    }
+
+    /**
+     * 输出最终报告
+     *
+     * @param out 输出流
+     */
+    public synchronized void print(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("completed %d in %.1fs, %.1f req/s, errors %d, dropped %d%n", getCompleted(), seconds,
+                getCompleted() / seconds, getErrorCount() - getDropped(), getDropped());
+        for (Map.Entry<String, Long> error : errorBreakdown().entrySet()) {
+            out.printf("  %-40s %d%n", error.getKey(), error.getValue());
+        }
+        out.println("latency (ms)      corrected    service");
+        for (double percentile : PERCENTILES) {
+            out.printf("  p%-8s %12.3f %10.3f%n", format(percentile),
+                    millis(totalCorrected.getValueAtPercentile(percentile)),
+                    millis(totalUncorrected.getValueAtPercentile(percentile)));
+        }
+        out.printf("  %-9s %12.3f %10.3f%n", "max", millis(totalCorrected.getMaxValue()), millis(totalUncorrected.getMaxValue()));
+        out.printf("  %-9s %12.3f %10.3f%n", "mean", totalCorrected.getMean() / 1000, totalUncorrected.getMean() / 1000);
+    }
+
+    /**
+     * 生成json结果，含完整直方图（HdrHistogram压缩编码后base64）便于回归对比时重新计算任意分位
+     *
+     * @return json结果
+     */
+    public synchronized JSONObject toJson() {
+        JSONObject json = new JSONObject(true);
+        json.put("durationSeconds", elapsedNanos / 1e9);
+        json.put("completed", getCompleted());
+        json.put("throughput", getCompleted() / (elapsedNanos / 1e9));
+        json.put("errors", getErrorCount() - getDropped());
+        json.put("dropped", getDropped());
+        json.put("errorBreakdown", errorBreakdown());
+        json.put("latencyMillis", latencyJson(totalCorrected));
+        json.put("serviceTimeMillis", latencyJson(totalUncorrected));
+        return json;
+    }
+
+    private Map<String, Long> errorBreakdown() {
+        Map<String, Long> breakdown = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> error : errors.entrySet()) {
+            breakdown.put(error.getKey(), error.getValue().sum());
+        }
+        return breakdown;
+    }
+
+    private static JSONObject latencyJson(Histogram histogram) {
+        JSONObject json = new JSONObject(true);
+        for (double percentile : PERCENTILES) {
+            json.put("p" + format(percentile), millis(histogram.getValueAtPercentile(percentile)));
+        }
+        json.put("max", millis(histogram.getMaxValue()));
+        json.put("mean", histogram.getMean() / 1000);
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        json.put("histogram", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        return json;
+    }
+
+    /**
+     * 错误分类：非2xx响应按状态码，异常按异常类型，成功返回null
+     */
+    private static String classify(MyHttpResponse response, Throwable ex) {
+        if (ex != null) {
+            while ((ex instanceof CompletionException || ex instanceof ExecutionException) && ex.getCause() != null) {
+                ex = ex.getCause();
+            }
+            return ex.getClass().getSimpleName();
+        }
+        if (response == null) {
+            return "exception";
+        }
+        return response.isSuccess() ? null : "HTTP " + response.getStatusCode();
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.max(0, Math.min(nanos / 1000, HIGHEST_TRACKABLE_MICROS));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.floor(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
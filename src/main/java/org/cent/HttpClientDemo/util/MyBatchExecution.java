@@ -0,0 +1,135 @@
+package org.cent.HttpClientDemo.util;
+
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 限制并发数的批量异步请求执行（内部使用）
+ * 最多maxInFlight个请求同时在途，每完成一个再从迭代器取下一个发送，请求按需逐个生成不必全部预先构造；
+ * 完成回调在IO线程上直接续发下一个请求，不为每个请求占用阻塞线程
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class MyBatchExecution {
+
+    private final Iterator<MyHttpRequest> requests;
+    private final Function<MyHttpRequest, CompletableFuture<MyHttpResponse>> executor;
+    private final Consumer<MyBatchResult> onEach;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    // 以下状态由this加锁保护
+    private int nextIndex;
+    private int inFlight;
+    private boolean exhausted;
+
+    /**
+     * @param requests 请求迭代器，仅在加锁后访问，无需线程安全
+     * @param executor 单个请求执行方法
+     * @param onEach   单个请求完成回调（按完成顺序）
+     */
+    MyBatchExecution(Iterator<MyHttpRequest> requests,
+                     Function<MyHttpRequest, CompletableFuture<MyHttpResponse>> executor,
+                     Consumer<MyBatchResult> onEach) {
+        this.requests = requests;
+        this.executor = executor;
+        this.onEach = onEach;
+    }
+
+    /**
+     * 开始执行，同时启动maxInFlight个发送槽位
+     *
+     * @param maxInFlight 最大在途请求数
+     * @return 全部请求完成（无论成败）时完成，请求迭代器异常时异常完成
+     */
+    CompletableFuture<Void> start(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        for (int i = 0; i < maxInFlight && !done.isDone(); i++) {
+            launchNext();
+        }
+        return done;
+    }
+
+    /**
+     * 当前槽位发送下一个请求；同步完成的请求（如url格式错误）在循环内继续，避免递归过深
+     */
+    private void launchNext() {
+        while (true) {
+            MyHttpRequest request;
+            int index;
+            synchronized (this) {
+                if (exhausted || !hasNext()) {
+                    exhausted = true;
+                    if (inFlight == 0) {
+                        done.complete(null);
+                    }
+                    return;
+                }
+                try {
+                    request = requests.next();
+                } catch (RuntimeException e) {
+                    // 请求生成异常时不再发送后续请求，在途请求照常完成
+                    exhausted = true;
+                    done.completeExceptionally(e);
+                    return;
+                }
+                index = nextIndex++;
+                inFlight++;
+            }
+
+            CompletableFuture<MyHttpResponse> future;
+            try {
+                future = executor.apply(request);
+            } catch (RuntimeException e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+
+            if (!future.isDone()) {
+                future.whenComplete((response, ex) -> {
+                    complete(index, request, response, ex);
+                    launchNext();
+                });
+                return;
+            }
+            MyHttpResponse response = null;
+            Throwable error = null;
+            try {
+                response = future.join();
+            } catch (CompletionException | CancellationException e) {
+                error = e;
+            }
+            complete(index, request, response, error);
+        }
+    }
+
+    private boolean hasNext() {
+        try {
+            return requests.hasNext();
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+            return false;
+        }
+    }
+
+    private void complete(int index, MyHttpRequest request, MyHttpResponse response, Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        try {
+            onEach.accept(new MyBatchResult(index, request, response, error));
+        } catch (RuntimeException e) {
+            // 回调异常不影响其他请求
+            e.printStackTrace();
+        }
+        synchronized (this) {
+            inFlight--;
+        }
+    }
+}
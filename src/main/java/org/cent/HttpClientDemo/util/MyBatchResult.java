@@ -0,0 +1,60 @@
+package org.cent.HttpClientDemo.util;
+
+/**
+ * 批量请求中单个请求的结果，成功时含响应，失败时含异常，互不影响
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class MyBatchResult {
+
+    private final int index;
+    private final MyHttpRequest request;
+    private final MyHttpResponse response;
+    private final Throwable error;
+
+    MyBatchResult(int index, MyHttpRequest request, MyHttpResponse response, Throwable error) {
+        this.index = index;
+        this.request = request;
+        this.response = response;
+        this.error = error;
+    }
+
+    /**
+     * 请求在批量中的序号（从0开始，按提交顺序）
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public MyHttpRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * 响应结果，请求失败时为null
+     */
+    public MyHttpResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * 请求异常，请求成功（收到响应，无论状态码）时为null
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * 是否收到响应（不判断状态码）
+     */
+    public boolean isCompleted() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "MyBatchResult{index=" + index + ", request=" + request
+                + (error == null ? ", response=" + response : ", error=" + error) + '}';
+    }
+}
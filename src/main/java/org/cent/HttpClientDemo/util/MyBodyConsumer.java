@@ -0,0 +1,24 @@
+package org.cent.HttpClientDemo.util;
+
+import java.io.IOException;
+
+/**
+ * 响应体分块消费接口，流式读取时每读到一块数据回调一次
+ * 传入的缓冲区来自缓冲区池并会被复用，回调返回后不得再持有或修改
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+@FunctionalInterface
+public interface MyBodyConsumer {
+
+    /**
+     * 消费一块响应体数据
+     *
+     * @param buffer 缓冲区
+     * @param offset 有效数据起始位置
+     * @param length 有效数据长度
+     * @throws IOException 消费异常，抛出后中止请求并丢弃连接
+     */
+    void onChunk(byte[] buffer, int offset, int length) throws IOException;
+}
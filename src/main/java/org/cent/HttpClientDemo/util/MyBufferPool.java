@@ -0,0 +1,77 @@
+package org.cent.HttpClientDemo.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 定长字节缓冲区池，流式读取响应体时复用缓冲区，避免每次请求分配大块内存
+ * 池满时归还的缓冲区直接丢弃交由GC回收，池空时临时分配新缓冲区，线程安全
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class MyBufferPool {
+
+    // 默认共享池：8KB缓冲区，最多缓存256个（约2MB）
+    public static final MyBufferPool DEFAULT = new MyBufferPool(8 * 1024, 256);
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final Queue<byte[]> buffers = new ConcurrentLinkedQueue<>();
+    // 池中缓冲区数量（ConcurrentLinkedQueue.size()需遍历，单独计数）
+    private final AtomicInteger pooled = new AtomicInteger(0);
+
+    /**
+     * @param bufferSize 每个缓冲区字节数
+     * @param maxPooled  池中最多缓存的缓冲区个数
+     */
+    public MyBufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0 || maxPooled < 0) {
+            throw new IllegalArgumentException("bufferSize must be positive and maxPooled must not be negative");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * 借出缓冲区，使用完毕须调用release归还
+     *
+     * @return 长度为bufferSize的缓冲区（内容不保证清零）
+     */
+    public byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        if (buffer == null) {
+            return new byte[bufferSize];
+        }
+        pooled.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * 归还缓冲区，非本池规格的缓冲区或池已满时丢弃
+     *
+     * @param buffer 缓冲区
+     */
+    public void release(byte[] buffer) {
+        if (buffer == null || buffer.length != bufferSize) {
+            return;
+        }
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        buffers.offer(buffer);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 当前池中空闲缓冲区个数
+     */
+    public int getPooledCount() {
+        return pooled.get();
+    }
+}
@@ -0,0 +1,160 @@
+package org.cent.HttpClientDemo.util;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ByteBuffer请求体，同步及异步客户端通用，发送时不复制原缓冲区内容
+ * 异步客户端直接把缓冲区写入通道（直接内存/内存映射缓冲区无需拷贝到堆）；
+ * 同步客户端为阻塞输出流，堆缓冲区直接写出底层数组，直接内存缓冲区经池化缓冲区分块写出
+ * 发送的是构造时缓冲区position到limit之间的内容，不会改变原缓冲区的position/limit，可重复发送
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class MyByteBufferEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+
+    private final ByteBuffer buffer;
+    // 异步发送中的缓冲区视图，发送完成后置空以便重复发送
+    private ByteBuffer sending;
+
+    /**
+     * @param buffer      请求体内容
+     * @param contentType 内容类型，为空时由请求头决定
+     */
+    public MyByteBufferEntity(ByteBuffer buffer, ContentType contentType) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("buffer may not be null");
+        }
+        this.buffer = buffer.duplicate();
+        if (contentType != null) {
+            setContentType(contentType.toString());
+        }
+    }
+
+    /**
+     * 只读内存映射文件区域，映射后由操作系统按需分页加载，不占用堆内存
+     * 映射在缓冲区被GC回收时释放
+     *
+     * @param file     文件
+     * @param position 区域起始位置
+     * @param length   区域长度，不超过Integer.MAX_VALUE
+     * @return 只读映射缓冲区
+     * @throws IOException 文件读取异常
+     */
+    public static MappedByteBuffer map(Path file, long position, long length) throws IOException {
+        if (position < 0 || length < 0 || length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid mapped region: position=" + position + ", length=" + length);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public InputStream getContent() {
+        return new ByteBufferInputStream(buffer.duplicate());
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        if (outStream == null) {
+            throw new IllegalArgumentException("Output stream may not be null");
+        }
+        ByteBuffer source = buffer.duplicate();
+        if (source.hasArray()) {
+            outStream.write(source.array(), source.arrayOffset() + source.position(), source.remaining());
+        } else {
+            byte[] chunk = MyBufferPool.DEFAULT.acquire();
+            try {
+                while (source.hasRemaining()) {
+                    int length = Math.min(chunk.length, source.remaining());
+                    source.get(chunk, 0, length);
+                    outStream.write(chunk, 0, length);
+                }
+            } finally {
+                MyBufferPool.DEFAULT.release(chunk);
+            }
+        }
+        outStream.flush();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public void produceContent(ContentEncoder encoder, IOControl ioControl) throws IOException {
+        if (sending == null) {
+            sending = buffer.duplicate();
+        }
+        encoder.write(sending);
+        if (!sending.hasRemaining()) {
+            encoder.complete();
+            sending = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        sending = null;
+    }
+
+    /**
+     * ByteBuffer输入流视图
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer source;
+
+        ByteBufferInputStream(ByteBuffer source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() {
+            return source.hasRemaining() ? source.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!source.hasRemaining()) {
+                return -1;
+            }
+            int length = Math.min(len, source.remaining());
+            source.get(b, off, length);
+            return length;
+        }
+
+        @Override
+        public int available() {
+            return source.remaining();
+        }
+    }
+}
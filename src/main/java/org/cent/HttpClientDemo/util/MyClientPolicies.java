@@ -0,0 +1,105 @@
+package org.cent.HttpClientDemo.util;
+
+import org.cent.HttpClientDemo.util.breaker.CircuitBreaker;
+import org.cent.HttpClientDemo.util.cache.HttpResponseCache;
+import org.cent.HttpClientDemo.util.cache.RequestCoalescer;
+import org.cent.HttpClientDemo.util.compress.RequestCompressor;
+import org.cent.HttpClientDemo.util.limit.AdmissionController;
+import org.cent.HttpClientDemo.util.retry.RetryExecutor;
+
+/**
+ * 一个命名客户端的请求策略：重试及对冲、熔断、准入控制、响应缓存、请求合并、请求体压缩，均为空时不启用
+ * 同名的同步及异步客户端共享同一组实例（熔断状态、缓存等统一），重试及准入控制仅异步客户端支持
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class MyClientPolicies implements AutoCloseable {
+
+    private RetryExecutor retryExecutor;
+    private CircuitBreaker circuitBreaker;
+    private AdmissionController admissionController;
+    private HttpResponseCache responseCache;
+    private RequestCoalescer requestCoalescer;
+    private RequestCompressor requestCompressor;
+
+    public RetryExecutor getRetryExecutor() {
+        return retryExecutor;
+    }
+
+    public void setRetryExecutor(RetryExecutor retryExecutor) {
+        this.retryExecutor = retryExecutor;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    public void setAdmissionController(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    public HttpResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public void setResponseCache(HttpResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    public RequestCompressor getRequestCompressor() {
+        return requestCompressor;
+    }
+
+    public void setRequestCompressor(RequestCompressor requestCompressor) {
+        this.requestCompressor = requestCompressor;
+    }
+
+    /**
+     * 应用到同步客户端（不支持重试及准入控制）
+     */
+    void applyTo(MyHttpClientUtil client) {
+        client.setCircuitBreaker(circuitBreaker);
+        client.setResponseCache(responseCache);
+        client.setRequestCoalescer(requestCoalescer);
+        client.setRequestCompressor(requestCompressor);
+    }
+
+    /**
+     * 应用到异步客户端
+     */
+    void applyTo(MyHttpAsyncClientUtil client) {
+        client.setRetryExecutor(retryExecutor);
+        client.setCircuitBreaker(circuitBreaker);
+        client.setAdmissionController(admissionController);
+        client.setResponseCache(responseCache);
+        client.setRequestCoalescer(requestCoalescer);
+        client.setRequestCompressor(requestCompressor);
+    }
+
+    /**
+     * 关闭响应缓存（释放堆外内存并移除指标）
+     */
+    @Override
+    public void close() {
+        if (responseCache != null) {
+            responseCache.close();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.cent.HttpClientDemo.util;
+
+import org.cent.HttpClientDemo.util.balance.LoadBalancer;
+import org.cent.HttpClientDemo.util.callback.CallbackExecutor;
+import org.cent.HttpClientDemo.util.pool.ConnectionPoolConfig;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 命名客户端注册表，每个名称对应独立的连接池（舱壁隔离），慢上游占满自己的连接池不影响其他上游
+ * 同步及异步客户端在首次获取时按名称的配置创建，并应用该名称的请求策略（{@link MyClientPolicies}），关闭注册表时一并释放
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class MyClientRegistry implements AutoCloseable {
+
+    // 各名称的连接池配置
+    private final Map<String, ConnectionPoolConfig> configs;
+    // 各名称的请求策略，未设置的名称不启用任何策略
+    private final ConcurrentMap<String, MyClientPolicies> policies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, MyHttpClientUtil> syncClients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, MyHttpAsyncClientUtil> asyncClients = new ConcurrentHashMap<>();
+    // 异步客户端的响应回调线程池，为空时在IO线程处理响应
+    private volatile CallbackExecutor callbackExecutor;
+    // 逻辑服务地址（lb://服务名/路径）的客户端负载均衡，为空时不能使用逻辑服务地址
+    private volatile LoadBalancer loadBalancer;
+    private volatile boolean closed = false;
+
+    /**
+     * @param configs 客户端名称及其连接池配置
+     */
+    public MyClientRegistry(Map<String, ConnectionPoolConfig> configs) {
+        this.configs = Collections.unmodifiableMap(new LinkedHashMap<>(configs));
+    }
+
+    /**
+     * 设置之后创建的异步客户端的响应回调线程池（线程池由调用方关闭）
+     *
+     * @param callbackExecutor 响应回调线程池，为空时在IO线程处理响应
+     */
+    public void setCallbackExecutor(CallbackExecutor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * 设置之后创建的同步及异步客户端共享的负载均衡（由调用方关闭）
+     *
+     * @param loadBalancer 负载均衡，为空时不能使用逻辑服务地址
+     */
+    public void setLoadBalancer(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    /**
+     * 设置命名客户端的请求策略，只影响之后创建的客户端；策略随注册表关闭
+     *
+     * @param name     客户端名称
+     * @param policies 请求策略
+     * @throws IllegalArgumentException 未配置该名称
+     */
+    public void setPolicies(String name, MyClientPolicies policies) {
+        config(name);
+        MyClientPolicies previous = this.policies.put(name, policies);
+        if (previous != null && previous != policies) {
+            previous.close();
+        }
+    }
+
+    /**
+     * 已配置的客户端名称
+     */
+    public Set<String> getNames() {
+        return configs.keySet();
+    }
+
+    /**
+     * 获取命名的同步客户端，首次获取时创建
+     *
+     * @param name 客户端名称
+     * @return 同步客户端
+     * @throws IllegalArgumentException 未配置该名称
+     */
+    public MyHttpClientUtil sync(String name) {
+        MyHttpClientUtil client = syncClients.get(name);
+        if (client != null) {
+            return client;
+        }
+        ConnectionPoolConfig config = config(name);
+        synchronized (this) {
+            checkOpen();
+            return syncClients.computeIfAbsent(name, key -> {
+                MyHttpClientUtil created = new MyHttpClientUtil(key, config);
+                created.setLoadBalancer(loadBalancer);
+                MyClientPolicies clientPolicies = policies.get(key);
+                if (clientPolicies != null) {
+                    clientPolicies.applyTo(created);
+                }
+                return created;
+            });
+        }
+    }
+
+    /**
+     * 获取命名的异步客户端，首次获取时创建（启动独立的IO线程）
+     *
+     * @param name 客户端名称
+     * @return 异步客户端
+     * @throws IllegalArgumentException 未配置该名称
+     */
+    public MyHttpAsyncClientUtil async(String name) {
+        MyHttpAsyncClientUtil client = asyncClients.get(name);
+        if (client != null) {
+            return client;
+        }
+        ConnectionPoolConfig config = config(name);
+        synchronized (this) {
+            checkOpen();
+            return asyncClients.computeIfAbsent(name, key -> {
+                MyHttpAsyncClientUtil created = new MyHttpAsyncClientUtil(key, config);
+                created.setCallbackExecutor(callbackExecutor);
+                created.setLoadBalancer(loadBalancer);
+                MyClientPolicies clientPolicies = policies.get(key);
+                if (clientPolicies != null) {
+                    clientPolicies.applyTo(created);
+                }
+                return created;
+            });
+        }
+    }
+
+    private ConnectionPoolConfig config(String name) {
+        ConnectionPoolConfig config = configs.get(name);
+        if (config == null) {
+            throw new IllegalArgumentException("unknown http client: " + name);
+        }
+        return config;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("client registry closed");
+        }
+    }
+
+    /**
+     * 所有已创建的命名客户端的在途请求数
+     */
+    public int getInFlight() {
+        int inFlight = 0;
+        for (MyHttpClientUtil client : syncClients.values()) {
+            inFlight += client.getInFlight();
+        }
+        for (MyHttpAsyncClientUtil client : asyncClients.values()) {
+            inFlight += client.getInFlight();
+        }
+        return inFlight;
+    }
+
+    /**
+     * 等待所有命名客户端的在途请求完成，用于停止前排空请求
+     *
+     * @param timeoutMillis 最长等待时间（毫秒）
+     * @return 是否已全部完成
+     */
+    public boolean awaitIdle(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        boolean drained = true;
+        for (MyHttpClientUtil client : syncClients.values()) {
+            drained &= client.awaitIdle(remainingMillis(deadline));
+        }
+        for (MyHttpAsyncClientUtil client : asyncClients.values()) {
+            drained &= client.awaitIdle(remainingMillis(deadline));
+        }
+        return drained;
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    /**
+     * 关闭所有已创建的命名客户端，释放各自的连接池及请求策略
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        syncClients.values().forEach(MyHttpClientUtil::close);
+        asyncClients.values().forEach(MyHttpAsyncClientUtil::close);
+        policies.values().forEach(MyClientPolicies::close);
+        syncClients.clear();
+        asyncClients.clear();
+        policies.clear();
+    }
+}
@@ -0,0 +1,71 @@
+package org.cent.HttpClientDemo.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 同步客户端调用线程池工具类
+ * 运行在jdk21及以上时使用虚拟线程（每个任务一个虚拟线程，阻塞IO时让出载体线程），
+ * 以jdk8编译故通过反射创建；低版本jdk回退为固定大小的平台线程池
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class MyExecutors {
+
+    // jdk21+ Executors.newVirtualThreadPerTaskExecutor，低版本为null
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutorFactory();
+
+    private MyExecutors() {
+    }
+
+    private static Method findVirtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 当前jdk是否支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的线程池，不支持虚拟线程时回退为固定大小的平台线程池
+     *
+     * @param fallbackThreads 回退时的平台线程数，通常取连接池最大连接数（更多线程也只会等待连接）
+     * @return 线程池，使用完毕须shutdown
+     */
+    public static ExecutorService newVirtualThreadExecutor(int fallbackThreads) {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                e.printStackTrace();
+            }
+        }
+        return Executors.newFixedThreadPool(fallbackThreads, daemonThreadFactory("http-caller-"));
+    }
+
+    /**
+     * 守护线程工厂，线程名为前缀加序号
+     *
+     * @param namePrefix 线程名前缀
+     * @return 线程工厂
+     */
+    public static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger sequence = new AtomicInteger(0);
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,101 +1,194 @@
 package org.cent.HttpClientDemo.util;
 
 import com.alibaba.fastjson.JSON;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.client.utils.URIUtils;
 import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.apache.http.impl.nio.client.HttpAsyncClients;
 import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
-import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
 import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.entity.NFileEntity;
 import org.apache.http.nio.reactor.ConnectingIOReactor;
-import org.apache.http.nio.reactor.IOReactor;
 import org.apache.http.nio.reactor.IOReactorException;
-import org.apache.http.util.EntityUtils;
+import org.cent.HttpClientDemo.util.balance.LoadBalancer;
+import org.cent.HttpClientDemo.util.breaker.CircuitBreaker;
+import org.cent.HttpClientDemo.util.buffer.ByteBufferPool;
+import org.cent.HttpClientDemo.util.buffer.PooledAsyncResponseConsumer;
+import org.cent.HttpClientDemo.util.buffer.PooledResponse;
+import org.cent.HttpClientDemo.util.callback.CallbackExecutor;
+import org.cent.HttpClientDemo.util.cache.HttpResponseCache;
+import org.cent.HttpClientDemo.util.cache.RequestCoalescer;
+import org.cent.HttpClientDemo.util.compress.ContentCompression;
+import org.cent.HttpClientDemo.util.compress.DecodingAsyncResponseConsumer;
+import org.cent.HttpClientDemo.util.compress.RequestCompressor;
+import org.cent.HttpClientDemo.util.deadline.Deadline;
+import org.cent.HttpClientDemo.util.deadline.DeadlineExceededException;
+import org.cent.HttpClientDemo.util.limit.AdmissionController;
+import org.cent.HttpClientDemo.util.metrics.HttpClientMetrics;
+import org.cent.HttpClientDemo.util.metrics.MeteredConnectingIOReactor;
+import org.cent.HttpClientDemo.util.metrics.MeteredPoolingNHttpClientConnectionManager;
+import org.cent.HttpClientDemo.util.pool.ConnectionPoolConfig;
+import org.cent.HttpClientDemo.util.pool.HeaderKeepAliveStrategy;
+import org.cent.HttpClientDemo.util.pool.IdleConnectionEvictor;
+import org.cent.HttpClientDemo.util.retry.RetryExecutor;
+import org.cent.HttpClientDemo.util.template.RequestTemplate;
+import org.cent.HttpClientDemo.util.transport.HttpTransport;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
- * 封装发送http get/post同步请求工具类
+ * 封装发送http get/post异步请求工具类，请求结果以CompletableFuture返回，便于组合、等待及超时处理
  * 使用完毕需要释放连接池资源或通过try捕获使用并最后自动释放
  * @author Vincent
  * @version 1.0 2019/11/17
  */
 public class MyHttpAsyncClientUtil implements AutoCloseable {
 
-    static private CloseableHttpAsyncClient httpAsyncClient;
+    // 共享连接池资源，默认构造的工具类实例共用
+    static private Resources sharedResources;
     // 请求连接池被引用次数，释放资源依据
     static private AtomicInteger atomicInteger = new AtomicInteger(0);
 
+    // 本实例使用的连接池资源：共享连接池，或命名客户端独占的连接池
+    private final Resources resources;
+    // 客户端名称，为空时使用共享连接池
+    private final String name;
+    private final CloseableHttpAsyncClient httpAsyncClient;
+    // 请求连接池运行指标
+    private final HttpClientMetrics metrics;
+    // 连接池管理类，预热连接使用
+    private final PoolingNHttpClientConnectionManager connectionManager;
+    // 连接池默认请求配置，按截止时间缩短超时时以此为基础
+    private final RequestConfig requestConfig;
+    // 在途请求数，停止时据此等待请求完成（同一连接池的实例共享）
+    private final AtomicInteger inFlight;
+    // 可重试及对冲的幂等请求方法
+    static private final Set<String> IDEMPOTENT_METHODS = new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+
+    // 按路由准入控制（限速、自适应并发上限），为空时不限制
+    private AdmissionController admissionController;
+    // get请求响应缓存，为空时不缓存
+    private HttpResponseCache responseCache;
+    // 相同get请求合并，为空时不合并
+    private RequestCoalescer requestCoalescer;
+    // 幂等请求重试及对冲，为空时不重试
+    private RetryExecutor retryExecutor;
+    // 按路由熔断，为空时不熔断
+    private CircuitBreaker circuitBreaker;
+    // 请求体压缩，为空时不压缩
+    private RequestCompressor requestCompressor;
+    // 传输引擎，为空时使用内置HTTP/1.1连接池
+    private HttpTransport transport;
+    // 响应回调线程池，为空时在IO线程处理响应
+    private CallbackExecutor callbackExecutor;
+    // 池化响应体缓冲区池
+    private ByteBufferPool responseBufferPool = ByteBufferPool.DEFAULT;
+    // 逻辑服务地址（lb://服务名/路径）的客户端负载均衡，为空时不能使用逻辑服务地址
+    private LoadBalancer loadBalancer;
+
     /**
      * 初始化请求客户端类，并启用，及累计引用次数
      */
     public MyHttpAsyncClientUtil() {
+        this(new ConnectionPoolConfig());
+    }
+
+    /**
+     * 初始化请求客户端类及累计引用次数
+     *
+     * @param poolConfig 连接池配置，仅在初始化共享连接池时生效（已初始化时忽略）
+     */
+    public MyHttpAsyncClientUtil(ConnectionPoolConfig poolConfig) {
+        this(null, poolConfig);
+    }
+
+    /**
+     * 初始化命名客户端，按配置创建本实例独占的连接池及IO线程（舱壁隔离），关闭本实例时释放
+     * 各上游使用各自的命名客户端，一个上游变慢占满连接时不影响其他上游获取连接
+     *
+     * @param name       客户端名称（指标client标签为async-名称），为空时使用共享连接池
+     * @param poolConfig 连接池配置
+     */
+    public MyHttpAsyncClientUtil(String name, ConnectionPoolConfig poolConfig) {
+        this.name = name;
+        this.resources = name == null ? acquireShared(poolConfig) : new Resources("async-" + name, poolConfig);
+        this.httpAsyncClient = resources.httpAsyncClient;
+        this.metrics = resources.metrics;
+        this.connectionManager = resources.connectionManager;
+        this.requestConfig = resources.requestConfig;
+        this.inFlight = resources.inFlight;
+    }
+
+    /**
+     * 获取共享连接池资源并累计引用次数，首次使用时创建并启用
+     *
+     * @param poolConfig 连接池配置，仅在初始化共享连接池时生效
+     * @return 共享连接池资源
+     */
+    private static Resources acquireShared(ConnectionPoolConfig poolConfig) {
 
         // 自增累计引用数，在自动关闭时判断无引用数时可释放链接池资源
         atomicInteger.incrementAndGet();
 
         // 已初始化时复用（前置不加锁判断优化性能）
-        if (httpAsyncClient != null) {
-            return;
+        Resources shared = sharedResources;
+        if (shared != null) {
+            return shared;
         }
 
         // 加锁后重复判断，基于并发线程安全考虑，确保前置判断后未有其他线程完成初始化
         synchronized (MyHttpAsyncClientUtil.class) {
-            if (httpAsyncClient != null) {
-                return;
+            if (sharedResources == null) {
+                sharedResources = new Resources("async", poolConfig);
             }
-
-            // 获取默认客户端请求链接池类
-//            httpAsyncClient = HttpAsyncClients.createDefault();
-
-            // 定制请求连接配置类
-            RequestConfig requestConfig = RequestConfig.custom()
-                    .setConnectTimeout(60000) // 连接超时，建立连接时间（三次TCP握手完成时间）
-                    .setSocketTimeout(60000) // 读取超时（请求超时），数据传输过程中数据包之间间隔的最大时间
-                    .setConnectionRequestTimeout(3000) // 使用连接池管理连接，从连接池获取连接超时时间
-                    .build();
-
-            // 配置连接io线程
-            IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
-                    .setIoThreadCount(Runtime.getRuntime().availableProcessors())
-                    .setSoKeepAlive(true)
-                    .build();
-            ConnectingIOReactor ioReactor = null;
-            try {
-                ioReactor = new DefaultConnectingIOReactor(ioReactorConfig);
-            } catch (IOReactorException e) {
-                e.printStackTrace();
-            }
-
-            // 定制客户端请求链接池管理类
-            PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(ioReactor);
-            connectionManager.setMaxTotal(100); // 连接池最大连接数
-            connectionManager.setDefaultMaxPerRoute(100); // 每路最大连接数（同一路由最大并发连接数）
-
-            httpAsyncClient = HttpAsyncClients.custom()
-                    .setConnectionManager(connectionManager)
-                    .setDefaultRequestConfig(requestConfig)
-                    .build();
-
-            // 异步需要启用
-            httpAsyncClient.start();
+            return sharedResources;
         }
     }
 
@@ -105,6 +198,12 @@ public class MyHttpAsyncClientUtil implements AutoCloseable {
     @Override
     public void close() {
 
+        // 命名客户端独占连接池，直接释放
+        if (name != null) {
+            resources.close();
+            return;
+        }
+
         // 自减请求连接引用数，在无引用后方可释放链接池资源（前置不加锁判断优化性能）
         if (atomicInteger.decrementAndGet() > 0) {
             return;
@@ -116,17 +215,186 @@ public class MyHttpAsyncClientUtil implements AutoCloseable {
                 return;
             }
 
-            if (httpAsyncClient != null) {
-                try {
-                    httpAsyncClient.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
+            if (sharedResources != null) {
+                sharedResources.close();
+            }
+
+            // 关闭链接池后要主动设置为null，避免对象未被回收导致不能正常重新初始化
+            sharedResources = null;
+        }
+    }
+
+    /**
+     * 客户端名称，使用共享连接池时为null
+     * @return 客户端名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 预解析域名并向路由并发预先建立连接放入连接池，首批请求无需等待建连
+     * https路由归还前已开始TLS握手，握手在IO线程中继续完成；建连及租用连接超时取连接池配置
+     * @param url 路由地址（协议+主机+端口）
+     * @param connections 建立的连接数
+     * @return 成功建立（或池中已有）的连接数
+     */
+    public int warmUp(String url, int connections) {
+
+        HttpHost target = MyRoutes.target(URI.create(url));
+        HttpRoute route = new HttpRoute(target, null, "https".equalsIgnoreCase(target.getSchemeName()));
+        HttpClientContext context = HttpClientContext.create();
+        PoolingNHttpClientConnectionManager manager = connectionManager;
+
+        try {
+            InetAddress.getAllByName(target.getHostName());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+
+        // 同时租用多个连接（IO线程并发建连），全部建立后一并归还，避免归还后再次租到同一连接
+        List<Future<NHttpClientConnection>> futures = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            futures.add(manager.requestConnection(route, null, requestConfig.getConnectTimeout(),
+                    requestConfig.getConnectionRequestTimeout(), TimeUnit.MILLISECONDS, null));
+        }
+        List<NHttpClientConnection> leased = new ArrayList<>();
+        int opened = 0;
+        for (Future<NHttpClientConnection> future : futures) {
+            try {
+                NHttpClientConnection connection = future.get();
+                leased.add(connection);
+                if (!manager.isRouteComplete(connection)) {
+                    manager.startRoute(connection, route, context);
+                    manager.routeComplete(connection, route, context);
                 }
+                opened++;
+            } catch (IOException | ExecutionException e) {
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
+        }
+        for (NHttpClientConnection connection : leased) {
+            manager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+        }
+        return opened;
+    }
 
-            // 关闭链接池后要主动设置请求客户端为null，避免对象未被回收导致不能正常重新初始化
-            httpAsyncClient = null;
+    /**
+     * 当前在途请求数（使用同一连接池的工具类实例共享）
+     * @return 在途请求数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 等待在途请求全部完成，用于停止前排空请求
+     * @param timeoutMillis 最长等待时间（毫秒）
+     * @return 是否已全部完成
+     */
+    public boolean awaitIdle(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
         }
+        return true;
+    }
+
+    /**
+     * 设置按路由准入控制，超出限速或并发上限的请求立即拒绝或排队，而不是在连接池中排队直至超时
+     * 多个工具类实例共享同一准入控制才能统一限制
+     * @param admissionController 准入控制，为空时不限制
+     */
+    public void setAdmissionController(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    /**
+     * 设置get请求响应缓存，可与同步工具类共享同一缓存
+     * @param responseCache 响应缓存，为空时不缓存
+     */
+    public void setResponseCache(HttpResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * 设置相同get请求合并，并发的相同请求只向上游发送一次，可与同步工具类共享同一实例
+     * @param requestCoalescer 请求合并，为空时不合并
+     */
+    public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    /**
+     * 设置幂等请求重试及对冲，post等非幂等请求不受影响
+     * @param retryExecutor 重试执行器，为空时不重试
+     */
+    public void setRetryExecutor(RetryExecutor retryExecutor) {
+        this.retryExecutor = retryExecutor;
+    }
+
+    /**
+     * 设置按路由熔断，上游故障时请求立即以CircuitOpenException失败，可与同步工具类共享同一实例
+     * @param circuitBreaker 熔断器，为空时不熔断
+     */
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * 设置请求体压缩，字符串及表单请求体达到阈值时压缩发送（上游须支持对应编码）
+     * 响应压缩总是自动协商，无需设置
+     * @param requestCompressor 请求体压缩，为空时不压缩
+     */
+    public void setRequestCompressor(RequestCompressor requestCompressor) {
+        this.requestCompressor = requestCompressor;
+    }
+
+    /**
+     * 设置传输引擎（如Http2Transport），缓存、重试、熔断等仍在引擎之上执行，可与同步工具类共享同一实例
+     * 引擎由调用方关闭
+     * @param transport 传输引擎，为空时使用内置HTTP/1.1连接池
+     */
+    public void setTransport(HttpTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * 设置响应回调线程池，构造响应结果及完成future（含调用方的thenApply等后续回调）在回调线程执行，不占用IO线程
+     * 线程池由调用方关闭
+     * @param callbackExecutor 响应回调线程池，为空时在IO线程处理响应
+     */
+    public void setCallbackExecutor(CallbackExecutor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * 设置客户端负载均衡，请求地址写作lb://服务名/路径时每次发送（含重试及对冲）选择一个副本，可与同步工具类共享同一实例
+     * 响应缓存、请求合并、熔断及准入控制按逻辑服务，指标按所选副本
+     * @param loadBalancer 负载均衡，为空时不能使用逻辑服务地址
+     */
+    public void setLoadBalancer(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    /**
+     * 设置池化响应（getPooled/postPooled）的响应体缓冲区池，可使用堆外缓冲区池
+     * @param responseBufferPool 响应体缓冲区池，为空时使用ByteBufferPool.DEFAULT
+     */
+    public void setResponseBufferPool(ByteBufferPool responseBufferPool) {
+        this.responseBufferPool = responseBufferPool == null ? ByteBufferPool.DEFAULT : responseBufferPool;
     }
 
     /**
@@ -134,56 +402,102 @@ public class MyHttpAsyncClientUtil implements AutoCloseable {
      * @param url 协议+主机+端口+路径
      * @param headers 请求头
      * @param queryParams 查询参数（条件）
+     * @return 异步响应结果
      */
-    public void get(String url, Map<String, String> headers, Map<String, String> queryParams) {
+    public CompletableFuture<MyHttpResponse> get(String url, Map<String, String> headers, Map<String, String> queryParams) {
 
-        HttpGet httpGet = null;
+        HttpGet httpGet;
         try {
-            URIBuilder uriBuilder = new URIBuilder(url);
-            if (queryParams != null) {
-                for (Map.Entry<String, String> param : queryParams.entrySet()) {
-                    uriBuilder.addParameter(param.getKey(), param.getValue());
-                }
-            }
-            URI uri = uriBuilder.build();
-            System.out.println(uri);
-
-            httpGet = new HttpGet(uri);
-            if (headers != null) {
-                for (Map.Entry<String, String> header : headers.entrySet()) {
-                    httpGet.addHeader(header.getKey(), header.getValue());
-                }
-            }
+            httpGet = buildGet(url, headers, queryParams);
         } catch (URISyntaxException e) {
-            e.printStackTrace();
-            return;
+            return failedFuture(e);
         }
+        return get(httpGet, headers);
+    }
 
-        // 链接池发送异步请求，非阻塞继续处理，IO请求完成由OS通知回调处理
-        httpAsyncClient.execute(httpGet, new FutureCallback<HttpResponse>() {
-            @Override
-            public void completed(HttpResponse result) {
-                if (result.getStatusLine().getStatusCode() == 200) {
-                    try {
-                        System.out.println(EntityUtils.toString(result.getEntity(), "utf-8"));
-                    } catch (IOException ex) {
-                        ex.printStackTrace();
-                    }
-                } else {
-                    System.out.println(result.getStatusLine().getStatusCode());
-                    System.out.println(result.getStatusLine().getReasonPhrase());
-                }
-            }
+    /**
+     * 构造get请求（内部使用）
+     * @param url 协议+主机+端口+路径
+     * @param headers 请求头
+     * @param queryParams 查询参数（条件）
+     * @return get请求
+     * @throws URISyntaxException url格式错误
+     */
+    private HttpGet buildGet(String url, Map<String, String> headers, Map<String, String> queryParams) throws URISyntaxException {
 
-            @Override
-            public void failed(Exception ex) {
-                ex.printStackTrace();
+        URIBuilder uriBuilder = new URIBuilder(url);
+        if (queryParams != null) {
+            for (Map.Entry<String, String> param : queryParams.entrySet()) {
+                uriBuilder.addParameter(param.getKey(), param.getValue());
+            }
+        }
+        URI uri = uriBuilder.build();
+        HttpGet httpGet = new HttpGet(uri);
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                httpGet.addHeader(header.getKey(), header.getValue());
             }
+        }
+        return httpGet;
+    }
 
-            @Override
-            public void cancelled() {
+    /**
+     * 按预编译的请求模板发送http get异步请求，只传入每次变化的查询参数
+     * @param template 请求模板
+     * @param queryParams 查询参数（条件），为空时复用模板URI
+     * @return 异步响应结果
+     */
+    public CompletableFuture<MyHttpResponse> get(RequestTemplate template, Map<String, String> queryParams) {
+        return get(template.newGet(queryParams), template.getHeaders());
+    }
+
+    /**
+     * 发送get请求统一处理方法（内部使用），经响应缓存及请求合并
+     * @param httpGet get请求
+     * @param headers 请求头，缓存及合并以此区分请求
+     * @return 异步响应结果
+     */
+    private CompletableFuture<MyHttpResponse> get(HttpGet httpGet, Map<String, String> headers) {
+
+        // 新鲜的缓存直接返回
+        HttpResponseCache cache = responseCache;
+        HttpResponseCache.Entry entry = null;
+        if (cache != null) {
+            entry = cache.lookup(httpGet.getURI().toString(), headers);
+            if (entry != null && entry.isFresh()) {
+                return CompletableFuture.completedFuture(entry.toResponse());
             }
-        });
+        }
+
+        // 相同请求合并后只发送一次
+        HttpGet request = httpGet;
+        HttpResponseCache.Entry stale = entry;
+        RequestCoalescer coalescer = requestCoalescer;
+        if (coalescer == null) {
+            return fetch(request, headers, cache, stale);
+        }
+        return coalescer.executeAsync(coalescer.key(request.getURI(), headers),
+                () -> fetch(request, headers, cache, stale));
+    }
+
+    /**
+     * 发送get请求并更新缓存（内部使用），过期的缓存附带校验器发送条件请求
+     * @param httpGet get请求
+     * @param headers 请求头
+     * @param cache 响应缓存，为空时不缓存
+     * @param stale 过期的缓存项，无缓存项时为null
+     * @return 异步响应结果
+     */
+    private CompletableFuture<MyHttpResponse> fetch(HttpGet httpGet, Map<String, String> headers,
+                                                    HttpResponseCache cache, HttpResponseCache.Entry stale) {
+        if (cache == null) {
+            return execute(httpGet);
+        }
+        if (stale != null && stale.isRevalidatable()) {
+            cache.addValidators(httpGet, stale);
+        }
+        String key = httpGet.getURI().toString();
+        return execute(httpGet).thenApply(response -> cache.onResponse(key, headers, stale, response));
     }
 
     /**
@@ -191,13 +505,14 @@ public class MyHttpAsyncClientUtil implements AutoCloseable {
      * @param url 协议+主机+端口+路径
      * @param headers 请求头
      * @param entity 请求体（body），普通字符串原样写入
+     * @return 异步响应结果
      */
-    public void post(String url, Map<String, String> headers, String entity) {
+    public CompletableFuture<MyHttpResponse> post(String url, Map<String, String> headers, String entity) {
         if (headers == null) {
             headers = new HashMap<>();
             headers.put("content-type", "text/plain; charset=UTF-8");
         }
-        _post(url, headers, null, entity);
+        return _post(url, headers, null, entity);
     }
 
     /**
@@ -205,14 +520,15 @@ public class MyHttpAsyncClientUtil implements AutoCloseable {
      * @param url 协议+主机+端口+路径
      * @param headers 请求头
      * @param params 请求体（body），传入map最后打包成表单格式字符串
+     * @return 异步响应结果
      */
-    public void postForm(String url, Map<String, String> headers, Map<String, String> params) {
+    public CompletableFuture<MyHttpResponse> postForm(String url, Map<String, String> headers, Map<String, String> params) {
 
         if (headers == null) {
             headers = new HashMap<>();
             headers.put("content-type", "application/x-www-form-urlencoded; charset=UTF-8");
         }
-        _post(url, headers, params, null);
+        return _post(url, headers, params, null);
     }
 
     /**
@@ -220,14 +536,15 @@ public class MyHttpAsyncClientUtil implements AutoCloseable {
      * @param url 协议+主机+端口+路径
      * @param headers 请求头
      * @param xml 请求体（body），xml报文字符串
+     * @return 异步响应结果
      */
-    public void postXml(String url, Map<String, String> headers, String xml) {
+    public CompletableFuture<MyHttpResponse> postXml(String url, Map<String, String> headers, String xml) {
 
         if (headers == null) {
             headers = new HashMap<>();
             headers.put("content-type", "text/html; charset=UTF-8");
         }
-        _post(url, headers, null, xml);
+        return _post(url, headers, null, xml);
     }
 
     /**
@@ -235,14 +552,74 @@ public class MyHttpAsyncClientUtil implements AutoCloseable {
      * @param url 协议+主机+端口+路径
      * @param headers 请求头
      * @param json 请求体（body），json报文字符串
+     * @return 异步响应结果
      */
-    public void postJson(String url, Map<String, String> headers, String json) {
+    public CompletableFuture<MyHttpResponse> postJson(String url, Map<String, String> headers, String json) {
 
         if (headers == null) {
             headers = new HashMap<>();
             headers.put("content-type", "application/json; charset=UTF-8");
         }
-        _post(url, headers, null, json);
+        return _post(url, headers, null, json);
+    }
+
+    /**
+     * 发送http post异步请求，请求体为对象序列化的json报文，响应体json解析为responseType对象
+     * 请求体由fastjson直接序列化为utf-8字节（长度已知，可压缩、可重试重发），响应体从接收的字节直接解析，均不生成中间json字符串
+     * @param url 协议+主机+端口+路径
+     * @param headers 请求头
+     * @param body 请求体（body）对象
+     * @param responseType 响应体对象类型
+     * @return 异步响应体对象，响应状态码非2xx时以MyHttpStatusException失败
+     */
+    public <T> CompletableFuture<T> postJson(String url, Map<String, String> headers, Object body, Class<T> responseType) {
+        HttpEntity httpEntity = new MyByteBufferEntity(ByteBuffer.wrap(JSON.toJSONBytes(body)), ContentType.APPLICATION_JSON);
+        try {
+            httpEntity = compress(httpEntity);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+        return execute(buildPost(url, headers, httpEntity)).thenApply(response -> {
+            if (!response.isSuccess()) {
+                throw new CompletionException(new MyHttpStatusException(response));
+            }
+            byte[] bytes = response.getBody();
+            return JSON.parseObject(bytes, 0, bytes.length, response.getCharset(), responseType);
+        });
+    }
+
+    /**
+     * 按预编译的请求模板发送http post异步请求，只传入每次变化的请求体
+     * @param template 请求模板
+     * @param entity 请求体（body），按模板content-type的字符集编码
+     * @return 异步响应结果
+     */
+    public CompletableFuture<MyHttpResponse> post(RequestTemplate template, String entity) {
+        return _post(template.newPost(entity));
+    }
+
+    /**
+     * 按预编译的请求模板发送http post异步请求，请求体为表单格式内容，参数直接编码为字节
+     * @param template 请求模板
+     * @param params 请求体（body）表单参数
+     * @return 异步响应结果
+     */
+    public CompletableFuture<MyHttpResponse> postForm(RequestTemplate template, Map<String, String> params) {
+        return _post(template.newPostForm(params));
+    }
+
+    /**
+     * 按设置压缩已构造的post请求的请求体后发送（内部使用）
+     * @param httpPost post请求
+     * @return 异步响应结果
+     */
+    private CompletableFuture<MyHttpResponse> _post(HttpPost httpPost) {
+        try {
+            httpPost.setEntity(compress(httpPost.getEntity()));
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+        return execute(httpPost);
     }
 
     /**
@@ -252,17 +629,11 @@ public class MyHttpAsyncClientUtil implements AutoCloseable {
      * @param headers 请求头
      * @param params 请求体（表单参数）
      * @param entity 请求体（xml/json/其他普通字符串）
+     * @return 异步响应结果
      */
-    private void _post(String url, Map<String, String> headers, Map<String, String> params, String entity) {
+    private CompletableFuture<MyHttpResponse> _post(String url, Map<String, String> headers, Map<String, String> params, String entity) {
 
-        HttpPost httpPost = new HttpPost(url);
-
-        // 请求头
-        if (headers != null) {
-            for (Map.Entry<String, String> header : headers.entrySet()) {
-                httpPost.addHeader(header.getKey(), header.getValue());
-            }
-        }
+        HttpEntity httpEntity = null;
 
         // 请求体表单参数
         if (params != null) {
@@ -271,45 +642,556 @@ public class MyHttpAsyncClientUtil implements AutoCloseable {
                 for (Map.Entry<String, String> param : params.entrySet()) {
                     pairList.add(new BasicNameValuePair(param.getKey(), param.getValue()));
                 }
-                UrlEncodedFormEntity formEntity = new UrlEncodedFormEntity(pairList);
-                httpPost.setEntity(formEntity);
+                httpEntity = new UrlEncodedFormEntity(pairList);
             } catch (UnsupportedEncodingException e) {
-                e.printStackTrace();
-                return;
+                return failedFuture(e);
             }
         }
 
         // 请求体xml/json/其他普通字符串内容，后设置所以会覆盖前设置body的表单内容
         if (entity != null) {
-            httpPost.setEntity(new StringEntity(entity, "utf-8"));
+            httpEntity = new StringEntity(entity, "utf-8");
         }
 
-        // 链接池发送异步请求，非阻塞继续处理，IO请求完成由OS通知回调处理
-        httpAsyncClient.execute(httpPost, new FutureCallback<HttpResponse>() {
+        try {
+            return execute(buildPost(url, headers, compress(httpEntity)));
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+    }
+
+    /**
+     * 按设置压缩请求体（内部使用）
+     * @param entity 请求体
+     * @return 压缩后的请求体，未设置压缩或不需压缩时返回原请求体
+     * @throws IOException 读取请求体异常
+     */
+    private HttpEntity compress(HttpEntity entity) throws IOException {
+        RequestCompressor compressor = requestCompressor;
+        if (compressor == null) {
+            return entity;
+        }
+        HttpEntity compressed = compressor.compress(entity);
+        if (compressed != entity) {
+            metrics.recordCompression(HttpClientMetrics.Direction.REQUEST,
+                    entity.getContentLength(), compressed.getContentLength());
+        }
+        return compressed;
+    }
+
+    /**
+     * 发送http post异步请求，请求体为文件内容
+     * 由IO线程经FileChannel.transferTo直接从文件发送到socket（传输编码支持时），不经过堆内存
+     * @param url 协议+主机+端口+路径
+     * @param headers 请求头，为空时默认application/octet-stream
+     * @param file 请求体（body）文件
+     * @return 异步响应结果
+     */
+    public CompletableFuture<MyHttpResponse> postFile(String url, Map<String, String> headers, Path file) {
+        if (headers == null) {
+            headers = new HashMap<>();
+            headers.put("content-type", "application/octet-stream");
+        }
+        return execute(buildPost(url, headers, new NFileEntity(file.toFile(), ContentType.APPLICATION_OCTET_STREAM, true)));
+    }
+
+    /**
+     * 发送http post异步请求，请求体为ByteBuffer内容（position到limit）
+     * 缓冲区直接写入通道，直接内存/内存映射缓冲区不拷贝到堆
+     * @param url 协议+主机+端口+路径
+     * @param headers 请求头，为空时默认application/octet-stream
+     * @param buffer 请求体（body）缓冲区，不改变其position/limit
+     * @return 异步响应结果
+     */
+    public CompletableFuture<MyHttpResponse> postBuffer(String url, Map<String, String> headers, ByteBuffer buffer) {
+        if (headers == null) {
+            headers = new HashMap<>();
+            headers.put("content-type", "application/octet-stream");
+        }
+        return execute(buildPost(url, headers, new MyByteBufferEntity(buffer, null)));
+    }
+
+    /**
+     * 发送http post异步请求，请求体为内存映射的文件区域
+     * @param url 协议+主机+端口+路径
+     * @param headers 请求头，为空时默认application/octet-stream
+     * @param file 请求体（body）文件
+     * @param position 文件区域起始位置
+     * @param length 文件区域长度
+     * @return 异步响应结果
+     */
+    public CompletableFuture<MyHttpResponse> postMapped(String url, Map<String, String> headers, Path file,
+                                                        long position, long length) {
+        ByteBuffer mapped;
+        try {
+            mapped = MyByteBufferEntity.map(file, position, length);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+        return postBuffer(url, headers, mapped);
+    }
+
+    /**
+     * 发送http get异步请求，响应体收集到池化缓冲区（见setResponseBufferPool），不为每个响应分配新的字节数组
+     * 不经响应缓存、请求合并、重试及准入控制；调用方用完须close返回的响应，归还缓冲区
+     * @param url 协议+主机+端口+路径
+     * @param headers 请求头
+     * @param queryParams 查询参数（条件）
+     * @return 异步池化响应结果
+     */
+    public CompletableFuture<PooledResponse> getPooled(String url, Map<String, String> headers, Map<String, String> queryParams) {
+        try {
+            return sendPooled(buildGet(url, headers, queryParams));
+        } catch (URISyntaxException e) {
+            return failedFuture(e);
+        }
+    }
+
+    /**
+     * 发送http post异步请求，响应体收集到池化缓冲区，调用方用完须close返回的响应
+     * @param url 协议+主机+端口+路径
+     * @param headers 请求头
+     * @param entity 请求体（body），普通字符串按utf-8写入
+     * @return 异步池化响应结果
+     */
+    public CompletableFuture<PooledResponse> postPooled(String url, Map<String, String> headers, String entity) {
+        try {
+            return sendPooled(buildPost(url, headers, compress(new StringEntity(entity, "utf-8"))));
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+    }
+
+    /**
+     * 发送http get异步请求，响应体（解压后）逐块在IO线程交给consumer，不保存响应体
+     * consumer须快速返回，抛出异常时请求失败；不经响应缓存、请求合并、重试及准入控制
+     * @param url 协议+主机+端口+路径
+     * @param headers 请求头
+     * @param queryParams 查询参数（条件）
+     * @param consumer 响应体分块消费者
+     * @return 异步响应结果，只含响应状态及响应头
+     */
+    public CompletableFuture<MyHttpResponse> getStreaming(String url, Map<String, String> headers,
+                                                          Map<String, String> queryParams, MyBodyConsumer consumer) {
+        try {
+            return sendStreaming(buildGet(url, headers, queryParams), consumer);
+        } catch (URISyntaxException e) {
+            return failedFuture(e);
+        }
+    }
+
+    /**
+     * 发送http post异步请求，响应体（解压后）逐块在IO线程交给consumer，不保存响应体
+     * @param url 协议+主机+端口+路径
+     * @param headers 请求头
+     * @param entity 请求体（body），普通字符串按utf-8写入
+     * @param consumer 响应体分块消费者
+     * @return 异步响应结果，只含响应状态及响应头
+     */
+    public CompletableFuture<MyHttpResponse> postStreaming(String url, Map<String, String> headers, String entity,
+                                                           MyBodyConsumer consumer) {
+        try {
+            return sendStreaming(buildPost(url, headers, compress(new StringEntity(entity, "utf-8"))), consumer);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+    }
+
+    /**
+     * 发送请求并收集响应体到池化缓冲区（内部使用），设置了传输引擎时由引擎发送后包装其响应体
+     * @param request 请求
+     * @return 异步池化响应结果
+     */
+    private CompletableFuture<PooledResponse> sendPooled(HttpUriRequest request) {
+        Deadline deadline = Deadline.current();
+        if (transport != null) {
+            return send(request, deadline).thenApply(PooledResponse::of);
+        }
+        return exchange(request, new PooledAsyncResponseConsumer(responseBufferPool, MyBufferPool.DEFAULT, metrics),
+                PooledResponse::of, deadline);
+    }
+
+    /**
+     * 发送请求并逐块消费响应体（内部使用），设置了传输引擎时由引擎发送后整块交给consumer
+     * @param request 请求
+     * @param consumer 响应体分块消费者
+     * @return 异步响应结果，只含响应状态及响应头
+     */
+    private CompletableFuture<MyHttpResponse> sendStreaming(HttpUriRequest request, MyBodyConsumer consumer) {
+        Deadline deadline = Deadline.current();
+        if (transport != null) {
+            return send(request, deadline).thenApply(response -> {
+                byte[] body = response.getBody();
+                try {
+                    if (body.length > 0) {
+                        consumer.onChunk(body, 0, body.length);
+                    }
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+                return new MyHttpResponse(response.getStatusCode(), response.getReasonPhrase(), response.getHeaders(), null);
+            });
+        }
+        return exchange(request, new PooledAsyncResponseConsumer(consumer, MyBufferPool.DEFAULT, metrics),
+                MyHttpResponse::of, deadline);
+    }
+
+    /**
+     * 发送请求描述对应的http异步请求
+     * @param request 请求描述
+     * @return 异步响应结果
+     */
+    public CompletableFuture<MyHttpResponse> execute(MyHttpRequest request) {
+        if (MyHttpRequest.GET.equals(request.getMethod())) {
+            return get(request.getUrl(), request.getHeaders(), request.getParams());
+        }
+        return _post(request.getUrl(), request.getHeaders(), request.getParams(), request.getEntity());
+    }
+
+    /**
+     * 限制并发数批量发送http异步请求，全部完成后按提交顺序返回结果
+     * 单个请求失败记录在对应结果中，不影响其他请求
+     * @param requests 请求列表
+     * @param maxInFlight 最大在途请求数，应不超过连接池容量以免排队等待连接超时
+     * @return 全部请求完成后的结果列表，与请求列表顺序一致
+     */
+    public CompletableFuture<List<MyBatchResult>> executeAll(List<MyHttpRequest> requests, int maxInFlight) {
+        MyBatchResult[] results = new MyBatchResult[requests.size()];
+        return executeAll(requests.iterator(), maxInFlight, result -> results[result.getIndex()] = result)
+                .thenApply(v -> Arrays.asList(results));
+    }
+
+    /**
+     * 限制并发数批量发送http异步请求，每个请求完成时（按完成顺序）回调
+     * 请求从迭代器按需逐个取出，适合十万级请求边生成边发送；回调在IO线程执行，应尽快返回
+     * @param requests 请求迭代器
+     * @param maxInFlight 最大在途请求数，应不超过连接池容量以免排队等待连接超时
+     * @param onEach 单个请求完成回调
+     * @return 全部请求完成时完成
+     */
+    public CompletableFuture<Void> executeAll(Iterator<MyHttpRequest> requests, int maxInFlight,
+                                              Consumer<MyBatchResult> onEach) {
+        return new MyBatchExecution(requests, this::execute, onEach).start(maxInFlight);
+    }
+
+    /**
+     * 构造post请求（内部使用）
+     * @param url 协议+主机+端口+路径
+     * @param headers 请求头
+     * @param entity 请求体
+     * @return post请求
+     */
+    private HttpPost buildPost(String url, Map<String, String> headers, HttpEntity entity) {
+
+        HttpPost httpPost = new HttpPost(url);
+
+        // 请求头
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                httpPost.addHeader(header.getKey(), header.getValue());
+            }
+        }
+        httpPost.setEntity(entity);
+        return httpPost;
+    }
+
+    /**
+     * 链接池发送异步请求统一处理方法（内部使用），非阻塞继续处理，IO请求完成由OS通知回调完成future
+     * 设置了重试及对冲时幂等请求按策略重发；每次发送先经按路由的熔断、限速、限并发，再进入连接池
+     * 调用方取消返回的future时同时取消底层请求，释放占用的连接
+     * 调用线程绑定了截止时间（Deadline）时覆盖排队、重试及每次发送，到期立即以DeadlineExceededException失败
+     * @param request 请求
+     * @return 异步响应结果
+     */
+    private CompletableFuture<MyHttpResponse> execute(HttpUriRequest request) {
+        Deadline deadline = Deadline.current();
+        CompletableFuture<MyHttpResponse> future = attempt(request, deadline);
+        return deadline == null || future.isDone() ? future : deadline.bind(future, request.getURI());
+    }
+
+    /**
+     * 按重试策略发送异步请求（内部使用）
+     * @param request 请求
+     * @param deadline 截止时间，可为null
+     * @return 异步响应结果
+     */
+    private CompletableFuture<MyHttpResponse> attempt(HttpUriRequest request, Deadline deadline) {
+        RetryExecutor retry = retryExecutor;
+        if (retry == null || !isIdempotent(request)) {
+            return admit(request, deadline);
+        }
+        HttpHost target = URIUtils.extractHost(request.getURI());
+        if (target == null) {
+            return admit(request, deadline);
+        }
+        // 每次尝试发送独立的请求副本，对冲请求与原请求并发执行
+        return retry.execute(target, () -> admit(RequestBuilder.copy(request).build(), deadline));
+    }
+
+    /**
+     * 是否幂等请求，只有幂等请求可以重试及对冲（带请求体时请求体须可重复发送）
+     * @param request 请求
+     * @return 是否幂等
+     */
+    private static boolean isIdempotent(HttpUriRequest request) {
+        if (!IDEMPOTENT_METHODS.contains(request.getMethod())) {
+            return false;
+        }
+        if (request instanceof HttpEntityEnclosingRequest) {
+            HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            return entity == null || entity.isRepeatable();
+        }
+        return true;
+    }
+
+    /**
+     * 经熔断及准入控制发送异步请求（内部使用），路由已熔断时立即失败，不占用连接
+     * @param request 请求
+     * @param deadline 截止时间，可为null
+     * @return 异步响应结果
+     */
+    private CompletableFuture<MyHttpResponse> admit(HttpUriRequest request, Deadline deadline) {
+        HttpHost target = URIUtils.extractHost(request.getURI());
+        if (target == null) {
+            return send(request, deadline);
+        }
+        AdmissionController admission = admissionController;
+        Supplier<CompletableFuture<MyHttpResponse>> call = admission == null
+                ? () -> send(request, deadline)
+                : () -> admission.submit(target, () -> send(request, deadline));
+        CircuitBreaker breaker = circuitBreaker;
+        return breaker == null ? call.get() : breaker.submit(target, call);
+    }
+
+    /**
+     * 链接池发送异步请求（内部使用），不经准入控制
+     * @param request 请求
+     * @param deadline 截止时间，可为null
+     * @return 异步响应结果
+     */
+    private CompletableFuture<MyHttpResponse> send(HttpUriRequest request, Deadline deadline) {
+
+        // 截止时间已到（如排队或重试退避期间到期）时不再发送
+        if (deadline != null && deadline.isExpired()) {
+            return failedFuture(deadline.exceeded(request.getURI()));
+        }
+
+        // 设置了传输引擎时由引擎发送
+        HttpTransport requestTransport = transport;
+        if (requestTransport != null) {
+            LoadBalancer.Pick pick;
+            try {
+                pick = route(request);
+            } catch (UnknownHostException e) {
+                return failedFuture(e);
+            }
+            HttpClientMetrics requestMetrics = metrics;
+            HttpHost target = URIUtils.extractHost(request.getURI());
+            long start = System.nanoTime();
+            inFlight.incrementAndGet();
+            if (deadline != null) {
+                deadline.propagate(request);
+            }
+            CompletableFuture<MyHttpResponse> future = requestTransport.send(request);
+            if (deadline != null) {
+                deadline.bind(future, request.getURI());
+            }
+            future.whenComplete((response, ex) -> {
+                inFlight.decrementAndGet();
+                requestMetrics.recordRequest(target, System.nanoTime() - start,
+                        response == null ? -1 : response.getStatusCode(), response == null ? 0 : response.getBody().length);
+                if (pick == null) {
+                    return;
+                }
+                // 被取消（如对冲请求的另一方先完成或调用方取消）及截止时间已到不计为副本失败
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (cause instanceof CancellationException || cause instanceof DeadlineExceededException) {
+                    pick.release();
+                } else {
+                    pick.onResult(response == null ? -1 : response.getStatusCode());
+                }
+            });
+            return future;
+        }
+
+        // 响应体接收时增量解压
+        return exchange(request, new DecodingAsyncResponseConsumer(metrics), MyHttpResponse::of, deadline);
+    }
+
+    /**
+     * 逻辑服务地址（lb://服务名/路径）按负载均衡选择副本并改写请求地址（内部使用）
+     * @param request 请求
+     * @return 副本选择，非逻辑服务地址时返回null
+     * @throws UnknownHostException 未设置负载均衡、服务未注册或没有副本
+     */
+    private LoadBalancer.Pick route(HttpUriRequest request) throws UnknownHostException {
+        URI uri = request.getURI();
+        if (!LoadBalancer.isBalanced(uri)) {
+            return null;
+        }
+        LoadBalancer balancer = loadBalancer;
+        if (balancer == null || !(request instanceof HttpRequestBase)) {
+            throw new UnknownHostException("no load balancer for: " + uri);
+        }
+        LoadBalancer.Pick pick = balancer.pick(uri);
+        ((HttpRequestBase) request).setURI(pick.rewrite(uri));
+        return pick;
+    }
+
+    /**
+     * 响应转换（内部使用），在回调线程（未设置回调线程池时为IO线程）执行
+     */
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(HttpResponse response) throws IOException;
+    }
+
+    /**
+     * 链接池以指定响应消费者发送异步请求（内部使用），响应由reader转换后完成future
+     * 转换结果为AutoCloseable（如池化响应）且future已取消或已完成时关闭结果，归还缓冲区
+     * 有截止时间时按剩余时间缩短租用连接、建连及读取超时并向下游传播，到期立即取消请求，连接被释放或丢弃
+     * @param request 请求
+     * @param consumer 响应消费者
+     * @param reader 响应转换
+     * @param deadline 截止时间，可为null
+     * @return 异步响应结果
+     */
+    private <T> CompletableFuture<T> exchange(HttpUriRequest request, HttpAsyncResponseConsumer<HttpResponse> consumer,
+                                              ResponseReader<T> reader, Deadline deadline) {
+
+        if (deadline != null) {
+            if (deadline.isExpired()) {
+                return failedFuture(deadline.exceeded(request.getURI()));
+            }
+            if (request instanceof HttpRequestBase) {
+                RequestConfig config = ((HttpRequestBase) request).getConfig();
+                ((HttpRequestBase) request).setConfig(deadline.clamp(config != null ? config : requestConfig));
+            }
+            deadline.propagate(request);
+        }
+
+        // 逻辑服务地址选择副本（每次发送独立选择）
+        LoadBalancer.Pick pick;
+        try {
+            pick = route(request);
+        } catch (UnknownHostException e) {
+            return failedFuture(e);
+        }
+
+        HttpClientMetrics requestMetrics = metrics;
+        HttpHost target = URIUtils.extractHost(request.getURI());
+        long start = System.nanoTime();
+        inFlight.incrementAndGet();
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.whenComplete((response, ex) -> inFlight.decrementAndGet());
+        CallbackExecutor callbacks = callbackExecutor;
+        Future<HttpResponse> httpFuture = httpAsyncClient.execute(HttpAsyncMethods.create(request), consumer, new FutureCallback<HttpResponse>() {
             @Override
             public void completed(HttpResponse result) {
-                if (result.getStatusLine().getStatusCode() == 200) {
+                if (pick != null) {
+                    pick.onResult(result.getStatusLine().getStatusCode());
+                }
+                if (!dispatch(() -> complete(result))) {
+                    // 回调线程池拒绝时仍须转换后关闭结果，释放池化响应体
+                    discard(result);
+                }
+            }
+
+            private void complete(HttpResponse result) {
+                T response;
+                try {
+                    response = reader.read(result);
+                } catch (IOException e) {
+                    requestMetrics.recordRequest(target, System.nanoTime() - start, -1, 0);
+                    future.completeExceptionally(e);
+                    return;
+                }
+                HttpEntity entity = result.getEntity();
+                requestMetrics.recordRequest(target, System.nanoTime() - start,
+                        result.getStatusLine().getStatusCode(), entity == null ? 0 : Math.max(entity.getContentLength(), 0));
+                if (!future.complete(response)) {
+                    close(response);
+                }
+            }
+
+            private void discard(HttpResponse result) {
+                try {
+                    close(reader.read(result));
+                } catch (IOException ignored) {
+                }
+            }
+
+            private void close(T response) {
+                if (response instanceof AutoCloseable) {
                     try {
-                        System.out.println(EntityUtils.toString(result.getEntity(), "utf-8"));
-                    } catch (IOException e) {
-                        e.printStackTrace();
+                        ((AutoCloseable) response).close();
+                    } catch (Exception ignored) {
                     }
-                } else {
-                    System.out.println(result.getStatusLine().getStatusCode());
-                    System.out.println(result.getStatusLine().getReasonPhrase());
                 }
             }
 
             @Override
             public void failed(Exception ex) {
-                ex.printStackTrace();
+                if (pick != null) {
+                    // 截止时间已到导致的失败（超时按剩余时间缩短）不计为副本失败
+                    if (deadline != null && deadline.isExpired()) {
+                        pick.release();
+                    } else {
+                        pick.onResult(-1);
+                    }
+                }
+                dispatch(() -> {
+                    requestMetrics.recordRequest(target, System.nanoTime() - start, -1, 0);
+                    future.completeExceptionally(ex);
+                });
+            }
+
+            /**
+             * 设置了回调线程池时移出IO线程处理，线程池拒绝时请求以RejectedExecutionException失败
+             * @return 是否已执行或已提交执行
+             */
+            private boolean dispatch(Runnable callback) {
+                if (callbacks == null) {
+                    callback.run();
+                    return true;
+                }
+                try {
+                    callbacks.execute(callback);
+                    return true;
+                } catch (RejectedExecutionException e) {
+                    requestMetrics.recordRequest(target, System.nanoTime() - start, -1, 0);
+                    future.completeExceptionally(e);
+                    return false;
+                }
             }
 
             @Override
             public void cancelled() {
-
+                if (pick != null) {
+                    pick.release();
+                }
+                future.cancel(false);
             }
         });
+        // 调用方取消或截止时间已到时取消底层请求（请求已结束时无影响）
+        future.whenComplete((response, ex) -> {
+            if (future.isCompletedExceptionally()) {
+                httpFuture.cancel(true);
+            }
+        });
+        return deadline == null ? future : deadline.bind(future, request.getURI());
+    }
+
+    /**
+     * 创建异常完成的future（jdk8无CompletableFuture.failedFuture）
+     * @param ex 异常
+     * @return 异常完成的future
+     */
+    private static <T> CompletableFuture<T> failedFuture(Throwable ex) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        return future;
     }
 
     public static void main(String[] args) {
@@ -319,26 +1201,118 @@ public class MyHttpAsyncClientUtil implements AutoCloseable {
             Map<String, String> headers = new HashMap<>();
             Map<String, String> params = new HashMap<>();
 
-            myHttpAsyncClientUtil.get("https://www.baidu.com/", null, null);
+            List<CompletableFuture<MyHttpResponse>> futures = new ArrayList<>();
+            futures.add(myHttpAsyncClientUtil.get("https://www.baidu.com/", null, null));
 
             headers.put("user-agent",
                     "Mozilla/5.0 (Windows NT 6.3; WOW64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/50.0.2661.94 Safari/537.36");
             params.put("scope", "all");
             params.put("q", "java");
-            myHttpAsyncClientUtil.postForm("https://www.oschina.net/search", headers, params);
+            futures.add(myHttpAsyncClientUtil.postForm("https://www.oschina.net/search", headers, params));
 
             params.clear();
             params.put("content-type", "json");
             params.put("method", "post");
-            myHttpAsyncClientUtil.postJson("http://localhost:8080/post-json", null, JSON.toJSONString(params));
-            myHttpAsyncClientUtil.postForm("http://localhost:8080/post-string", null, params);
-            myHttpAsyncClientUtil.post("http://localhost:8080/post-string", null, "hello world!");
+            futures.add(myHttpAsyncClientUtil.postJson("http://localhost:8080/post-json", null, JSON.toJSONString(params)));
+            futures.add(myHttpAsyncClientUtil.postForm("http://localhost:8080/post-string", null, params));
+            futures.add(myHttpAsyncClientUtil.post("http://localhost:8080/post-string", null, "hello world!"));
 
+            // 等待全部请求完成后再释放连接池资源
+            CompletableFuture<?>[] printed = futures.stream()
+                    .map(future -> future.whenComplete((response, ex) -> {
+                        if (ex != null) {
+                            ex.printStackTrace();
+                        } else if (response.getStatusCode() == 200) {
+                            System.out.println(response.getBodyAsString());
+                        } else {
+                            System.out.println(response.getStatusCode());
+                            System.out.println(response.getReasonPhrase());
+                        }
+                    }))
+                    .toArray(CompletableFuture[]::new);
             try {
-                Thread.sleep(3000);
-            } catch (InterruptedException e) {
+                CompletableFuture.allOf(printed).join();
+            } catch (CompletionException e) {
+                // 失败请求已在各自回调中打印
+            }
+        }
+    }
+
+    /**
+     * 连接池资源：请求客户端、连接池、运行指标及后台清理任务，由共享连接池或命名客户端持有
+     */
+    private static final class Resources {
+
+        private final CloseableHttpAsyncClient httpAsyncClient;
+        private final HttpClientMetrics metrics;
+        private final IdleConnectionEvictor connectionEvictor;
+        private final PoolingNHttpClientConnectionManager connectionManager;
+        private final RequestConfig requestConfig;
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+
+        /**
+         * @param client     客户端名称（指标client标签）
+         * @param poolConfig 连接池配置
+         */
+        private Resources(String client, ConnectionPoolConfig poolConfig) {
+            // 获取默认客户端请求链接池类
+//            httpAsyncClient = HttpAsyncClients.createDefault();
+
+            // 定制请求连接配置类
+            requestConfig = RequestConfig.custom()
+                    .setConnectTimeout(poolConfig.getConnectTimeoutMillis()) // 连接超时，建立连接时间（三次TCP握手完成时间）
+                    .setSocketTimeout(poolConfig.getSocketTimeoutMillis()) // 读取超时（请求超时），数据传输过程中数据包之间间隔的最大时间
+                    .setConnectionRequestTimeout(poolConfig.getConnectionRequestTimeoutMillis()) // 使用连接池管理连接，从连接池获取连接超时时间
+                    .build();
+
+            // 配置连接io线程
+            IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                    .setIoThreadCount(poolConfig.getIoThreadCount())
+                    .setSoKeepAlive(true)
+                    .build();
+            // 运行指标，注册到全局指标注册表，由Spring Boot Actuator导出
+            metrics = new HttpClientMetrics(client, Metrics.globalRegistry);
+
+            // IO反应器记录IO线程忙碌时间
+            ConnectingIOReactor ioReactor = null;
+            try {
+                ioReactor = new MeteredConnectingIOReactor(ioReactorConfig, metrics);
+            } catch (IOReactorException e) {
+                e.printStackTrace();
+            }
+
+            // 定制客户端请求链接池管理类（记录连接租用耗时）
+            MeteredPoolingNHttpClientConnectionManager manager = new MeteredPoolingNHttpClientConnectionManager(ioReactor,
+                    metrics, poolConfig.getMaxLifetimeMillis(), TimeUnit.MILLISECONDS); // 连接最长存活时间
+            manager.setMaxTotal(poolConfig.getMaxTotal()); // 连接池最大连接数
+            manager.setDefaultMaxPerRoute(poolConfig.getMaxPerRoute()); // 每路最大连接数（同一路由最大并发连接数）
+            connectionManager = manager;
+
+            metrics.bindPool(connectionManager);
+            // 后台清理过期及空闲连接（异步连接被服务端关闭时IO线程即可感知，无需租用前检查）
+            connectionEvictor = new IdleConnectionEvictor("httpclient-evictor-" + client + "-", manager, poolConfig, metrics);
+
+            httpAsyncClient = HttpAsyncClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy(new HeaderKeepAliveStrategy(poolConfig.getIdleTimeoutMillis())) // 按响应头Keep-Alive超时保持连接
+                    .addInterceptorFirst(ContentCompression.acceptEncodingInterceptor()) // 协商响应压缩，接收时增量解压
+                    .addInterceptorLast(metrics.requestInterceptor())
+                    .addInterceptorFirst(metrics.responseInterceptor())
+                    .build();
+
+            // 异步需要启用
+            httpAsyncClient.start();
+        }
+
+        private void close() {
+            connectionEvictor.close();
+            try {
+                httpAsyncClient.close();
+            } catch (IOException e) {
                 e.printStackTrace();
             }
+            metrics.close();
         }
     }
 }
@@ -1,32 +1,74 @@
 package org.cent.HttpClientDemo.util;
 
 import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONReader;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.FileEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.util.EntityUtils;
+import org.cent.HttpClientDemo.util.balance.LoadBalancer;
+import org.cent.HttpClientDemo.util.breaker.CircuitBreaker;
+import org.cent.HttpClientDemo.util.breaker.CircuitOpenException;
+import org.cent.HttpClientDemo.util.cache.HttpResponseCache;
+import org.cent.HttpClientDemo.util.cache.RequestCoalescer;
+import org.cent.HttpClientDemo.util.compress.ContentCompression;
+import org.cent.HttpClientDemo.util.compress.RequestCompressor;
+import org.cent.HttpClientDemo.util.deadline.Deadline;
+import org.cent.HttpClientDemo.util.deadline.DeadlineExceededException;
+import org.cent.HttpClientDemo.util.metrics.HttpClientMetrics;
+import org.cent.HttpClientDemo.util.metrics.MeteredPoolingHttpClientConnectionManager;
+import org.cent.HttpClientDemo.util.pool.ConnectionPoolConfig;
+import org.cent.HttpClientDemo.util.pool.HeaderKeepAliveStrategy;
+import org.cent.HttpClientDemo.util.pool.IdleConnectionEvictor;
+import org.cent.HttpClientDemo.util.template.RequestTemplate;
+import org.cent.HttpClientDemo.util.transport.HttpTransport;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * 封装发送http get/post同步请求工具类
+ * 封装发送http get/post同步请求工具类，请求异常时打印异常并返回null
  * 使用完毕需要释放连接池资源或通过try捕获使用最后自动释放
  *
  * @author Vincent
@@ -34,48 +76,104 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class MyHttpClientUtil implements AutoCloseable {
 
-    static private CloseableHttpClient httpClient;
+    // 连接池最大连接数
+    static private final int MAX_TOTAL_CONNECTIONS = 100;
+
+    // 共享连接池资源，默认构造的工具类实例共用
+    static private Resources sharedResources;
     // 请求连接池被引用次数，释放资源依据
     static private AtomicInteger atomicInteger = new AtomicInteger(0);
+    // 默认调用线程池（虚拟线程，低版本jdk回退为与连接池大小相同的平台线程池），首次提交时创建
+    static private volatile ExecutorService defaultExecutor;
+
+    // 本实例使用的连接池资源：共享连接池，或命名客户端独占的连接池
+    private final Resources resources;
+    // 客户端名称，为空时使用共享连接池
+    private final String name;
+    private final CloseableHttpClient httpClient;
+    // 请求连接池运行指标
+    private final HttpClientMetrics metrics;
+    // 连接池管理类，预热连接使用
+    private final PoolingHttpClientConnectionManager connectionManager;
+    // 连接池默认请求配置，按截止时间缩短超时时以此为基础
+    private final RequestConfig requestConfig;
+    // 在途请求数，停止时据此等待请求完成（同一连接池的实例共享）
+    private final AtomicInteger inFlight;
+
+    // submit提交请求的调用线程池，为空时使用默认调用线程池
+    private Executor executor;
+    // 流式读取响应体使用的缓冲区池
+    private MyBufferPool bufferPool = MyBufferPool.DEFAULT;
+
+    // get请求响应缓存，为空时不缓存
+    private HttpResponseCache responseCache;
+    // 相同get请求合并，为空时不合并
+    private RequestCoalescer requestCoalescer;
+    // 按路由熔断，为空时不熔断
+    private CircuitBreaker circuitBreaker;
+    // 请求体压缩，为空时不压缩
+    private RequestCompressor requestCompressor;
+    // 传输引擎，为空时使用内置HTTP/1.1连接池（流式读取总是使用内置连接池）
+    private HttpTransport transport;
+    // 逻辑服务地址（lb://服务名/路径）的客户端负载均衡，为空时不能使用逻辑服务地址
+    private LoadBalancer loadBalancer;
 
     /**
      * 初始化请求客户端类及累计引用次数
      */
     public MyHttpClientUtil() {
+        this(new ConnectionPoolConfig());
+    }
+
+    /**
+     * 初始化请求客户端类及累计引用次数
+     *
+     * @param poolConfig 连接池配置，仅在初始化共享连接池时生效（已初始化时忽略）
+     */
+    public MyHttpClientUtil(ConnectionPoolConfig poolConfig) {
+        this(null, poolConfig);
+    }
+
+    /**
+     * 初始化命名客户端，按配置创建本实例独占的连接池（舱壁隔离），关闭本实例时释放
+     * 各上游使用各自的命名客户端，一个上游变慢占满连接时不影响其他上游获取连接
+     *
+     * @param name       客户端名称（指标client标签为sync-名称），为空时使用共享连接池
+     * @param poolConfig 连接池配置
+     */
+    public MyHttpClientUtil(String name, ConnectionPoolConfig poolConfig) {
+        this.name = name;
+        this.resources = name == null ? acquireShared(poolConfig) : new Resources("sync-" + name, poolConfig);
+        this.httpClient = resources.httpClient;
+        this.metrics = resources.metrics;
+        this.connectionManager = resources.connectionManager;
+        this.requestConfig = resources.requestConfig;
+        this.inFlight = resources.inFlight;
+    }
+
+    /**
+     * 获取共享连接池资源并累计引用次数，首次使用时创建
+     *
+     * @param poolConfig 连接池配置，仅在初始化共享连接池时生效
+     * @return 共享连接池资源
+     */
+    private static Resources acquireShared(ConnectionPoolConfig poolConfig) {
 
         // 自增累计引用数，在自动关闭时判断无引用数时可释放链接池资源
         atomicInteger.incrementAndGet();
 
         // 已初始化时复用（前置不加锁判断优化性能）
-        if (httpClient != null) {
-            return;
+        Resources shared = sharedResources;
+        if (shared != null) {
+            return shared;
         }
 
         // 加锁后重复判断，基于并发线程安全考虑，确保前置判断后未有其他线程完成初始化
         synchronized (MyHttpClientUtil.class) {
-            if (httpClient != null) {
-                return;
+            if (sharedResources == null) {
+                sharedResources = new Resources("sync", poolConfig);
             }
-            // 获取默认客户端请求链接池类
-//            httpClient = HttpClients.createDefault();
-
-            // 定制客户端请求链接池管理类
-            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
-            connectionManager.setMaxTotal(100); // 连接池最大连接数
-            connectionManager.setDefaultMaxPerRoute(100); // 每路最大连接数（同一路由最大并发连接数）
-
-            // 定制请求连接配置类
-            RequestConfig requestConfig = RequestConfig.custom()
-                    .setConnectTimeout(60000) // 连接超时，建立连接时间（三次TCP握手完成时间）
-                    .setSocketTimeout(60000) // 读取超时（请求超时），数据传输过程中数据包之间间隔的最大时间
-                    .setConnectionRequestTimeout(3000) // 使用连接池管理连接，从连接池获取连接超时时间
-                    .build();
-
-            // 获取定制客户端请求连接池类
-            httpClient = HttpClients.custom()
-                    .setConnectionManager(connectionManager)
-                    .setDefaultRequestConfig(requestConfig)
-                    .build();
+            return sharedResources;
         }
     }
 
@@ -85,6 +183,12 @@ public class MyHttpClientUtil implements AutoCloseable {
     @Override
     public void close() {
 
+        // 命名客户端独占连接池，直接释放
+        if (name != null) {
+            resources.close();
+            return;
+        }
+
         // 自减请求连接引用数，在无引用后方可释放链接池资源（前置不加锁判断优化性能）
         if (atomicInteger.decrementAndGet() > 0) {
             return;
@@ -96,17 +200,168 @@ public class MyHttpClientUtil implements AutoCloseable {
                 return;
             }
 
-            if (httpClient != null) {
-                try {
-                    httpClient.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
+            if (sharedResources != null) {
+                sharedResources.close();
+            }
+
+            // 关闭链接池后要主动设置为null，避免对象未被回收导致不能正常重新初始化
+            sharedResources = null;
+        }
+    }
+
+    /**
+     * 客户端名称，使用共享连接池时为null
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 预解析域名并向路由预先建立连接（含TLS握手）放入连接池，首批请求无需等待建连
+     * 租用连接及建连超时取连接池配置
+     *
+     * @param url         路由地址（协议+主机+端口）
+     * @param connections 建立的连接数
+     * @return 成功建立（或池中已有）的连接数
+     */
+    public int warmUp(String url, int connections) {
+
+        HttpHost target = MyRoutes.target(URI.create(url));
+        HttpRoute route = new HttpRoute(target, null, "https".equalsIgnoreCase(target.getSchemeName()));
+        HttpClientContext context = HttpClientContext.create();
+        PoolingHttpClientConnectionManager manager = connectionManager;
+
+        // 同时租用多个连接，逐个建连后一并归还，避免归还后再次租到同一连接
+        List<HttpClientConnection> leased = new ArrayList<>();
+        int opened = 0;
+        try {
+            InetAddress.getAllByName(target.getHostName());
+            for (int i = 0; i < connections; i++) {
+                HttpClientConnection connection = manager.requestConnection(route, null)
+                        .get(requestConfig.getConnectionRequestTimeout(), TimeUnit.MILLISECONDS);
+                leased.add(connection);
+                if (!connection.isOpen()) {
+                    manager.connect(connection, route, requestConfig.getConnectTimeout(), context);
+                    manager.routeComplete(connection, route, context);
                 }
+                opened++;
             }
+        } catch (IOException | ExecutionException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (HttpClientConnection connection : leased) {
+                manager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+            }
+        }
+        return opened;
+    }
 
-            // 关闭链接池后要主动设置请求客户端为null，避免对象未被回收导致不能正常重新初始化
-            httpClient = null;
+    /**
+     * 当前在途请求数（使用同一连接池的工具类实例共享）
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 等待在途请求全部完成，用于停止前排空请求
+     *
+     * @param timeoutMillis 最长等待时间（毫秒）
+     * @return 是否已全部完成
+     */
+    public boolean awaitIdle(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
         }
+        return true;
+    }
+
+    /**
+     * 设置流式读取响应体使用的缓冲区池，默认使用共享池
+     *
+     * @param bufferPool 缓冲区池
+     */
+    public void setBufferPool(MyBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * 设置get请求响应缓存，可与异步工具类共享同一缓存
+     *
+     * @param responseCache 响应缓存，为空时不缓存
+     */
+    public void setResponseCache(HttpResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * 设置相同get请求合并，并发的相同请求只向上游发送一次，可与异步工具类共享同一实例
+     *
+     * @param requestCoalescer 请求合并，为空时不合并
+     */
+    public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    /**
+     * 设置按路由熔断，上游故障时请求立即失败而不是占用连接及调用线程直至超时，可与异步工具类共享同一实例
+     * 熔断时普通请求返回null，流式请求抛出CircuitOpenException
+     *
+     * @param circuitBreaker 熔断器，为空时不熔断
+     */
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * 设置请求体压缩，字符串及表单请求体达到阈值时压缩发送（上游须支持对应编码）
+     * 响应压缩总是自动协商，无需设置
+     *
+     * @param requestCompressor 请求体压缩，为空时不压缩
+     */
+    public void setRequestCompressor(RequestCompressor requestCompressor) {
+        this.requestCompressor = requestCompressor;
+    }
+
+    /**
+     * 设置传输引擎（如Http2Transport），调用线程阻塞等待引擎完成请求，可与异步工具类共享同一实例
+     * 流式读取方法不经引擎，仍使用内置连接池；引擎由调用方关闭
+     *
+     * @param transport 传输引擎，为空时使用内置HTTP/1.1连接池
+     */
+    public void setTransport(HttpTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * 设置客户端负载均衡，请求地址写作lb://服务名/路径时每次发送选择一个副本，可与异步工具类共享同一实例
+     * 熔断按逻辑服务，其他按路由区分的指标等按所选副本
+     *
+     * @param loadBalancer 负载均衡，为空时不能使用逻辑服务地址
+     */
+    public void setLoadBalancer(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    /**
+     * 设置submit提交请求的调用线程池，如MyExecutors.newVirtualThreadExecutor创建的虚拟线程池
+     * 线程池由调用方管理生命周期
+     *
+     * @param executor 调用线程池，为空时使用默认调用线程池
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
     }
 
     /**
@@ -115,42 +370,81 @@ public class MyHttpClientUtil implements AutoCloseable {
      * @param url         协议+主机+端口+路径
      * @param headers     请求头
      * @param queryParams 查询参数（条件）
+     * @return 响应结果，请求异常时返回null
      */
-    public void get(String url, Map<String, String> headers, Map<String, String> queryParams) {
+    public MyHttpResponse get(String url, Map<String, String> headers, Map<String, String> queryParams) {
 
         HttpGet httpGet = null;
         try {
-            URIBuilder uriBuilder = new URIBuilder(url);
-            if (queryParams != null) {
-                for (Map.Entry<String, String> param : queryParams.entrySet()) {
-                    uriBuilder.addParameter(param.getKey(), param.getValue());
-                }
-            }
-            URI uri = uriBuilder.build();
-            System.out.println(uri);
-
-            httpGet = new HttpGet(uri);
-            if (headers != null) {
-                for (Map.Entry<String, String> header : headers.entrySet()) {
-                    httpGet.addHeader(header.getKey(), header.getValue());
-                }
-            }
+            httpGet = buildGet(url, headers, queryParams);
         } catch (URISyntaxException e) {
             e.printStackTrace();
-            return;
+            return null;
         }
+        return get(httpGet, headers);
+    }
+
+    /**
+     * 按预编译的请求模板发送http get同步请求，只传入每次变化的查询参数
+     *
+     * @param template    请求模板
+     * @param queryParams 查询参数（条件），为空时复用模板URI
+     * @return 响应结果，请求异常时返回null
+     */
+    public MyHttpResponse get(RequestTemplate template, Map<String, String> queryParams) {
+        return get(template.newGet(queryParams), template.getHeaders());
+    }
+
+    /**
+     * 发送get请求统一处理方法（内部使用），经响应缓存及请求合并
+     *
+     * @param httpGet get请求
+     * @param headers 请求头，缓存及合并以此区分请求
+     * @return 响应结果，请求异常时返回null
+     */
+    private MyHttpResponse get(HttpGet httpGet, Map<String, String> headers) {
 
-        // 连接池发送同步请求，阻塞当前连接线程等待结果
-        try (CloseableHttpResponse httpResponse = httpClient.execute(httpGet)) {
-            if (httpResponse.getStatusLine().getStatusCode() == 200) {
-                System.out.println(EntityUtils.toString(httpResponse.getEntity(), "utf-8"));
-            } else {
-                System.out.println(httpResponse.getStatusLine().getStatusCode());
-                System.out.println(httpResponse.getStatusLine().getReasonPhrase());
+        // 新鲜的缓存直接返回
+        HttpResponseCache cache = responseCache;
+        HttpResponseCache.Entry entry = null;
+        if (cache != null) {
+            entry = cache.lookup(httpGet.getURI().toString(), headers);
+            if (entry != null && entry.isFresh()) {
+                return entry.toResponse();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+
+        // 相同请求合并后只发送一次
+        HttpGet request = httpGet;
+        HttpResponseCache.Entry stale = entry;
+        RequestCoalescer coalescer = requestCoalescer;
+        if (coalescer == null) {
+            return fetch(request, headers, cache, stale);
+        }
+        return coalescer.execute(coalescer.key(request.getURI(), headers), () -> fetch(request, headers, cache, stale));
+    }
+
+    /**
+     * 发送get请求并更新缓存（内部使用），过期的缓存附带校验器发送条件请求
+     *
+     * @param httpGet get请求
+     * @param headers 请求头
+     * @param cache   响应缓存，为空时不缓存
+     * @param stale   过期的缓存项，无缓存项时为null
+     * @return 响应结果，请求异常时返回null
+     */
+    private MyHttpResponse fetch(HttpGet httpGet, Map<String, String> headers,
+                                 HttpResponseCache cache, HttpResponseCache.Entry stale) {
+        if (cache == null) {
+            return execute(httpGet);
+        }
+        if (stale != null && stale.isRevalidatable()) {
+            cache.addValidators(httpGet, stale);
+        }
+        // 缓存键取发送前的地址（逻辑服务地址发送时会改写为所选副本的地址）
+        String key = httpGet.getURI().toString();
+        MyHttpResponse response = execute(httpGet);
+        return response == null ? null : cache.onResponse(key, headers, stale, response);
     }
 
     /**
@@ -159,13 +453,14 @@ public class MyHttpClientUtil implements AutoCloseable {
      * @param url     协议+主机+端口+路径
      * @param headers 请求头
      * @param entity  请求体（body），普通字符串原样写入
+     * @return 响应结果，请求异常时返回null
      */
-    public void post(String url, Map<String, String> headers, String entity) {
+    public MyHttpResponse post(String url, Map<String, String> headers, String entity) {
         if (headers == null) {
             headers = new HashMap<>();
             headers.put("content-type", "text/plain; charset=UTF-8");
         }
-        _post(url, headers, null, entity);
+        return _post(url, headers, null, entity);
     }
 
     /**
@@ -174,14 +469,15 @@ public class MyHttpClientUtil implements AutoCloseable {
      * @param url     协议+主机+端口+路径
      * @param headers 请求头
      * @param params  请求体（body），传入map最后打包成表单格式字符串
+     * @return 响应结果，请求异常时返回null
      */
-    public void postForm(String url, Map<String, String> headers, Map<String, String> params) {
+    public MyHttpResponse postForm(String url, Map<String, String> headers, Map<String, String> params) {
 
         if (headers == null) {
             headers = new HashMap<>();
             headers.put("content-type", "application/x-www-form-urlencoded; charset=UTF-8");
         }
-        _post(url, headers, params, null);
+        return _post(url, headers, params, null);
     }
 
     /**
@@ -190,14 +486,15 @@ public class MyHttpClientUtil implements AutoCloseable {
      * @param url     协议+主机+端口+路径
      * @param headers 请求头
      * @param xml     请求体（body），xml报文字符串
+     * @return 响应结果，请求异常时返回null
      */
-    public void postXml(String url, Map<String, String> headers, String xml) {
+    public MyHttpResponse postXml(String url, Map<String, String> headers, String xml) {
 
         if (headers == null) {
             headers = new HashMap<>();
             headers.put("content-type", "text/html; charset=UTF-8");
         }
-        _post(url, headers, null, xml);
+        return _post(url, headers, null, xml);
     }
 
     /**
@@ -206,14 +503,93 @@ public class MyHttpClientUtil implements AutoCloseable {
      * @param url     协议+主机+端口+路径
      * @param headers 请求头
      * @param json    请求体（body），json报文字符串
+     * @return 响应结果，请求异常时返回null
      */
-    public void postJson(String url, Map<String, String> headers, String json) {
+    public MyHttpResponse postJson(String url, Map<String, String> headers, String json) {
 
         if (headers == null) {
             headers = new HashMap<>();
             headers.put("content-type", "application/json; charset=UTF-8");
         }
-        _post(url, headers, null, json);
+        return _post(url, headers, null, json);
+    }
+
+    /**
+     * 发送http post同步请求，请求体为对象序列化的json报文，响应体json解析为responseType对象
+     * 请求体由fastjson的JSONWriter分段写入连接输出流，响应体由JSONReader从连接输入流分段读取解析，
+     * 均不生成完整的json字符串或字节数组
+     *
+     * @param url          协议+主机+端口+路径
+     * @param headers      请求头
+     * @param body         请求体（body）对象
+     * @param responseType 响应体对象类型
+     * @return 响应体对象，请求异常或响应状态码非2xx时返回null
+     */
+    public <T> T postJson(String url, Map<String, String> headers, Object body, Class<T> responseType) {
+        try {
+            return executeStreaming(buildPost(url, headers, compress(new MyJsonEntity(body))), (head, in) -> {
+                if (!head.isSuccess()) {
+                    // 错误响应体（通常很小）读出后随异常返回
+                    ByteArrayOutputStream error = new ByteArrayOutputStream();
+                    byte[] buffer = bufferPool.acquire();
+                    try {
+                        int length;
+                        while ((length = in.read(buffer)) != -1) {
+                            error.write(buffer, 0, length);
+                        }
+                    } finally {
+                        bufferPool.release(buffer);
+                    }
+                    throw new MyHttpStatusException(new MyHttpResponse(head.getStatusCode(), head.getReasonPhrase(),
+                            head.getHeaders(), error.toByteArray()));
+                }
+                // JSON.parseObject(InputStream)会先把整个响应体读入字节数组，JSONReader按块读取解析
+                try (JSONReader reader = new JSONReader(new InputStreamReader(in, head.getCharset()))) {
+                    return reader.readObject(responseType);
+                }
+            });
+        } catch (IOException | CircuitOpenException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * 按预编译的请求模板发送http post同步请求，只传入每次变化的请求体
+     *
+     * @param template 请求模板
+     * @param entity   请求体（body），按模板content-type的字符集编码
+     * @return 响应结果，请求异常时返回null
+     */
+    public MyHttpResponse post(RequestTemplate template, String entity) {
+        return _post(template.newPost(entity));
+    }
+
+    /**
+     * 按预编译的请求模板发送http post同步请求，请求体为表单格式内容，参数直接编码为字节
+     *
+     * @param template 请求模板
+     * @param params   请求体（body）表单参数
+     * @return 响应结果，请求异常时返回null
+     */
+    public MyHttpResponse postForm(RequestTemplate template, Map<String, String> params) {
+        return _post(template.newPostForm(params));
+    }
+
+    /**
+     * 按设置压缩已构造的post请求的请求体后发送（内部使用）
+     *
+     * @param httpPost post请求
+     * @return 响应结果，请求异常时返回null
+     */
+    private MyHttpResponse _post(HttpPost httpPost) {
+        try {
+            httpPost.setEntity(compress(httpPost.getEntity()));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return execute(httpPost);
     }
 
     /**
@@ -224,48 +600,639 @@ public class MyHttpClientUtil implements AutoCloseable {
      * @param headers 请求头
      * @param params  请求体（表单参数）
      * @param entity  请求体（xml/json/其他普通字符串）
+     * @return 响应结果，请求异常时返回null
      */
-    private void _post(String url, Map<String, String> headers, Map<String, String> params, String entity) {
+    private MyHttpResponse _post(String url, Map<String, String> headers, Map<String, String> params, String entity) {
 
-        HttpPost httpPost = new HttpPost(url);
+        HttpPost httpPost = null;
+        try {
+            httpPost = buildPost(url, headers, params, entity);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return execute(httpPost);
+    }
 
-        // 请求头
+    /**
+     * 发送http post同步请求，请求体为文件内容，直接从文件流式发送，不整体读入内存
+     *
+     * @param url     协议+主机+端口+路径
+     * @param headers 请求头，为空时默认application/octet-stream
+     * @param file    请求体（body）文件
+     * @return 响应结果，请求异常时返回null
+     */
+    public MyHttpResponse postFile(String url, Map<String, String> headers, Path file) {
+        if (headers == null) {
+            headers = new HashMap<>();
+            headers.put("content-type", "application/octet-stream");
+        }
+        return execute(buildPost(url, headers, new FileEntity(file.toFile())));
+    }
+
+    /**
+     * 发送http post同步请求，请求体为ByteBuffer内容（position到limit），发送时不复制堆缓冲区
+     *
+     * @param url     协议+主机+端口+路径
+     * @param headers 请求头，为空时默认application/octet-stream
+     * @param buffer  请求体（body）缓冲区，不改变其position/limit
+     * @return 响应结果，请求异常时返回null
+     */
+    public MyHttpResponse postBuffer(String url, Map<String, String> headers, ByteBuffer buffer) {
+        if (headers == null) {
+            headers = new HashMap<>();
+            headers.put("content-type", "application/octet-stream");
+        }
+        return execute(buildPost(url, headers, new MyByteBufferEntity(buffer, null)));
+    }
+
+    /**
+     * 发送http post同步请求，请求体为内存映射的文件区域，适合反复发送同一大文件的部分内容
+     *
+     * @param url      协议+主机+端口+路径
+     * @param headers  请求头，为空时默认application/octet-stream
+     * @param file     请求体（body）文件
+     * @param position 文件区域起始位置
+     * @param length   文件区域长度
+     * @return 响应结果，请求异常时返回null
+     */
+    public MyHttpResponse postMapped(String url, Map<String, String> headers, Path file, long position, long length) {
+        ByteBuffer mapped;
+        try {
+            mapped = MyByteBufferEntity.map(file, position, length);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return postBuffer(url, headers, mapped);
+    }
+
+    /**
+     * 发送请求描述对应的http同步请求
+     *
+     * @param request 请求描述
+     * @return 响应结果，请求异常时返回null
+     */
+    public MyHttpResponse execute(MyHttpRequest request) {
+        if (MyHttpRequest.GET.equals(request.getMethod())) {
+            return get(request.getUrl(), request.getHeaders(), request.getParams());
+        }
+        return _post(request.getUrl(), request.getHeaders(), request.getParams(), request.getEntity());
+    }
+
+    /**
+     * 在调用线程池中发送请求描述对应的http同步请求，不阻塞当前线程
+     * 默认调用线程池为虚拟线程（jdk21+），阻塞等待响应时不占用平台线程，以同步api获得接近异步客户端的并发能力
+     *
+     * @param request 请求描述
+     * @return 异步响应结果，请求异常时结果为null（与同步方法一致）
+     */
+    public CompletableFuture<MyHttpResponse> submit(MyHttpRequest request) {
+        Executor callers = executor;
+        // 调用线程绑定的截止时间随请求带到调用线程池
+        Deadline deadline = Deadline.current();
+        return CompletableFuture.supplyAsync(() -> {
+            if (deadline == null) {
+                return execute(request);
+            }
+            Deadline.Scope scope = deadline.attach();
+            try {
+                return execute(request);
+            } finally {
+                scope.close();
+            }
+        }, callers != null ? callers : defaultExecutor());
+    }
+
+    /**
+     * 获取默认调用线程池，首次使用时创建（守护线程或虚拟线程，不阻止jvm退出）
+     */
+    private static ExecutorService defaultExecutor() {
+        ExecutorService callers = defaultExecutor;
+        if (callers == null) {
+            synchronized (MyHttpClientUtil.class) {
+                callers = defaultExecutor;
+                if (callers == null) {
+                    callers = MyExecutors.newVirtualThreadExecutor(MAX_TOTAL_CONNECTIONS);
+                    defaultExecutor = callers;
+                }
+            }
+        }
+        return callers;
+    }
+
+    /**
+     * 连接池发送同步请求统一处理方法（内部使用），阻塞当前连接线程等待结果并读取完整响应体
+     * 当前线程绑定了截止时间（Deadline）时按剩余时间缩短超时，到期立即中止请求
+     *
+     * @param request 请求
+     * @return 响应结果，请求异常（含截止时间已到）时返回null
+     */
+    private MyHttpResponse execute(HttpRequestBase request) {
+
+        // 截止时间已到时不再发送
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            deadline.exceeded(request.getURI()).printStackTrace();
+            return null;
+        }
+
+        // 路由已熔断时立即失败，不占用连接及调用线程
+        CircuitBreaker.Permit permit;
+        try {
+            permit = acquirePermit(request);
+        } catch (CircuitOpenException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        // 逻辑服务地址选择副本
+        LoadBalancer.Pick pick;
+        try {
+            pick = route(request);
+        } catch (UnknownHostException e) {
+            if (permit != null) {
+                permit.release();
+            }
+            e.printStackTrace();
+            return null;
+        }
+
+        long start = System.nanoTime();
+        int statusCode = -1;
+        long receivedBytes = 0;
+        // 截止时间已到导致的失败不代表上游及副本状态
+        boolean expired = false;
+        inFlight.incrementAndGet();
+        ScheduledFuture<?> expiry = deadline == null ? null : arm(request, deadline);
+
+        // 链接池（或传输引擎）发送同步请求，阻塞当前连接线程等待结果
+        HttpTransport requestTransport = transport;
+        try {
+            MyHttpResponse response = requestTransport == null ? executePooled(request)
+                    : await(deadline == null ? requestTransport.send(request) : deadline.bind(requestTransport.send(request), request.getURI()));
+            statusCode = response.getStatusCode();
+            receivedBytes = response.getBody().length;
+            return response;
+        } catch (IOException e) {
+            IOException failure = translate(e, deadline, request);
+            expired = failure instanceof DeadlineExceededException;
+            failure.printStackTrace();
+            return null;
+        } finally {
+            if (expiry != null) {
+                expiry.cancel(false);
+            }
+            inFlight.decrementAndGet();
+            long nanos = System.nanoTime() - start;
+            metrics.recordRequest(URIUtils.extractHost(request.getURI()), nanos, statusCode, receivedBytes);
+            if (permit != null) {
+                if (expired) {
+                    permit.release();
+                } else {
+                    permit.onResult(nanos, statusCode);
+                }
+            }
+            if (pick != null) {
+                if (expired) {
+                    pick.release();
+                } else {
+                    pick.onResult(statusCode);
+                }
+            }
+        }
+    }
+
+    /**
+     * 逻辑服务地址（lb://服务名/路径）按负载均衡选择副本并改写请求地址（内部使用）
+     *
+     * @param request 请求
+     * @return 副本选择，非逻辑服务地址时返回null
+     * @throws UnknownHostException 未设置负载均衡、服务未注册或没有副本
+     */
+    private LoadBalancer.Pick route(HttpRequestBase request) throws UnknownHostException {
+        URI uri = request.getURI();
+        if (!LoadBalancer.isBalanced(uri)) {
+            return null;
+        }
+        LoadBalancer balancer = loadBalancer;
+        if (balancer == null) {
+            throw new UnknownHostException("no load balancer for: " + uri);
+        }
+        LoadBalancer.Pick pick = balancer.pick(uri);
+        request.setURI(pick.rewrite(uri));
+        return pick;
+    }
+
+    /**
+     * 按截止时间缩短请求超时并向下游传播，到期时中止请求（内部使用）
+     * 中止时正在租用连接、建连或收发的请求立即以异常结束，已租用的连接被关闭不再复用
+     *
+     * @param request  请求
+     * @param deadline 截止时间
+     * @return 到期计时任务，请求结束后取消
+     */
+    private ScheduledFuture<?> arm(HttpRequestBase request, Deadline deadline) {
+        RequestConfig config = request.getConfig();
+        request.setConfig(deadline.clamp(config != null ? config : requestConfig));
+        deadline.propagate(request);
+        return deadline.onExpiry(request::abort);
+    }
+
+    /**
+     * 截止时间已到导致的请求异常（中止、超时）转换为DeadlineExceededException（内部使用）
+     *
+     * @param e        请求异常
+     * @param deadline 截止时间，可为null
+     * @param request  请求
+     * @return 转换后的异常
+     */
+    private static IOException translate(IOException e, Deadline deadline, HttpRequestBase request) {
+        if (deadline == null || !deadline.isExpired() || e instanceof DeadlineExceededException) {
+            return e;
+        }
+        DeadlineExceededException exceeded = deadline.exceeded(request.getURI());
+        exceeded.initCause(e);
+        return exceeded;
+    }
+
+    /**
+     * 链接池发送同步请求并读完响应体（内部使用）
+     *
+     * @param request 请求
+     * @return 响应结果
+     * @throws IOException 请求异常
+     */
+    private MyHttpResponse executePooled(HttpRequestBase request) throws IOException {
+        try (CloseableHttpResponse httpResponse = httpClient.execute(request)) {
+            return MyHttpResponse.of(httpResponse);
+        }
+    }
+
+    /**
+     * 阻塞等待传输引擎完成请求（内部使用），异常统一转换为IOException
+     *
+     * @param future 异步响应结果
+     * @return 响应结果
+     * @throws IOException 请求异常，等待被中断时取消请求
+     */
+    private static MyHttpResponse await(CompletableFuture<MyHttpResponse> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for response");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    /**
+     * 申请熔断器放行许可（内部使用）
+     *
+     * @param request 请求
+     * @return 放行许可，未设置熔断器时返回null
+     * @throws CircuitOpenException 路由已熔断
+     */
+    private CircuitBreaker.Permit acquirePermit(HttpRequestBase request) {
+        CircuitBreaker breaker = circuitBreaker;
+        HttpHost target = breaker == null ? null : URIUtils.extractHost(request.getURI());
+        return target == null ? null : breaker.acquire(target);
+    }
+
+    /**
+     * 发送http get同步请求，响应体经池化缓冲区分块流式交给consumer，不在内存中整体保存
+     * 无论响应体多大，每个请求占用内存不超过一个缓冲区
+     *
+     * @param url         协议+主机+端口+路径
+     * @param headers     请求头
+     * @param queryParams 查询参数（条件）
+     * @param consumer    响应体分块消费者
+     * @return 响应状态及响应头（不含响应体）
+     * @throws IOException 请求或读取异常
+     */
+    public MyHttpResponse getStreaming(String url, Map<String, String> headers, Map<String, String> queryParams,
+                                       MyBodyConsumer consumer) throws IOException {
+        try {
+            return executeStreaming(buildGet(url, headers, queryParams), consumer);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 发送http get同步请求，由handler直接读取响应体输入流
+     *
+     * @param url         协议+主机+端口+路径
+     * @param headers     请求头
+     * @param queryParams 查询参数（条件）
+     * @param handler     响应体输入流处理者
+     * @return handler处理结果
+     * @throws IOException 请求或读取异常
+     */
+    public <T> T getStreaming(String url, Map<String, String> headers, Map<String, String> queryParams,
+                              MyStreamHandler<T> handler) throws IOException {
+        try {
+            return executeStreaming(buildGet(url, headers, queryParams), handler);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 发送http post同步请求，响应体经池化缓冲区分块流式交给consumer
+     *
+     * @param url      协议+主机+端口+路径
+     * @param headers  请求头，为空时默认text/plain
+     * @param entity   请求体（body），普通字符串原样写入
+     * @param consumer 响应体分块消费者
+     * @return 响应状态及响应头（不含响应体）
+     * @throws IOException 请求或读取异常
+     */
+    public MyHttpResponse postStreaming(String url, Map<String, String> headers, String entity,
+                                        MyBodyConsumer consumer) throws IOException {
+        if (headers == null) {
+            headers = new HashMap<>();
+            headers.put("content-type", "text/plain; charset=UTF-8");
+        }
+        return executeStreaming(buildPost(url, headers, null, entity), consumer);
+    }
+
+    /**
+     * 发送http post同步请求，由handler直接读取响应体输入流
+     *
+     * @param url     协议+主机+端口+路径
+     * @param headers 请求头，为空时默认text/plain
+     * @param entity  请求体（body），普通字符串原样写入
+     * @param handler 响应体输入流处理者
+     * @return handler处理结果
+     * @throws IOException 请求或读取异常
+     */
+    public <T> T postStreaming(String url, Map<String, String> headers, String entity,
+                               MyStreamHandler<T> handler) throws IOException {
+        if (headers == null) {
+            headers = new HashMap<>();
+            headers.put("content-type", "text/plain; charset=UTF-8");
+        }
+        return executeStreaming(buildPost(url, headers, null, entity), handler);
+    }
+
+    /**
+     * 构造get请求（内部使用）
+     *
+     * @param url         协议+主机+端口+路径
+     * @param headers     请求头
+     * @param queryParams 查询参数（条件）
+     * @return get请求
+     * @throws URISyntaxException url格式错误
+     */
+    private HttpGet buildGet(String url, Map<String, String> headers, Map<String, String> queryParams)
+            throws URISyntaxException {
+
+        URIBuilder uriBuilder = new URIBuilder(url);
+        if (queryParams != null) {
+            for (Map.Entry<String, String> param : queryParams.entrySet()) {
+                uriBuilder.addParameter(param.getKey(), param.getValue());
+            }
+        }
+        URI uri = uriBuilder.build();
+        HttpGet httpGet = new HttpGet(uri);
         if (headers != null) {
             for (Map.Entry<String, String> header : headers.entrySet()) {
-                httpPost.addHeader(header.getKey(), header.getValue());
+                httpGet.addHeader(header.getKey(), header.getValue());
             }
         }
+        return httpGet;
+    }
+
+    /**
+     * 构造post请求（内部使用）
+     * 注意表单参数与请求实体同时存在时，先设置body的表单内容会被后设置的实体内容覆盖
+     *
+     * @param url     协议+主机+端口+路径
+     * @param headers 请求头
+     * @param params  请求体（表单参数）
+     * @param entity  请求体（xml/json/其他普通字符串）
+     * @return post请求
+     * @throws IOException 表单编码不支持或压缩请求体异常
+     */
+    private HttpPost buildPost(String url, Map<String, String> headers, Map<String, String> params, String entity)
+            throws IOException {
+
+        HttpEntity httpEntity = null;
 
         // 请求体表单参数
         if (params != null) {
-            try {
-                List<NameValuePair> pairList = new ArrayList<>();
-                for (Map.Entry<String, String> param : params.entrySet()) {
-                    pairList.add(new BasicNameValuePair(param.getKey(), param.getValue()));
-                }
-                UrlEncodedFormEntity formEntity = new UrlEncodedFormEntity(pairList);
-                httpPost.setEntity(formEntity);
-            } catch (UnsupportedEncodingException e) {
-                e.printStackTrace();
-                return;
+            List<NameValuePair> pairList = new ArrayList<>();
+            for (Map.Entry<String, String> param : params.entrySet()) {
+                pairList.add(new BasicNameValuePair(param.getKey(), param.getValue()));
             }
+            httpEntity = new UrlEncodedFormEntity(pairList);
         }
 
         // 请求体xml/json/其他普通字符串内容，后设置所以会覆盖前设置body的表单内容
         if (entity != null) {
-            httpPost.setEntity(new StringEntity(entity, "utf-8"));
+            httpEntity = new StringEntity(entity, "utf-8");
+        }
+        return buildPost(url, headers, compress(httpEntity));
+    }
+
+    /**
+     * 按设置压缩请求体（内部使用）
+     *
+     * @param entity 请求体
+     * @return 压缩后的请求体，未设置压缩或不需压缩时返回原请求体
+     * @throws IOException 读取请求体异常
+     */
+    private HttpEntity compress(HttpEntity entity) throws IOException {
+        RequestCompressor compressor = requestCompressor;
+        if (compressor == null) {
+            return entity;
+        }
+        HttpEntity compressed = compressor.compress(entity);
+        if (compressed != entity) {
+            metrics.recordCompression(HttpClientMetrics.Direction.REQUEST, entity.getContentLength(), compressed.getContentLength());
+        }
+        return compressed;
+    }
+
+    /**
+     * 构造post请求（内部使用）
+     *
+     * @param url     协议+主机+端口+路径
+     * @param headers 请求头
+     * @param entity  请求体
+     * @return post请求
+     */
+    private HttpPost buildPost(String url, Map<String, String> headers, HttpEntity entity) {
+
+        HttpPost httpPost = new HttpPost(url);
+
+        // 请求头
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                httpPost.addHeader(header.getKey(), header.getValue());
+            }
         }
+        httpPost.setEntity(entity);
+        return httpPost;
+    }
+
+    /**
+     * 连接池发送同步请求并流式分块读取响应体（内部使用）
+     * 读取正常结束时连接归还连接池复用；consumer异常时中止请求，避免为归还连接而读完剩余大响应体
+     *
+     * @param request  请求
+     * @param consumer 响应体分块消费者
+     * @return 响应状态及响应头（不含响应体）
+     * @throws IOException 请求或读取异常
+     */
+    private MyHttpResponse executeStreaming(HttpRequestBase request, MyBodyConsumer consumer) throws IOException {
+        return executeStreaming(request, (head, body) -> {
+            byte[] buffer = bufferPool.acquire();
+            try {
+                int length;
+                while ((length = body.read(buffer)) != -1) {
+                    consumer.onChunk(buffer, 0, length);
+                }
+            } finally {
+                bufferPool.release(buffer);
+            }
+            return head;
+        });
+    }
 
-        // 链接池发送同步请求，阻塞当前连接线程等待结果
-        try (CloseableHttpResponse httpResponse = httpClient.execute(httpPost)) {
-            if (httpResponse.getStatusLine().getStatusCode() == 200) {
-                System.out.println(EntityUtils.toString(httpResponse.getEntity(), "utf-8"));
-            } else {
-                System.out.println(httpResponse.getStatusLine().getStatusCode());
-                System.out.println(httpResponse.getStatusLine().getReasonPhrase());
+    /**
+     * 连接池发送同步请求并由handler读取响应体输入流（内部使用）
+     *
+     * @param request 请求
+     * @param handler 响应体输入流处理者
+     * @return handler处理结果
+     * @throws IOException 请求或读取异常
+     */
+    private <T> T executeStreaming(HttpRequestBase request, MyStreamHandler<T> handler) throws IOException {
+
+        // 截止时间已到时不再发送，截止时间同时限制handler读取响应体
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            throw deadline.exceeded(request.getURI());
+        }
+        CircuitBreaker.Permit permit = acquirePermit(request);
+        LoadBalancer.Pick pick;
+        try {
+            pick = route(request);
+        } catch (UnknownHostException e) {
+            if (permit != null) {
+                permit.release();
+            }
+            throw e;
+        }
+        long start = System.nanoTime();
+        int statusCode = -1;
+        CountingInputStream body = null;
+        boolean expired = false;
+        inFlight.incrementAndGet();
+        ScheduledFuture<?> expiry = deadline == null ? null : arm(request, deadline);
+        try (CloseableHttpResponse httpResponse = httpClient.execute(request)) {
+            statusCode = httpResponse.getStatusLine().getStatusCode();
+            MyHttpResponse head = new MyHttpResponse(statusCode,
+                    httpResponse.getStatusLine().getReasonPhrase(),
+                    MyHttpResponse.toHeaderMap(httpResponse.getAllHeaders()),
+                    null);
+            HttpEntity entity = httpResponse.getEntity();
+            body = new CountingInputStream(entity == null ? new ByteArrayInputStream(new byte[0]) : entity.getContent());
+            T result;
+            try {
+                result = handler.handle(head, body);
+            } catch (IOException | RuntimeException e) {
+                request.abort();
+                statusCode = -1;
+                throw e;
             }
+            // 读完剩余内容（通常已到末尾），连接方可归还复用
+            EntityUtils.consume(entity);
+            return result;
         } catch (IOException e) {
-            e.printStackTrace();
+            IOException failure = translate(e, deadline, request);
+            expired = failure instanceof DeadlineExceededException;
+            throw failure;
+        } finally {
+            if (expiry != null) {
+                expiry.cancel(false);
+            }
+            inFlight.decrementAndGet();
+            long nanos = System.nanoTime() - start;
+            metrics.recordRequest(URIUtils.extractHost(request.getURI()), nanos,
+                    statusCode, body == null ? 0 : body.getCount());
+            if (permit != null) {
+                if (expired) {
+                    permit.release();
+                } else {
+                    permit.onResult(nanos, statusCode);
+                }
+            }
+            if (pick != null) {
+                if (expired) {
+                    pick.release();
+                } else {
+                    pick.onResult(statusCode);
+                }
+            }
+        }
+    }
+
+    /**
+     * 统计已读取字节数的输入流（内部使用）
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int length = super.read(b, off, len);
+            if (length > 0) {
+                count += length;
+            }
+            return length;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    private static void print(MyHttpResponse response) {
+        if (response == null) {
+            return;
+        }
+        if (response.getStatusCode() == 200) {
+            System.out.println(response.getBodyAsString());
+        } else {
+            System.out.println(response.getStatusCode());
+            System.out.println(response.getReasonPhrase());
         }
     }
 
@@ -276,20 +1243,97 @@ public class MyHttpClientUtil implements AutoCloseable {
             Map<String, String> headers = new HashMap<>();
             Map<String, String> params = new HashMap<>();
 
-            myHttpClientUtil.get("https://www.baidu.com/", null, null);
+            print(myHttpClientUtil.get("https://www.baidu.com/", null, null));
 
             headers.put("user-agent",
                     "Mozilla/5.0 (Windows NT 6.3; WOW64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/50.0.2661.94 Safari/537.36");
             params.put("scope", "all");
             params.put("q", "java");
-            myHttpClientUtil.postForm("https://www.oschina.net/search", headers, params);
+            print(myHttpClientUtil.postForm("https://www.oschina.net/search", headers, params));
 
             params.clear();
             params.put("content-type", "json");
             params.put("method", "post");
-            myHttpClientUtil.postJson("http://localhost:8080/post-json", null, JSON.toJSONString(params));
-            myHttpClientUtil.postForm("http://localhost:8080/post-string", null, params);
-            myHttpClientUtil.post("http://localhost:8080/post-string", null, "hello world!");
+            print(myHttpClientUtil.postJson("http://localhost:8080/post-json", null, JSON.toJSONString(params)));
+            System.out.println(myHttpClientUtil.postJson("http://localhost:8080/post-json", null, params, Map.class));
+            print(myHttpClientUtil.postForm("http://localhost:8080/post-string", null, params));
+            print(myHttpClientUtil.post("http://localhost:8080/post-string", null, "hello world!"));
+
+            // 流式读取响应体，仅统计长度不保存内容
+            try {
+                long[] total = new long[1];
+                MyHttpResponse head = myHttpClientUtil.getStreaming("https://www.baidu.com/", null, null,
+                        (MyBodyConsumer) (buffer, offset, length) -> total[0] += length);
+                System.out.println(head.getStatusCode() + " streamed " + total[0] + " bytes");
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 连接池资源：请求客户端、连接池、运行指标及后台清理任务，由共享连接池或命名客户端持有
+     */
+    private static final class Resources {
+
+        private final CloseableHttpClient httpClient;
+        private final HttpClientMetrics metrics;
+        private final IdleConnectionEvictor connectionEvictor;
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final RequestConfig requestConfig;
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+
+        /**
+         * @param client     客户端名称（指标client标签）
+         * @param poolConfig 连接池配置
+         */
+        private Resources(String client, ConnectionPoolConfig poolConfig) {
+            // 获取默认客户端请求链接池类
+//            httpClient = HttpClients.createDefault();
+
+            // 运行指标，注册到全局指标注册表，由Spring Boot Actuator导出
+            metrics = new HttpClientMetrics(client, Metrics.globalRegistry);
+
+            // 定制客户端请求链接池管理类（记录连接租用及建连耗时）
+            MeteredPoolingHttpClientConnectionManager manager = new MeteredPoolingHttpClientConnectionManager(metrics,
+                    poolConfig.getMaxLifetimeMillis(), TimeUnit.MILLISECONDS); // 连接最长存活时间
+            manager.setMaxTotal(poolConfig.getMaxTotal()); // 连接池最大连接数
+            manager.setDefaultMaxPerRoute(poolConfig.getMaxPerRoute()); // 每路最大连接数（同一路由最大并发连接数）
+            manager.setValidateAfterInactivity(poolConfig.getValidateAfterInactivityMillis()); // 空闲一段时间后租用前检查连接是否失效
+            connectionManager = manager;
+
+            // 定制请求连接配置类
+            requestConfig = RequestConfig.custom()
+                    .setConnectTimeout(poolConfig.getConnectTimeoutMillis()) // 连接超时，建立连接时间（三次TCP握手完成时间）
+                    .setSocketTimeout(poolConfig.getSocketTimeoutMillis()) // 读取超时（请求超时），数据传输过程中数据包之间间隔的最大时间
+                    .setConnectionRequestTimeout(poolConfig.getConnectionRequestTimeoutMillis()) // 使用连接池管理连接，从连接池获取连接超时时间
+                    .build();
+
+            metrics.bindPool(connectionManager);
+            // 后台清理过期及空闲连接
+            connectionEvictor = new IdleConnectionEvictor("httpclient-evictor-" + client + "-", manager, poolConfig, metrics);
+
+            // 获取定制客户端请求连接池类
+            httpClient = HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy(new HeaderKeepAliveStrategy(poolConfig.getIdleTimeoutMillis())) // 按响应头Keep-Alive超时保持连接
+                    .disableContentCompression() // 由自定义拦截器协商压缩并边读边解压，同时统计节省字节数
+                    .addInterceptorFirst(ContentCompression.acceptEncodingInterceptor())
+                    .addInterceptorLast(metrics.requestInterceptor())
+                    .addInterceptorFirst(metrics.responseInterceptor())
+                    .addInterceptorLast(ContentCompression.decodingInterceptor(metrics))
+                    .build();
+        }
+
+        private void close() {
+            connectionEvictor.close();
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            metrics.close();
         }
     }
 }
@@ -0,0 +1,123 @@
+package org.cent.HttpClientDemo.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * http请求描述类（方法、地址、请求头、参数、请求体），不可变，用于批量发送等需先描述后执行的场景
+ * 各工厂方法的默认请求头与工具类同名方法一致
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class MyHttpRequest {
+
+    public static final String GET = "GET";
+    public static final String POST = "POST";
+
+    private final String method;
+    private final String url;
+    private final Map<String, String> headers;
+    // get为查询参数，post为表单参数
+    private final Map<String, String> params;
+    // post请求体（xml/json/其他普通字符串）
+    private final String entity;
+
+    private MyHttpRequest(String method, String url, Map<String, String> headers,
+                          Map<String, String> params, String entity) {
+        this.method = method;
+        this.url = url;
+        this.headers = headers == null ? null : Collections.unmodifiableMap(new HashMap<>(headers));
+        this.params = params == null ? null : Collections.unmodifiableMap(new HashMap<>(params));
+        this.entity = entity;
+    }
+
+    /**
+     * get请求
+     *
+     * @param url         协议+主机+端口+路径
+     * @param headers     请求头
+     * @param queryParams 查询参数（条件）
+     */
+    public static MyHttpRequest get(String url, Map<String, String> headers, Map<String, String> queryParams) {
+        return new MyHttpRequest(GET, url, headers, queryParams, null);
+    }
+
+    /**
+     * post请求，请求体为普通字符串等（通用）
+     *
+     * @param url     协议+主机+端口+路径
+     * @param headers 请求头，为空时默认text/plain
+     * @param entity  请求体（body），普通字符串原样写入
+     */
+    public static MyHttpRequest post(String url, Map<String, String> headers, String entity) {
+        return new MyHttpRequest(POST, url, withContentType(headers, "text/plain; charset=UTF-8"), null, entity);
+    }
+
+    /**
+     * post请求，请求体为表单格式内容（key1=value1&key2=value2）
+     *
+     * @param url     协议+主机+端口+路径
+     * @param headers 请求头，为空时默认application/x-www-form-urlencoded
+     * @param params  请求体（body），传入map最后打包成表单格式字符串
+     */
+    public static MyHttpRequest postForm(String url, Map<String, String> headers, Map<String, String> params) {
+        return new MyHttpRequest(POST, url,
+                withContentType(headers, "application/x-www-form-urlencoded; charset=UTF-8"), params, null);
+    }
+
+    /**
+     * post请求，请求体为xml报文
+     *
+     * @param url     协议+主机+端口+路径
+     * @param headers 请求头，为空时默认text/html
+     * @param xml     请求体（body），xml报文字符串
+     */
+    public static MyHttpRequest postXml(String url, Map<String, String> headers, String xml) {
+        return new MyHttpRequest(POST, url, withContentType(headers, "text/html; charset=UTF-8"), null, xml);
+    }
+
+    /**
+     * post请求，请求体为json报文
+     *
+     * @param url     协议+主机+端口+路径
+     * @param headers 请求头，为空时默认application/json
+     * @param json    请求体（body），json报文字符串
+     */
+    public static MyHttpRequest postJson(String url, Map<String, String> headers, String json) {
+        return new MyHttpRequest(POST, url, withContentType(headers, "application/json; charset=UTF-8"), null, json);
+    }
+
+    private static Map<String, String> withContentType(Map<String, String> headers, String contentType) {
+        if (headers != null) {
+            return headers;
+        }
+        return Collections.singletonMap("content-type", contentType);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + url;
+    }
+}
@@ -0,0 +1,139 @@
+package org.cent.HttpClientDemo.util;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * http请求响应结果封装类（状态码、响应头、响应体），不可变，可跨线程传递
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class MyHttpResponse {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final int statusCode;
+    private final String reasonPhrase;
+    // 响应头，名称不区分大小写，同名头按出现顺序保存
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+
+    public MyHttpResponse(int statusCode, String reasonPhrase, Map<String, List<String>> headers, byte[] body) {
+        this.statusCode = statusCode;
+        this.reasonPhrase = reasonPhrase;
+        this.headers = headers == null ? Collections.emptyMap() : Collections.unmodifiableMap(headers);
+        this.body = body == null ? EMPTY_BODY : body;
+    }
+
+    /**
+     * 由HttpClient响应转换，读取并消费完响应体以便连接归还连接池
+     *
+     * @param httpResponse HttpClient响应
+     * @return 响应结果
+     * @throws IOException 读取响应体异常
+     */
+    public static MyHttpResponse of(HttpResponse httpResponse) throws IOException {
+        HttpEntity entity = httpResponse.getEntity();
+        byte[] body = entity == null ? null : EntityUtils.toByteArray(entity);
+        return new MyHttpResponse(httpResponse.getStatusLine().getStatusCode(),
+                httpResponse.getStatusLine().getReasonPhrase(),
+                toHeaderMap(httpResponse.getAllHeaders()),
+                body);
+    }
+
+    /**
+     * 响应头数组转换为不区分大小写的map
+     *
+     * @param allHeaders 响应头数组
+     * @return 响应头map
+     */
+    public static Map<String, List<String>> toHeaderMap(Header[] allHeaders) {
+        Map<String, List<String>> headerMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Header header : allHeaders) {
+            headerMap.computeIfAbsent(header.getName(), k -> new ArrayList<>(1)).add(header.getValue());
+        }
+        return headerMap;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getReasonPhrase() {
+        return reasonPhrase;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * 获取指定名称的首个响应头值
+     *
+     * @param name 响应头名称（不区分大小写）
+     * @return 响应头值，不存在时返回null
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * 是否请求成功（2xx）
+     */
+    public boolean isSuccess() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * 获取原始响应体字节（不复制，调用方不要修改）
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * 按响应头content-type声明的字符集解码响应体，未声明时默认utf-8
+     */
+    public String getBodyAsString() {
+        return new String(body, getCharset());
+    }
+
+    /**
+     * 响应头content-type声明的字符集，未声明时默认utf-8
+     */
+    public Charset getCharset() {
+        String contentType = getHeader("content-type");
+        if (contentType != null) {
+            try {
+                Charset charset = ContentType.parse(contentType).getCharset();
+                if (charset != null) {
+                    return charset;
+                }
+            } catch (RuntimeException e) {
+                // content-type格式或字符集不合法时使用默认字符集
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    @Override
+    public String toString() {
+        return "MyHttpResponse{statusCode=" + statusCode
+                + ", reasonPhrase='" + reasonPhrase + '\''
+                + ", bodyLength=" + body.length + '}';
+    }
+}
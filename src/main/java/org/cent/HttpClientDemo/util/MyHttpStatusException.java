@@ -0,0 +1,32 @@
+package org.cent.HttpClientDemo.util;
+
+import java.io.IOException;
+
+/**
+ * 响应状态码非2xx异常，类型化接口（如postJson返回对象）无法把错误响应转换为结果时抛出
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class MyHttpStatusException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final MyHttpResponse response;
+
+    /**
+     * @param response 错误响应（同步流式读取时不含响应体）
+     */
+    public MyHttpStatusException(MyHttpResponse response) {
+        super("HTTP " + response.getStatusCode() + " " + response.getReasonPhrase());
+        this.response = response;
+    }
+
+    public int getStatusCode() {
+        return response.getStatusCode();
+    }
+
+    public MyHttpResponse getResponse() {
+        return response;
+    }
+}
@@ -0,0 +1,70 @@
+package org.cent.HttpClientDemo.util;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONWriter;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * json请求体，同步发送（writeTo）时fastjson的JSONWriter把对象分段（每段约8K字符）序列化写入请求输出流，
+ * 不生成完整的json字符串及字节数组；以输入流读取（getContent）时仍整体序列化为字节数组
+ * 序列化前长度未知，以chunked方式发送；可重复发送（每次重新序列化）
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class MyJsonEntity extends AbstractHttpEntity {
+
+    private final Object value;
+
+    /**
+     * @param value 序列化为json的对象
+     */
+    public MyJsonEntity(Object value) {
+        this.value = value;
+        setContentType(ContentType.APPLICATION_JSON.toString());
+        setChunked(true);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    /**
+     * 以输入流读取时（如异步发送、HTTP/2传输）整体序列化为utf-8字节数组，不是流式的
+     */
+    @Override
+    public InputStream getContent() {
+        return new ByteArrayInputStream(JSON.toJSONBytes(value));
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        if (outStream == null) {
+            throw new IllegalArgumentException("Output stream may not be null");
+        }
+        // JSONWriter的缓冲区写满即写出，close只写出剩余内容，不关闭输出流
+        JSONWriter writer = new JSONWriter(new OutputStreamWriter(outStream, StandardCharsets.UTF_8));
+        writer.writeObject(value);
+        writer.close();
+        outStream.flush();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+}
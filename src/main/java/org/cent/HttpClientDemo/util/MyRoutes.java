@@ -0,0 +1,46 @@
+package org.cent.HttpClientDemo.util;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.utils.URIUtils;
+
+import java.net.URI;
+
+/**
+ * 路由主机工具类，按路由（协议+主机+端口）区分的指标、限流、熔断等统一用此处得到的主机作为key
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class MyRoutes {
+
+    private MyRoutes() {
+    }
+
+    /**
+     * 统一路由主机：未指定端口时按协议补默认端口，使请求URI与连接池路由得到同一个key
+     *
+     * @param host 主机
+     * @return 端口确定的主机
+     */
+    public static HttpHost normalize(HttpHost host) {
+        if (host.getPort() > 0) {
+            return host;
+        }
+        int port = "https".equalsIgnoreCase(host.getSchemeName()) ? 443 : 80;
+        return new HttpHost(host.getHostName(), port, host.getSchemeName());
+    }
+
+    /**
+     * 请求地址的路由主机
+     *
+     * @param uri 请求地址
+     * @return 端口确定的主机
+     */
+    public static HttpHost target(URI uri) {
+        HttpHost host = URIUtils.extractHost(uri);
+        if (host == null) {
+            throw new IllegalArgumentException("URI has no host: " + uri);
+        }
+        return normalize(host);
+    }
+}
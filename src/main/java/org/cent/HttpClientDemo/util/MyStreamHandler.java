@@ -0,0 +1,25 @@
+package org.cent.HttpClientDemo.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 响应体输入流处理接口，由调用方直接读取响应体流并转换为结果
+ * 输入流仅在回调内有效，回调返回后连接即归还连接池
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+@FunctionalInterface
+public interface MyStreamHandler<T> {
+
+    /**
+     * 处理响应
+     *
+     * @param head 响应状态及响应头（不含响应体）
+     * @param body 响应体输入流，无响应体时为空流
+     * @return 处理结果
+     * @throws IOException 读取异常，抛出后中止请求并丢弃连接
+     */
+    T handle(MyHttpResponse head, InputStream body) throws IOException;
+}
@@ -0,0 +1,20 @@
+package org.cent.HttpClientDemo.util.balance;
+
+/**
+ * 副本选择策略，均为随机取两个可用副本（power of two choices）比较负载后选择较轻者
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public enum BalancingStrategy {
+
+    /**
+     * 在途请求数较少者
+     */
+    LEAST_OUTSTANDING,
+
+    /**
+     * 延迟加权：响应时间的峰值指数加权平均（peak EWMA）×（在途请求数+1）较小者，慢副本自动少分流量
+     */
+    EWMA
+}
@@ -0,0 +1,118 @@
+package org.cent.HttpClientDemo.util.balance;
+
+import org.apache.http.HttpHost;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务的一个副本（协议+主机+端口）及其负载统计：在途请求数、响应时间峰值EWMA、连续失败及摘除状态
+ * 副本列表更新时保留仍存在的副本的统计
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class Endpoint {
+
+    private final HttpHost host;
+    private final AtomicInteger outstanding = new AtomicInteger(0);
+    // 响应时间峰值EWMA（纳秒），未有响应时为0
+    private volatile double ewmaNanos;
+    private long lastObserved;
+    private int consecutiveFailures;
+    // 连续被摘除次数，成功后清零，决定下次摘除时长
+    private int ejections;
+    // 摘除截止时间（System.nanoTime），未摘除时为0
+    private volatile long ejectedUntil;
+
+    Endpoint(HttpHost host) {
+        this.host = host;
+    }
+
+    public HttpHost getHost() {
+        return host;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public double getEwmaMillis() {
+        return ewmaNanos / 1e6;
+    }
+
+    /**
+     * 当前是否被摘除
+     */
+    public boolean isEjected() {
+        return isEjected(System.nanoTime());
+    }
+
+    boolean isEjected(long now) {
+        long until = ejectedUntil;
+        return until != 0 && until - now > 0;
+    }
+
+    /**
+     * 按策略计算的负载，越小越优先
+     */
+    double cost(BalancingStrategy strategy) {
+        int inFlight = outstanding.get();
+        if (strategy == BalancingStrategy.EWMA) {
+            return (ewmaNanos + 1) * (inFlight + 1);
+        }
+        return inFlight;
+    }
+
+    void start() {
+        outstanding.incrementAndGet();
+    }
+
+    void finish() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * 记录响应时间：比当前值大时直接取新值（峰值），否则按距上次记录的时间指数衰减
+     */
+    synchronized void observe(long latencyNanos, long now, long decayMillis) {
+        double ewma = ewmaNanos;
+        if (ewma == 0 || latencyNanos > ewma) {
+            ewmaNanos = latencyNanos;
+        } else {
+            double elapsed = Math.max(0, now - lastObserved);
+            double weight = Math.exp(-elapsed / TimeUnit.MILLISECONDS.toNanos(Math.max(decayMillis, 1)));
+            ewmaNanos = ewma * weight + latencyNanos * (1 - weight);
+        }
+        lastObserved = now;
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        ejections = 0;
+    }
+
+    /**
+     * 记录一次失败
+     *
+     * @return 连续失败次数
+     */
+    synchronized int onFailure() {
+        return ++consecutiveFailures;
+    }
+
+    /**
+     * 摘除副本，摘除时长随连续被摘除次数增加（最多10倍）
+     */
+    synchronized void eject(long now, long baseEjectionMillis) {
+        ejections = Math.min(ejections + 1, 10);
+        consecutiveFailures = 0;
+        ejectedUntil = now + TimeUnit.MILLISECONDS.toNanos(baseEjectionMillis * ejections);
+    }
+
+    @Override
+    public String toString() {
+        return host.toURI() + "[outstanding=" + outstanding.get() + ", ewma=" + String.format("%.1f", getEwmaMillis())
+                + "ms" + (isEjected() ? ", ejected" : "") + "]";
+    }
+}
@@ -0,0 +1,357 @@
+package org.cent.HttpClientDemo.util.balance;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.apache.http.HttpHost;
+import org.cent.HttpClientDemo.util.MyRoutes;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 客户端负载均衡，同步及异步工具类可共享同一实例
+ * 逻辑服务名对应一组副本（静态列表或定期检查变更的文件），请求地址写作lb://服务名/路径，
+ * 每次发送（含重试及对冲）按策略随机取两个可用副本选择负载较轻者，改写为该副本的地址；
+ * 连续失败的副本被动摘除一段时间，全部副本都被摘除时仍在全部副本中选择
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class LoadBalancer implements AutoCloseable {
+
+    // 逻辑服务地址的协议
+    public static final String SCHEME = "lb";
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Service> services = new ConcurrentHashMap<>();
+    // 副本文件检查线程，首次watch时创建
+    private ScheduledThreadPoolExecutor watcher;
+
+    /**
+     * @param registry 指标注册表
+     */
+    public LoadBalancer(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 是否逻辑服务地址（lb://服务名/路径）
+     *
+     * @param uri 请求地址
+     * @return 是否需要负载均衡
+     */
+    public static boolean isBalanced(URI uri) {
+        return SCHEME.equalsIgnoreCase(uri.getScheme());
+    }
+
+    /**
+     * 以默认配置注册服务或更新其副本列表
+     *
+     * @param service   服务名
+     * @param endpoints 副本地址（协议+主机+端口）
+     */
+    public void register(String service, List<String> endpoints) {
+        register(service, endpoints, new LoadBalancerConfig());
+    }
+
+    /**
+     * 注册服务或更新其副本列表，仍存在的副本保留负载统计；已注册时配置不变
+     *
+     * @param service   服务名
+     * @param endpoints 副本地址（协议+主机+端口）
+     * @param config    负载均衡配置
+     */
+    public void register(String service, List<String> endpoints, LoadBalancerConfig config) {
+        service(service, config).update(parse(endpoints));
+    }
+
+    /**
+     * 注册服务，副本列表从文件读取（每行一个地址，忽略空行及#注释），每period检查文件修改时间及大小，变更时重新读取
+     * 文件不存在或读取失败时保留原副本列表
+     *
+     * @param service      服务名
+     * @param file         副本列表文件
+     * @param periodMillis 检查周期（毫秒）
+     * @param config       负载均衡配置
+     */
+    public void watch(String service, Path file, long periodMillis, LoadBalancerConfig config) {
+        Service target = service(service, config);
+        FileSource source = new FileSource(target, file);
+        source.refresh();
+        synchronized (this) {
+            if (watcher == null) {
+                watcher = new ScheduledThreadPoolExecutor(1, runnable -> {
+                    Thread thread = new Thread(runnable, "httpclient-balancer-watch");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            watcher.scheduleWithFixedDelay(source::refresh, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 服务当前的副本及其负载统计
+     *
+     * @param service 服务名
+     * @return 副本列表，未注册时为空
+     */
+    public List<Endpoint> getEndpoints(String service) {
+        Service target = services.get(service);
+        return target == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(target.endpoints));
+    }
+
+    /**
+     * 为逻辑服务地址选择副本，请求结束后须调用返回选择的onResult或release
+     *
+     * @param uri 逻辑服务地址（lb://服务名/路径）
+     * @return 选择结果
+     * @throws UnknownHostException 服务未注册或没有副本
+     */
+    public Pick pick(URI uri) throws UnknownHostException {
+        String name = uri.getHost() != null ? uri.getHost() : uri.getAuthority();
+        Service target = name == null ? null : services.get(name);
+        Endpoint endpoint = target == null ? null : target.choose();
+        if (endpoint == null) {
+            throw new UnknownHostException("no endpoints for service: " + name);
+        }
+        endpoint.start();
+        return new Pick(target, endpoint);
+    }
+
+    /**
+     * 停止副本文件检查
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+
+    private Service service(String name, LoadBalancerConfig config) {
+        Service service = services.get(name);
+        return service != null ? service : services.computeIfAbsent(name, key -> new Service(key, config));
+    }
+
+    private static List<HttpHost> parse(List<String> endpoints) {
+        List<HttpHost> hosts = new ArrayList<>(endpoints.size());
+        for (String endpoint : endpoints) {
+            String url = endpoint.trim();
+            if (!url.isEmpty() && !url.startsWith("#")) {
+                hosts.add(MyRoutes.target(URI.create(url)));
+            }
+        }
+        return hosts;
+    }
+
+    /**
+     * 一次副本选择，请求结束时报告结果（恰好一次），更新副本的在途请求数、响应时间及连续失败
+     */
+    public static final class Pick {
+
+        private final Service service;
+        private final Endpoint endpoint;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        private Pick(Service service, Endpoint endpoint) {
+            this.service = service;
+            this.endpoint = endpoint;
+        }
+
+        public Endpoint getEndpoint() {
+            return endpoint;
+        }
+
+        /**
+         * 逻辑服务地址改写为所选副本的地址，保留路径及查询参数（不重新编码）
+         *
+         * @param uri 逻辑服务地址
+         * @return 副本地址
+         */
+        public URI rewrite(URI uri) {
+            StringBuilder url = new StringBuilder(endpoint.getHost().toURI());
+            if (uri.getRawPath() != null) {
+                url.append(uri.getRawPath());
+            }
+            if (uri.getRawQuery() != null) {
+                url.append('?').append(uri.getRawQuery());
+            }
+            return URI.create(url.toString());
+        }
+
+        /**
+         * 请求结束，IO异常、超时（statusCode<0）及5xx响应计为失败
+         *
+         * @param statusCode 响应状态码，请求异常时为-1
+         */
+        public void onResult(int statusCode) {
+            if (done.compareAndSet(false, true)) {
+                endpoint.finish();
+                service.onResult(endpoint, System.nanoTime() - start, statusCode < 0 || statusCode >= 500);
+            }
+        }
+
+        /**
+         * 请求被取消（如对冲请求的另一方先完成），只释放在途计数，不计入统计
+         */
+        public void release() {
+            if (done.compareAndSet(false, true)) {
+                endpoint.finish();
+            }
+        }
+    }
+
+    /**
+     * 一个逻辑服务：副本列表、配置及指标
+     */
+    private final class Service {
+
+        private final LoadBalancerConfig config;
+        private final Counter ejected;
+        private volatile Endpoint[] endpoints = new Endpoint[0];
+
+        private Service(String name, LoadBalancerConfig config) {
+            this.config = config;
+            Tags tags = Tags.of("service", name);
+            ejected = Counter.builder("httpclient.balancer.ejected")
+                    .description("Endpoints ejected after consecutive failures")
+                    .tags(tags).register(registry);
+            Gauge.builder("httpclient.balancer.endpoints", this, service -> service.endpoints.length)
+                    .description("Configured endpoints").tags(tags).register(registry);
+            Gauge.builder("httpclient.balancer.endpoints.available", this, Service::available)
+                    .description("Endpoints not currently ejected").tags(tags).register(registry);
+        }
+
+        private synchronized void update(List<HttpHost> hosts) {
+            Map<HttpHost, Endpoint> existing = new HashMap<>();
+            for (Endpoint endpoint : endpoints) {
+                existing.put(endpoint.getHost(), endpoint);
+            }
+            Endpoint[] updated = new Endpoint[hosts.size()];
+            for (int i = 0; i < updated.length; i++) {
+                Endpoint endpoint = existing.get(hosts.get(i));
+                updated[i] = endpoint != null ? endpoint : new Endpoint(hosts.get(i));
+            }
+            endpoints = updated;
+        }
+
+        private int available() {
+            long now = System.nanoTime();
+            int available = 0;
+            for (Endpoint endpoint : endpoints) {
+                if (!endpoint.isEjected(now)) {
+                    available++;
+                }
+            }
+            return available;
+        }
+
+        /**
+         * 随机取两个不同的副本选择负载较轻者；取到被摘除的副本时改为在可用副本中选择
+         */
+        private Endpoint choose() {
+            Endpoint[] all = endpoints;
+            if (all.length <= 1) {
+                return all.length == 0 ? null : all[0];
+            }
+            long now = System.nanoTime();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Endpoint[] candidates = all;
+            int i = random.nextInt(all.length);
+            int j = random.nextInt(all.length - 1);
+            if (all[i].isEjected(now) || all[j >= i ? j + 1 : j].isEjected(now)) {
+                List<Endpoint> available = new ArrayList<>(all.length);
+                for (Endpoint endpoint : all) {
+                    if (!endpoint.isEjected(now)) {
+                        available.add(endpoint);
+                    }
+                }
+                // 全部被摘除时仍在全部副本中选择
+                if (!available.isEmpty()) {
+                    candidates = available.toArray(new Endpoint[0]);
+                }
+                if (candidates.length == 1) {
+                    return candidates[0];
+                }
+                i = random.nextInt(candidates.length);
+                j = random.nextInt(candidates.length - 1);
+            }
+            Endpoint a = candidates[i];
+            Endpoint b = candidates[j >= i ? j + 1 : j];
+            BalancingStrategy strategy = config.getStrategy();
+            return a.cost(strategy) <= b.cost(strategy) ? a : b;
+        }
+
+        private void onResult(Endpoint endpoint, long latencyNanos, boolean failed) {
+            long now = System.nanoTime();
+            endpoint.observe(latencyNanos, now, config.getDecayMillis());
+            if (!failed) {
+                endpoint.onSuccess();
+                return;
+            }
+            if (endpoint.onFailure() < config.getConsecutiveFailures() || endpoint.isEjected(now)) {
+                return;
+            }
+            // 同时被摘除的副本数不超过上限（至少允许摘除一个）
+            Endpoint[] all = endpoints;
+            int maxEjected = Math.max(1, all.length * config.getMaxEjectionPercent() / 100);
+            if (all.length - available() < maxEjected) {
+                endpoint.eject(now, config.getBaseEjectionMillis());
+                ejected.increment();
+            }
+        }
+    }
+
+    /**
+     * 副本列表文件，修改时间或大小变化时重新读取
+     */
+    private static final class FileSource {
+
+        private final Service service;
+        private final Path file;
+        private FileTime lastModified;
+        private long lastSize = -1;
+
+        private FileSource(Service service, Path file) {
+            this.service = service;
+            this.file = file;
+        }
+
+        private synchronized void refresh() {
+            try {
+                FileTime modified = Files.getLastModifiedTime(file);
+                long size = Files.size(file);
+                if (modified.equals(lastModified) && size == lastSize) {
+                    return;
+                }
+                service.update(parse(Files.readAllLines(file, StandardCharsets.UTF_8)));
+                lastModified = modified;
+                lastSize = size;
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
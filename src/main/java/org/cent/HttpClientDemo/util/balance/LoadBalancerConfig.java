@@ -0,0 +1,62 @@
+package org.cent.HttpClientDemo.util.balance;
+
+/**
+ * 服务负载均衡配置：选择策略、EWMA衰减时间，及被动摘除异常副本（连续失败consecutiveFailures次摘除，
+ * 摘除时间为baseEjectionMillis×连续被摘除次数，同时被摘除的副本不超过maxEjectionPercent）
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class LoadBalancerConfig {
+
+    // 选择策略
+    private BalancingStrategy strategy = BalancingStrategy.LEAST_OUTSTANDING;
+    // EWMA衰减时间常数（毫秒），越小越快反映最近的响应时间
+    private long decayMillis = 10000;
+    // 连续失败（IO异常、超时及5xx响应）该次数后摘除副本
+    private int consecutiveFailures = 5;
+    // 基础摘除时间（毫秒）
+    private long baseEjectionMillis = 30000;
+    // 同时被摘除副本数占比上限（百分比），避免故障扩散时摘除全部副本
+    private int maxEjectionPercent = 50;
+
+    public BalancingStrategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(BalancingStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public long getDecayMillis() {
+        return decayMillis;
+    }
+
+    public void setDecayMillis(long decayMillis) {
+        this.decayMillis = decayMillis;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public void setConsecutiveFailures(int consecutiveFailures) {
+        this.consecutiveFailures = consecutiveFailures;
+    }
+
+    public long getBaseEjectionMillis() {
+        return baseEjectionMillis;
+    }
+
+    public void setBaseEjectionMillis(long baseEjectionMillis) {
+        this.baseEjectionMillis = baseEjectionMillis;
+    }
+
+    public int getMaxEjectionPercent() {
+        return maxEjectionPercent;
+    }
+
+    public void setMaxEjectionPercent(int maxEjectionPercent) {
+        this.maxEjectionPercent = maxEjectionPercent;
+    }
+}
@@ -0,0 +1,313 @@
+package org.cent.HttpClientDemo.util.breaker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.apache.http.HttpHost;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.cent.HttpClientDemo.util.MyRoutes;
+import org.cent.HttpClientDemo.util.deadline.DeadlineExceededException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 按路由熔断器，同步及异步工具类可共享同一实例
+ * 关闭：正常放行并统计最近请求的失败率、慢请求率，超过阈值转为打开；
+ * 打开：直接抛出CircuitOpenException，不占用连接及调用线程，持续一段时间后转为半开；
+ * 半开：只放行有限个探测请求，全部成功转为关闭，任一失败重新打开
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class CircuitBreaker {
+
+    /**
+     * 熔断状态
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final CircuitBreakerConfig config;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<HttpHost, RouteBreaker> routes = new ConcurrentHashMap<>();
+
+    /**
+     * @param config   熔断配置
+     * @param registry 指标注册表
+     */
+    public CircuitBreaker(CircuitBreakerConfig config, MeterRegistry registry) {
+        this.config = config;
+        this.registry = registry;
+    }
+
+    /**
+     * 申请放行一个请求，请求结束后须调用许可的onResult或release
+     *
+     * @param target 目标主机
+     * @return 放行许可
+     * @throws CircuitOpenException 路由已熔断或半开状态探测名额已满
+     */
+    public Permit acquire(HttpHost target) {
+        HttpHost key = MyRoutes.normalize(target);
+        RouteBreaker breaker = routes.get(key);
+        if (breaker == null) {
+            breaker = routes.computeIfAbsent(key, RouteBreaker::new);
+        }
+        return breaker.acquire();
+    }
+
+    /**
+     * 经熔断器执行异步请求
+     *
+     * @param target 目标主机
+     * @param call   实际发送请求，放行后调用
+     * @return 异步响应结果，熔断时以CircuitOpenException异常完成
+     */
+    public CompletableFuture<MyHttpResponse> submit(HttpHost target, Supplier<CompletableFuture<MyHttpResponse>> call) {
+        Permit permit;
+        try {
+            permit = acquire(target);
+        } catch (CircuitOpenException e) {
+            CompletableFuture<MyHttpResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        long start = System.nanoTime();
+        CompletableFuture<MyHttpResponse> sent;
+        try {
+            sent = call.get();
+        } catch (RuntimeException e) {
+            permit.onResult(System.nanoTime() - start, -1);
+            throw e;
+        }
+        sent.whenComplete((response, ex) -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof CancellationException || cause instanceof RejectedExecutionException
+                    || cause instanceof DeadlineExceededException) {
+                // 取消（调用方放弃或对冲落败）、本地拒绝（准入控制）及调用方截止时间已到不代表上游状态，只释放探测名额
+                permit.release();
+            } else {
+                permit.onResult(System.nanoTime() - start, cause != null ? -1 : response.getStatusCode());
+            }
+        });
+        return sent;
+    }
+
+    /**
+     * 路由当前熔断状态，未出现过的路由为关闭
+     */
+    public State getState(HttpHost target) {
+        RouteBreaker breaker = routes.get(MyRoutes.normalize(target));
+        return breaker == null ? State.CLOSED : breaker.currentState();
+    }
+
+    /**
+     * 放行许可，记录一次请求结果
+     */
+    public interface Permit {
+
+        /**
+         * 记录请求结果
+         *
+         * @param nanos      请求耗时
+         * @param statusCode 响应状态码，请求异常时为-1
+         */
+        void onResult(long nanos, int statusCode);
+
+        /**
+         * 不记录结果释放许可（请求被取消或被本地拒绝）
+         */
+        void release();
+    }
+
+    /**
+     * 单个路由的熔断状态，滑动窗口为环形数组记录最近请求结果
+     */
+    private class RouteBreaker {
+
+        private static final byte FAILED = 1;
+        private static final byte SLOW = 2;
+
+        private final String route;
+        private final byte[] window = new byte[Math.max(1, config.getWindowSize())];
+        private final long slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDurationMillis());
+        private final Counter rejected;
+        private final Counter opened;
+        // 以下状态由lock保护（使用ReentrantLock而非synchronized，同步客户端运行在虚拟线程上时竞争锁不会占住载体线程）
+        private final ReentrantLock lock = new ReentrantLock();
+        private State state = State.CLOSED;
+        private int calls;
+        private int next;
+        private int failures;
+        private int slowCalls;
+        private long openedNanos;
+        private long halfOpenRound;
+        private int probesInFlight;
+        private int probesSucceeded;
+
+        RouteBreaker(HttpHost target) {
+            this.route = target.toURI();
+            Tags tags = Tags.of("route", route);
+            this.rejected = Counter.builder("httpclient.breaker.rejected").tags(tags).register(registry);
+            this.opened = Counter.builder("httpclient.breaker.opened").tags(tags).register(registry);
+            Gauge.builder("httpclient.breaker.state", this, breaker -> breaker.currentState().ordinal())
+                    .description("0=closed, 1=open, 2=half-open")
+                    .tags(tags)
+                    .register(registry);
+        }
+
+        State currentState() {
+            lock.lock();
+            try {
+                if (state == State.OPEN && System.nanoTime() - openedNanos >= TimeUnit.MILLISECONDS.toNanos(config.getOpenDurationMillis())) {
+                    state = State.HALF_OPEN;
+                    halfOpenRound++;
+                    probesInFlight = 0;
+                    probesSucceeded = 0;
+                }
+                return state;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Permit acquire() {
+            lock.lock();
+            try {
+                State current = currentState();
+                if (current == State.CLOSED) {
+                    return new RoutePermit(-1);
+                }
+                if (current == State.HALF_OPEN && probesInFlight + probesSucceeded < config.getHalfOpenProbes()) {
+                    probesInFlight++;
+                    return new RoutePermit(halfOpenRound);
+                }
+            } finally {
+                lock.unlock();
+            }
+            rejected.increment();
+            throw new CircuitOpenException(route);
+        }
+
+        /**
+         * @param round 探测请求所属的半开轮次，非探测请求为-1
+         */
+        void onResult(long round, long nanos, int statusCode) {
+            boolean failed = statusCode < 0 || statusCode >= 500;
+            boolean slow = nanos >= slowCallNanos;
+            lock.lock();
+            try {
+                record(round, failed, slow);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 记录结果并按需转换状态（调用方持有锁）
+         */
+        private void record(long round, boolean failed, boolean slow) {
+            if (round >= 0) {
+                // 只有本轮半开的探测结果有效
+                if (state != State.HALF_OPEN || round != halfOpenRound) {
+                    return;
+                }
+                probesInFlight--;
+                if (failed || slow) {
+                    open();
+                } else if (++probesSucceeded >= config.getHalfOpenProbes()) {
+                    close();
+                }
+                return;
+            }
+            if (state != State.CLOSED) {
+                // 熔断前发出、熔断后才完成的请求不再计入
+                return;
+            }
+            if (calls == window.length) {
+                byte evicted = window[next];
+                failures -= evicted & FAILED;
+                slowCalls -= (evicted & SLOW) >> 1;
+            } else {
+                calls++;
+            }
+            window[next] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+            next = (next + 1) % window.length;
+            if (failed) {
+                failures++;
+            }
+            if (slow) {
+                slowCalls++;
+            }
+            if (calls >= config.getMinimumCalls()
+                    && (failures >= calls * config.getFailureRateThreshold()
+                    || slowCalls >= calls * config.getSlowCallRateThreshold())) {
+                open();
+            }
+        }
+
+        void release(long round) {
+            lock.lock();
+            try {
+                if (round >= 0 && state == State.HALF_OPEN && round == halfOpenRound) {
+                    probesInFlight--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openedNanos = System.nanoTime();
+            opened.increment();
+        }
+
+        private void close() {
+            state = State.CLOSED;
+            calls = 0;
+            next = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+
+        /**
+         * 单次放行许可，结果只记录一次
+         */
+        private class RoutePermit implements Permit {
+
+            private final long round;
+            private boolean done;
+
+            RoutePermit(long round) {
+                this.round = round;
+            }
+
+            @Override
+            public void onResult(long nanos, int statusCode) {
+                if (!done) {
+                    done = true;
+                    RouteBreaker.this.onResult(round, nanos, statusCode);
+                }
+            }
+
+            @Override
+            public void release() {
+                if (!done) {
+                    done = true;
+                    RouteBreaker.this.release(round);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.cent.HttpClientDemo.util.breaker;
+
+/**
+ * 按路由熔断配置：最近windowSize次请求中失败率或慢请求率超过阈值时熔断，
+ * 熔断openDurationMillis后进入半开状态，放行halfOpenProbes个探测请求，全部成功则恢复，任一失败重新熔断
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class CircuitBreakerConfig {
+
+    // 滑动窗口大小（最近请求数）
+    private int windowSize = 100;
+    // 窗口内至少有该请求数才计算失败率，避免少量请求误熔断
+    private int minimumCalls = 20;
+    // 失败率阈值（IO异常、超时及5xx响应视为失败）
+    private double failureRateThreshold = 0.5;
+    // 耗时不小于该值（毫秒）视为慢请求
+    private long slowCallDurationMillis = 5000;
+    // 慢请求率阈值
+    private double slowCallRateThreshold = 0.8;
+    // 熔断持续时间（毫秒），之后进入半开状态
+    private long openDurationMillis = 5000;
+    // 半开状态放行的探测请求数
+    private int halfOpenProbes = 5;
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public long getSlowCallDurationMillis() {
+        return slowCallDurationMillis;
+    }
+
+    public void setSlowCallDurationMillis(long slowCallDurationMillis) {
+        this.slowCallDurationMillis = slowCallDurationMillis;
+    }
+
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public long getOpenDurationMillis() {
+        return openDurationMillis;
+    }
+
+    public void setOpenDurationMillis(long openDurationMillis) {
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    public int getHalfOpenProbes() {
+        return halfOpenProbes;
+    }
+
+    public void setHalfOpenProbes(int halfOpenProbes) {
+        this.halfOpenProbes = halfOpenProbes;
+    }
+}
@@ -0,0 +1,33 @@
+package org.cent.HttpClientDemo.util.breaker;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 路由已熔断异常，请求未发往上游
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class CircuitOpenException extends RejectedExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String route;
+
+    public CircuitOpenException(String route) {
+        super("circuit open: " + route);
+        this.route = route;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * 熔断期间每个请求都会抛出，不填充调用栈以保证快速失败
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,141 @@
+package org.cent.HttpClientDemo.util.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分级ByteBuffer池，容量按2的幂分为若干级，每级各自缓存空闲缓冲区，可选堆外（direct）内存
+ * 借出时按所需容量取最小的满足级别，超过最大级别时临时分配不入池；池满时归还的缓冲区丢弃交由GC回收，线程安全
+ * 池只保存空闲缓冲区而不登记借出的缓冲区，未归还的缓冲区不会泄漏，只是不再复用
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class ByteBufferPool {
+
+    // 默认共享池：堆内存，4KB~4MB共11级，每级最多缓存8MB
+    public static final ByteBufferPool DEFAULT = new ByteBufferPool(false, 4 * 1024, 4 * 1024 * 1024, 8 * 1024 * 1024);
+
+    private final boolean direct;
+    private final int minSize;
+    private final int maxSize;
+    private final SizeClass[] classes;
+
+    /**
+     * @param direct           是否分配堆外内存
+     * @param minSize          最小级别容量，向上取2的幂
+     * @param maxSize          最大级别容量，向上取2的幂
+     * @param maxPooledPerSize 每级最多缓存的字节数
+     */
+    public ByteBufferPool(boolean direct, int minSize, int maxSize, long maxPooledPerSize) {
+        if (minSize <= 0 || maxSize < minSize || maxPooledPerSize < 0) {
+            throw new IllegalArgumentException("requires 0 < minSize <= maxSize and maxPooledPerSize >= 0");
+        }
+        this.direct = direct;
+        this.minSize = ceilPowerOfTwo(minSize);
+        this.maxSize = ceilPowerOfTwo(maxSize);
+        int count = Integer.numberOfTrailingZeros(this.maxSize) - Integer.numberOfTrailingZeros(this.minSize) + 1;
+        classes = new SizeClass[count];
+        for (int i = 0; i < count; i++) {
+            int size = this.minSize << i;
+            classes[i] = new SizeClass(size, (int) Math.min(Integer.MAX_VALUE, maxPooledPerSize / size));
+        }
+    }
+
+    /**
+     * 借出缓冲区，使用完毕须调用release归还
+     *
+     * @param capacity 所需最小容量
+     * @return position为0、limit为容量的缓冲区（内容不保证清零），容量为不小于capacity的级别容量
+     */
+    public ByteBuffer acquire(int capacity) {
+        SizeClass sizeClass = sizeClass(capacity);
+        if (sizeClass == null) {
+            return allocate(capacity);
+        }
+        ByteBuffer buffer = sizeClass.buffers.poll();
+        if (buffer == null) {
+            return allocate(sizeClass.size);
+        }
+        sizeClass.pooled.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * 归还缓冲区，非本池规格的缓冲区或该级已满时丢弃
+     *
+     * @param buffer 缓冲区
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.isDirect() != direct || buffer.isReadOnly()) {
+            return;
+        }
+        SizeClass sizeClass = sizeClass(buffer.capacity());
+        if (sizeClass == null || sizeClass.size != buffer.capacity()) {
+            return;
+        }
+        if (sizeClass.pooled.incrementAndGet() > sizeClass.maxPooled) {
+            sizeClass.pooled.decrementAndGet();
+            return;
+        }
+        sizeClass.buffers.offer(buffer);
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 当前池中空闲缓冲区总字节数
+     */
+    public long getPooledBytes() {
+        long bytes = 0;
+        for (SizeClass sizeClass : classes) {
+            bytes += (long) sizeClass.pooled.get() * sizeClass.size;
+        }
+        return bytes;
+    }
+
+    private SizeClass sizeClass(int capacity) {
+        if (capacity > maxSize) {
+            return null;
+        }
+        if (capacity <= minSize) {
+            return classes[0];
+        }
+        return classes[Integer.numberOfTrailingZeros(ceilPowerOfTwo(capacity)) - Integer.numberOfTrailingZeros(minSize)];
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static int ceilPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+
+    /**
+     * 单个级别的空闲缓冲区
+     */
+    private static class SizeClass {
+
+        private final int size;
+        private final int maxPooled;
+        private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+        // 池中缓冲区数量（ConcurrentLinkedQueue.size()需遍历，单独计数）
+        private final AtomicInteger pooled = new AtomicInteger(0);
+
+        SizeClass(int size, int maxPooled) {
+            this.size = size;
+            this.maxPooled = maxPooled;
+        }
+    }
+}
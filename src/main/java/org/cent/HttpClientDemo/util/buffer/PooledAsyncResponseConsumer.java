@@ -0,0 +1,190 @@
+package org.cent.HttpClientDemo.util.buffer;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.ByteArrayBuffer;
+import org.cent.HttpClientDemo.util.MyBodyConsumer;
+import org.cent.HttpClientDemo.util.MyBufferPool;
+import org.cent.HttpClientDemo.util.compress.ContentCoding;
+import org.cent.HttpClientDemo.util.compress.StreamingInflater;
+import org.cent.HttpClientDemo.util.metrics.HttpClientMetrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 池化缓冲区的异步响应消费者，不为每个响应分配新的缓冲区，两种模式：
+ * <ul>
+ * <li>收集：响应体写入池化缓冲区（未压缩时由通道直接读入，堆外池不经堆内存），结果的响应体为PooledEntity，由调用方释放</li>
+ * <li>流式：每块响应体（解压后）在IO线程交给MyBodyConsumer，不保存响应体，consumer须快速返回</li>
+ * </ul>
+ * 压缩的响应体与DecodingAsyncResponseConsumer一样收到即增量解压，并移除Content-Encoding及Content-Length响应头
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class PooledAsyncResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+
+    // 未声明Content-Length时的初始容量
+    private static final int DEFAULT_CAPACITY = 8 * 1024;
+
+    private final ByteBufferPool pool;
+    private final MyBodyConsumer sink;
+    private final MyBufferPool chunkPool;
+    private final HttpClientMetrics metrics;
+    private HttpResponse response;
+    private ContentType contentType;
+    private PooledBuffer body;
+    // 未压缩响应体声明的长度，未声明或压缩时为-1
+    private long contentLength = -1;
+    private byte[] chunk;
+    private StreamingInflater inflater;
+    private ByteArrayBuffer inflated;
+    private long wireBytes;
+    private long decodedBytes;
+
+    /**
+     * 收集模式
+     *
+     * @param pool      响应体缓冲区池
+     * @param chunkPool 解压时读取压缩数据的缓冲区池
+     * @param metrics   运行指标，记录解压前后字节数
+     */
+    public PooledAsyncResponseConsumer(ByteBufferPool pool, MyBufferPool chunkPool, HttpClientMetrics metrics) {
+        this(pool, null, chunkPool, metrics);
+    }
+
+    /**
+     * 流式模式
+     *
+     * @param sink      响应体分块消费者，在IO线程回调
+     * @param chunkPool 读取响应体的缓冲区池
+     * @param metrics   运行指标，记录解压前后字节数
+     */
+    public PooledAsyncResponseConsumer(MyBodyConsumer sink, MyBufferPool chunkPool, HttpClientMetrics metrics) {
+        this(null, sink, chunkPool, metrics);
+    }
+
+    private PooledAsyncResponseConsumer(ByteBufferPool pool, MyBodyConsumer sink, MyBufferPool chunkPool,
+                                        HttpClientMetrics metrics) {
+        this.pool = pool;
+        this.sink = sink;
+        this.chunkPool = chunkPool;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void onResponseReceived(HttpResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) {
+        this.contentType = contentType;
+        Header contentEncoding = entity.getContentEncoding();
+        ContentCoding coding = contentEncoding == null ? null : ContentCoding.of(contentEncoding.getValue());
+        if (coding != null) {
+            inflater = new StreamingInflater(coding);
+            inflated = new ByteArrayBuffer(DEFAULT_CAPACITY);
+        }
+        if (inflater != null || sink != null) {
+            chunk = chunkPool.acquire();
+        }
+        if (sink == null) {
+            long length = entity.getContentLength();
+            contentLength = inflater == null ? length : -1;
+            // 压缩比未知，按压缩后长度的数倍预分配
+            length = length < 0 ? DEFAULT_CAPACITY : inflater != null ? length * 4 : length;
+            body = new PooledBuffer(pool, (int) Math.min(Math.max(length, 256), pool.getMaxSize()));
+        }
+    }
+
+    @Override
+    protected void onContentReceived(ContentDecoder decoder, IOControl ioControl) throws IOException {
+        if (chunk == null) {
+            // 收集未压缩响应体：由通道直接读入池化缓冲区
+            // 声明了长度时按剩余长度要求可写空间，预分配的缓冲区恰好装下；未声明时写满才扩容
+            int read;
+            do {
+                if (decoder.isCompleted()) {
+                    return;
+                }
+                long remaining = contentLength - wireBytes;
+                ByteBuffer target = body.writable(remaining > 0 ? (int) Math.min(DEFAULT_CAPACITY, remaining) : 1);
+                read = decoder.read(target);
+                if (read > 0) {
+                    wireBytes += read;
+                }
+            } while (read > 0);
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        int read;
+        while ((read = decoder.read(buffer)) > 0) {
+            wireBytes += read;
+            if (inflater != null) {
+                inflater.inflate(chunk, 0, read, inflated);
+                deliver(inflated.buffer(), 0, inflated.length());
+                inflated.clear();
+            } else {
+                deliver(chunk, 0, read);
+            }
+            buffer.clear();
+        }
+    }
+
+    private void deliver(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        decodedBytes += length;
+        if (sink != null) {
+            sink.onChunk(bytes, offset, length);
+        } else {
+            body.write(bytes, offset, length);
+        }
+    }
+
+    @Override
+    protected HttpResponse buildResult(HttpContext context) throws Exception {
+        if (inflater != null) {
+            inflater.finish();
+            response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+            response.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+            metrics.recordCompression(HttpClientMetrics.Direction.RESPONSE, decodedBytes, wireBytes);
+        }
+        if (body != null) {
+            // 响应体转交结果，不再由消费者释放
+            response.setEntity(new PooledEntity(body, contentType));
+            body = null;
+        } else {
+            response.setEntity(null);
+        }
+        return response;
+    }
+
+    @Override
+    protected void releaseResources() {
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+        if (chunk != null) {
+            chunkPool.release(chunk);
+            chunk = null;
+        }
+        if (body != null) {
+            // 请求失败或取消，未转交的响应体归还池
+            body.release();
+            body = null;
+        }
+        response = null;
+    }
+}
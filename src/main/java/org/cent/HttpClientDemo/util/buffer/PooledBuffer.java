@@ -0,0 +1,161 @@
+package org.cent.HttpClientDemo.util.buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 引用计数的池化字节缓冲区，引用计数归零时缓冲区归还缓冲区池
+ * 创建时引用计数为1，交给其他持有者时调用retain，每个持有者用完各调用一次release；释放后不得再访问
+ * 写入只在构造阶段由单个线程进行（响应消费者），发布后只读
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class PooledBuffer {
+
+    private final ByteBufferPool pool;
+    private final AtomicInteger refCnt = new AtomicInteger(1);
+    // 写模式：position为已写入长度
+    private volatile ByteBuffer buffer;
+
+    /**
+     * @param pool     缓冲区池
+     * @param capacity 初始容量
+     */
+    PooledBuffer(ByteBufferPool pool, int capacity) {
+        this.pool = pool;
+        this.buffer = pool.acquire(capacity);
+    }
+
+    private PooledBuffer(byte[] bytes) {
+        this.pool = null;
+        this.buffer = ByteBuffer.wrap(bytes);
+        this.buffer.position(bytes.length);
+    }
+
+    /**
+     * 包装字节数组为不入池的缓冲区（释放时不归还）
+     *
+     * @param bytes 字节数组
+     * @return 缓冲区
+     */
+    public static PooledBuffer wrap(byte[] bytes) {
+        return new PooledBuffer(bytes);
+    }
+
+    /**
+     * 可写入至少minWritable字节的缓冲区，容量不足时换用更大级别的缓冲区（已写入内容随之拷贝）
+     *
+     * @param minWritable 至少可写入的字节数
+     * @return 写模式的底层缓冲区，写入后position前移
+     */
+    ByteBuffer writable(int minWritable) {
+        ByteBuffer current = buffer;
+        if (current.remaining() >= minWritable) {
+            return current;
+        }
+        int required = current.position() + minWritable;
+        if (required < 0) {
+            throw new IllegalStateException("buffer exceeds 2GB");
+        }
+        ByteBuffer grown = pool.acquire(Math.max(required, current.capacity() * 2));
+        current.flip();
+        grown.put(current);
+        pool.release(current);
+        buffer = grown;
+        return grown;
+    }
+
+    /**
+     * 追加写入
+     */
+    void write(byte[] bytes, int offset, int length) {
+        writable(length).put(bytes, offset, length);
+    }
+
+    /**
+     * 已写入字节数
+     */
+    public int length() {
+        return checkAccessible().position();
+    }
+
+    /**
+     * 只读视图，position为0、limit为长度，各视图的position互不影响
+     *
+     * @return 只读缓冲区
+     */
+    public ByteBuffer buffer() {
+        ByteBuffer view = checkAccessible().duplicate();
+        view.flip();
+        return view.asReadOnlyBuffer();
+    }
+
+    /**
+     * 拷贝内容为字节数组
+     */
+    public byte[] toByteArray() {
+        ByteBuffer view = buffer();
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * 按字符集解码内容
+     */
+    public String toString(Charset charset) {
+        return charset.decode(buffer()).toString();
+    }
+
+    /**
+     * 增加引用计数
+     *
+     * @return 当前缓冲区
+     */
+    public PooledBuffer retain() {
+        int count;
+        do {
+            count = refCnt.get();
+            if (count <= 0) {
+                throw new IllegalStateException("buffer already released");
+            }
+        } while (!refCnt.compareAndSet(count, count + 1));
+        return this;
+    }
+
+    /**
+     * 减少引用计数，归零时归还缓冲区池
+     *
+     * @return 是否已归零并归还
+     */
+    public boolean release() {
+        int count = refCnt.decrementAndGet();
+        if (count > 0) {
+            return false;
+        }
+        if (count < 0) {
+            refCnt.incrementAndGet();
+            throw new IllegalStateException("buffer already released");
+        }
+        ByteBuffer released = buffer;
+        buffer = null;
+        if (pool != null) {
+            pool.release(released);
+        }
+        return true;
+    }
+
+    public int refCnt() {
+        return refCnt.get();
+    }
+
+    private ByteBuffer checkAccessible() {
+        ByteBuffer current = buffer;
+        if (current == null) {
+            throw new IllegalStateException("buffer already released");
+        }
+        return current;
+    }
+}
@@ -0,0 +1,59 @@
+package org.cent.HttpClientDemo.util.buffer;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+/**
+ * 池化缓冲区响应体（内部使用），由PooledResponse.of取出缓冲区转交调用方
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class PooledEntity extends AbstractHttpEntity {
+
+    private final PooledBuffer body;
+
+    PooledEntity(PooledBuffer body, ContentType contentType) {
+        this.body = body;
+        if (contentType != null) {
+            setContentType(contentType.toString());
+        }
+    }
+
+    PooledBuffer getBody() {
+        return body;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return body.length();
+    }
+
+    @Override
+    public InputStream getContent() {
+        return new ByteArrayInputStream(body.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        ByteBuffer view = body.buffer();
+        Channels.newChannel(outStream).write(view);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+}
@@ -0,0 +1,119 @@
+package org.cent.HttpClientDemo.util.buffer;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 响应体为池化缓冲区的http响应，调用方用完须close（或对getBody()逐个release）归还缓冲区
+ * 可通过getBody().retain()把响应体交给其他持有者，各持有者用完各自release
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class PooledResponse implements AutoCloseable {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    // 响应状态及响应头（不含响应体）
+    private final MyHttpResponse head;
+    private final PooledBuffer body;
+
+    private PooledResponse(MyHttpResponse head, PooledBuffer body) {
+        this.head = head;
+        this.body = body;
+    }
+
+    /**
+     * 由HttpClient响应转换，池化响应体直接转交不拷贝
+     *
+     * @param httpResponse HttpClient响应
+     * @return 响应结果
+     * @throws IOException 读取响应体异常
+     */
+    public static PooledResponse of(HttpResponse httpResponse) throws IOException {
+        HttpEntity entity = httpResponse.getEntity();
+        PooledBuffer body;
+        if (entity instanceof PooledEntity) {
+            body = ((PooledEntity) entity).getBody();
+        } else {
+            body = PooledBuffer.wrap(entity == null ? EMPTY_BODY : EntityUtils.toByteArray(entity));
+        }
+        return new PooledResponse(new MyHttpResponse(httpResponse.getStatusLine().getStatusCode(),
+                httpResponse.getStatusLine().getReasonPhrase(),
+                MyHttpResponse.toHeaderMap(httpResponse.getAllHeaders()),
+                null), body);
+    }
+
+    /**
+     * 由完整响应转换（如传输引擎的响应），响应体包装为不入池的缓冲区
+     *
+     * @param response 响应结果
+     * @return 响应结果
+     */
+    public static PooledResponse of(MyHttpResponse response) {
+        return new PooledResponse(new MyHttpResponse(response.getStatusCode(), response.getReasonPhrase(),
+                response.getHeaders(), null), PooledBuffer.wrap(response.getBody()));
+    }
+
+    public int getStatusCode() {
+        return head.getStatusCode();
+    }
+
+    /**
+     * 是否请求成功（2xx）
+     */
+    public boolean isSuccess() {
+        return head.isSuccess();
+    }
+
+    /**
+     * 获取指定名称的首个响应头值
+     *
+     * @param name 响应头名称（不区分大小写）
+     * @return 响应头值，不存在时返回null
+     */
+    public String getHeader(String name) {
+        return head.getHeader(name);
+    }
+
+    /**
+     * 响应状态及响应头（不含响应体）
+     */
+    public MyHttpResponse getHead() {
+        return head;
+    }
+
+    /**
+     * 响应体缓冲区
+     */
+    public PooledBuffer getBody() {
+        return body;
+    }
+
+    /**
+     * 响应体只读视图
+     */
+    public ByteBuffer getBodyBuffer() {
+        return body.buffer();
+    }
+
+    /**
+     * 按响应头content-type声明的字符集（默认utf-8）解码响应体
+     */
+    public String getBodyAsString() {
+        return body.toString(head.getCharset());
+    }
+
+    /**
+     * 释放响应体缓冲区（引用计数减一）
+     */
+    @Override
+    public void close() {
+        body.release();
+    }
+}
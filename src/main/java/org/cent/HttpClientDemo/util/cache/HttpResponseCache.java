@@ -0,0 +1,437 @@
+package org.cent.HttpClientDemo.util.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.utils.DateUtils;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * get请求响应缓存（进程内，按字节数上限LRU淘汰），遵循响应的Cache-Control/Expires/ETag/Last-Modified语义
+ * 新鲜的缓存直接返回；过期但有校验器的缓存附带If-None-Match/If-Modified-Since重新验证，304时复用缓存响应体
+ * 可选把响应体存放在堆外直接内存中，大响应体长期缓存不增加GC压力（命中时复制为堆内数组返回）
+ * 仅缓存200响应，不缓存Cache-Control: no-store及Vary: *的响应；同步与异步客户端可共享同一缓存实例
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class HttpResponseCache implements AutoCloseable {
+
+    private final long maxBytes;
+    private final boolean offHeap;
+    private final MeterRegistry registry;
+    private final List<Meter> meters = new ArrayList<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter revalidated;
+
+    // 按访问顺序排列的缓存，由lock保护（同步客户端可能运行在虚拟线程上，不用synchronized以免占住载体线程）
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+
+    /**
+     * @param name     缓存名称（指标cache标签）
+     * @param maxBytes 缓存响应体总字节数上限，超出时淘汰最久未访问的缓存
+     * @param offHeap  是否把响应体存放在堆外直接内存
+     * @param registry 指标注册表
+     */
+    public HttpResponseCache(String name, long maxBytes, boolean offHeap, MeterRegistry registry) {
+        this.maxBytes = maxBytes;
+        this.offHeap = offHeap;
+        this.registry = registry;
+        Tags tags = Tags.of("cache", name);
+        hits = counter(tags.and("result", "hit"));
+        misses = counter(tags.and("result", "miss"));
+        revalidated = counter(tags.and("result", "revalidated"));
+        meters.add(Gauge.builder("httpclient.cache.size", this, HttpResponseCache::getCurrentBytes)
+                .tags(tags).baseUnit("bytes").register(registry));
+        meters.add(Gauge.builder("httpclient.cache.entries", this, HttpResponseCache::getEntryCount)
+                .tags(tags).register(registry));
+    }
+
+    private Counter counter(Tags tags) {
+        Counter counter = Counter.builder("httpclient.cache.requests").tags(tags).register(registry);
+        meters.add(counter);
+        return counter;
+    }
+
+    /**
+     * 查找缓存，新鲜时计为命中，无缓存项时计为未命中
+     *
+     * @param key            缓存key（完整请求地址）
+     * @param requestHeaders 请求头，用于匹配响应Vary声明的请求头
+     * @return 缓存项，不存在或Vary不匹配时返回null；调用方按isFresh决定直接使用还是重新验证
+     */
+    public Entry lookup(String key, Map<String, String> requestHeaders) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null || !entry.matchesVary(requestHeaders)) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isFresh()) {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * 为过期的缓存项附加条件请求头
+     *
+     * @param request 请求
+     * @param entry   过期的缓存项
+     */
+    public void addValidators(HttpRequest request, Entry entry) {
+        if (entry.etag != null) {
+            request.setHeader("If-None-Match", entry.etag);
+        }
+        if (entry.lastModified != null) {
+            request.setHeader("If-Modified-Since", entry.lastModified);
+        }
+    }
+
+    /**
+     * 处理网络响应：304时刷新并返回缓存响应，可缓存的200响应存入缓存
+     *
+     * @param key            缓存key
+     * @param requestHeaders 请求头
+     * @param stale          lookup得到的过期缓存项，无缓存项时为null
+     * @param response       网络响应
+     * @return 返回给调用方的响应
+     */
+    public MyHttpResponse onResponse(String key, Map<String, String> requestHeaders, Entry stale,
+                                     MyHttpResponse response) {
+        if (response.getStatusCode() == 304 && stale != null) {
+            revalidated.increment();
+            Entry refreshed = stale.refresh(response.getHeaders());
+            replace(key, stale, refreshed);
+            return refreshed.toResponse();
+        }
+        // 无缓存项的未命中已在lookup中计数，这里只计过期且内容已变化的
+        if (stale != null) {
+            misses.increment();
+        }
+        if (response.getStatusCode() == 200) {
+            store(key, requestHeaders, response);
+        }
+        return response;
+    }
+
+    private void store(String key, Map<String, String> requestHeaders, MyHttpResponse response) {
+        CacheControl cacheControl = CacheControl.parse(response.getHeader("Cache-Control"));
+        String vary = response.getHeader("Vary");
+        if (cacheControl.noStore || "*".equals(vary == null ? null : vary.trim())) {
+            return;
+        }
+        long freshnessNanos = freshnessNanos(cacheControl, response);
+        String etag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+        // 既无新鲜期又无校验器的响应缓存后无法使用
+        if (freshnessNanos <= 0 && etag == null && lastModified == null) {
+            return;
+        }
+        byte[] body = response.getBody();
+        if (body.length > maxBytes) {
+            return;
+        }
+        Entry entry = new Entry(response.getStatusCode(), response.getReasonPhrase(), response.getHeaders(),
+                storeBody(body), System.nanoTime() + freshnessNanos, etag, lastModified,
+                varyValues(vary, requestHeaders));
+        replace(key, null, entry);
+    }
+
+    /**
+     * 替换缓存项并按字节数上限淘汰最久未访问的缓存
+     *
+     * @param expected 期望的当前缓存项，不为空时仅在当前缓存项仍为它时替换
+     */
+    private void replace(String key, Entry expected, Entry entry) {
+        lock.lock();
+        try {
+            Entry current = entries.get(key);
+            if (expected != null && current != expected) {
+                return;
+            }
+            if (current != null) {
+                entries.remove(key);
+                currentBytes -= current.size();
+            }
+            entries.put(key, entry);
+            currentBytes += entry.size();
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (currentBytes > maxBytes && eldest.hasNext()) {
+                currentBytes -= eldest.next().size();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按Cache-Control: max-age（no-cache视为0）或Expires计算剩余新鲜期，扣除响应Age
+     */
+    private static long freshnessNanos(CacheControl cacheControl, MyHttpResponse response) {
+        if (cacheControl.noCache) {
+            return 0;
+        }
+        long ageSeconds = 0;
+        String age = response.getHeader("Age");
+        if (age != null) {
+            try {
+                ageSeconds = Long.parseLong(age.trim());
+            } catch (NumberFormatException e) {
+                // Age格式错误时忽略
+            }
+        }
+        if (cacheControl.maxAgeSeconds >= 0) {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, cacheControl.maxAgeSeconds - ageSeconds));
+        }
+        String expires = response.getHeader("Expires");
+        if (expires != null) {
+            Date expiresDate = DateUtils.parseDate(expires);
+            if (expiresDate == null) {
+                return 0;
+            }
+            String date = response.getHeader("Date");
+            Date responseDate = date == null ? null : DateUtils.parseDate(date);
+            long now = responseDate == null ? System.currentTimeMillis() : responseDate.getTime();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresDate.getTime() - now));
+        }
+        return 0;
+    }
+
+    /**
+     * 记录响应Vary声明的请求头的值，名称小写
+     */
+    private static Map<String, String> varyValues(String vary, Map<String, String> requestHeaders) {
+        if (vary == null) {
+            return null;
+        }
+        Map<String, String> values = new TreeMap<>();
+        for (String name : vary.split(",")) {
+            name = name.trim().toLowerCase(Locale.ROOT);
+            if (!name.isEmpty()) {
+                values.put(name, headerValue(requestHeaders, name));
+            }
+        }
+        return values;
+    }
+
+    private static String headerValue(Map<String, String> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private Object storeBody(byte[] body) {
+        if (!offHeap) {
+            return body;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(body.length);
+        buffer.put(body);
+        buffer.flip();
+        return buffer;
+    }
+
+    public long getCurrentBytes() {
+        lock.lock();
+        try {
+            return currentBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getEntryCount() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            currentBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 清空缓存并移除指标
+     */
+    @Override
+    public void close() {
+        clear();
+        for (Meter meter : meters) {
+            registry.remove(meter);
+        }
+    }
+
+    /**
+     * 缓存项，不可变，刷新时生成新缓存项
+     */
+    public static final class Entry {
+
+        private final int statusCode;
+        private final String reasonPhrase;
+        private final Map<String, List<String>> headers;
+        // byte[]或堆外ByteBuffer
+        private final Object body;
+        private final long expiresAtNanos;
+        private final String etag;
+        private final String lastModified;
+        private final Map<String, String> varyValues;
+
+        private Entry(int statusCode, String reasonPhrase, Map<String, List<String>> headers, Object body,
+                      long expiresAtNanos, String etag, String lastModified, Map<String, String> varyValues) {
+            this.statusCode = statusCode;
+            this.reasonPhrase = reasonPhrase;
+            this.headers = headers;
+            this.body = body;
+            this.expiresAtNanos = expiresAtNanos;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.varyValues = varyValues;
+        }
+
+        /**
+         * 是否仍在新鲜期内，新鲜时可不经网络直接使用
+         */
+        public boolean isFresh() {
+            return System.nanoTime() - expiresAtNanos < 0;
+        }
+
+        /**
+         * 是否有校验器，可发送条件请求重新验证
+         */
+        public boolean isRevalidatable() {
+            return etag != null || lastModified != null;
+        }
+
+        /**
+         * 转换为响应结果
+         */
+        public MyHttpResponse toResponse() {
+            byte[] bytes;
+            if (body instanceof ByteBuffer) {
+                ByteBuffer buffer = ((ByteBuffer) body).duplicate();
+                bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+            } else {
+                bytes = (byte[]) body;
+            }
+            return new MyHttpResponse(statusCode, reasonPhrase, headers, bytes);
+        }
+
+        long size() {
+            return body instanceof ByteBuffer ? ((ByteBuffer) body).capacity() : ((byte[]) body).length;
+        }
+
+        boolean matchesVary(Map<String, String> requestHeaders) {
+            if (varyValues == null) {
+                return true;
+            }
+            for (Map.Entry<String, String> vary : varyValues.entrySet()) {
+                String value = headerValue(requestHeaders, vary.getKey());
+                if (value == null ? vary.getValue() != null : !value.equals(vary.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 用304响应头更新缓存响应头并重新计算新鲜期
+         */
+        Entry refresh(Map<String, List<String>> notModifiedHeaders) {
+            Map<String, List<String>> merged = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            merged.putAll(headers);
+            merged.putAll(notModifiedHeaders);
+            MyHttpResponse updated = new MyHttpResponse(statusCode, reasonPhrase, merged, null);
+            long freshnessNanos = freshnessNanos(CacheControl.parse(updated.getHeader("Cache-Control")), updated);
+            String newEtag = updated.getHeader("ETag");
+            String newLastModified = updated.getHeader("Last-Modified");
+            return new Entry(statusCode, reasonPhrase, merged, body, System.nanoTime() + freshnessNanos,
+                    newEtag, newLastModified, varyValues);
+        }
+    }
+
+    /**
+     * 响应Cache-Control中与私有缓存相关的指令
+     */
+    private static final class CacheControl {
+
+        private static final CacheControl NONE = new CacheControl(false, false, -1);
+
+        private final boolean noStore;
+        private final boolean noCache;
+        private final long maxAgeSeconds;
+
+        private CacheControl(boolean noStore, boolean noCache, long maxAgeSeconds) {
+            this.noStore = noStore;
+            this.noCache = noCache;
+            this.maxAgeSeconds = maxAgeSeconds;
+        }
+
+        static CacheControl parse(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            boolean noStore = false;
+            boolean noCache = false;
+            long maxAge = -1;
+            for (String directive : value.split(",")) {
+                directive = directive.trim().toLowerCase(Locale.ROOT);
+                if ("no-store".equals(directive)) {
+                    noStore = true;
+                } else if ("no-cache".equals(directive)) {
+                    noCache = true;
+                } else if (directive.startsWith("max-age=")) {
+                    try {
+                        maxAge = Long.parseLong(directive.substring("max-age=".length()).replace("\"", ""));
+                    } catch (NumberFormatException e) {
+                        // max-age格式错误视为立即过期
+                        maxAge = 0;
+                    }
+                }
+            }
+            return new CacheControl(noStore, noCache, maxAge);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package org.cent.HttpClientDemo.util.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.cent.HttpClientDemo.util.deadline.Deadline;
+import org.cent.HttpClientDemo.util.deadline.DeadlineExceededException;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 相同get请求合并（single-flight）：同一时刻key相同的幂等请求只向上游发送一次，结果共享给所有等待者
+ * key为完整请求地址加指定请求头的值，热点缓存失效时避免大量相同请求同时打到上游
+ * 同步与异步客户端可共享同一实例，共享的响应不可变，调用方不要修改响应体数组
+ * 每个调用方按各自的截止时间（{@link Deadline#current()}）等待，不受首个请求截止时间的影响
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class RequestCoalescer {
+
+    private final List<String> keyHeaders;
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    /**
+     * @param keyHeaders 参与key的请求头名称（不区分大小写），如Authorization、Accept，值不同的请求不合并
+     * @param registry   指标注册表
+     */
+    public RequestCoalescer(Collection<String> keyHeaders, MeterRegistry registry) {
+        this.keyHeaders = keyHeaders == null ? new ArrayList<>() : new ArrayList<>(keyHeaders);
+        this.leaders = Counter.builder("httpclient.coalesce.requests")
+                .tags(Tags.of("role", "leader")).register(registry);
+        this.followers = Counter.builder("httpclient.coalesce.requests")
+                .tags(Tags.of("role", "follower")).register(registry);
+    }
+
+    /**
+     * 计算合并key
+     *
+     * @param uri     完整请求地址（含查询参数）
+     * @param headers 请求头
+     * @return 合并key
+     */
+    public String key(URI uri, Map<String, String> headers) {
+        String uriString = uri.toString();
+        if (keyHeaders.isEmpty() || headers == null) {
+            return uriString;
+        }
+        StringBuilder key = new StringBuilder(uriString);
+        for (String name : keyHeaders) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name)) {
+                    key.append('\n').append(name).append('=').append(header.getValue());
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * 合并执行同步请求，首个请求在当前线程发送，其余相同请求阻塞等待其结果
+     * 等待者按各自的截止时间等待，截止时间先到时返回null；首个请求因其自身截止时间失败时，截止时间未到的等待者重新发送
+     *
+     * @param key  合并key
+     * @param call 实际发送请求
+     * @return 响应结果（可能与其他调用方共享）
+     */
+    public MyHttpResponse execute(String key, Supplier<MyHttpResponse> call) {
+        Deadline deadline = Deadline.current();
+        Flight flight = new Flight();
+        Flight existing = join(key, flight);
+        if (existing != null) {
+            followers.increment();
+            try {
+                return await(key, existing, deadline);
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof DeadlineExceededException && (deadline == null || !deadline.isExpired())) {
+                    return execute(key, call);
+                }
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+            }
+        }
+        leaders.increment();
+        try {
+            MyHttpResponse response = call.get();
+            inFlight.remove(key, flight);
+            if (response == null && deadline != null && deadline.isExpired()) {
+                // 失败原因是首个请求自身的截止时间，交给等待者按各自的截止时间处理
+                flight.shared.completeExceptionally(deadline.exceeded(key));
+            } else {
+                flight.shared.complete(response);
+            }
+            return response;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.shared.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 等待首个请求的结果，最多等到本调用方的截止时间
+     *
+     * @return 共享的响应结果，截止时间已到或被中断时返回null
+     */
+    private MyHttpResponse await(String key, Flight flight, Deadline deadline) {
+        if (deadline == null) {
+            return flight.shared.join();
+        }
+        try {
+            return flight.shared.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            leave(key, flight);
+            deadline.exceeded(key).printStackTrace();
+            return null;
+        } catch (InterruptedException e) {
+            leave(key, flight);
+            Thread.currentThread().interrupt();
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 合并执行异步请求，首个请求发送，其余相同请求得到同一结果
+     * 各调用方得到独立的future，单个调用方取消不影响其他调用方；全部调用方都取消时取消共享的请求
+     * 各调用方的结果按各自的截止时间失败；首个请求因其自身截止时间失败时，截止时间未到的调用方重新发送
+     *
+     * @param key  合并key
+     * @param call 实际发送请求
+     * @return 异步响应结果（可能与其他调用方共享）
+     */
+    public CompletableFuture<MyHttpResponse> executeAsync(String key, Supplier<CompletableFuture<MyHttpResponse>> call) {
+        Deadline deadline = Deadline.current();
+        Flight flight = new Flight();
+        Flight existing = join(key, flight);
+        if (existing != null) {
+            followers.increment();
+            return waiter(key, existing, call, deadline, false);
+        }
+        leaders.increment();
+        CompletableFuture<MyHttpResponse> sent;
+        try {
+            sent = call.get();
+        } catch (RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.shared.completeExceptionally(e);
+            return waiter(key, flight, call, deadline, true);
+        }
+        flight.setSent(sent);
+        // 先移出再完成，完成之后到达的请求重新发送而不是拿到旧结果
+        sent.whenComplete((response, ex) -> {
+            inFlight.remove(key, flight);
+            if (ex != null) {
+                flight.shared.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            } else {
+                flight.shared.complete(response);
+            }
+        });
+        return waiter(key, flight, call, deadline, true);
+    }
+
+    /**
+     * 加入在途请求，已被全部等待者放弃的请求不再加入
+     *
+     * @param key    合并key
+     * @param flight 本调用方作为首个请求时的在途请求
+     * @return 已有的在途请求，本调用方为首个请求时返回null
+     */
+    private Flight join(String key, Flight flight) {
+        while (true) {
+            Flight existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null || existing.join()) {
+                return existing;
+            }
+            inFlight.remove(key, existing);
+        }
+    }
+
+    /**
+     * 调用方独立的结果，按调用方的截止时间失败，取消时退出等待
+     *
+     * @param call     本调用方的请求，首个请求因截止时间失败时重新发送
+     * @param deadline 本调用方的截止时间，未设置时为null
+     * @param leader   是否首个请求的调用方
+     */
+    private CompletableFuture<MyHttpResponse> waiter(String key, Flight flight,
+            Supplier<CompletableFuture<MyHttpResponse>> call, Deadline deadline, boolean leader) {
+        CompletableFuture<MyHttpResponse> result = new CompletableFuture<>();
+        flight.shared.whenComplete((response, ex) -> {
+            if (ex == null) {
+                result.complete(response);
+            } else if (!leader && ex instanceof DeadlineExceededException && (deadline == null || !deadline.isExpired())
+                    && !result.isDone()) {
+                relay(retry(key, call, deadline), result);
+            } else {
+                result.completeExceptionally(ex);
+            }
+        });
+        result.whenComplete((response, ex) -> leave(key, flight));
+        if (deadline != null) {
+            deadline.bind(result, key);
+        }
+        return result;
+    }
+
+    /**
+     * 以本调用方的截止时间重新合并发送
+     */
+    private CompletableFuture<MyHttpResponse> retry(String key, Supplier<CompletableFuture<MyHttpResponse>> call,
+            Deadline deadline) {
+        if (deadline == null) {
+            return executeAsync(key, call);
+        }
+        Deadline.Scope scope = deadline.attach();
+        try {
+            return executeAsync(key, call);
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * 将source的结果转交给target，target先完成（取消或截止时间到）时取消source
+     */
+    private static void relay(CompletableFuture<MyHttpResponse> source, CompletableFuture<MyHttpResponse> target) {
+        source.whenComplete((response, ex) -> {
+            if (ex != null) {
+                target.completeExceptionally(ex);
+            } else {
+                target.complete(response);
+            }
+        });
+        target.whenComplete((response, ex) -> source.cancel(true));
+    }
+
+    /**
+     * 调用方退出等待，最后一个等待者退出且请求未完成时取消共享的请求
+     */
+    private void leave(String key, Flight flight) {
+        if (flight.leave()) {
+            inFlight.remove(key, flight);
+            CompletableFuture<MyHttpResponse> sent = flight.sent;
+            if (sent != null) {
+                sent.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * 当前在途（被合并中）的请求数
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 一个被合并的在途请求：共享结果及等待者计数
+     */
+    private static final class Flight {
+
+        private final CompletableFuture<MyHttpResponse> shared = new CompletableFuture<>();
+        // 实际发送的异步请求，同步请求为null
+        private volatile CompletableFuture<MyHttpResponse> sent;
+        // 以下状态由this加锁保护，首个请求的调用方计为一个等待者
+        private int waiters = 1;
+        private boolean abandoned;
+
+        synchronized boolean join() {
+            if (abandoned) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        void setSent(CompletableFuture<MyHttpResponse> sent) {
+            this.sent = sent;
+        }
+
+        /**
+         * @return 是否最后一个等待者退出且请求未完成
+         */
+        synchronized boolean leave() {
+            if (--waiters > 0 || abandoned || shared.isDone()) {
+                return false;
+            }
+            abandoned = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.cent.HttpClientDemo.util.callback;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.cent.HttpClientDemo.util.MyExecutors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步响应回调线程池，响应处理（构造响应结果、完成future及其后续回调）移出IO线程执行
+ * IO线程数只有cpu核数个，回调在IO线程执行时单个慢回调会阻塞该线程上全部连接的网络读写
+ * 队列有界，队列满时按溢出策略处理，不无限堆积
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class CallbackExecutor implements Executor, AutoCloseable {
+
+    /**
+     * 队列满时的溢出策略
+     */
+    public enum OverflowPolicy {
+        // 回退到提交线程（IO线程）执行，响应不丢失，但慢回调会重新拖慢IO
+        CALLER_RUNS,
+        // 拒绝，请求以RejectedExecutionException失败，保护IO线程
+        REJECT
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final OverflowPolicy overflowPolicy;
+    private final MeterRegistry registry;
+    private final List<Meter> meters = new ArrayList<>();
+    private final Counter overflow;
+
+    /**
+     * @param name           名称（线程名前缀及指标name标签）
+     * @param threads        回调线程数
+     * @param queueCapacity  等待队列容量
+     * @param overflowPolicy 队列满时的溢出策略
+     * @param registry       指标注册表
+     */
+    public CallbackExecutor(String name, int threads, int queueCapacity, OverflowPolicy overflowPolicy,
+                            MeterRegistry registry) {
+        this.overflowPolicy = overflowPolicy;
+        this.registry = registry;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), MyExecutors.daemonThreadFactory(name + "-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Tags tags = Tags.of("name", name);
+        meters.add(Gauge.builder("httpclient.callback.queued", executor, e -> e.getQueue().size())
+                .description("Response callbacks waiting for a callback thread")
+                .tags(tags)
+                .register(registry));
+        meters.add(Gauge.builder("httpclient.callback.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Callback threads currently running a response callback")
+                .tags(tags)
+                .register(registry));
+        overflow = Counter.builder("httpclient.callback.overflow")
+                .description("Response callbacks that found the queue full")
+                .tags(tags.and("policy", overflowPolicy.name()))
+                .register(registry);
+        meters.add(overflow);
+    }
+
+    /**
+     * 提交回调，队列满时按溢出策略在当前线程执行或抛出RejectedExecutionException，已关闭时在当前线程执行
+     *
+     * @param command 回调
+     */
+    @Override
+    public void execute(Runnable command) {
+        try {
+            executor.execute(command);
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                // 关闭后仍完成的请求在当前线程处理，不丢失响应
+                command.run();
+                return;
+            }
+            overflow.increment();
+            if (overflowPolicy == OverflowPolicy.REJECT) {
+                throw e;
+            }
+            command.run();
+        }
+    }
+
+    /**
+     * 关闭线程池，已提交的回调继续执行完毕，并移除指标
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        for (Meter meter : meters) {
+            registry.remove(meter);
+        }
+        meters.clear();
+    }
+}
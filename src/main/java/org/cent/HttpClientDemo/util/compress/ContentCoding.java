@@ -0,0 +1,78 @@
+package org.cent.HttpClientDemo.util.compress;
+
+import org.apache.http.client.entity.DeflateInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 支持的http内容编码（Content-Encoding）
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public enum ContentCoding {
+
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    // 请求头Accept-Encoding值
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * 按Content-Encoding头取内容编码
+     *
+     * @param contentEncoding Content-Encoding头的值
+     * @return 内容编码，为空、identity或不支持的编码时返回null
+     */
+    public static ContentCoding of(String contentEncoding) {
+        if (contentEncoding == null) {
+            return null;
+        }
+        String value = contentEncoding.trim();
+        if ("gzip".equalsIgnoreCase(value) || "x-gzip".equalsIgnoreCase(value)) {
+            return GZIP;
+        }
+        if ("deflate".equalsIgnoreCase(value)) {
+            return DEFLATE;
+        }
+        return null;
+    }
+
+    /**
+     * 压缩输出流，关闭时写完压缩数据
+     *
+     * @param out 底层输出流
+     * @return 压缩输出流
+     * @throws IOException 写出异常
+     */
+    public OutputStream encoder(OutputStream out) throws IOException {
+        return this == GZIP ? new GZIPOutputStream(out, 8192) : new DeflaterOutputStream(out);
+    }
+
+    /**
+     * 解压输入流，边读边解压，不整体缓存
+     * deflate兼容带zlib头及不带头（raw deflate）两种格式
+     *
+     * @param in 底层输入流
+     * @return 解压输入流
+     * @throws IOException 读取异常或格式错误
+     */
+    public InputStream decoder(InputStream in) throws IOException {
+        return this == GZIP ? new GZIPInputStream(in, 8192) : new DeflateInputStream(in);
+    }
+}
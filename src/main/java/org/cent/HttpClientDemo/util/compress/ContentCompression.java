@@ -0,0 +1,57 @@
+package org.cent.HttpClientDemo.util.compress;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.cent.HttpClientDemo.util.metrics.HttpClientMetrics;
+
+/**
+ * 响应压缩协商拦截器：请求声明支持的编码，同步客户端响应体边读边解压
+ * （异步客户端由DecodingAsyncResponseConsumer在接收时解压）
+ * 替代HttpClient自带的内容压缩处理，以便统计压缩节省的字节数
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class ContentCompression {
+
+    private ContentCompression() {
+    }
+
+    /**
+     * 请求拦截器，未指定Accept-Encoding时声明支持gzip、deflate
+     */
+    public static HttpRequestInterceptor acceptEncodingInterceptor() {
+        return (request, context) -> {
+            if (!request.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+                request.addHeader(HttpHeaders.ACCEPT_ENCODING, ContentCoding.ACCEPT_ENCODING);
+            }
+        };
+    }
+
+    /**
+     * 同步客户端响应拦截器（需最后添加），压缩的响应体替换为边读边解压的响应体，
+     * 并移除Content-Encoding、Content-Length响应头
+     *
+     * @param metrics 运行指标，记录解压前后字节数
+     */
+    public static HttpResponseInterceptor decodingInterceptor(HttpClientMetrics metrics) {
+        return (response, context) -> {
+            HttpEntity entity = response.getEntity();
+            if (entity == null || entity.getContentLength() == 0) {
+                return;
+            }
+            Header contentEncoding = entity.getContentEncoding();
+            ContentCoding coding = contentEncoding == null ? null : ContentCoding.of(contentEncoding.getValue());
+            if (coding == null) {
+                return;
+            }
+            response.setEntity(new DecodingEntity(entity, coding, metrics));
+            response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+            response.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+            response.removeHeaders(HttpHeaders.CONTENT_MD5);
+        };
+    }
+}
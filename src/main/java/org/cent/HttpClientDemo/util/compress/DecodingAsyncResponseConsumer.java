@@ -0,0 +1,105 @@
+package org.cent.HttpClientDemo.util.compress;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.ByteArrayBuffer;
+import org.cent.HttpClientDemo.util.metrics.HttpClientMetrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 异步客户端响应消费者，收到数据块即在IO线程增量解压，只保留解压后的响应体，不缓存压缩数据
+ * 未压缩的响应体直接收集；解压后的响应移除Content-Encoding及Content-Length响应头
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class DecodingAsyncResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+
+    // 按Content-Length预分配缓冲区的上限，避免异常的长度声明占用过多内存
+    private static final int MAX_INITIAL_CAPACITY = 1024 * 1024;
+
+    private final HttpClientMetrics metrics;
+    private final ByteBuffer chunk = ByteBuffer.allocate(8192);
+    private HttpResponse response;
+    private ContentType contentType;
+    private ByteArrayBuffer body;
+    private StreamingInflater inflater;
+    private long wireBytes;
+
+    /**
+     * @param metrics 运行指标，记录解压前后字节数
+     */
+    public DecodingAsyncResponseConsumer(HttpClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void onResponseReceived(HttpResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) {
+        this.contentType = contentType;
+        Header contentEncoding = entity.getContentEncoding();
+        ContentCoding coding = contentEncoding == null ? null : ContentCoding.of(contentEncoding.getValue());
+        long length = entity.getContentLength();
+        if (coding != null) {
+            inflater = new StreamingInflater(coding);
+            // 压缩比未知，按压缩后长度的数倍预分配
+            length = length < 0 ? -1 : length * 4;
+        }
+        int capacity = length < 0 ? 4096 : (int) Math.min(Math.max(length, 256), MAX_INITIAL_CAPACITY);
+        body = new ByteArrayBuffer(capacity);
+    }
+
+    @Override
+    protected void onContentReceived(ContentDecoder decoder, IOControl ioControl) throws IOException {
+        int read;
+        while ((read = decoder.read(chunk)) > 0) {
+            wireBytes += read;
+            if (inflater != null) {
+                inflater.inflate(chunk.array(), 0, read, body);
+            } else {
+                body.append(chunk.array(), 0, read);
+            }
+            chunk.clear();
+        }
+        chunk.clear();
+    }
+
+    @Override
+    protected HttpResponse buildResult(HttpContext context) throws Exception {
+        if (body != null) {
+            if (inflater != null) {
+                inflater.finish();
+                response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+                response.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+                metrics.recordCompression(HttpClientMetrics.Direction.RESPONSE, body.length(), wireBytes);
+            }
+            ByteArrayEntity entity = new ByteArrayEntity(body.buffer(), 0, body.length(), contentType);
+            response.setEntity(entity);
+        }
+        return response;
+    }
+
+    @Override
+    protected void releaseResources() {
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+        response = null;
+        body = null;
+    }
+}
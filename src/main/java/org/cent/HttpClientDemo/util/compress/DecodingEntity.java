@@ -0,0 +1,160 @@
+package org.cent.HttpClientDemo.util.compress;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.cent.HttpClientDemo.util.metrics.HttpClientMetrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 同步客户端解压响应体，读取时边读边解压，不缓存整个响应体
+ * 读完或关闭时记录压缩前后字节数
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class DecodingEntity extends HttpEntityWrapper {
+
+    private final ContentCoding coding;
+    private final HttpClientMetrics metrics;
+    private InputStream content;
+
+    DecodingEntity(HttpEntity wrapped, ContentCoding coding, HttpClientMetrics metrics) {
+        super(wrapped);
+        this.coding = coding;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        if (content == null) {
+            if (!wrappedEntity.isStreaming()) {
+                // 可重复的响应体每次新建解压流
+                return new MeteredStream(wrappedEntity.getContent());
+            }
+            content = new MeteredStream(wrappedEntity.getContent());
+        }
+        return content;
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        try (InputStream in = getContent()) {
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                outStream.write(buffer, 0, length);
+            }
+        }
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public Header getContentEncoding() {
+        return null;
+    }
+
+    /**
+     * 统计压缩字节数及解压字节数的解压流，底层流延迟到首次读取时再包装（gzip构造时即读取头部）
+     */
+    private class MeteredStream extends InputStream {
+
+        private final CountingStream wire;
+        private InputStream decoded;
+        private long rawBytes;
+        private boolean recorded;
+
+        MeteredStream(InputStream in) {
+            this.wire = new CountingStream(in);
+        }
+
+        private InputStream decoded() throws IOException {
+            if (decoded == null) {
+                decoded = coding.decoder(wire);
+            }
+            return decoded;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = decoded().read();
+            if (b == -1) {
+                record();
+            } else {
+                rawBytes++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int length = decoded().read(b, off, len);
+            if (length == -1) {
+                record();
+            } else {
+                rawBytes += length;
+            }
+            return length;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return decoded == null ? 0 : decoded.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            record();
+            if (decoded != null) {
+                decoded.close();
+            } else {
+                wire.close();
+            }
+        }
+
+        private void record() {
+            if (!recorded && wire.count > 0) {
+                recorded = true;
+                metrics.recordCompression(HttpClientMetrics.Direction.RESPONSE, rawBytes, wire.count);
+            }
+        }
+    }
+
+    /**
+     * 统计已读取字节数的输入流
+     */
+    private static class CountingStream extends FilterInputStream {
+
+        private long count;
+
+        CountingStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int length = super.read(b, off, len);
+            if (length > 0) {
+                count += length;
+            }
+            return length;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.cent.HttpClientDemo.util.compress;
+
+import org.apache.http.HttpEntity;
+import org.cent.HttpClientDemo.util.MyByteBufferEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 请求体压缩，请求体长度达到阈值时按指定编码压缩并设置Content-Encoding
+ * 只压缩长度已知的可重复请求体（字符串、表单等），文件、流等请求体原样发送
+ * 上游须支持对应的请求体编码
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class RequestCompressor {
+
+    private final ContentCoding coding;
+    private final int minSize;
+
+    /**
+     * @param coding  压缩编码
+     * @param minSize 请求体不小于该字节数时压缩，小请求体压缩收益低且耗CPU
+     */
+    public RequestCompressor(ContentCoding coding, int minSize) {
+        if (coding == null || minSize < 0) {
+            throw new IllegalArgumentException("coding may not be null and minSize must not be negative");
+        }
+        this.coding = coding;
+        this.minSize = minSize;
+    }
+
+    /**
+     * 压缩请求体
+     *
+     * @param entity 请求体
+     * @return 压缩后的请求体（带Content-Encoding），不需压缩或压缩后未变小时返回原请求体
+     * @throws IOException 读取请求体异常
+     */
+    public HttpEntity compress(HttpEntity entity) throws IOException {
+        if (entity == null || entity.getContentEncoding() != null || !entity.isRepeatable()
+                || entity.getContentLength() < minSize || entity.getContentLength() > Integer.MAX_VALUE) {
+            return entity;
+        }
+        long rawLength = entity.getContentLength();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream((int) Math.min(rawLength / 2 + 64, rawLength));
+        try (OutputStream out = coding.encoder(compressed)) {
+            entity.writeTo(out);
+        }
+        if (compressed.size() >= rawLength) {
+            return entity;
+        }
+        MyByteBufferEntity compressedEntity = new MyByteBufferEntity(ByteBuffer.wrap(compressed.toByteArray()), null);
+        compressedEntity.setContentType(entity.getContentType());
+        compressedEntity.setContentEncoding(coding.getToken());
+        return compressedEntity;
+    }
+}
@@ -0,0 +1,233 @@
+package org.cent.HttpClientDemo.util.compress;
+
+import org.apache.http.util.ByteArrayBuffer;
+
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * 增量解压器，压缩数据分块到达时逐块解压（异步客户端在IO线程收到数据即解压，不缓存压缩数据）
+ * gzip自行解析头部及尾部（校验CRC及长度）；deflate按前两字节判断是否带zlib头
+ * 非线程安全，使用完毕须调用end释放本地内存
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class StreamingInflater {
+
+    private enum Stage {
+        HEADER, BODY, TRAILER, DONE
+    }
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final int GZIP_TRAILER_LENGTH = 8;
+
+    private final ContentCoding coding;
+    private final byte[] chunk = new byte[8192];
+    // 头部（gzip头、deflate前两字节）及gzip尾部未凑齐时暂存
+    private final ByteArrayBuffer pending = new ByteArrayBuffer(32);
+    private final CRC32 crc = new CRC32();
+    private Inflater inflater;
+    private Stage stage = Stage.HEADER;
+
+    public StreamingInflater(ContentCoding coding) {
+        this.coding = coding;
+    }
+
+    /**
+     * 输入一块压缩数据，解压结果追加到out
+     *
+     * @param input  压缩数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @param out    解压输出
+     * @throws ZipException 数据格式错误
+     */
+    public void inflate(byte[] input, int offset, int length, ByteArrayBuffer out) throws ZipException {
+        int position = offset;
+        int end = offset + length;
+        while (position < end && stage != Stage.DONE) {
+            switch (stage) {
+                case HEADER:
+                    position += readHeader(input, position, end - position, out);
+                    break;
+                case BODY:
+                    position = inflateBody(input, position, end, out);
+                    break;
+                case TRAILER:
+                    int take = Math.min(end - position, GZIP_TRAILER_LENGTH - pending.length());
+                    pending.append(input, position, take);
+                    position += take;
+                    if (pending.length() == GZIP_TRAILER_LENGTH) {
+                        verifyTrailer();
+                        stage = Stage.DONE;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * 压缩数据已全部输入，检查是否完整
+     *
+     * @throws ZipException 数据不完整
+     */
+    public void finish() throws ZipException {
+        if (stage == Stage.DONE || (stage == Stage.BODY && coding == ContentCoding.DEFLATE && inflater.finished())) {
+            return;
+        }
+        if (stage == Stage.HEADER && pending.length() == 0) {
+            // 空响应体
+            return;
+        }
+        throw new ZipException("Unexpected end of " + coding.getToken() + " stream");
+    }
+
+    /**
+     * 释放本地内存
+     */
+    public void end() {
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+    }
+
+    /**
+     * 读取头部，凑齐后进入BODY阶段
+     *
+     * @return 消耗的本块输入字节数
+     */
+    private int readHeader(byte[] input, int offset, int length, ByteArrayBuffer out) throws ZipException {
+        int before = pending.length();
+        pending.append(input, offset, length);
+        int headerLength = coding == ContentCoding.GZIP ? gzipHeaderLength() : deflateHeaderLength();
+        if (headerLength < 0) {
+            return length;
+        }
+        stage = Stage.BODY;
+        if (headerLength >= before) {
+            // 头部之后的数据留给inflater，只消耗头部在本块中所占的字节
+            pending.clear();
+            return headerLength - before;
+        }
+        // 之前暂存的字节中已含压缩数据（deflate头部长度为0），先解压暂存部分
+        byte[] buffered = new byte[before - headerLength];
+        System.arraycopy(pending.buffer(), headerLength, buffered, 0, buffered.length);
+        pending.clear();
+        inflateBody(buffered, 0, buffered.length, out);
+        return 0;
+    }
+
+    /**
+     * @return gzip头长度，未凑齐时返回-1
+     */
+    private int gzipHeaderLength() throws ZipException {
+        byte[] b = pending.buffer();
+        int length = pending.length();
+        if (length < 10) {
+            return -1;
+        }
+        if (((b[0] & 0xff) | ((b[1] & 0xff) << 8)) != GZIP_MAGIC || b[2] != 8) {
+            throw new ZipException("Not in GZIP format");
+        }
+        int flags = b[3] & 0xff;
+        int position = 10;
+        if ((flags & FEXTRA) != 0) {
+            if (length < position + 2) {
+                return -1;
+            }
+            position += 2 + ((b[position] & 0xff) | ((b[position + 1] & 0xff) << 8));
+        }
+        if ((flags & FNAME) != 0) {
+            position = skipZeroTerminated(b, position, length);
+        }
+        if (position >= 0 && (flags & FCOMMENT) != 0) {
+            position = skipZeroTerminated(b, position, length);
+        }
+        if (position >= 0 && (flags & FHCRC) != 0) {
+            position += 2;
+        }
+        if (position < 0 || position > length) {
+            return -1;
+        }
+        inflater = new Inflater(true);
+        return position;
+    }
+
+    private static int skipZeroTerminated(byte[] b, int position, int length) {
+        for (int i = position; i < length; i++) {
+            if (b[i] == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * deflate按zlib头校验规则判断是否带头，带头时交给inflater处理头部
+     *
+     * @return 0（头部由inflater处理），未凑齐两字节时返回-1
+     */
+    private int deflateHeaderLength() {
+        if (pending.length() < 2) {
+            return -1;
+        }
+        int cmf = pending.byteAt(0) & 0xff;
+        int flg = pending.byteAt(1) & 0xff;
+        boolean zlib = (cmf & 0x0f) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        inflater = new Inflater(!zlib);
+        return 0;
+    }
+
+    /**
+     * 解压，压缩数据结束后gzip进入TRAILER阶段
+     *
+     * @return 已消耗到的输入位置
+     */
+    private int inflateBody(byte[] input, int position, int end, ByteArrayBuffer out) throws ZipException {
+        inflater.setInput(input, position, end - position);
+        try {
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(chunk);
+                if (inflated > 0) {
+                    out.append(chunk, 0, inflated);
+                    if (coding == ContentCoding.GZIP) {
+                        crc.update(chunk, 0, inflated);
+                    }
+                } else if (inflater.needsInput()) {
+                    return end;
+                } else if (inflater.needsDictionary()) {
+                    throw new ZipException("Preset dictionary not supported");
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        }
+        int consumed = end - position - inflater.getRemaining();
+        stage = coding == ContentCoding.GZIP ? Stage.TRAILER : Stage.DONE;
+        return position + consumed;
+    }
+
+    private void verifyTrailer() throws ZipException {
+        byte[] b = pending.buffer();
+        long expectedCrc = readUInt(b, 0);
+        long expectedSize = readUInt(b, 4);
+        if (expectedCrc != crc.getValue() || expectedSize != (inflater.getBytesWritten() & 0xffffffffL)) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+    }
+
+    private static long readUInt(byte[] b, int offset) {
+        return (b[offset] & 0xffL) | ((b[offset + 1] & 0xffL) << 8)
+                | ((b[offset + 2] & 0xffL) << 16) | ((b[offset + 3] & 0xffL) << 24);
+    }
+}
@@ -0,0 +1,214 @@
+package org.cent.HttpClientDemo.util.deadline;
+
+import org.apache.http.Header;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.config.RequestConfig;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求截止时间（绝对时间点），覆盖租用连接、建连及完整的请求响应交换
+ * 通过attach绑定到当前线程后，工具类在发起请求时读取并据此缩短超时、到期立即取消请求；
+ * 以X-Request-Timeout请求头（剩余毫秒数）在服务间逐跳传播
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class Deadline {
+
+    // 传播截止时间的请求头，值为剩余毫秒数
+    public static final String HEADER = "X-Request-Timeout";
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 从现在起经过timeout后到期的截止时间
+     *
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     * @return 截止时间
+     */
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(Math.max(timeout, 0)));
+    }
+
+    /**
+     * 解析X-Request-Timeout请求头（剩余毫秒数）
+     *
+     * @param value 请求头值
+     * @return 截止时间，为空或格式错误时返回null
+     */
+    public static Deadline parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return after(Long.parseLong(value.trim()), TimeUnit.MILLISECONDS);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 当前线程绑定的截止时间
+     *
+     * @return 截止时间，未绑定时返回null
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 绑定到当前线程，已绑定更早的截止时间时保留更早的；关闭返回的Scope恢复之前的绑定
+     *
+     * @return 绑定范围，在finally中关闭
+     */
+    public Scope attach() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(previous == null ? this : earlierOf(previous, this));
+        return new Scope(previous);
+    }
+
+    /**
+     * 较早的截止时间
+     */
+    public static Deadline earlierOf(Deadline a, Deadline b) {
+        return a.deadlineNanos - b.deadlineNanos <= 0 ? a : b;
+    }
+
+    public long remainingNanos() {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * 按剩余时间缩短请求配置中的各项超时（租用连接、建连、读取），未设置（<=0）的项也以剩余时间为上限
+     *
+     * @param config 原请求配置
+     * @return 缩短超时后的请求配置
+     */
+    public RequestConfig clamp(RequestConfig config) {
+        int remaining = (int) Math.min(Integer.MAX_VALUE, Math.max(1, remainingMillis()));
+        return RequestConfig.copy(config)
+                .setConnectionRequestTimeout(clamp(config.getConnectionRequestTimeout(), remaining))
+                .setConnectTimeout(clamp(config.getConnectTimeout(), remaining))
+                .setSocketTimeout(clamp(config.getSocketTimeout(), remaining))
+                .build();
+    }
+
+    private static int clamp(int timeout, int remaining) {
+        return timeout <= 0 ? remaining : Math.min(timeout, remaining);
+    }
+
+    /**
+     * 以剩余毫秒数设置X-Request-Timeout请求头，向下游传播截止时间
+     * 已有更短的值时保留（调用方显式设置，或重试前的请求副本已按更早的剩余时间设置时则更新）
+     *
+     * @param request 请求
+     */
+    public void propagate(HttpRequest request) {
+        long remaining = remainingMillis();
+        Header existing = request.getFirstHeader(HEADER);
+        if (existing != null) {
+            try {
+                if (Long.parseLong(existing.getValue().trim()) <= remaining) {
+                    return;
+                }
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        request.setHeader(HEADER, Long.toString(remaining));
+    }
+
+    /**
+     * 到期时执行action（在共享的计时线程执行，action须快速返回），请求完成后应取消返回的任务
+     *
+     * @param action 到期动作，如中止请求
+     * @return 计时任务
+     */
+    public ScheduledFuture<?> onExpiry(Runnable action) {
+        return Timer.SCHEDULER.schedule(action, remainingNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 到期时以DeadlineExceededException完成future（未完成时），future完成时取消计时
+     * 由future的完成回调据此取消底层请求
+     *
+     * @param future 异步结果
+     * @param what   请求描述，用于异常信息
+     * @return 传入的future
+     */
+    public <T> CompletableFuture<T> bind(CompletableFuture<T> future, Object what) {
+        ScheduledFuture<?> expiry = onExpiry(() -> future.completeExceptionally(exceeded(what)));
+        future.whenComplete((result, ex) -> expiry.cancel(false));
+        return future;
+    }
+
+    /**
+     * 创建截止时间已到的异常
+     *
+     * @param what 被取消的操作描述
+     * @return 异常
+     */
+    public DeadlineExceededException exceeded(Object what) {
+        return new DeadlineExceededException("deadline exceeded: " + what);
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[remaining=" + remainingMillis() + "ms]";
+    }
+
+    /**
+     * 截止时间在当前线程的绑定范围
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Deadline previous;
+
+        private Scope(Deadline previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 共享的到期计时线程（守护线程，首次使用时创建），取消的任务立即移出队列
+     */
+    private static final class Timer {
+
+        private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "httpclient-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            SCHEDULER.setRemoveOnCancelPolicy(true);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.cent.HttpClientDemo.util.deadline;
+
+import java.io.InterruptedIOException;
+
+/**
+ * 请求截止时间已到，请求已取消（租用连接、建连或收发过程中），连接被释放或丢弃；不重试
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class DeadlineExceededException extends InterruptedIOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
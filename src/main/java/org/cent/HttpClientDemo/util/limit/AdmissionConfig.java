@@ -0,0 +1,101 @@
+package org.cent.HttpClientDemo.util.limit;
+
+/**
+ * 按路由准入控制配置：令牌桶限速 + AIMD自适应并发上限 + 有界排队
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class AdmissionConfig {
+
+    // 每秒允许发出的请求数，0或负数不限速
+    private double ratePerSecond = 0;
+    // 令牌桶容量（允许的突发请求数）
+    private int burst = 100;
+    // 并发上限初始值
+    private int initialLimit = 20;
+    // 并发上限下限
+    private int minLimit = 1;
+    // 并发上限上限，应不超过连接池每路最大连接数
+    private int maxLimit = 100;
+    // 响应耗时超过最小耗时该倍数时视为拥塞，按比例降低并发上限
+    private double latencyTolerance = 2.0;
+    // 拥塞或失败时并发上限乘以该比例
+    private double backoffRatio = 0.9;
+    // 达到并发上限时最多排队等待的请求数，0表示立即拒绝
+    private int maxQueued = 0;
+    // 排队最长等待时间（毫秒），超时拒绝
+    private long maxQueueWaitMillis = 1000;
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    public void setLatencyTolerance(double latencyTolerance) {
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    public long getMaxQueueWaitMillis() {
+        return maxQueueWaitMillis;
+    }
+
+    public void setMaxQueueWaitMillis(long maxQueueWaitMillis) {
+        this.maxQueueWaitMillis = maxQueueWaitMillis;
+    }
+}
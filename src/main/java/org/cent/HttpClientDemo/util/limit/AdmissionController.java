@@ -0,0 +1,270 @@
+package org.cent.HttpClientDemo.util.limit;
+
+import org.apache.http.HttpHost;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.cent.HttpClientDemo.util.MyHttpStatusException;
+import org.cent.HttpClientDemo.util.MyRoutes;
+import org.cent.HttpClientDemo.util.deadline.DeadlineExceededException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 按路由的请求准入控制，在请求进入连接池前限速、限并发
+ * 超出令牌桶速率立即拒绝；达到自适应并发上限时按配置立即拒绝或有界排队（调用方得到未完成的future即为背压），
+ * 避免突发请求在连接池中排队直到连接租用超时，保护上游及本地堆内存
+ * 排队请求到达最长等待时间即被拒绝（不依赖在途请求完成），被取消时立即让出排队位置
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class AdmissionController {
+
+    private final AdmissionConfig config;
+    private final ConcurrentMap<HttpHost, RouteAdmission> routes = new ConcurrentHashMap<>();
+
+    public AdmissionController(AdmissionConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 经准入控制执行请求
+     *
+     * @param target 目标主机
+     * @param call   实际发送请求，取得许可后调用
+     * @return 异步响应结果，被拒绝时以AdmissionRejectedException异常完成
+     */
+    public CompletableFuture<MyHttpResponse> submit(HttpHost target, Supplier<CompletableFuture<MyHttpResponse>> call) {
+        HttpHost key = MyRoutes.normalize(target);
+        RouteAdmission admission = routes.get(key);
+        if (admission == null) {
+            admission = routes.computeIfAbsent(key, RouteAdmission::new);
+        }
+        return admission.submit(call);
+    }
+
+    /**
+     * 路由当前并发上限，未出现过的路由返回初始上限
+     */
+    public int getLimit(HttpHost target) {
+        RouteAdmission admission = routes.get(MyRoutes.normalize(target));
+        return admission == null ? new AimdLimit(config).getLimit() : admission.limit.getLimit();
+    }
+
+    /**
+     * 路由当前在途请求数
+     */
+    public int getInFlight(HttpHost target) {
+        RouteAdmission admission = routes.get(MyRoutes.normalize(target));
+        if (admission == null) {
+            return 0;
+        }
+        synchronized (admission) {
+            return admission.inFlight;
+        }
+    }
+
+    /**
+     * 上游限流或过载的响应（429、503）及IO异常与失败一样触发并发上限回退
+     * 本地拒绝（回调线程池、准入控制、熔断的RejectedExecutionException）、取消、截止时间已到等本地失败不代表上游状态
+     *
+     * @return 是否过载，不参与上限调整时返回null
+     */
+    private static Boolean isDropped(MyHttpResponse response, Throwable ex) {
+        if (ex == null) {
+            return isOverloaded(response.getStatusCode());
+        }
+        if (ex instanceof MyHttpStatusException) {
+            return isOverloaded(((MyHttpStatusException) ex).getStatusCode());
+        }
+        if (ex instanceof IOException && !(ex instanceof DeadlineExceededException)) {
+            return true;
+        }
+        return null;
+    }
+
+    private static boolean isOverloaded(int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    /**
+     * 单个路由的准入状态
+     */
+    private class RouteAdmission {
+
+        private final String route;
+        private final TokenBucket tokenBucket;
+        private final AimdLimit limit = new AimdLimit(config);
+        // 以下状态由this加锁保护
+        private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        private int inFlight;
+
+        RouteAdmission(HttpHost target) {
+            this.route = target.toURI();
+            this.tokenBucket = config.getRatePerSecond() > 0
+                    ? new TokenBucket(config.getRatePerSecond(), config.getBurst())
+                    : null;
+        }
+
+        CompletableFuture<MyHttpResponse> submit(Supplier<CompletableFuture<MyHttpResponse>> call) {
+            if (tokenBucket != null && !tokenBucket.tryAcquire()) {
+                return rejected("rate limit exceeded");
+            }
+            CompletableFuture<MyHttpResponse> result = new CompletableFuture<>();
+            Waiter waiter;
+            synchronized (this) {
+                if (inFlight < limit.getLimit()) {
+                    inFlight++;
+                    waiter = null;
+                } else if (queue.size() >= config.getMaxQueued()) {
+                    return rejected("concurrency limit reached");
+                } else {
+                    waiter = new Waiter(call, result, System.nanoTime());
+                    queue.addLast(waiter);
+                }
+            }
+            if (waiter == null) {
+                start(call, result);
+                return result;
+            }
+            // 等待超时由计时线程拒绝；排队期间完成（调用方取消、截止时间到期）时立即移出队列
+            ScheduledFuture<?> timeout = Timer.SCHEDULER.schedule(() -> expire(waiter),
+                    config.getMaxQueueWaitMillis(), TimeUnit.MILLISECONDS);
+            result.whenComplete((response, ex) -> {
+                timeout.cancel(false);
+                synchronized (this) {
+                    queue.remove(waiter);
+                }
+            });
+            return result;
+        }
+
+        /**
+         * 排队等待超时，仍在队列中（未被放行）时拒绝
+         */
+        private void expire(Waiter waiter) {
+            synchronized (this) {
+                if (!queue.remove(waiter)) {
+                    return;
+                }
+            }
+            waiter.result.completeExceptionally(new AdmissionRejectedException(route, "queue wait timeout"));
+        }
+
+        private void start(Supplier<CompletableFuture<MyHttpResponse>> call, CompletableFuture<MyHttpResponse> result) {
+            long start = System.nanoTime();
+            CompletableFuture<MyHttpResponse> inner;
+            try {
+                inner = call.get();
+            } catch (RuntimeException e) {
+                inner = new CompletableFuture<>();
+                inner.completeExceptionally(e);
+            }
+            CompletableFuture<MyHttpResponse> sent = inner;
+            sent.whenComplete((response, ex) -> {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                // 被取消（调用方放弃或对冲请求落败）及本地失败的请求不代表上游状态，不参与上限调整
+                release(System.nanoTime() - start, isDropped(response, cause));
+                if (cause != null) {
+                    result.completeExceptionally(cause);
+                } else {
+                    result.complete(response);
+                }
+            });
+            result.whenComplete((response, ex) -> {
+                if (result.isCancelled()) {
+                    sent.cancel(true);
+                }
+            });
+        }
+
+        /**
+         * 释放许可并调整上限，然后按新的上限放行排队请求，丢弃已取消或等待超时的排队请求
+         *
+         * @param rttNanos 请求耗时
+         * @param dropped  是否失败，为null时不记录样本
+         */
+        private void release(long rttNanos, Boolean dropped) {
+            List<Waiter> admitted = new ArrayList<>();
+            List<Waiter> expired = new ArrayList<>();
+            long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxQueueWaitMillis());
+            long now = System.nanoTime();
+            synchronized (this) {
+                if (dropped != null) {
+                    limit.onSample(rttNanos, dropped, inFlight);
+                }
+                inFlight--;
+                while (!queue.isEmpty()) {
+                    Waiter waiter = queue.peekFirst();
+                    if (waiter.result.isDone()) {
+                        queue.pollFirst();
+                    } else if (now - waiter.enqueuedNanos > maxWaitNanos) {
+                        queue.pollFirst();
+                        expired.add(waiter);
+                    } else if (inFlight < limit.getLimit()) {
+                        queue.pollFirst();
+                        inFlight++;
+                        admitted.add(waiter);
+                    } else {
+                        break;
+                    }
+                }
+            }
+            for (Waiter waiter : expired) {
+                waiter.result.completeExceptionally(new AdmissionRejectedException(route, "queue wait timeout"));
+            }
+            for (Waiter waiter : admitted) {
+                start(waiter.call, waiter.result);
+            }
+        }
+
+        private CompletableFuture<MyHttpResponse> rejected(String reason) {
+            CompletableFuture<MyHttpResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(new AdmissionRejectedException(route, reason));
+            return future;
+        }
+    }
+
+    /**
+     * 共享的排队超时计时线程（守护线程，首次使用时创建），取消的任务立即移出队列
+     */
+    private static final class Timer {
+
+        private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "httpclient-admission");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            SCHEDULER.setRemoveOnCancelPolicy(true);
+        }
+    }
+
+    /**
+     * 排队等待许可的请求
+     */
+    private static class Waiter {
+
+        private final Supplier<CompletableFuture<MyHttpResponse>> call;
+        private final CompletableFuture<MyHttpResponse> result;
+        private final long enqueuedNanos;
+
+        Waiter(Supplier<CompletableFuture<MyHttpResponse>> call, CompletableFuture<MyHttpResponse> result,
+               long enqueuedNanos) {
+            this.call = call;
+            this.result = result;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
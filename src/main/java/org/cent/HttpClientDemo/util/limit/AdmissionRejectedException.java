@@ -0,0 +1,33 @@
+package org.cent.HttpClientDemo.util.limit;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 准入控制拒绝请求异常（超出限速、并发上限或排队超时），请求未发往上游
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class AdmissionRejectedException extends RejectedExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String route;
+
+    public AdmissionRejectedException(String route, String reason) {
+        super(reason + ": " + route);
+        this.route = route;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * 拒绝发生在过载时的热路径上，不填充调用栈以保证快速失败
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
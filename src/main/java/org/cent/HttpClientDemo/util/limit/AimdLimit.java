@@ -0,0 +1,65 @@
+package org.cent.HttpClientDemo.util.limit;
+
+/**
+ * 基于响应耗时的AIMD自适应并发上限
+ * 以近期最小耗时作为无排队基线：耗时未超过基线的容忍倍数且并发已用到上限一半以上时，每个请求加1/limit（约每轮加1）；
+ * 耗时超过容忍倍数或请求失败时，上限乘以回退比例
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class AimdLimit {
+
+    // 每隔该样本数重置最小耗时基线，适应上游基线变化
+    private static final int MIN_RTT_WINDOW = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+
+    private volatile double limit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samples;
+
+    public AimdLimit(AdmissionConfig config) {
+        this.minLimit = Math.max(1, config.getMinLimit());
+        this.maxLimit = Math.max(minLimit, config.getMaxLimit());
+        this.latencyTolerance = config.getLatencyTolerance();
+        this.backoffRatio = config.getBackoffRatio();
+        this.limit = Math.min(maxLimit, Math.max(minLimit, config.getInitialLimit()));
+    }
+
+    /**
+     * 记录一个请求结果并调整上限
+     *
+     * @param rttNanos 请求耗时
+     * @param dropped  是否失败或被上游限流（超时、IO异常、429/503）
+     * @param inFlight 请求完成前的在途请求数
+     */
+    public synchronized void onSample(long rttNanos, boolean dropped, int inFlight) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+        if (++samples >= MIN_RTT_WINDOW) {
+            samples = 0;
+            minRttNanos = rttNanos;
+        } else if (rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+
+        if (rttNanos > minRttNanos * latencyTolerance) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /**
+     * 当前并发上限
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+}
@@ -0,0 +1,347 @@
+package org.cent.HttpClientDemo.util.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.protocol.HttpCoreContext;
+import org.cent.HttpClientDemo.util.MyRoutes;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * http客户端运行指标，按路由（协议+主机+端口）统计连接池状态、连接租用等待、建连、首字节及总耗时、收发字节数
+ * 指标注册到Micrometer，由Spring Boot Actuator导出（/actuator/metrics）
+ * 耗时直方图基于Micrometer的HdrHistogram无锁记录器，路由指标首次出现时创建并缓存，请求路径上只做map查找和记录
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class HttpClientMetrics implements AutoCloseable {
+
+    // 请求开始时间在HttpContext中的属性名
+    private static final String START_NANOS = HttpClientMetrics.class.getName() + ".startNanos";
+
+    /**
+     * 连接租用结果
+     */
+    public enum LeaseOutcome {
+        SUCCESS, TIMEOUT, ERROR
+    }
+
+    /**
+     * 请求结果，按响应状态码分类，无响应（IO异常等）为ERROR
+     */
+    public enum Outcome {
+        SUCCESS, CLIENT_ERROR, SERVER_ERROR, ERROR;
+
+        public static Outcome of(int statusCode) {
+            if (statusCode < 0) {
+                return ERROR;
+            }
+            if (statusCode >= 500) {
+                return SERVER_ERROR;
+            }
+            if (statusCode >= 400) {
+                return CLIENT_ERROR;
+            }
+            return SUCCESS;
+        }
+    }
+
+    /**
+     * 压缩方向
+     */
+    public enum Direction {
+        REQUEST, RESPONSE
+    }
+
+    private final String client;
+    private final MeterRegistry registry;
+    // 已注册指标，关闭时从注册表移除，避免重建客户端后指标仍绑定旧连接池
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<HttpHost, RouteMeters> routes = new ConcurrentHashMap<>();
+    private volatile ConnPoolControl<HttpRoute> pool;
+    private final CompressionMeters[] compression = new CompressionMeters[Direction.values().length];
+    private final Counter evicted;
+    private volatile Timer reactorBusy;
+
+    /**
+     * @param client   客户端名称（指标client标签）
+     * @param registry 指标注册表
+     */
+    public HttpClientMetrics(String client, MeterRegistry registry) {
+        this.client = client;
+        this.registry = registry;
+        for (Direction direction : Direction.values()) {
+            compression[direction.ordinal()] = new CompressionMeters(direction);
+        }
+        evicted = counter("httpclient.pool.evicted", "Idle or expired connections closed by the eviction task",
+                "connections", Tags.of("client", client));
+    }
+
+    /**
+     * 绑定连接池，注册连接池总量指标，之后出现的路由同时注册该路由的连接池指标
+     *
+     * @param pool 连接池
+     */
+    public void bindPool(ConnPoolControl<HttpRoute> pool) {
+        this.pool = pool;
+        Tags tags = Tags.of("client", client);
+        poolGauge("httpclient.pool.total.leased", tags, pool, p -> p.getTotalStats().getLeased());
+        poolGauge("httpclient.pool.total.available", tags, pool, p -> p.getTotalStats().getAvailable());
+        poolGauge("httpclient.pool.total.pending", tags, pool, p -> p.getTotalStats().getPending());
+        poolGauge("httpclient.pool.total.max", tags, pool, p -> p.getTotalStats().getMax());
+    }
+
+    /**
+     * 注册IO线程忙碌时间及线程数指标（仅异步客户端），IO线程利用率 = httpclient.reactor.busy总时间增速 / httpclient.reactor.threads
+     *
+     * @param ioThreads IO线程数
+     */
+    public void bindReactor(int ioThreads) {
+        Timer busy = Timer.builder("httpclient.reactor.busy")
+                .description("Time IO reactor threads spend handling events, including callbacks run on IO threads")
+                .tags(Tags.of("client", client))
+                .register(registry);
+        meters.add(busy);
+        reactorBusy = busy;
+        meters.add(Gauge.builder("httpclient.reactor.threads", () -> ioThreads)
+                .tags(Tags.of("client", client))
+                .register(registry));
+    }
+
+    /**
+     * 记录IO线程处理一个IO事件的耗时（最大值即IO线程最长阻塞时间）
+     */
+    public void recordReactorBusy(long nanos) {
+        reactorBusy.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录从连接池租用连接的等待时间（异步客户端新建连接时包含建连时间）
+     */
+    public void recordLease(HttpRoute route, long nanos, LeaseOutcome outcome) {
+        route(route.getTargetHost()).lease[outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录租到的连接是复用池中已有连接还是需新建连接，复用率 = reused=true / 全部
+     */
+    public void recordLeasedConnection(HttpRoute route, boolean reused) {
+        RouteMeters routeMeters = route(route.getTargetHost());
+        (reused ? routeMeters.reused : routeMeters.created).increment();
+    }
+
+    /**
+     * 记录后台任务清理的连接数
+     */
+    public void recordEviction(int connections) {
+        evicted.increment(connections);
+    }
+
+    /**
+     * 记录建立连接时间（TCP连接及TLS握手）
+     */
+    public void recordConnect(HttpRoute route, long nanos) {
+        route(route.getTargetHost()).connect.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次完整请求耗时（含连接租用、发送、读完响应体）及响应体字节数
+     *
+     * @param target        目标主机，为空（请求地址无主机）时不记录
+     * @param nanos         耗时
+     * @param statusCode    响应状态码，无响应时传-1
+     * @param receivedBytes 读取的响应体字节数
+     */
+    public void recordRequest(HttpHost target, long nanos, int statusCode, long receivedBytes) {
+        if (target == null) {
+            return;
+        }
+        RouteMeters meters = route(target);
+        meters.requests[Outcome.of(statusCode).ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+        if (receivedBytes > 0) {
+            meters.bytesReceived.increment(receivedBytes);
+        }
+    }
+
+    /**
+     * 记录一次请求体压缩或响应体解压的字节数
+     *
+     * @param direction 请求体压缩或响应体解压
+     * @param rawBytes  压缩前（解压后）字节数
+     * @param wireBytes 实际传输的压缩后字节数
+     */
+    public void recordCompression(Direction direction, long rawBytes, long wireBytes) {
+        CompressionMeters compressionMeters = compression[direction.ordinal()];
+        compressionMeters.raw.increment(rawBytes);
+        compressionMeters.wire.increment(wireBytes);
+        if (rawBytes > wireBytes) {
+            compressionMeters.saved.increment(rawBytes - wireBytes);
+        }
+    }
+
+    /**
+     * 请求拦截器（需最后添加），记录请求开始时间及请求体字节数
+     * 开始时间在连接租用之前，首字节时间因此包含连接池等待
+     */
+    public HttpRequestInterceptor requestInterceptor() {
+        return (request, context) -> {
+            context.setAttribute(START_NANOS, System.nanoTime());
+            if (request instanceof HttpEntityEnclosingRequest) {
+                HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+                HttpHost target = HttpCoreContext.adapt(context).getTargetHost();
+                if (entity != null && entity.getContentLength() > 0 && target != null) {
+                    route(target).bytesSent.increment(entity.getContentLength());
+                }
+            }
+        };
+    }
+
+    /**
+     * 响应拦截器（需最先添加），收到响应头时记录首字节时间
+     */
+    public HttpResponseInterceptor responseInterceptor() {
+        return (response, context) -> {
+            Object start = context.getAttribute(START_NANOS);
+            HttpHost target = HttpCoreContext.adapt(context).getTargetHost();
+            if (start instanceof Long && target != null) {
+                route(target).timeToFirstByte.record(System.nanoTime() - (Long) start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    /**
+     * 移除已注册的全部指标
+     */
+    @Override
+    public void close() {
+        for (Meter meter : meters) {
+            registry.remove(meter);
+        }
+        meters.clear();
+        routes.clear();
+        pool = null;
+    }
+
+    /**
+     * 获取路由指标，首次出现时注册
+     */
+    private RouteMeters route(HttpHost target) {
+        HttpHost key = MyRoutes.normalize(target);
+        RouteMeters routeMeters = routes.get(key);
+        if (routeMeters == null) {
+            routeMeters = routes.computeIfAbsent(key, RouteMeters::new);
+        }
+        return routeMeters;
+    }
+
+    private void poolGauge(String name, Tags tags, ConnPoolControl<HttpRoute> pool,
+                           ToIntFunction<ConnPoolControl<HttpRoute>> value) {
+        meters.add(Gauge.builder(name, pool, p -> value.applyAsInt(p))
+                .tags(tags)
+                .register(registry));
+    }
+
+    private Timer timer(String name, String description, Tags tags) {
+        Timer timer = Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+        meters.add(timer);
+        return timer;
+    }
+
+    private Counter counter(String name, String description, Tags tags) {
+        return counter(name, description, "bytes", tags);
+    }
+
+    private Counter counter(String name, String description, String baseUnit, Tags tags) {
+        Counter counter = Counter.builder(name)
+                .description(description)
+                .baseUnit(baseUnit)
+                .tags(tags)
+                .register(registry);
+        meters.add(counter);
+        return counter;
+    }
+
+    /**
+     * 单个方向的压缩字节数指标
+     */
+    private class CompressionMeters {
+
+        private final Counter raw;
+        private final Counter wire;
+        private final Counter saved;
+
+        CompressionMeters(Direction direction) {
+            Tags tags = Tags.of("client", client, "direction", direction.name());
+            raw = counter("httpclient.compression.raw", "Body bytes before compression (after decompression)", tags);
+            wire = counter("httpclient.compression.wire", "Compressed body bytes on the wire", tags);
+            saved = counter("httpclient.compression.saved", "Body bytes saved by compression", tags);
+        }
+    }
+
+    /**
+     * 单个路由的全部指标
+     */
+    private class RouteMeters {
+
+        private final Timer[] lease = new Timer[LeaseOutcome.values().length];
+        private final Timer connect;
+        private final Counter reused;
+        private final Counter created;
+        private final Timer timeToFirstByte;
+        private final Timer[] requests = new Timer[Outcome.values().length];
+        private final Counter bytesSent;
+        private final Counter bytesReceived;
+
+        RouteMeters(HttpHost target) {
+            Tags tags = Tags.of("client", client, "route", target.toURI());
+            for (LeaseOutcome outcome : LeaseOutcome.values()) {
+                lease[outcome.ordinal()] = timer("httpclient.pool.lease",
+                        "Time waiting to lease a pooled connection", tags.and("outcome", outcome.name()));
+            }
+            connect = timer("httpclient.connect", "Time to establish a connection", tags);
+            reused = counter("httpclient.pool.connections", "Leased connections by whether a pooled one was reused",
+                    "connections", tags.and("reused", "true"));
+            created = counter("httpclient.pool.connections", "Leased connections by whether a pooled one was reused",
+                    "connections", tags.and("reused", "false"));
+            timeToFirstByte = timer("httpclient.ttfb",
+                    "Time from dispatch (including lease) to response head", tags);
+            for (Outcome outcome : Outcome.values()) {
+                requests[outcome.ordinal()] = timer("httpclient.requests",
+                        "Total exchange time including reading the body", tags.and("outcome", outcome.name()));
+            }
+            bytesSent = counter("httpclient.bytes.sent", "Request body bytes sent", tags);
+            bytesReceived = counter("httpclient.bytes.received", "Response body bytes received", tags);
+
+            ConnPoolControl<HttpRoute> boundPool = pool;
+            if (boundPool != null) {
+                HttpRoute route = new HttpRoute(target, null, "https".equalsIgnoreCase(target.getSchemeName()));
+                poolGauge("httpclient.pool.leased", tags, boundPool, p -> p.getStats(route).getLeased());
+                poolGauge("httpclient.pool.available", tags, boundPool, p -> p.getStats(route).getAvailable());
+                poolGauge("httpclient.pool.pending", tags, boundPool, p -> p.getStats(route).getPending());
+                poolGauge("httpclient.pool.max", tags, boundPool, p -> p.getStats(route).getMax());
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.cent.HttpClientDemo.util.metrics;
+
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOEventDispatch;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.nio.reactor.IOSession;
+
+import java.io.InterruptedIOException;
+
+/**
+ * 记录IO线程忙碌时间的连接IO反应器
+ * 每个IO事件（连接、可读、可写、超时、断开）的处理耗时计入httpclient.reactor.busy，
+ * 其中包括在IO线程执行的响应体接收及回调；忙碌时间占比接近IO线程数时，全部网络读写都在排队等待
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class MeteredConnectingIOReactor extends DefaultConnectingIOReactor {
+
+    private final HttpClientMetrics metrics;
+
+    /**
+     * @param config  IO反应器配置
+     * @param metrics 运行指标
+     * @throws IOReactorException 创建选择器失败
+     */
+    public MeteredConnectingIOReactor(IOReactorConfig config, HttpClientMetrics metrics) throws IOReactorException {
+        super(config);
+        this.metrics = metrics;
+        metrics.bindReactor(config.getIoThreadCount());
+    }
+
+    @Override
+    public void execute(IOEventDispatch eventDispatch) throws InterruptedIOException, IOReactorException {
+        super.execute(new TimedIOEventDispatch(eventDispatch));
+    }
+
+    /**
+     * 计时的IO事件分发（内部使用）
+     */
+    private class TimedIOEventDispatch implements IOEventDispatch {
+
+        private final IOEventDispatch dispatch;
+
+        TimedIOEventDispatch(IOEventDispatch dispatch) {
+            this.dispatch = dispatch;
+        }
+
+        @Override
+        public void connected(IOSession session) {
+            long start = System.nanoTime();
+            try {
+                dispatch.connected(session);
+            } finally {
+                metrics.recordReactorBusy(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void inputReady(IOSession session) {
+            long start = System.nanoTime();
+            try {
+                dispatch.inputReady(session);
+            } finally {
+                metrics.recordReactorBusy(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void outputReady(IOSession session) {
+            long start = System.nanoTime();
+            try {
+                dispatch.outputReady(session);
+            } finally {
+                metrics.recordReactorBusy(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void timeout(IOSession session) {
+            long start = System.nanoTime();
+            try {
+                dispatch.timeout(session);
+            } finally {
+                metrics.recordReactorBusy(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void disconnected(IOSession session) {
+            long start = System.nanoTime();
+            try {
+                dispatch.disconnected(session);
+            } finally {
+                metrics.recordReactorBusy(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.cent.HttpClientDemo.util.metrics;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.cent.HttpClientDemo.util.pool.IdleConnectionEvictor;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录连接租用等待、建连耗时及连接复用的同步客户端连接池管理类
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class MeteredPoolingHttpClientConnectionManager extends PoolingHttpClientConnectionManager
+        implements IdleConnectionEvictor.Pool {
+
+    private final HttpClientMetrics metrics;
+
+    public MeteredPoolingHttpClientConnectionManager(HttpClientMetrics metrics) {
+        super();
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param metrics     运行指标
+     * @param maxLifetime 连接最长存活时间，不大于0为不限制
+     * @param tunit       时间单位
+     */
+    public MeteredPoolingHttpClientConnectionManager(HttpClientMetrics metrics, long maxLifetime, TimeUnit tunit) {
+        super(maxLifetime, tunit);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest connectionRequest = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit tunit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                HttpClientMetrics.LeaseOutcome outcome = HttpClientMetrics.LeaseOutcome.ERROR;
+                try {
+                    HttpClientConnection connection = connectionRequest.get(timeout, tunit);
+                    outcome = HttpClientMetrics.LeaseOutcome.SUCCESS;
+                    // 新建的池化连接尚未打开，需随后建连
+                    metrics.recordLeasedConnection(route, connection.isOpen());
+                    return connection;
+                } catch (ConnectionPoolTimeoutException e) {
+                    outcome = HttpClientMetrics.LeaseOutcome.TIMEOUT;
+                    throw e;
+                } finally {
+                    metrics.recordLease(route, System.nanoTime() - start, outcome);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return connectionRequest.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void connect(HttpClientConnection managedConn, HttpRoute route, int connectTimeout, HttpContext context)
+            throws IOException {
+        long start = System.nanoTime();
+        super.connect(managedConn, route, connectTimeout, context);
+        metrics.recordConnect(route, System.nanoTime() - start);
+    }
+}
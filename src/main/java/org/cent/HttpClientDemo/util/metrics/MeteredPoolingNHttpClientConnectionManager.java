@@ -0,0 +1,87 @@
+package org.cent.HttpClientDemo.util.metrics;
+
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+import org.cent.HttpClientDemo.util.pool.IdleConnectionEvictor;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 记录连接租用等待耗时及连接复用的异步客户端连接池管理类
+ * 异步连接池在租用过程中建立新连接，租用耗时包含建连时间
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class MeteredPoolingNHttpClientConnectionManager extends PoolingNHttpClientConnectionManager
+        implements IdleConnectionEvictor.Pool {
+
+    private final HttpClientMetrics metrics;
+
+    public MeteredPoolingNHttpClientConnectionManager(ConnectingIOReactor ioReactor, HttpClientMetrics metrics) {
+        super(ioReactor);
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param ioReactor   IO线程
+     * @param metrics     运行指标
+     * @param maxLifetime 连接最长存活时间，不大于0为不限制
+     * @param tunit       时间单位
+     */
+    public MeteredPoolingNHttpClientConnectionManager(ConnectingIOReactor ioReactor, HttpClientMetrics metrics,
+                                                      long maxLifetime, TimeUnit tunit) {
+        // 与默认构造相同的协议注册（http明文，https使用默认SSL配置），其余参数为空时使用默认实现
+        super(ioReactor, null, RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", SSLIOSessionStrategy.getDefaultStrategy())
+                .build(), null, null, maxLifetime, tunit);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Future<NHttpClientConnection> requestConnection(HttpRoute route, Object state, long connectTimeout,
+                                                           long leaseTimeout, TimeUnit tunit,
+                                                           FutureCallback<NHttpClientConnection> callback) {
+        long start = System.nanoTime();
+        return super.requestConnection(route, state, connectTimeout, leaseTimeout, tunit,
+                new FutureCallback<NHttpClientConnection>() {
+                    @Override
+                    public void completed(NHttpClientConnection result) {
+                        metrics.recordLease(route, System.nanoTime() - start, HttpClientMetrics.LeaseOutcome.SUCCESS);
+                        // 新建连接在客户端完成路由（routeComplete）前为未完成状态
+                        metrics.recordLeasedConnection(route, isRouteComplete(result));
+                        if (callback != null) {
+                            callback.completed(result);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception ex) {
+                        boolean timeout = ex instanceof TimeoutException || ex instanceof ConnectionPoolTimeoutException;
+                        metrics.recordLease(route, System.nanoTime() - start,
+                                timeout ? HttpClientMetrics.LeaseOutcome.TIMEOUT : HttpClientMetrics.LeaseOutcome.ERROR);
+                        if (callback != null) {
+                            callback.failed(ex);
+                        }
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        if (callback != null) {
+                            callback.cancelled();
+                        }
+                    }
+                });
+    }
+}
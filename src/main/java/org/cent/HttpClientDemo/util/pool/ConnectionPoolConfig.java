@@ -0,0 +1,113 @@
+package org.cent.HttpClientDemo.util.pool;
+
+/**
+ * 连接池配置：容量、超时、IO线程数，及连接回收（空闲超时、最长存活时间、后台清理周期及租用前失效检查）
+ * 共享连接池仅在首次初始化时生效；命名客户端按各自的配置创建独立连接池
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class ConnectionPoolConfig {
+
+    // 连接池最大连接数
+    private int maxTotal = 100;
+    // 每路最大连接数（同一路由最大并发连接数）
+    private int maxPerRoute = 100;
+    // 连接超时（毫秒），建立连接时间（三次TCP握手完成时间）
+    private int connectTimeoutMillis = 60000;
+    // 读取超时（毫秒），数据传输过程中数据包之间间隔的最大时间
+    private int socketTimeoutMillis = 60000;
+    // 从连接池获取连接超时时间（毫秒）
+    private int connectionRequestTimeoutMillis = 3000;
+    // IO线程数（仅异步客户端）
+    private int ioThreadCount = Runtime.getRuntime().availableProcessors();
+
+    // 空闲超时（毫秒），空闲超过该时间的连接由后台任务关闭；响应未声明Keep-Alive时也以此作为保持时间
+    private long idleTimeoutMillis = 30000;
+    // 连接最长存活时间（毫秒），到期后不再复用，便于服务端扩缩容或DNS变更后重新分布连接；0为不限制
+    private long maxLifetimeMillis = 300000;
+    // 后台清理过期及空闲连接的周期（毫秒）
+    private long evictionPeriodMillis = 5000;
+    // 连接空闲超过该时间（毫秒）后租用前先检查是否已被服务端关闭（仅同步客户端，异步客户端由IO线程感知关闭）
+    private int validateAfterInactivityMillis = 2000;
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public void setMaxPerRoute(int maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    public int getSocketTimeoutMillis() {
+        return socketTimeoutMillis;
+    }
+
+    public void setSocketTimeoutMillis(int socketTimeoutMillis) {
+        this.socketTimeoutMillis = socketTimeoutMillis;
+    }
+
+    public int getConnectionRequestTimeoutMillis() {
+        return connectionRequestTimeoutMillis;
+    }
+
+    public void setConnectionRequestTimeoutMillis(int connectionRequestTimeoutMillis) {
+        this.connectionRequestTimeoutMillis = connectionRequestTimeoutMillis;
+    }
+
+    public int getIoThreadCount() {
+        return ioThreadCount;
+    }
+
+    public void setIoThreadCount(int ioThreadCount) {
+        this.ioThreadCount = ioThreadCount;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public long getMaxLifetimeMillis() {
+        return maxLifetimeMillis;
+    }
+
+    public void setMaxLifetimeMillis(long maxLifetimeMillis) {
+        this.maxLifetimeMillis = maxLifetimeMillis;
+    }
+
+    public long getEvictionPeriodMillis() {
+        return evictionPeriodMillis;
+    }
+
+    public void setEvictionPeriodMillis(long evictionPeriodMillis) {
+        this.evictionPeriodMillis = evictionPeriodMillis;
+    }
+
+    public int getValidateAfterInactivityMillis() {
+        return validateAfterInactivityMillis;
+    }
+
+    public void setValidateAfterInactivityMillis(int validateAfterInactivityMillis) {
+        this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+    }
+}
@@ -0,0 +1,54 @@
+package org.cent.HttpClientDemo.util.pool;
+
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * 按响应头Keep-Alive: timeout=N决定连接保持时间，同步及异步客户端通用
+ * 在服务端超时前预留余量提前过期，避免租到服务端恰好关闭的连接；未声明时使用默认空闲超时
+ * （默认策略未声明时永久保持，依赖服务端不关闭空闲连接）
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class HeaderKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+    // 提前过期余量上限（毫秒），超时较短时按超时的1/4预留
+    private static final long MAX_MARGIN_MILLIS = 1000;
+
+    private final long defaultKeepAliveMillis;
+
+    /**
+     * @param defaultKeepAliveMillis 响应未声明Keep-Alive超时时的保持时间（毫秒）
+     */
+    public HeaderKeepAliveStrategy(long defaultKeepAliveMillis) {
+        if (defaultKeepAliveMillis <= 0) {
+            throw new IllegalArgumentException("defaultKeepAliveMillis must be positive");
+        }
+        this.defaultKeepAliveMillis = defaultKeepAliveMillis;
+    }
+
+    @Override
+    public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+        HeaderElementIterator it = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+        while (it.hasNext()) {
+            HeaderElement element = it.nextElement();
+            if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                try {
+                    long timeoutMillis = Long.parseLong(element.getValue().trim()) * 1000;
+                    long keepAlive = timeoutMillis - Math.min(MAX_MARGIN_MILLIS, timeoutMillis / 4);
+                    // 连接池中保持时间不大于0表示永久保持，取最小1毫秒
+                    return Math.max(1, Math.min(keepAlive, defaultKeepAliveMillis));
+                } catch (NumberFormatException ignore) {
+                    // 非法值按未声明处理
+                }
+            }
+        }
+        return defaultKeepAliveMillis;
+    }
+}
@@ -0,0 +1,71 @@
+package org.cent.HttpClientDemo.util.pool;
+
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.pool.ConnPoolControl;
+import org.cent.HttpClientDemo.util.MyExecutors;
+import org.cent.HttpClientDemo.util.metrics.HttpClientMetrics;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接池后台清理任务，周期性关闭已过期（超过Keep-Alive保持时间或最长存活时间）及空闲超时的连接
+ * 空闲连接被服务端关闭后仍留在池中时，下次租用要付出一次失败写入再重连，定期清理可避免租到失效连接
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class IdleConnectionEvictor implements AutoCloseable {
+
+    /**
+     * 连接池清理操作，同步及异步连接池管理类均提供（方法签名相同但无公共接口）
+     */
+    public interface Pool extends ConnPoolControl<HttpRoute> {
+
+        void closeExpiredConnections();
+
+        void closeIdleConnections(long idleTimeout, TimeUnit unit);
+    }
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 创建并启动清理任务
+     *
+     * @param name    线程名称前缀
+     * @param pool    连接池
+     * @param config  回收配置
+     * @param metrics 运行指标，记录清理的连接数
+     */
+    public IdleConnectionEvictor(String name, Pool pool, ConnectionPoolConfig config, HttpClientMetrics metrics) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, MyExecutors.daemonThreadFactory(name));
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+        long period = config.getEvictionPeriodMillis();
+        long idleTimeout = config.getIdleTimeoutMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                int before = pool.getTotalStats().getAvailable();
+                pool.closeExpiredConnections();
+                pool.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+                // 清理期间可能有连接归还或租出，按空闲连接数变化估算清理数
+                int evicted = before - pool.getTotalStats().getAvailable();
+                if (evicted > 0) {
+                    metrics.recordEviction(evicted);
+                }
+            } catch (RuntimeException e) {
+                // 单次清理失败不影响后续周期
+                e.printStackTrace();
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停止清理任务（连接池由调用方关闭）
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,65 @@
+package org.cent.HttpClientDemo.util.retry;
+
+import java.util.Arrays;
+
+/**
+ * 最近若干次请求耗时的分位统计，用于决定对冲请求的发送时机
+ * 样本存于环形数组，每新增窗口1/10的样本重新排序计算一次分位值，读取为无锁
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class LatencyTracker {
+
+    // 少于该样本数时分位值不可信，不返回
+    private static final int MIN_SAMPLES = 20;
+
+    private final double percentile;
+    private final long[] samples;
+    private final int refreshInterval;
+    private int count;
+    private int next;
+    private int sinceRefresh;
+    private volatile long percentileNanos = -1;
+
+    /**
+     * @param percentile 分位（0~1）
+     * @param window     保留的最近样本数
+     */
+    public LatencyTracker(double percentile, int window) {
+        if (percentile <= 0 || percentile > 1 || window <= 0) {
+            throw new IllegalArgumentException("percentile must be in (0, 1] and window must be positive");
+        }
+        this.percentile = percentile;
+        this.samples = new long[window];
+        this.refreshInterval = Math.max(1, window / 10);
+    }
+
+    /**
+     * 记录一次请求耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (count >= MIN_SAMPLES && (++sinceRefresh >= refreshInterval || percentileNanos < 0)) {
+            sinceRefresh = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+        }
+    }
+
+    /**
+     * 当前分位耗时
+     *
+     * @return 分位耗时（纳秒），样本不足时返回-1
+     */
+    public long getPercentileNanos() {
+        return percentileNanos;
+    }
+}
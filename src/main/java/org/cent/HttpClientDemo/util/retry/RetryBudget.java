@@ -0,0 +1,56 @@
+package org.cent.HttpClientDemo.util.retry;
+
+import org.cent.HttpClientDemo.util.limit.TokenBucket;
+
+/**
+ * 重试预算，限制重试及对冲请求带来的额外负载
+ * 每个首次请求存入ratio个额度，每次重试或对冲取出1个额度，额度不足时使用每秒保底额度；
+ * 上游整体故障时重试量被限制在请求量的固定比例内，避免重试风暴放大故障
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class RetryBudget {
+
+    // 额度上限对应的请求数，避免长时间空闲后积累过多额度造成突发重试
+    private static final int MAX_BALANCE_REQUESTS = 1000;
+
+    private final double ratio;
+    private final double maxBalance;
+    private final TokenBucket reserve;
+    private double balance;
+
+    /**
+     * @param ratio               每个请求积累的额度
+     * @param minRetriesPerSecond 每秒保底额度，0或负数无保底
+     */
+    public RetryBudget(double ratio, double minRetriesPerSecond) {
+        this.ratio = Math.max(0, ratio);
+        this.maxBalance = Math.max(1, this.ratio * MAX_BALANCE_REQUESTS);
+        this.reserve = minRetriesPerSecond > 0
+                ? new TokenBucket(minRetriesPerSecond, Math.max(1, (int) Math.ceil(minRetriesPerSecond)))
+                : null;
+    }
+
+    /**
+     * 记录一个首次请求
+     */
+    public synchronized void deposit() {
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    /**
+     * 尝试取出一次重试额度
+     *
+     * @return 是否允许重试
+     */
+    public boolean tryWithdraw() {
+        synchronized (this) {
+            if (balance >= 1) {
+                balance -= 1;
+                return true;
+            }
+        }
+        return reserve != null && reserve.tryAcquire();
+    }
+}
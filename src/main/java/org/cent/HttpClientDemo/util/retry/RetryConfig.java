@@ -0,0 +1,125 @@
+package org.cent.HttpClientDemo.util.retry;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 幂等请求重试及对冲配置：指数退避（全抖动）重试 + 按路由p95耗时发送对冲请求 + 重试预算
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class RetryConfig {
+
+    // 最多重试次数（不含首次请求及对冲请求）
+    private int maxRetries = 2;
+    // 首次重试退避基数（毫秒），第n次重试在[0, min(最大退避, 基数*2^n))内随机等待
+    private long initialBackoffMillis = 50;
+    // 最大退避时间（毫秒）
+    private long maxBackoffMillis = 2000;
+    // 视为可重试的响应状态码
+    private Set<Integer> retryableStatusCodes = new HashSet<>(Arrays.asList(502, 503, 504));
+    // 是否启用对冲请求
+    private boolean hedgingEnabled = false;
+    // 超过路由该分位耗时仍未响应时发送对冲请求
+    private double hedgePercentile = 0.95;
+    // 对冲延迟下限（毫秒），路由耗时样本不足时不对冲
+    private long minHedgeDelayMillis = 10;
+    // 单个请求最多发送的对冲请求数
+    private int maxHedges = 1;
+    // 统计路由耗时分位的最近样本数
+    private int latencyWindow = 1000;
+    // 重试预算：每个请求积累的重试额度，0.1表示重试及对冲请求不超过请求数的10%
+    private double budgetRatio = 0.1;
+    // 重试预算保底：每秒至少允许的重试及对冲请求数，保证低流量时也能重试
+    private double minRetriesPerSecond = 10;
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    public void setInitialBackoffMillis(long initialBackoffMillis) {
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    public void setMaxBackoffMillis(long maxBackoffMillis) {
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public Set<Integer> getRetryableStatusCodes() {
+        return retryableStatusCodes;
+    }
+
+    public void setRetryableStatusCodes(Set<Integer> retryableStatusCodes) {
+        this.retryableStatusCodes = retryableStatusCodes;
+    }
+
+    public boolean isHedgingEnabled() {
+        return hedgingEnabled;
+    }
+
+    public void setHedgingEnabled(boolean hedgingEnabled) {
+        this.hedgingEnabled = hedgingEnabled;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public void setHedgePercentile(double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    public long getMinHedgeDelayMillis() {
+        return minHedgeDelayMillis;
+    }
+
+    public void setMinHedgeDelayMillis(long minHedgeDelayMillis) {
+        this.minHedgeDelayMillis = minHedgeDelayMillis;
+    }
+
+    public int getMaxHedges() {
+        return maxHedges;
+    }
+
+    public void setMaxHedges(int maxHedges) {
+        this.maxHedges = maxHedges;
+    }
+
+    public int getLatencyWindow() {
+        return latencyWindow;
+    }
+
+    public void setLatencyWindow(int latencyWindow) {
+        this.latencyWindow = latencyWindow;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+
+    public double getMinRetriesPerSecond() {
+        return minRetriesPerSecond;
+    }
+
+    public void setMinRetriesPerSecond(double minRetriesPerSecond) {
+        this.minRetriesPerSecond = minRetriesPerSecond;
+    }
+}
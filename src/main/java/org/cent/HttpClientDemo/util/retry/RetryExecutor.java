@@ -0,0 +1,310 @@
+package org.cent.HttpClientDemo.util.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.HttpHost;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.cent.HttpClientDemo.util.MyRoutes;
+import org.cent.HttpClientDemo.util.deadline.DeadlineExceededException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 幂等请求的重试及对冲执行器，多个工具类实例可共享同一执行器（共享重试预算及路由耗时统计）
+ * 对冲：超过路由近期p95耗时仍未响应时再发送一次相同请求，先返回的结果胜出，其余请求取消；路由耗时样本不足时不对冲，
+ * 耗时按整个调用（首次请求发出到得到结果）统计，对冲胜出时不会只记录较快的一方而使分位值越来越低；
+ * 重试：IO异常或可重试状态码（默认502/503/504）按指数退避加随机抖动后重发；
+ * 对冲与重试都从重试预算取额度，预算耗尽时直接返回最近一次结果
+ * 只能用于幂等请求（GET等），非幂等请求由调用方决定不经过本执行器
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class RetryExecutor {
+
+    // 退避及对冲定时器，所有执行器共享一个守护线程，定时任务只负责发起异步请求
+    private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+    private final RetryConfig config;
+    private final RetryBudget budget;
+    private final ConcurrentMap<HttpHost, LatencyTracker> latencies = new ConcurrentHashMap<>();
+    private final Counter retries;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+    private final Counter budgetExhausted;
+
+    /**
+     * @param config   重试及对冲配置
+     * @param registry 指标注册表
+     */
+    public RetryExecutor(RetryConfig config, MeterRegistry registry) {
+        this.config = config;
+        this.budget = new RetryBudget(config.getBudgetRatio(), config.getMinRetriesPerSecond());
+        this.retries = Counter.builder("httpclient.retries").tag("kind", "retry").register(registry);
+        this.hedges = Counter.builder("httpclient.retries").tag("kind", "hedge").register(registry);
+        this.hedgeWins = Counter.builder("httpclient.hedge.wins").register(registry);
+        this.budgetExhausted = Counter.builder("httpclient.retries.budget.exhausted").register(registry);
+    }
+
+    private static ScheduledThreadPoolExecutor createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "httpclient-retry-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * 带重试及对冲执行幂等请求
+     *
+     * @param target  目标主机，用于按路由统计耗时
+     * @param attempt 发送一次请求，每次调用须发送独立的请求对象
+     * @return 异步响应结果，取消时同时取消全部在途请求
+     */
+    public CompletableFuture<MyHttpResponse> execute(HttpHost target, Supplier<CompletableFuture<MyHttpResponse>> attempt) {
+        HttpHost key = MyRoutes.normalize(target);
+        LatencyTracker latency = latencies.get(key);
+        if (latency == null) {
+            latency = latencies.computeIfAbsent(key,
+                    k -> new LatencyTracker(config.getHedgePercentile(), config.getLatencyWindow()));
+        }
+        budget.deposit();
+        return new Call(attempt, latency).start();
+    }
+
+    /**
+     * 路由当前对冲延迟（毫秒）
+     *
+     * @return 对冲延迟，路由耗时样本不足（不对冲）时返回-1
+     */
+    public long getHedgeDelayMillis(HttpHost target) {
+        LatencyTracker latency = latencies.get(MyRoutes.normalize(target));
+        return hedgeDelayMillis(latency == null ? -1 : latency.getPercentileNanos());
+    }
+
+    private long hedgeDelayMillis(long percentileNanos) {
+        if (percentileNanos < 0) {
+            return -1;
+        }
+        return Math.max(config.getMinHedgeDelayMillis(), TimeUnit.NANOSECONDS.toMillis(percentileNanos));
+    }
+
+    /**
+     * 第retry次重试（从0开始）的全抖动退避时间
+     */
+    private long backoffMillis(int retry) {
+        long ceiling = config.getInitialBackoffMillis() << Math.min(retry, 30);
+        if (ceiling <= 0 || ceiling > config.getMaxBackoffMillis()) {
+            ceiling = config.getMaxBackoffMillis();
+        }
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * 可重试的失败：IO异常（连接失败、超时、连接被重置等）或可重试状态码
+     * 准入控制拒绝、熔断等本地拒绝及截止时间已到不重试
+     */
+    private boolean isRetryable(MyHttpResponse response, Throwable ex) {
+        if (ex != null) {
+            return ex instanceof IOException && !(ex instanceof DeadlineExceededException);
+        }
+        return config.getRetryableStatusCodes().contains(response.getStatusCode());
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    /**
+     * 单次调用（首次请求及其重试、对冲请求）的状态
+     */
+    private class Call {
+
+        private final Supplier<CompletableFuture<MyHttpResponse>> attempt;
+        private final LatencyTracker latency;
+        private final CompletableFuture<MyHttpResponse> result = new CompletableFuture<>();
+        // 首次请求发出时间，耗时按整个调用统计
+        private final long start = System.nanoTime();
+        // 以下状态由this加锁保护
+        private final List<CompletableFuture<MyHttpResponse>> inFlight = new ArrayList<>(2);
+        private Future<?> timer;
+        private int retriesUsed;
+        private int hedgesUsed;
+
+        Call(Supplier<CompletableFuture<MyHttpResponse>> attempt, LatencyTracker latency) {
+            this.attempt = attempt;
+            this.latency = latency;
+        }
+
+        CompletableFuture<MyHttpResponse> start() {
+            result.whenComplete((response, ex) -> {
+                if (result.isCancelled()) {
+                    cancelAll();
+                }
+            });
+            launch(false);
+            return result;
+        }
+
+        /**
+         * 发送一次请求，启用对冲时同时安排对冲定时
+         */
+        private void launch(boolean hedge) {
+            CompletableFuture<MyHttpResponse> sent;
+            try {
+                sent = attempt.get();
+            } catch (RuntimeException e) {
+                sent = new CompletableFuture<>();
+                sent.completeExceptionally(e);
+            }
+            CompletableFuture<MyHttpResponse> current = sent;
+            synchronized (this) {
+                if (result.isDone()) {
+                    current.cancel(true);
+                    return;
+                }
+                inFlight.add(current);
+                scheduleHedge();
+            }
+            current.whenComplete((response, ex) -> onComplete(current, hedge, response, unwrap(ex)));
+        }
+
+        /**
+         * 安排对冲定时（调用方持有锁）
+         */
+        private void scheduleHedge() {
+            if (!config.isHedgingEnabled() || hedgesUsed >= config.getMaxHedges()) {
+                return;
+            }
+            long delay = hedgeDelayMillis(latency.getPercentileNanos());
+            if (delay < 0) {
+                return;
+            }
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            timer = TIMER.schedule(this::hedge, delay, TimeUnit.MILLISECONDS);
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                timer = null;
+                if (result.isDone() || inFlight.isEmpty() || hedgesUsed >= config.getMaxHedges()) {
+                    return;
+                }
+                if (!budget.tryWithdraw()) {
+                    budgetExhausted.increment();
+                    return;
+                }
+                hedgesUsed++;
+            }
+            hedges.increment();
+            launch(true);
+        }
+
+        private void onComplete(CompletableFuture<MyHttpResponse> current, boolean hedge,
+                                MyHttpResponse response, Throwable ex) {
+            boolean othersInFlight;
+            synchronized (this) {
+                inFlight.remove(current);
+                // 结果已确定后的取消由本调用发起（cancelAll或launch），忽略
+                if (result.isDone()) {
+                    return;
+                }
+                othersInFlight = !inFlight.isEmpty();
+            }
+            // 非本调用发起的取消（如连接池关闭时HttpAsyncClient取消请求）：不重试，
+            // 没有其他在途请求时以取消异常结束，避免调用方一直等待
+            if (ex instanceof CancellationException) {
+                if (!othersInFlight) {
+                    complete(null, ex);
+                }
+                return;
+            }
+            if (!isRetryable(response, ex)) {
+                if (ex == null) {
+                    latency.record(System.nanoTime() - start);
+                    if (hedge) {
+                        hedgeWins.increment();
+                    }
+                }
+                complete(response, ex);
+                return;
+            }
+            // 可重试的失败：仍有对冲请求在途时等待其结果，否则按预算退避重试
+            if (othersInFlight) {
+                return;
+            }
+            long delay;
+            synchronized (this) {
+                if (retriesUsed >= config.getMaxRetries()) {
+                    delay = -1;
+                } else if (!budget.tryWithdraw()) {
+                    budgetExhausted.increment();
+                    delay = -1;
+                } else {
+                    delay = backoffMillis(retriesUsed++);
+                    if (timer != null) {
+                        timer.cancel(false);
+                    }
+                    timer = TIMER.schedule(this::retry, delay, TimeUnit.MILLISECONDS);
+                }
+            }
+            if (delay < 0) {
+                complete(response, ex);
+            }
+        }
+
+        private void retry() {
+            synchronized (this) {
+                timer = null;
+                if (result.isDone()) {
+                    return;
+                }
+            }
+            retries.increment();
+            launch(false);
+        }
+
+        private void complete(MyHttpResponse response, Throwable ex) {
+            if (ex != null) {
+                result.completeExceptionally(ex);
+            } else {
+                result.complete(response);
+            }
+            cancelAll();
+        }
+
+        /**
+         * 结果已确定后取消落败的在途请求及定时
+         */
+        private void cancelAll() {
+            List<CompletableFuture<MyHttpResponse>> losers;
+            synchronized (this) {
+                losers = new ArrayList<>(inFlight);
+                inFlight.clear();
+                if (timer != null) {
+                    timer.cancel(false);
+                    timer = null;
+                }
+            }
+            for (CompletableFuture<MyHttpResponse> loser : losers) {
+                loser.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package org.cent.HttpClientDemo.util.template;
+
+import org.apache.http.Header;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHeader;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的请求模板，不可变，线程间共享
+ * 基础地址只解析一次，请求头预先构造并在请求间共享，每次调用只传入可变部分（查询参数、请求体）：
+ * 无查询参数时直接复用已解析的URI；查询参数及表单参数直接编码为字节，不经URIBuilder及NameValuePair列表
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class RequestTemplate {
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    // 表单内容为百分号编码的utf-8，全部为ascii字符
+    private static final ContentType FORM_CONTENT_TYPE =
+            ContentType.create("application/x-www-form-urlencoded", StandardCharsets.UTF_8);
+
+    private final URI uri;
+    private final byte[] uriBytes;
+    private final boolean hasQuery;
+    private final Header[] headers;
+    private final Map<String, String> headerMap;
+    private final ContentType contentType;
+
+    private RequestTemplate(Builder builder) {
+        try {
+            this.uri = new URI(builder.url);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid url: " + builder.url, e);
+        }
+        String base = uri.toASCIIString();
+        this.uriBytes = base.getBytes(StandardCharsets.US_ASCII);
+        this.hasQuery = uri.getRawQuery() != null;
+        this.headerMap = Collections.unmodifiableMap(new LinkedHashMap<>(builder.headers));
+        List<Header> headerList = new ArrayList<>(builder.headers.size());
+        for (Map.Entry<String, String> header : builder.headers.entrySet()) {
+            headerList.add(new BasicHeader(header.getKey(), header.getValue()));
+        }
+        this.headers = headerList.toArray(new Header[0]);
+        this.contentType = builder.contentType;
+    }
+
+    /**
+     * 创建模板构造器
+     *
+     * @param url 协议+主机+端口+路径，可带固定查询参数
+     * @return 模板构造器
+     */
+    public static Builder builder(String url) {
+        return new Builder(url);
+    }
+
+    /**
+     * 构造get请求
+     *
+     * @param queryParams 查询参数，附加在模板地址后，为空时复用模板URI
+     * @return get请求
+     */
+    public HttpGet newGet(Map<String, String> queryParams) {
+        HttpGet httpGet = new HttpGet(resolve(queryParams));
+        httpGet.setHeaders(headers);
+        return httpGet;
+    }
+
+    /**
+     * 构造post请求，请求体为普通字符串，按模板content-type的字符集编码
+     *
+     * @param entity 请求体（body）
+     * @return post请求
+     */
+    public HttpPost newPost(String entity) {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        return newPost(entity.getBytes(charset));
+    }
+
+    /**
+     * 构造post请求，请求体为字节内容（不拷贝）
+     *
+     * @param entity 请求体（body）
+     * @return post请求
+     */
+    public HttpPost newPost(byte[] entity) {
+        HttpPost httpPost = new HttpPost(uri);
+        httpPost.setHeaders(headers);
+        httpPost.setEntity(new ByteArrayEntity(entity, contentType));
+        return httpPost;
+    }
+
+    /**
+     * 构造post请求，请求体为表单格式内容（key1=value1&key2=value2），参数直接编码为utf-8字节
+     *
+     * @param params 表单参数
+     * @return post请求
+     */
+    public HttpPost newPostForm(Map<String, String> params) {
+        byte[] form = new byte[encodedLength(params, 0)];
+        encode(params, form, 0, (byte) 0);
+        HttpPost httpPost = new HttpPost(uri);
+        httpPost.setHeaders(headers);
+        httpPost.setEntity(new ByteArrayEntity(form, FORM_CONTENT_TYPE));
+        return httpPost;
+    }
+
+    /**
+     * 模板URI（不含每次调用的查询参数）
+     */
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * 模板请求头（不可修改），缓存及请求合并以此区分请求
+     */
+    public Map<String, String> getHeaders() {
+        return headerMap;
+    }
+
+    /**
+     * 附加查询参数后的URI（内部使用），按application/x-www-form-urlencoded编码，与URIBuilder.addParameter一致
+     */
+    private URI resolve(Map<String, String> queryParams) {
+        if (queryParams == null || queryParams.isEmpty()) {
+            return uri;
+        }
+        byte[] bytes = new byte[encodedLength(queryParams, uriBytes.length + 1)];
+        System.arraycopy(uriBytes, 0, bytes, 0, uriBytes.length);
+        encode(queryParams, bytes, uriBytes.length, (byte) (hasQuery ? '&' : '?'));
+        return URI.create(new String(bytes, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * 参数编码后的字节数
+     *
+     * @param params 参数
+     * @param length 已有字节数
+     * @return 已有字节数加编码后的参数字节数
+     */
+    private static int encodedLength(Map<String, String> params, int length) {
+        boolean first = true;
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (!first) {
+                length++;
+            }
+            first = false;
+            length += encodedLength(param.getKey());
+            if (param.getValue() != null) {
+                length += 1 + encodedLength(param.getValue());
+            }
+        }
+        return length;
+    }
+
+    private static int encodedLength(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (isUnreserved(c) || c == ' ') {
+                length++;
+            } else if (c < 0x80) {
+                length += 3;
+            } else if (c < 0x800) {
+                length += 6;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 12;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 3;
+            } else {
+                length += 9;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 编码参数写入字节数组
+     *
+     * @param params    参数
+     * @param out       目标字节数组
+     * @param pos       写入位置
+     * @param separator 首个参数前的分隔符，0为不写
+     */
+    private static void encode(Map<String, String> params, byte[] out, int pos, byte separator) {
+        if (separator != 0) {
+            out[pos++] = separator;
+        }
+        boolean first = true;
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (!first) {
+                out[pos++] = '&';
+            }
+            first = false;
+            pos = encode(param.getKey(), out, pos);
+            if (param.getValue() != null) {
+                out[pos++] = '=';
+                pos = encode(param.getValue(), out, pos);
+            }
+        }
+    }
+
+    private static int encode(String s, byte[] out, int pos) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (isUnreserved(c)) {
+                out[pos++] = (byte) c;
+            } else if (c == ' ') {
+                out[pos++] = '+';
+            } else if (c < 0x80) {
+                pos = percent(c, out, pos);
+            } else if (c < 0x800) {
+                pos = percent(0xC0 | (c >> 6), out, pos);
+                pos = percent(0x80 | (c & 0x3F), out, pos);
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                pos = percent(0xF0 | (cp >> 18), out, pos);
+                pos = percent(0x80 | ((cp >> 12) & 0x3F), out, pos);
+                pos = percent(0x80 | ((cp >> 6) & 0x3F), out, pos);
+                pos = percent(0x80 | (cp & 0x3F), out, pos);
+            } else if (Character.isSurrogate(c)) {
+                // 不成对的代理字符与utf-8编码器一致替换为'?'
+                pos = percent('?', out, pos);
+            } else {
+                pos = percent(0xE0 | (c >> 12), out, pos);
+                pos = percent(0x80 | ((c >> 6) & 0x3F), out, pos);
+                pos = percent(0x80 | (c & 0x3F), out, pos);
+            }
+        }
+        return pos;
+    }
+
+    private static int percent(int b, byte[] out, int pos) {
+        out[pos] = '%';
+        out[pos + 1] = HEX[(b >> 4) & 0xF];
+        out[pos + 2] = HEX[b & 0xF];
+        return pos + 3;
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == '*';
+    }
+
+    /**
+     * 请求模板构造器
+     */
+    public static final class Builder {
+
+        private final String url;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private ContentType contentType = ContentType.create("text/plain", StandardCharsets.UTF_8);
+
+        private Builder(String url) {
+            this.url = url;
+        }
+
+        /**
+         * 添加固定请求头
+         */
+        public Builder header(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+
+        /**
+         * 设置post请求体content-type，默认text/plain; charset=UTF-8（表单请求固定为application/x-www-form-urlencoded）
+         */
+        public Builder contentType(ContentType contentType) {
+            this.contentType = contentType;
+            return this;
+        }
+
+        public RequestTemplate build() {
+            return new RequestTemplate(this);
+        }
+    }
+}
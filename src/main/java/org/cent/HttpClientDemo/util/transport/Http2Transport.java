@@ -0,0 +1,433 @@
+package org.cent.HttpClientDemo.util.transport;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.util.EntityUtils;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.cent.HttpClientDemo.util.MyRoutes;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP/2传输引擎，基于jdk11+的java.net.http.HttpClient
+ * https经ALPN协商h2，http首个请求经Upgrade协商h2c，之后同一主机的请求作为独立流在同一连接上多路复用，
+ * 并发请求不再各占一个TCP连接；服务端不支持HTTP/2时回退为HTTP/1.1
+ * 以jdk8编译故通过反射调用，jdk8上isSupported()为false，创建时抛出UnsupportedOperationException
+ * 响应体不自动解压，因此不主动协商Accept-Encoding
+ * 同一路由在途流数超过服务端并发流上限（SETTINGS_MAX_CONCURRENT_STREAMS）时jdk HttpClient直接失败，
+ * 因此按路由限制在途流数，超出的请求在本地排队，前序流完成后依次发送；
+ * 路由首个请求完成（协商出协议）前只放行一个请求，避免并发的首批请求各自建连、各自尝试h2c升级；
+ * 带请求体的请求上的h2c升级与tomcat等服务端兼容性差，http路由首个请求带请求体时先发送一个无请求体的OPTIONS完成升级
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public class Http2Transport implements HttpTransport {
+
+    // jdk HttpClient不允许设置的请求头，以及HTTP/2禁止的连接级请求头，由引擎自行处理
+    private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "date", "expect", "from", "host", "keep-alive", "origin",
+            "proxy-connection", "referer", "te", "transfer-encoding", "upgrade", "via", "warning"));
+
+    // jdk11+ java.net.http反射入口，低版本为null
+    private static final JdkHttp JDK_HTTP = JdkHttp.load();
+
+    private final Object httpClient;
+    private final Duration requestTimeout;
+    private final int maxConcurrentStreams;
+    private final ConcurrentMap<HttpHost, StreamQueue> streams = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+    // 按实际协商的协议版本统计响应数，据此确认是否协商到HTTP/2
+    private final ConcurrentMap<String, Counter> responses = new ConcurrentHashMap<>();
+
+    /**
+     * @param connectTimeoutMillis 建立连接超时（毫秒）
+     * @param requestTimeoutMillis 请求超时（毫秒），从发送到收到响应头
+     * @param maxConcurrentStreams 每个路由最多在途流数，不应超过服务端并发流上限（tomcat默认100）
+     * @param registry             指标注册表
+     */
+    public Http2Transport(long connectTimeoutMillis, long requestTimeoutMillis, int maxConcurrentStreams,
+                          MeterRegistry registry) {
+        if (JDK_HTTP == null) {
+            throw new UnsupportedOperationException("HTTP/2 transport requires java.net.http (jdk11+)");
+        }
+        if (maxConcurrentStreams <= 0) {
+            throw new IllegalArgumentException("maxConcurrentStreams must be positive");
+        }
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.registry = registry;
+        this.httpClient = JDK_HTTP.newClient(Duration.ofMillis(connectTimeoutMillis));
+    }
+
+    /**
+     * 当前jdk是否支持HTTP/2传输引擎
+     */
+    public static boolean isSupported() {
+        return JDK_HTTP != null;
+    }
+
+    @Override
+    public CompletableFuture<MyHttpResponse> send(HttpUriRequest request) {
+        CompletableFuture<MyHttpResponse> future = new CompletableFuture<>();
+        Object jdkRequest;
+        HttpHost target;
+        try {
+            target = MyRoutes.target(request.getURI());
+            jdkRequest = toJdkRequest(request);
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        StreamQueue queue = streams.computeIfAbsent(target, t -> new StreamQueue(upgradeProbe(request, target)));
+        queue.submit(() -> {
+            // 排队期间已被调用方取消
+            if (future.isDone()) {
+                queue.release(false);
+                return;
+            }
+            CompletableFuture<?> exchange;
+            try {
+                exchange = JDK_HTTP.sendAsync(httpClient, jdkRequest);
+            } catch (RuntimeException e) {
+                queue.release(false);
+                future.completeExceptionally(e);
+                return;
+            }
+            exchange.whenComplete((jdkResponse, ex) -> {
+                queue.release(ex == null);
+                if (ex != null) {
+                    future.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null
+                            ? ex.getCause() : ex);
+                    return;
+                }
+                try {
+                    future.complete(toResponse(jdkResponse));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            // 调用方取消或截止时间已到时同时取消底层请求（jdk16+会重置HTTP/2流）
+            future.whenComplete((response, ex) -> {
+                if (future.isCompletedExceptionally()) {
+                    exchange.cancel(true);
+                }
+            });
+        });
+        return future;
+    }
+
+    @Override
+    public String getProtocol() {
+        return TransportProtocol.HTTP_2.name();
+    }
+
+    /**
+     * jdk21起HttpClient可关闭，立即中止未完成的请求并关闭连接（调用方应先等待在途请求完成）；
+     * 不使用close()，其等待全部连接上的操作结束，服务端保持连接时可能一直阻塞
+     * 低版本由GC回收（选择器线程为守护线程）
+     */
+    @Override
+    public void close() {
+        JDK_HTTP.shutdownNow(httpClient);
+    }
+
+    /**
+     * 转换为jdk请求，请求体整体读入内存（与HTTP/1.1连接池发送前的可重复请求体一致）
+     */
+    private Object toJdkRequest(HttpUriRequest request) throws IOException {
+        byte[] body = null;
+        Header contentType = null;
+        Header contentEncoding = null;
+        if (request instanceof HttpEntityEnclosingRequest) {
+            HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            if (entity != null) {
+                body = EntityUtils.toByteArray(entity);
+                contentType = entity.getContentType();
+                contentEncoding = entity.getContentEncoding();
+            }
+        }
+        Object builder = JDK_HTTP.newRequest(toUri(request), request.getMethod(), body, requestTimeout);
+        for (Header header : request.getAllHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                JDK_HTTP.header(builder, header.getName(), header.getValue());
+            }
+        }
+        // HttpClient 4.x由请求拦截器把实体的类型及编码写入请求头，此处自行补充
+        if (contentType != null && !request.containsHeader(contentType.getName())) {
+            JDK_HTTP.header(builder, contentType.getName(), contentType.getValue());
+        }
+        if (contentEncoding != null && !request.containsHeader(contentEncoding.getName())) {
+            JDK_HTTP.header(builder, contentEncoding.getName(), contentEncoding.getValue());
+        }
+        return JDK_HTTP.build(builder);
+    }
+
+    /**
+     * 路由首个请求的h2c升级探测请求：http路由且首个请求带请求体时为同一地址的OPTIONS请求，否则为空
+     */
+    private Object upgradeProbe(HttpUriRequest request, HttpHost target) {
+        if (!"http".equalsIgnoreCase(target.getSchemeName()) || !(request instanceof HttpEntityEnclosingRequest)
+                || ((HttpEntityEnclosingRequest) request).getEntity() == null) {
+            return null;
+        }
+        return JDK_HTTP.build(JDK_HTTP.newRequest(toUri(request), "OPTIONS", null, requestTimeout));
+    }
+
+    private static URI toUri(HttpUriRequest request) {
+        URI uri = request.getURI();
+        if (!uri.isAbsolute()) {
+            throw new IllegalArgumentException("Request URI must be absolute: " + uri);
+        }
+        return uri;
+    }
+
+    private MyHttpResponse toResponse(Object jdkResponse) {
+        int statusCode = JDK_HTTP.statusCode(jdkResponse);
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(JDK_HTTP.headers(jdkResponse));
+        String version = JDK_HTTP.version(jdkResponse);
+        responses.computeIfAbsent(version, v -> Counter.builder("httpclient.transport.responses")
+                .description("Responses by negotiated protocol version")
+                .tags("version", v)
+                .register(registry)).increment();
+        // HTTP/2无原因短语，按状态码补充以便与HTTP/1.1响应一致
+        String reasonPhrase = EnglishReasonPhraseCatalog.INSTANCE.getReason(statusCode, Locale.ROOT);
+        return new MyHttpResponse(statusCode, reasonPhrase, headers, JDK_HTTP.body(jdkResponse));
+    }
+
+    /**
+     * 单个路由的在途流计数及本地排队
+     */
+    private class StreamQueue {
+
+        private final AtomicInteger active = new AtomicInteger(0);
+        private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+        // 首个请求成功前为1，之后为最大在途流数
+        private volatile int limit = 1;
+
+        /**
+         * @param probe 升级探测请求，为空时不探测；探测请求先于其他请求发送，结果忽略
+         */
+        StreamQueue(Object probe) {
+            if (probe != null) {
+                waiting.offer(() -> {
+                    try {
+                        JDK_HTTP.sendAsync(httpClient, probe).whenComplete((response, ex) -> release(ex == null));
+                    } catch (RuntimeException e) {
+                        release(false);
+                    }
+                });
+            }
+        }
+
+        void submit(Runnable dispatch) {
+            waiting.offer(dispatch);
+            drain();
+        }
+
+        /**
+         * @param succeeded 请求是否成功收到响应，首次成功后连接协议已确定，放开在途流数
+         */
+        void release(boolean succeeded) {
+            if (succeeded) {
+                limit = maxConcurrentStreams;
+            }
+            active.decrementAndGet();
+            drain();
+        }
+
+        /**
+         * 在途流数未达上限时依次发送排队请求
+         */
+        private void drain() {
+            while (!waiting.isEmpty()) {
+                int current = active.get();
+                if (current >= limit) {
+                    return;
+                }
+                if (!active.compareAndSet(current, current + 1)) {
+                    continue;
+                }
+                Runnable dispatch = waiting.poll();
+                if (dispatch == null) {
+                    // 已被其他线程取走，归还名额后重新检查
+                    active.decrementAndGet();
+                    continue;
+                }
+                dispatch.run();
+            }
+        }
+    }
+
+    /**
+     * java.net.http反射调用封装
+     */
+    private static final class JdkHttp {
+
+        private final Method newClientBuilder;
+        private final Method clientVersion;
+        private final Method clientConnectTimeout;
+        private final Method clientBuild;
+        private final Object http2;
+        private final Method newRequestBuilder;
+        private final Method requestMethod;
+        private final Method requestHeader;
+        private final Method requestTimeout;
+        private final Method requestBuild;
+        private final Method noBody;
+        private final Method ofByteArray;
+        private final Object byteArrayHandler;
+        private final Method sendAsync;
+        private final Method statusCode;
+        private final Method headers;
+        private final Method headersMap;
+        private final Method body;
+        private final Method version;
+        // jdk21+ HttpClient.shutdownNow，低版本为null
+        private final Method shutdownNow;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private JdkHttp() throws ReflectiveOperationException {
+            Class<?> client = Class.forName("java.net.http.HttpClient");
+            Class<?> clientBuilder = Class.forName("java.net.http.HttpClient$Builder");
+            Class<?> versionType = Class.forName("java.net.http.HttpClient$Version");
+            Class<?> request = Class.forName("java.net.http.HttpRequest");
+            Class<?> requestBuilder = Class.forName("java.net.http.HttpRequest$Builder");
+            Class<?> publisher = Class.forName("java.net.http.HttpRequest$BodyPublisher");
+            Class<?> publishers = Class.forName("java.net.http.HttpRequest$BodyPublishers");
+            Class<?> response = Class.forName("java.net.http.HttpResponse");
+            Class<?> handler = Class.forName("java.net.http.HttpResponse$BodyHandler");
+            Class<?> handlers = Class.forName("java.net.http.HttpResponse$BodyHandlers");
+            Class<?> httpHeaders = Class.forName("java.net.http.HttpHeaders");
+
+            newClientBuilder = client.getMethod("newBuilder");
+            clientVersion = clientBuilder.getMethod("version", versionType);
+            clientConnectTimeout = clientBuilder.getMethod("connectTimeout", Duration.class);
+            clientBuild = clientBuilder.getMethod("build");
+            http2 = Enum.valueOf((Class) versionType, "HTTP_2");
+            newRequestBuilder = request.getMethod("newBuilder", URI.class);
+            requestMethod = requestBuilder.getMethod("method", String.class, publisher);
+            requestHeader = requestBuilder.getMethod("header", String.class, String.class);
+            requestTimeout = requestBuilder.getMethod("timeout", Duration.class);
+            requestBuild = requestBuilder.getMethod("build");
+            noBody = publishers.getMethod("noBody");
+            ofByteArray = publishers.getMethod("ofByteArray", byte[].class);
+            byteArrayHandler = handlers.getMethod("ofByteArray").invoke(null);
+            sendAsync = client.getMethod("sendAsync", request, handler);
+            statusCode = response.getMethod("statusCode");
+            headers = response.getMethod("headers");
+            headersMap = httpHeaders.getMethod("map");
+            body = response.getMethod("body");
+            version = response.getMethod("version");
+            shutdownNow = findMethod(client, "shutdownNow");
+        }
+
+        private static Method findMethod(Class<?> type, String name) {
+            try {
+                return type.getMethod(name);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        static JdkHttp load() {
+            try {
+                return new JdkHttp();
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+        }
+
+        Object newClient(Duration connectTimeout) {
+            Object builder = invoke(newClientBuilder, null);
+            invoke(clientVersion, builder, http2);
+            invoke(clientConnectTimeout, builder, connectTimeout);
+            return invoke(clientBuild, builder);
+        }
+
+        Object newRequest(URI uri, String method, byte[] content, Duration timeout) {
+            Object builder = invoke(newRequestBuilder, null, uri);
+            Object publisher = content == null ? invoke(noBody, null) : invoke(ofByteArray, null, (Object) content);
+            invoke(requestMethod, builder, method, publisher);
+            invoke(requestTimeout, builder, timeout);
+            return builder;
+        }
+
+        void header(Object builder, String name, String value) {
+            invoke(requestHeader, builder, name, value);
+        }
+
+        Object build(Object builder) {
+            return invoke(requestBuild, builder);
+        }
+
+        CompletableFuture<?> sendAsync(Object client, Object request) {
+            return (CompletableFuture<?>) invoke(sendAsync, client, request, byteArrayHandler);
+        }
+
+        int statusCode(Object response) {
+            return (Integer) invoke(statusCode, response);
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, List<String>> headers(Object response) {
+            return (Map<String, List<String>>) invoke(headersMap, invoke(headers, response));
+        }
+
+        byte[] body(Object response) {
+            return (byte[]) invoke(body, response);
+        }
+
+        String version(Object response) {
+            return String.valueOf(invoke(version, response));
+        }
+
+        void shutdownNow(Object client) {
+            if (shutdownNow != null) {
+                invoke(shutdownNow, client);
+            }
+        }
+
+        /**
+         * 反射调用，被调用方法抛出的运行时异常原样抛出（如非法请求头的IllegalArgumentException）
+         */
+        private static Object invoke(Method method, Object target, Object... args) {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new CompletionException(cause);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
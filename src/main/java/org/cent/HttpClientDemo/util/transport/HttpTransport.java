@@ -0,0 +1,35 @@
+package org.cent.HttpClientDemo.util.transport;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * http传输引擎接口，负责把请求发往上游并读完整个响应
+ * 同步及异步工具类的缓存、合并、重试、熔断、准入等均在引擎之上执行，未设置引擎时使用工具类内置的HttpClient 4.x HTTP/1.1连接池
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public interface HttpTransport extends AutoCloseable {
+
+    /**
+     * 发送请求
+     *
+     * @param request 请求（请求体须可重复读取或只读取一次）
+     * @return 异步响应结果，取消时同时取消底层请求
+     */
+    CompletableFuture<MyHttpResponse> send(HttpUriRequest request);
+
+    /**
+     * 协议名称，用于日志及指标
+     */
+    String getProtocol();
+
+    /**
+     * 关闭引擎释放连接
+     */
+    @Override
+    void close();
+}
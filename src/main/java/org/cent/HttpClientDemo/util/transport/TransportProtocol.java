@@ -0,0 +1,21 @@
+package org.cent.HttpClientDemo.util.transport;
+
+/**
+ * 传输协议
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public enum TransportProtocol {
+
+    /**
+     * HttpClient 4.x连接池，每个在途请求占用一个TCP连接
+     */
+    HTTP_1_1,
+
+    /**
+     * jdk HttpClient，https经ALPN协商h2，http经Upgrade协商h2c，同一主机的请求在少量连接上多路复用；
+     * 服务端不支持时回退为HTTP/1.1
+     */
+    HTTP_2
+}
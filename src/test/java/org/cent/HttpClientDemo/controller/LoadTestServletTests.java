@@ -0,0 +1,83 @@
+package org.cent.HttpClientDemo.controller;
+
+import org.cent.HttpClientDemo.util.MyHttpClientUtil;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 压测服务端servlet非阻塞读写：超过socket缓冲区的请求体完整回显或丢弃，大响应体完整写出，注入延迟后同样处理
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "loadtest.latency.mean=5ms")
+@ActiveProfiles("loadtest")
+class LoadTestServletTests {
+
+    private static final int LARGE = 4 * 1024 * 1024;
+
+    @LocalServerPort
+    private int port;
+
+    private final MyHttpClientUtil client = new MyHttpClientUtil();
+
+    @AfterEach
+    void closeClient() {
+        client.close();
+    }
+
+    @Test
+    void echoStreamsLargeBodyBack() {
+        String body = large();
+        MyHttpResponse response = client.post(url("/echo"), null, body);
+        assertEquals(200, response.getStatusCode());
+        assertEquals(body, response.getBodyAsString());
+
+        MyHttpResponse empty = client.post(url("/echo"), null, "");
+        assertEquals(200, empty.getStatusCode());
+        assertEquals(0, empty.getBody().length);
+    }
+
+    @Test
+    void discardReadsWholeBody() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(204, client.post(url("/discard"), null, large()).getStatusCode());
+        }
+    }
+
+    @Test
+    void bytesWritesRequestedSize() {
+        MyHttpResponse response = client.get(url("/bytes"), null, Collections.singletonMap("size", String.valueOf(LARGE)));
+        assertEquals(200, response.getStatusCode());
+        assertEquals(LARGE, response.getBody().length);
+        assertEquals('a', response.getBody()[0]);
+        assertEquals('a' + (LARGE - 1) % 26, response.getBody()[LARGE - 1]);
+
+        assertEquals(1024, client.post(url("/bytes"), null, large()).getBody().length);
+        assertEquals(400, client.get(url("/bytes"), null, Collections.singletonMap("size", "-1")).getStatusCode());
+        assertEquals(404, client.get(url("/missing"), null, null).getStatusCode());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + "/load" + path;
+    }
+
+    private static String large() {
+        char[] chars = new char[LARGE];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + i % 26);
+        }
+        Arrays.fill(chars, LARGE - 10, LARGE, 'z');
+        return new String(chars);
+    }
+}
@@ -0,0 +1,51 @@
+package org.cent.HttpClientDemo.loadgen;
+
+import org.cent.HttpClientDemo.util.MyHttpRequest;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 开放模型压测：测量结束后等待超时仍在途的请求按超时记录，延迟不小于等待时长，之后才完成的请求不再记录
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class LoadGeneratorTests {
+
+    @Test
+    void requestsInFlightAtDrainTimeoutRecordedAsTimeouts() {
+        List<CompletableFuture<MyHttpResponse>> hung = new CopyOnWriteArrayList<>();
+        int[] sent = new int[1];
+        LoadGenerator generator = new LoadGenerator(MyHttpRequest.get("http://upstream.example/", null, null),
+                request -> {
+                    // 每隔一个请求不返回
+                    if (sent[0]++ % 2 == 0) {
+                        return CompletableFuture.completedFuture(new MyHttpResponse(200, "OK", null, new byte[0]));
+                    }
+                    CompletableFuture<MyHttpResponse> future = new CompletableFuture<>();
+                    hung.add(future);
+                    return future;
+                }, 100, Duration.ZERO, Duration.ofMillis(200), 1000);
+        LoadReport report = generator.run(null, Duration.ofSeconds(10), Duration.ofMillis(100));
+
+        assertEquals(sent[0], report.getCompleted());
+        assertEquals(hung.size(), report.getErrorCount());
+        assertTrue(hung.size() > 0);
+        assertTrue(report.toJson().getJSONObject("latencyMillis").getDoubleValue("max") >= 100);
+
+        // 报告结束后才完成的请求不再记录
+        for (CompletableFuture<MyHttpResponse> future : hung) {
+            future.complete(new MyHttpResponse(200, "OK", null, new byte[0]));
+        }
+        assertEquals(sent[0], report.getCompleted());
+        assertEquals(hung.size(), report.getErrorCount());
+    }
+}
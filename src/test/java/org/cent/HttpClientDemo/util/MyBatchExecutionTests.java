@@ -0,0 +1,156 @@
+package org.cent.HttpClientDemo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.cent.HttpClientDemo.util.MyHttpResponses.response;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 批量执行：在途请求数不超过上限，完成一个续发一个，同步完成的请求不递归，单个请求失败不影响其他请求
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class MyBatchExecutionTests {
+
+    @Test
+    void inFlightBoundedAndRefilledOnCompletion() throws Exception {
+        List<CompletableFuture<MyHttpResponse>> sent = new CopyOnWriteArrayList<>();
+        List<MyBatchResult> results = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> done = new MyBatchExecution(requests(10), request -> {
+            CompletableFuture<MyHttpResponse> future = new CompletableFuture<>();
+            sent.add(future);
+            return future;
+        }, results::add).start(3);
+
+        assertEquals(3, sent.size());
+        sent.get(1).complete(response(200));
+        assertEquals(4, sent.size());
+        for (int i = 0; i < 10; i++) {
+            sent.get(i).complete(response(200));
+        }
+        done.get(5, TimeUnit.SECONDS);
+        assertEquals(10, sent.size());
+        assertEquals(10, results.size());
+        // 回调按完成顺序，下标对应请求生成顺序
+        assertEquals(1, results.get(0).getIndex());
+        Set<Integer> indexes = new TreeSet<>();
+        for (MyBatchResult result : results) {
+            indexes.add(result.getIndex());
+            assertEquals("http://upstream.example/items/" + result.getIndex(), result.getRequest().getUrl());
+        }
+        assertEquals(10, indexes.size());
+    }
+
+    @Test
+    void synchronousCompletionsDoNotRecurse() throws Exception {
+        AtomicInteger completed = new AtomicInteger();
+        new MyBatchExecution(requests(100000), request -> CompletableFuture.completedFuture(response(200)),
+                result -> completed.incrementAndGet()).start(2).get(5, TimeUnit.SECONDS);
+        assertEquals(100000, completed.get());
+    }
+
+    @Test
+    void failedRequestsReportedWithoutStoppingBatch() throws Exception {
+        IllegalArgumentException invalid = new IllegalArgumentException("bad url");
+        List<MyBatchResult> results = new ArrayList<>();
+        new MyBatchExecution(requests(3), request -> {
+            if (request.getUrl().endsWith("/1")) {
+                throw invalid;
+            }
+            return CompletableFuture.completedFuture(response(200));
+        }, results::add).start(1).get(5, TimeUnit.SECONDS);
+        assertEquals(3, results.size());
+        assertSame(invalid, results.get(1).getError());
+        assertNull(results.get(1).getResponse());
+        assertEquals(200, results.get(2).getResponse().getStatusCode());
+    }
+
+    @Test
+    void requestIteratorFailureStopsLaunching() {
+        IllegalStateException failure = new IllegalStateException("source closed");
+        Iterator<MyHttpRequest> broken = new Iterator<MyHttpRequest>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public MyHttpRequest next() {
+                if (next == 2) {
+                    throw failure;
+                }
+                return request(next++);
+            }
+        };
+        List<CompletableFuture<MyHttpResponse>> sent = new ArrayList<>();
+        List<MyBatchResult> results = new ArrayList<>();
+        CompletableFuture<Void> done = new MyBatchExecution(broken, request -> {
+            CompletableFuture<MyHttpResponse> future = new CompletableFuture<>();
+            sent.add(future);
+            return future;
+        }, results::add).start(5);
+
+        assertEquals(2, sent.size());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> done.get(5, TimeUnit.SECONDS));
+        assertSame(failure, e.getCause());
+        // 在途请求照常完成
+        sent.get(0).complete(response(200));
+        assertEquals(1, results.size());
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    void emptyBatchCompletesAndInvalidLimitRejected() throws Exception {
+        Iterator<MyHttpRequest> none = Collections.emptyIterator();
+        CompletableFuture<Void> done = new MyBatchExecution(none, request -> {
+            throw new NoSuchElementException();
+        }, result -> {
+        }).start(4);
+        assertTrue(done.isDone());
+        assertFalse(done.isCompletedExceptionally());
+        assertThrows(IllegalArgumentException.class,
+                () -> new MyBatchExecution(none, request -> null, result -> {
+                }).start(0));
+    }
+
+    private static Iterator<MyHttpRequest> requests(int count) {
+        return new Iterator<MyHttpRequest>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public MyHttpRequest next() {
+                return request(next++);
+            }
+        };
+    }
+
+    private static MyHttpRequest request(int index) {
+        return MyHttpRequest.get("http://upstream.example/items/" + index, null, null);
+    }
+}
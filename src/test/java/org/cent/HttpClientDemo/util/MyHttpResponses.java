@@ -0,0 +1,23 @@
+package org.cent.HttpClientDemo.util;
+
+/**
+ * 测试用响应构造
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+public final class MyHttpResponses {
+
+    private MyHttpResponses() {
+    }
+
+    /**
+     * 只有状态码的空响应
+     *
+     * @param statusCode 状态码
+     * @return 响应结果
+     */
+    public static MyHttpResponse response(int statusCode) {
+        return new MyHttpResponse(statusCode, "", null, new byte[0]);
+    }
+}
@@ -0,0 +1,209 @@
+package org.cent.HttpClientDemo.util.balance;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 负载均衡：两个随机副本中选负载较轻者，连续失败摘除且同时摘除数不超过上限，全部摘除时仍可选择，
+ * 取消不计为失败，改写地址保留原始路径及查询参数，更新副本列表保留统计
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class LoadBalancerTests {
+
+    private static final URI ORDERS = URI.create("lb://orders/api/items");
+    private static final List<String> FOUR = Arrays.asList(
+            "http://10.0.0.1:8080", "http://10.0.0.2:8080", "http://10.0.0.3:8080", "http://10.0.0.4:8080");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LoadBalancer balancer = new LoadBalancer(registry);
+
+    @Test
+    void leastOutstandingSpreadsHeldRequests() throws UnknownHostException {
+        balancer.register("orders", Arrays.asList("http://10.0.0.1:8080", "http://10.0.0.2:8080"));
+        // 两个副本时每次都比较两者，在途请求数交替递增
+        for (int i = 0; i < 10; i++) {
+            balancer.pick(ORDERS);
+        }
+        for (Endpoint endpoint : balancer.getEndpoints("orders")) {
+            assertEquals(5, endpoint.getOutstanding());
+        }
+    }
+
+    @Test
+    void ewmaPrefersFasterEndpoint() throws Exception {
+        LoadBalancerConfig config = new LoadBalancerConfig();
+        config.setStrategy(BalancingStrategy.EWMA);
+        balancer.register("orders", Arrays.asList("http://10.0.0.1:8080", "http://10.0.0.2:8080"), config);
+        LoadBalancer.Pick slow = balancer.pick(ORDERS);
+        Thread.sleep(30);
+        slow.onResult(200);
+        LoadBalancer.Pick fast = balancer.pick(ORDERS);
+        assertNotSame(slow.getEndpoint(), fast.getEndpoint());
+        fast.onResult(200);
+        for (int i = 0; i < 10; i++) {
+            LoadBalancer.Pick pick = balancer.pick(ORDERS);
+            assertSame(fast.getEndpoint(), pick.getEndpoint());
+            pick.onResult(200);
+        }
+    }
+
+    @Test
+    void ejectedAfterConsecutiveFailuresAndSuccessResetsCount() throws UnknownHostException {
+        LoadBalancerConfig config = config(2, 50);
+        balancer.register("orders", Collections.singletonList("http://10.0.0.1:8080"), config);
+        Endpoint endpoint = balancer.getEndpoints("orders").get(0);
+        balancer.pick(ORDERS).onResult(503);
+        balancer.pick(ORDERS).onResult(200);
+        balancer.pick(ORDERS).onResult(-1);
+        assertFalse(endpoint.isEjected());
+        balancer.pick(ORDERS).onResult(500);
+        assertTrue(endpoint.isEjected());
+        assertEquals(1, registry.get("httpclient.balancer.ejected").counter().count());
+    }
+
+    @Test
+    void ejectionCappedByMaxEjectionPercent() throws UnknownHostException {
+        balancer.register("orders", FOUR, config(1, 50));
+        for (int i = 0; i < 50; i++) {
+            balancer.pick(ORDERS).onResult(503);
+        }
+        assertEquals(2, ejectedCount());
+        assertEquals(2, registry.get("httpclient.balancer.ejected").counter().count());
+        assertEquals(2, registry.get("httpclient.balancer.endpoints.available").gauge().value());
+        // 摘除期间只选择可用副本
+        for (int i = 0; i < 50; i++) {
+            LoadBalancer.Pick pick = balancer.pick(ORDERS);
+            assertFalse(pick.getEndpoint().isEjected());
+            pick.release();
+        }
+    }
+
+    @Test
+    void atLeastOneEndpointMayBeEjected() throws UnknownHostException {
+        balancer.register("orders", Arrays.asList("http://10.0.0.1:8080", "http://10.0.0.2:8080"), config(1, 10));
+        for (int i = 0; i < 20; i++) {
+            balancer.pick(ORDERS).onResult(503);
+        }
+        assertEquals(1, ejectedCount());
+    }
+
+    @Test
+    void allEjectedStillPicksAndEjectionExpires() throws Exception {
+        LoadBalancerConfig config = config(1, 100);
+        config.setBaseEjectionMillis(100);
+        balancer.register("orders", Arrays.asList("http://10.0.0.1:8080", "http://10.0.0.2:8080"), config);
+        for (int i = 0; i < 20 && ejectedCount() < 2; i++) {
+            balancer.pick(ORDERS).onResult(503);
+        }
+        assertEquals(2, ejectedCount());
+        balancer.pick(ORDERS).release();
+
+        Thread.sleep(150);
+        assertEquals(0, ejectedCount());
+    }
+
+    @Test
+    void releaseIsNotFailure() throws UnknownHostException {
+        balancer.register("orders", FOUR, config(1, 50));
+        for (int i = 0; i < 20; i++) {
+            LoadBalancer.Pick pick = balancer.pick(ORDERS);
+            pick.release();
+            // 已报告的选择再报告结果不生效
+            pick.onResult(503);
+        }
+        assertEquals(0, ejectedCount());
+        for (Endpoint endpoint : balancer.getEndpoints("orders")) {
+            assertEquals(0, endpoint.getOutstanding());
+        }
+    }
+
+    @Test
+    void rewriteKeepsRawPathAndQuery() throws UnknownHostException {
+        balancer.register("orders", Collections.singletonList("https://10.0.0.1:8443"));
+        URI uri = URI.create("lb://orders/api/a%20b/%E4%B8%AD?q=x%2By&flag");
+        assertTrue(LoadBalancer.isBalanced(uri));
+        assertEquals(URI.create("https://10.0.0.1:8443/api/a%20b/%E4%B8%AD?q=x%2By&flag"),
+                balancer.pick(uri).rewrite(uri));
+        URI root = URI.create("lb://orders");
+        assertEquals(URI.create("https://10.0.0.1:8443"), balancer.pick(root).rewrite(root));
+    }
+
+    @Test
+    void unknownOrEmptyServiceRejected() {
+        balancer.register("empty", Collections.emptyList());
+        assertThrows(UnknownHostException.class, () -> balancer.pick(URI.create("lb://missing/api")));
+        assertThrows(UnknownHostException.class, () -> balancer.pick(URI.create("lb://empty/api")));
+    }
+
+    @Test
+    void reRegisterKeepsStatsOfRemainingEndpoints() throws UnknownHostException {
+        balancer.register("orders", Collections.singletonList("http://10.0.0.1:8080"));
+        LoadBalancer.Pick pick = balancer.pick(ORDERS);
+        balancer.register("orders", Arrays.asList("http://10.0.0.2:8080", "HTTP://10.0.0.1:8080"));
+        List<Endpoint> endpoints = balancer.getEndpoints("orders");
+        assertEquals(2, endpoints.size());
+        assertSame(pick.getEndpoint(), endpoints.get(1));
+        assertEquals(1, endpoints.get(1).getOutstanding());
+        assertEquals(0, endpoints.get(0).getOutstanding());
+    }
+
+    @Test
+    void watchedFileChangesUpdateEndpoints(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("orders.txt");
+        Files.write(file, Arrays.asList("# orders", "http://10.0.0.1:8080", ""), StandardCharsets.UTF_8);
+        try {
+            balancer.watch("orders", file, 20, new LoadBalancerConfig());
+            assertEquals(1, balancer.getEndpoints("orders").size());
+            Files.write(file, Arrays.asList("http://10.0.0.1:8080", "http://10.0.0.2:8080"), StandardCharsets.UTF_8);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (balancer.getEndpoints("orders").size() != 2 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(2, balancer.getEndpoints("orders").size());
+
+            // 文件删除时保留原副本列表
+            Files.delete(file);
+            Thread.sleep(60);
+            assertEquals(2, balancer.getEndpoints("orders").size());
+        } finally {
+            balancer.close();
+        }
+    }
+
+    private int ejectedCount() {
+        int ejected = 0;
+        for (Endpoint endpoint : balancer.getEndpoints("orders")) {
+            if (endpoint.isEjected()) {
+                ejected++;
+            }
+        }
+        return ejected;
+    }
+
+    private static LoadBalancerConfig config(int consecutiveFailures, int maxEjectionPercent) {
+        LoadBalancerConfig config = new LoadBalancerConfig();
+        config.setConsecutiveFailures(consecutiveFailures);
+        config.setMaxEjectionPercent(maxEjectionPercent);
+        return config;
+    }
+}
@@ -0,0 +1,200 @@
+package org.cent.HttpClientDemo.util.breaker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpHost;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.cent.HttpClientDemo.util.deadline.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 熔断器状态转换：按滑动窗口失败率、慢请求率打开，打开持续时间后半开，半开探测全部成功关闭、任一失败重新打开，
+ * 取消及截止时间已到不计为失败
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class CircuitBreakerTests {
+
+    private static final HttpHost ROUTE = new HttpHost("upstream.example", 80, "http");
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long OPEN_MILLIS = 50;
+
+    @Test
+    void opensWhenFailureRateReachesThresholdAfterMinimumCalls() {
+        CircuitBreaker breaker = breaker(config(10, 4, 0.5));
+        record(breaker, 500, 500, 500);
+        // 未达到最少请求数，3次失败仍放行
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ROUTE));
+        record(breaker, 200);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+        assertThrows(CircuitOpenException.class, () -> breaker.acquire(ROUTE));
+    }
+
+    @Test
+    void clientErrorsAreNotFailures() {
+        CircuitBreaker breaker = breaker(config(4, 4, 0.5));
+        record(breaker, 404, 400, 429, 200);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ROUTE));
+        record(breaker, -1, -1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+    }
+
+    @Test
+    void slidingWindowEvictsOldResults() {
+        CircuitBreaker breaker = breaker(config(4, 4, 0.5));
+        // 窗口[F,S,S,S] -> 加入S淘汰F -> 加入F：窗口内只有1次失败
+        record(breaker, 500, 200, 200, 200, 200, 500);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ROUTE));
+        record(breaker, 500);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+    }
+
+    @Test
+    void opensOnSlowCallRate() {
+        CircuitBreakerConfig config = config(4, 4, 1.0);
+        config.setSlowCallDurationMillis(100);
+        config.setSlowCallRateThreshold(0.5);
+        CircuitBreaker breaker = breaker(config);
+        long slow = TimeUnit.MILLISECONDS.toNanos(100);
+        breaker.acquire(ROUTE).onResult(slow, 200);
+        breaker.acquire(ROUTE).onResult(FAST, 200);
+        breaker.acquire(ROUTE).onResult(FAST, 200);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ROUTE));
+        breaker.acquire(ROUTE).onResult(slow, 200);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+    }
+
+    @Test
+    void halfOpenLimitsProbesAndClosesWhenAllSucceed() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(2);
+        Thread.sleep(OPEN_MILLIS + 20);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(ROUTE));
+        CircuitBreaker.Permit first = breaker.acquire(ROUTE);
+        CircuitBreaker.Permit second = breaker.acquire(ROUTE);
+        assertThrows(CircuitOpenException.class, () -> breaker.acquire(ROUTE));
+        first.onResult(FAST, 200);
+        // 结果只记录一次
+        first.onResult(FAST, 200);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(ROUTE));
+        second.onResult(FAST, 200);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ROUTE));
+        // 关闭后窗口清空重新统计，打开前的失败不再计入
+        record(breaker, 500);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ROUTE));
+    }
+
+    @Test
+    void halfOpenProbeFailureReopens() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(2);
+        Thread.sleep(OPEN_MILLIS + 20);
+        CircuitBreaker.Permit probe = breaker.acquire(ROUTE);
+        probe.onResult(FAST, 503);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+        assertThrows(CircuitOpenException.class, () -> breaker.acquire(ROUTE));
+    }
+
+    @Test
+    void releasedProbeFreesSlotAndStaleProbeIsIgnored() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(1);
+        Thread.sleep(OPEN_MILLIS + 20);
+        CircuitBreaker.Permit cancelled = breaker.acquire(ROUTE);
+        assertThrows(CircuitOpenException.class, () -> breaker.acquire(ROUTE));
+        cancelled.release();
+        CircuitBreaker.Permit failed = breaker.acquire(ROUTE);
+        failed.onResult(FAST, 500);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+
+        // 上一轮的探测在新一轮半开期间才完成，不影响本轮
+        Thread.sleep(OPEN_MILLIS + 20);
+        CircuitBreaker.Permit probe = breaker.acquire(ROUTE);
+        cancelled.onResult(FAST, 500);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(ROUTE));
+        probe.onResult(FAST, 200);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ROUTE));
+    }
+
+    @Test
+    void resultsCompletingAfterOpenAreIgnored() {
+        CircuitBreaker breaker = breaker(config(4, 4, 0.5));
+        CircuitBreaker.Permit late = breaker.acquire(ROUTE);
+        record(breaker, 500, 500, 200, 200);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+        late.onResult(FAST, 200);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+    }
+
+    @Test
+    void routesAreNormalized() {
+        CircuitBreaker breaker = breaker(config(2, 2, 0.5));
+        breaker.acquire(new HttpHost("UPSTREAM.example", -1, "http")).onResult(FAST, 500);
+        breaker.acquire(new HttpHost("upstream.example", 80, "http")).onResult(FAST, 500);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(new HttpHost("upstream.example", 443, "https")));
+    }
+
+    @Test
+    void cancelledSubmitReleasesProbe() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(1);
+        Thread.sleep(OPEN_MILLIS + 20);
+        CompletableFuture<MyHttpResponse> sent = new CompletableFuture<>();
+        CompletableFuture<MyHttpResponse> result = breaker.submit(ROUTE, () -> sent);
+        assertThrows(CircuitOpenException.class, () -> breaker.acquire(ROUTE));
+        result.cancel(true);
+        breaker.acquire(ROUTE).onResult(FAST, 200);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ROUTE));
+    }
+
+    @Test
+    void expiredDeadlineIsNotFailure() {
+        CircuitBreaker breaker = breaker(config(2, 2, 0.5));
+        for (int i = 0; i < 2; i++) {
+            fail(breaker, new DeadlineExceededException("deadline exceeded"));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ROUTE));
+        for (int i = 0; i < 2; i++) {
+            fail(breaker, new ConnectException("connection refused"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+    }
+
+    private static void fail(CircuitBreaker breaker, Exception failure) {
+        CompletableFuture<MyHttpResponse> sent = new CompletableFuture<>();
+        breaker.submit(ROUTE, () -> sent);
+        sent.completeExceptionally(failure);
+    }
+
+    private static CircuitBreakerConfig config(int windowSize, int minimumCalls, double failureRateThreshold) {
+        CircuitBreakerConfig config = new CircuitBreakerConfig();
+        config.setWindowSize(windowSize);
+        config.setMinimumCalls(minimumCalls);
+        config.setFailureRateThreshold(failureRateThreshold);
+        config.setOpenDurationMillis(OPEN_MILLIS);
+        return config;
+    }
+
+    private static CircuitBreaker breaker(CircuitBreakerConfig config) {
+        return new CircuitBreaker(config, new SimpleMeterRegistry());
+    }
+
+    private static CircuitBreaker openBreaker(int halfOpenProbes) {
+        CircuitBreakerConfig config = config(2, 2, 0.5);
+        config.setHalfOpenProbes(halfOpenProbes);
+        CircuitBreaker breaker = breaker(config);
+        record(breaker, 500, 500);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ROUTE));
+        return breaker;
+    }
+
+    private static void record(CircuitBreaker breaker, int... statusCodes) {
+        for (int statusCode : statusCodes) {
+            breaker.acquire(ROUTE).onResult(FAST, statusCode);
+        }
+    }
+}
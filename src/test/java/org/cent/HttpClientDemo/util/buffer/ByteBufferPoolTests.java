@@ -0,0 +1,89 @@
+package org.cent.HttpClientDemo.util.buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分级缓冲区池：按所需容量取最小的满足级别，超过最大级别不入池，每级缓存字节数不超过上限，非本池规格的缓冲区不入池
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class ByteBufferPoolTests {
+
+    @Test
+    void capacityRoundedUpToSizeClass() {
+        ByteBufferPool pool = new ByteBufferPool(false, 1000, 5000, 64 * 1024);
+        assertEquals(8192, pool.getMaxSize());
+        assertEquals(1024, pool.acquire(1).capacity());
+        assertEquals(1024, pool.acquire(1024).capacity());
+        assertEquals(2048, pool.acquire(1025).capacity());
+        assertEquals(8192, pool.acquire(8192).capacity());
+        // 超过最大级别时按所需容量临时分配，归还时丢弃
+        ByteBuffer oversized = pool.acquire(8193);
+        assertEquals(8193, oversized.capacity());
+        pool.release(oversized);
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    @Test
+    void releasedBufferReusedAndCleared() {
+        ByteBufferPool pool = new ByteBufferPool(true, 1024, 8192, 64 * 1024);
+        ByteBuffer buffer = pool.acquire(2000);
+        assertTrue(buffer.isDirect());
+        buffer.putInt(42).limit(100);
+        pool.release(buffer);
+        assertEquals(2048, pool.getPooledBytes());
+
+        ByteBuffer reused = pool.acquire(1500);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(2048, reused.limit());
+        assertEquals(0, pool.getPooledBytes());
+        // 其他级别不受影响
+        assertNotSame(buffer, pool.acquire(4096));
+    }
+
+    @Test
+    void eachSizeClassCappedByMaxPooledBytes() {
+        ByteBufferPool pool = new ByteBufferPool(false, 1024, 4096, 2048);
+        pool.release(pool.acquire(1024));
+        pool.release(pool.acquire(1024));
+        ByteBuffer first = pool.acquire(1024);
+        ByteBuffer second = pool.acquire(1024);
+        ByteBuffer third = pool.acquire(1024);
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+        assertEquals(2048, pool.getPooledBytes());
+        // 单个缓冲区超过上限的级别不缓存
+        pool.release(pool.acquire(4096));
+        assertEquals(2048, pool.getPooledBytes());
+    }
+
+    @Test
+    void foreignBuffersNotPooled() {
+        ByteBufferPool pool = new ByteBufferPool(false, 1024, 8192, 64 * 1024);
+        pool.release(ByteBuffer.allocateDirect(1024));
+        pool.release(ByteBuffer.allocate(1024).asReadOnlyBuffer());
+        pool.release(ByteBuffer.allocate(1500));
+        pool.release(null);
+        assertEquals(0, pool.getPooledBytes());
+        assertFalse(pool.isDirect());
+    }
+
+    @Test
+    void invalidSizesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ByteBufferPool(false, 0, 1024, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ByteBufferPool(false, 2048, 1024, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ByteBufferPool(false, 1024, 2048, -1));
+    }
+}
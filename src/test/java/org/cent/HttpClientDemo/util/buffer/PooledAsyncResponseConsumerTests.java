@@ -0,0 +1,121 @@
+package org.cent.HttpClientDemo.util.buffer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.protocol.BasicHttpContext;
+import org.cent.HttpClientDemo.util.MyBufferPool;
+import org.cent.HttpClientDemo.util.metrics.HttpClientMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 池化响应消费者：声明了Content-Length时响应体装入预分配的缓冲区不再扩容，未声明时写满才扩容
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class PooledAsyncResponseConsumerTests {
+
+    private final ByteBufferPool pool = new ByteBufferPool(false, 256, 1024 * 1024, 16 * 1024 * 1024);
+
+    @Test
+    void declaredLengthFillsPresizedBuffer() throws Exception {
+        byte[] body = body(10000);
+        PooledResponse response = consume(body, body.length, 3000);
+        assertArrayEquals(body, response.getBody().toByteArray());
+        response.close();
+        // 只借出过预分配的16KB缓冲区
+        assertEquals(16 * 1024, pool.getPooledBytes());
+    }
+
+    @Test
+    void exactPowerOfTwoLengthNotGrownAtEnd() throws Exception {
+        byte[] body = body(8192);
+        PooledResponse response = consume(body, body.length, 8192);
+        assertEquals(8192, response.getBody().length());
+        response.close();
+        assertEquals(8192, pool.getPooledBytes());
+    }
+
+    @Test
+    void undeclaredLengthGrowsWhenFull() throws Exception {
+        byte[] body = body(20000);
+        PooledResponse response = consume(body, -1, 5000);
+        assertArrayEquals(body, response.getBody().toByteArray());
+        response.close();
+        // 8KB写满后扩容到16KB，再写满后扩容到32KB
+        assertEquals(8 * 1024 + 16 * 1024 + 32 * 1024, pool.getPooledBytes());
+    }
+
+    private PooledResponse consume(byte[] body, long contentLength, int chunkSize) throws Exception {
+        PooledAsyncResponseConsumer consumer = new PooledAsyncResponseConsumer(pool, MyBufferPool.DEFAULT,
+                new HttpClientMetrics("test", new SimpleMeterRegistry()));
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContentLength(contentLength);
+        response.setEntity(entity);
+        consumer.responseReceived(response);
+        ChunkedDecoder decoder = new ChunkedDecoder(body, chunkSize);
+        while (!decoder.isCompleted()) {
+            consumer.consumeContent(decoder, null);
+            decoder.nextChunk();
+        }
+        consumer.responseCompleted(new BasicHttpContext());
+        return PooledResponse.of(consumer.getResult());
+    }
+
+    private static byte[] body(int length) {
+        byte[] body = new byte[length];
+        for (int i = 0; i < length; i++) {
+            body[i] = (byte) i;
+        }
+        return body;
+    }
+
+    /**
+     * 每次consumeContent只提供一块数据的解码器，模拟数据分多次到达
+     */
+    private static final class ChunkedDecoder implements ContentDecoder {
+
+        private final byte[] body;
+        private final int chunkSize;
+        private int position;
+        private int available;
+
+        ChunkedDecoder(byte[] body, int chunkSize) {
+            this.body = body;
+            this.chunkSize = chunkSize;
+            nextChunk();
+        }
+
+        void nextChunk() {
+            available = Math.min(chunkSize, body.length - position);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (isCompleted()) {
+                return -1;
+            }
+            int read = Math.min(available, dst.remaining());
+            dst.put(Arrays.copyOfRange(body, position, position + read));
+            position += read;
+            available -= read;
+            return read;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return position == body.length;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.cent.HttpClientDemo.util.buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 引用计数缓冲区：最后一个持有者释放时归还池，重复释放及释放后访问报错，扩容时保留已写入内容并归还旧缓冲区
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class PooledBufferTests {
+
+    private final ByteBufferPool pool = new ByteBufferPool(false, 1024, 64 * 1024, 1024 * 1024);
+
+    @Test
+    void returnedToPoolWhenLastHolderReleases() {
+        PooledBuffer buffer = new PooledBuffer(pool, 1000);
+        buffer.write(bytes("hello"), 0, 5);
+        assertEquals(1, buffer.refCnt());
+        assertSame(buffer, buffer.retain());
+        assertEquals(2, buffer.refCnt());
+
+        assertFalse(buffer.release());
+        assertEquals("hello", buffer.toString(StandardCharsets.UTF_8));
+        assertEquals(0, pool.getPooledBytes());
+        assertTrue(buffer.release());
+        assertEquals(0, buffer.refCnt());
+        assertEquals(1024, pool.getPooledBytes());
+    }
+
+    @Test
+    void doubleReleaseAndAccessAfterReleaseRejected() {
+        PooledBuffer buffer = new PooledBuffer(pool, 1000);
+        assertTrue(buffer.release());
+        assertThrows(IllegalStateException.class, buffer::release);
+        assertEquals(0, buffer.refCnt());
+        // 重复释放不会再次归还同一缓冲区
+        assertEquals(1024, pool.getPooledBytes());
+        assertThrows(IllegalStateException.class, buffer::retain);
+        assertThrows(IllegalStateException.class, buffer::length);
+        assertThrows(IllegalStateException.class, buffer::buffer);
+    }
+
+    @Test
+    void growingKeepsContentAndReturnsOldBuffer() {
+        PooledBuffer buffer = new PooledBuffer(pool, 1024);
+        byte[] first = new byte[1000];
+        byte[] second = new byte[3000];
+        first[999] = 1;
+        second[0] = 2;
+        buffer.write(first, 0, first.length);
+        buffer.write(second, 0, second.length);
+        assertEquals(4000, buffer.length());
+        assertEquals(1024, pool.getPooledBytes());
+        byte[] content = buffer.toByteArray();
+        assertEquals(1, content[999]);
+        assertEquals(2, content[1000]);
+
+        // 剩余空间足够时不扩容
+        ByteBuffer writable = buffer.writable(1);
+        assertEquals(4096, writable.capacity());
+        assertTrue(buffer.release());
+        assertEquals(1024 + 4096, pool.getPooledBytes());
+    }
+
+    @Test
+    void viewsAreIndependentAndReadOnly() {
+        PooledBuffer buffer = PooledBuffer.wrap(bytes("abc"));
+        ByteBuffer view = buffer.buffer();
+        view.get();
+        assertEquals(3, buffer.buffer().remaining());
+        assertTrue(view.isReadOnly());
+        assertArrayEquals(bytes("abc"), buffer.toByteArray());
+        // 包装的数组不归还池
+        assertTrue(buffer.release());
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
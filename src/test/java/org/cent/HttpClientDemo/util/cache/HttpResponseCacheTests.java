@@ -0,0 +1,196 @@
+package org.cent.HttpClientDemo.util.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.DateUtils;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 响应缓存：按max-age/Expires计算新鲜期，遵守no-store与Vary，过期后用校验器重新验证并合并304响应头，按字节数淘汰最久未访问的缓存
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class HttpResponseCacheTests {
+
+    private static final String KEY = "http://upstream.example/items";
+    private static final Map<String, String> NO_HEADERS = Collections.emptyMap();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void freshResponseIsServedFromCache() {
+        HttpResponseCache cache = cache(1024, false);
+        assertNull(cache.lookup(KEY, NO_HEADERS));
+        cache.onResponse(KEY, NO_HEADERS, null, response(200, "cached", "Cache-Control", "max-age=60"));
+
+        HttpResponseCache.Entry entry = cache.lookup(KEY, NO_HEADERS);
+        assertNotNull(entry);
+        assertTrue(entry.isFresh());
+        assertEquals("cached", body(entry.toResponse()));
+        assertEquals(1, count("hit"));
+        assertEquals(1, count("miss"));
+        assertEquals(6, cache.getCurrentBytes());
+        assertEquals(1, cache.getEntryCount());
+    }
+
+    @Test
+    void uncacheableResponsesAreNotStored() {
+        HttpResponseCache cache = cache(1024, false);
+        cache.onResponse(KEY, NO_HEADERS, null, response(200, "a", "Cache-Control", "no-store, max-age=60"));
+        cache.onResponse(KEY, NO_HEADERS, null, response(200, "b", "Cache-Control", "max-age=60", "Vary", " * "));
+        cache.onResponse(KEY, NO_HEADERS, null, response(500, "c", "Cache-Control", "max-age=60"));
+        // 既无新鲜期又无校验器
+        cache.onResponse(KEY, NO_HEADERS, null, response(200, "d"));
+        assertNull(cache.lookup(KEY, NO_HEADERS));
+        assertEquals(0, cache.getEntryCount());
+    }
+
+    @Test
+    void ageIsSubtractedFromMaxAge() {
+        HttpResponseCache cache = cache(1024, false);
+        cache.onResponse(KEY, NO_HEADERS, null,
+                response(200, "aged", "Cache-Control", "max-age=10", "Age", "10", "ETag", "\"v1\""));
+        HttpResponseCache.Entry entry = cache.lookup(KEY, NO_HEADERS);
+        assertNotNull(entry);
+        assertFalse(entry.isFresh());
+        assertTrue(entry.isRevalidatable());
+    }
+
+    @Test
+    void expiresIsRelativeToResponseDate() {
+        HttpResponseCache cache = cache(1024, false);
+        // 服务端时钟比本地早一天：Expires按响应Date计算仍有60秒新鲜期
+        long serverNow = System.currentTimeMillis() - 86_400_000L;
+        cache.onResponse(KEY, NO_HEADERS, null, response(200, "dated",
+                "Date", DateUtils.formatDate(new Date(serverNow)),
+                "Expires", DateUtils.formatDate(new Date(serverNow + 60_000))));
+        HttpResponseCache.Entry entry = cache.lookup(KEY, NO_HEADERS);
+        assertNotNull(entry);
+        assertTrue(entry.isFresh());
+    }
+
+    @Test
+    void varyHeadersMustMatch() {
+        HttpResponseCache cache = cache(1024, false);
+        cache.onResponse(KEY, Collections.singletonMap("Accept", "application/json"), null,
+                response(200, "json", "Cache-Control", "max-age=60", "Vary", "accept"));
+        assertNotNull(cache.lookup(KEY, Collections.singletonMap("ACCEPT", "application/json")));
+        assertNull(cache.lookup(KEY, Collections.singletonMap("Accept", "text/xml")));
+        assertNull(cache.lookup(KEY, NO_HEADERS));
+    }
+
+    @Test
+    void notModifiedRefreshesStaleEntryAndMergesHeaders() {
+        HttpResponseCache cache = cache(1024, false);
+        cache.onResponse(KEY, NO_HEADERS, null, response(200, "original",
+                "Cache-Control", "no-cache", "ETag", "\"v1\"", "Last-Modified", "Mon, 12 Oct 2026 08:00:00 GMT",
+                "Content-Type", "application/json"));
+        HttpResponseCache.Entry stale = cache.lookup(KEY, NO_HEADERS);
+        assertFalse(stale.isFresh());
+
+        HttpGet request = new HttpGet(KEY);
+        cache.addValidators(request, stale);
+        assertEquals("\"v1\"", request.getFirstHeader("If-None-Match").getValue());
+        assertEquals("Mon, 12 Oct 2026 08:00:00 GMT", request.getFirstHeader("If-Modified-Since").getValue());
+
+        MyHttpResponse revalidated = cache.onResponse(KEY, NO_HEADERS, stale,
+                response(304, "", "Cache-Control", "max-age=60", "ETag", "\"v2\""));
+        assertEquals(200, revalidated.getStatusCode());
+        assertEquals("original", body(revalidated));
+        assertEquals("max-age=60", revalidated.getHeader("Cache-Control"));
+        assertEquals("application/json", revalidated.getHeader("Content-Type"));
+
+        HttpResponseCache.Entry refreshed = cache.lookup(KEY, NO_HEADERS);
+        assertTrue(refreshed.isFresh());
+        HttpGet next = new HttpGet(KEY);
+        cache.addValidators(next, refreshed);
+        assertEquals("\"v2\"", next.getFirstHeader("If-None-Match").getValue());
+        assertEquals(1, count("revalidated"));
+        assertEquals(8, cache.getCurrentBytes());
+    }
+
+    @Test
+    void changedContentReplacesStaleEntry() {
+        HttpResponseCache cache = cache(1024, false);
+        cache.onResponse(KEY, NO_HEADERS, null, response(200, "old", "Cache-Control", "no-cache", "ETag", "\"v1\""));
+        HttpResponseCache.Entry stale = cache.lookup(KEY, NO_HEADERS);
+        MyHttpResponse changed = cache.onResponse(KEY, NO_HEADERS, stale,
+                response(200, "newer", "Cache-Control", "max-age=60", "ETag", "\"v2\""));
+        assertEquals("newer", body(changed));
+        assertEquals("newer", body(cache.lookup(KEY, NO_HEADERS).toResponse()));
+        assertEquals(5, cache.getCurrentBytes());
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedByBytes() {
+        HttpResponseCache cache = cache(10, false);
+        cache.onResponse("a", NO_HEADERS, null, response(200, "aaaa", "Cache-Control", "max-age=60"));
+        cache.onResponse("b", NO_HEADERS, null, response(200, "bbbb", "Cache-Control", "max-age=60"));
+        // 访问a后b成为最久未访问
+        assertNotNull(cache.lookup("a", NO_HEADERS));
+        cache.onResponse("c", NO_HEADERS, null, response(200, "cccc", "Cache-Control", "max-age=60"));
+        assertNotNull(cache.lookup("a", NO_HEADERS));
+        assertNull(cache.lookup("b", NO_HEADERS));
+        assertNotNull(cache.lookup("c", NO_HEADERS));
+        assertEquals(8, cache.getCurrentBytes());
+
+        // 超过上限的响应体不缓存，也不挤掉已有缓存
+        cache.onResponse("d", NO_HEADERS, null, response(200, "dddddddddddd", "Cache-Control", "max-age=60"));
+        assertNull(cache.lookup("d", NO_HEADERS));
+        assertEquals(2, cache.getEntryCount());
+
+        cache.clear();
+        assertEquals(0, cache.getCurrentBytes());
+        assertEquals(0, cache.getEntryCount());
+    }
+
+    @Test
+    void offHeapBodyRoundTrips() {
+        HttpResponseCache cache = cache(1024, true);
+        cache.onResponse(KEY, NO_HEADERS, null, response(200, "off-heap body", "Cache-Control", "max-age=60"));
+        HttpResponseCache.Entry entry = cache.lookup(KEY, NO_HEADERS);
+        assertArrayEquals("off-heap body".getBytes(StandardCharsets.UTF_8), entry.toResponse().getBody());
+        // 每次转换得到独立副本
+        assertEquals("off-heap body", body(entry.toResponse()));
+        assertEquals(13, cache.getCurrentBytes());
+        cache.close();
+    }
+
+    private HttpResponseCache cache(long maxBytes, boolean offHeap) {
+        return new HttpResponseCache("test", maxBytes, offHeap, registry);
+    }
+
+    private double count(String result) {
+        return registry.get("httpclient.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static MyHttpResponse response(int statusCode, String body, String... headers) {
+        Map<String, List<String>> headerMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < headers.length; i += 2) {
+            headerMap.computeIfAbsent(headers[i], k -> new ArrayList<>(1)).add(headers[i + 1]);
+        }
+        return new MyHttpResponse(statusCode, "", headerMap, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(MyHttpResponse response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,303 @@
+package org.cent.HttpClientDemo.util.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.cent.HttpClientDemo.util.deadline.Deadline;
+import org.cent.HttpClientDemo.util.deadline.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.cent.HttpClientDemo.util.MyHttpResponses.response;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 请求合并：相同key的在途请求只发送一次，结果与异常共享给所有等待者，完成后移出，单个调用方取消不影响共享请求，
+ * 等待者按各自的截止时间等待，首个请求因截止时间失败时截止时间未到的等待者重新发送
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class RequestCoalescerTests {
+
+    private static final String KEY = "http://upstream.example/items";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void keyIncludesConfiguredHeadersCaseInsensitively() {
+        RequestCoalescer coalescer = new RequestCoalescer(Arrays.asList("Authorization", "Accept"), registry);
+        URI uri = URI.create("http://upstream.example/items?page=1");
+        Map<String, String> alice = new HashMap<>();
+        alice.put("authorization", "Bearer alice");
+        alice.put("X-Trace-Id", "1");
+        Map<String, String> aliceAgain = new HashMap<>();
+        aliceAgain.put("AUTHORIZATION", "Bearer alice");
+        aliceAgain.put("X-Trace-Id", "2");
+        Map<String, String> bob = new HashMap<>();
+        bob.put("Authorization", "Bearer bob");
+
+        assertEquals(coalescer.key(uri, alice), coalescer.key(uri, aliceAgain));
+        assertNotEquals(coalescer.key(uri, alice), coalescer.key(uri, bob));
+        assertEquals(uri.toString(), new RequestCoalescer(null, new SimpleMeterRegistry()).key(uri, alice));
+    }
+
+    @Test
+    void concurrentAsyncRequestsShareOneCall() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(null, registry);
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<MyHttpResponse> sent = new CompletableFuture<>();
+        CompletableFuture<MyHttpResponse> leader = coalescer.executeAsync(KEY, () -> {
+            calls.incrementAndGet();
+            return sent;
+        });
+        CompletableFuture<MyHttpResponse> follower = coalescer.executeAsync(KEY, () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        assertEquals(1, coalescer.getInFlightCount());
+
+        // 跟随者取消只影响自己
+        follower.cancel(false);
+        assertFalse(sent.isCancelled());
+        MyHttpResponse response = response(200);
+        sent.complete(response);
+        assertSame(response, leader.get());
+        assertTrue(follower.isCancelled());
+        assertEquals(1, calls.get());
+        assertEquals(0, coalescer.getInFlightCount());
+        assertEquals(1, count("leader"));
+        assertEquals(1, count("follower"));
+
+        // 完成后到达的请求重新发送
+        coalescer.executeAsync(KEY, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(response(200));
+        }).get();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void lastWaiterCancellingCancelsSharedRequest() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(null, registry);
+        CompletableFuture<MyHttpResponse> single = new CompletableFuture<>();
+        coalescer.executeAsync(KEY, () -> single).cancel(false);
+        assertTrue(single.isCancelled());
+        assertEquals(0, coalescer.getInFlightCount());
+
+        CompletableFuture<MyHttpResponse> sent = new CompletableFuture<>();
+        CompletableFuture<MyHttpResponse> leader = coalescer.executeAsync(KEY, () -> sent);
+        CompletableFuture<MyHttpResponse> follower = coalescer.executeAsync(KEY, CompletableFuture::new);
+        leader.cancel(false);
+        assertFalse(sent.isCancelled());
+        follower.cancel(false);
+        assertTrue(sent.isCancelled());
+        assertEquals(0, coalescer.getInFlightCount());
+
+        // 被放弃的请求不再被合并，新的请求重新发送
+        assertEquals(200, coalescer.executeAsync(KEY, () -> CompletableFuture.completedFuture(response(200)))
+                .get(5, TimeUnit.SECONDS).getStatusCode());
+    }
+
+    @Test
+    void followersUseTheirOwnDeadlines() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(null, registry);
+        CompletableFuture<MyHttpResponse> sent = new CompletableFuture<>();
+        CompletableFuture<MyHttpResponse> leader = coalescer.executeAsync(KEY, () -> sent);
+        CompletableFuture<MyHttpResponse> shortFollower = withDeadline(50,
+                () -> coalescer.executeAsync(KEY, CompletableFuture::new));
+        AtomicInteger retries = new AtomicInteger();
+        CompletableFuture<MyHttpResponse> longFollower = withDeadline(5000,
+                () -> coalescer.executeAsync(KEY, () -> {
+                    retries.incrementAndGet();
+                    assertTrue(Deadline.current().remainingMillis() > 1000);
+                    return CompletableFuture.completedFuture(response(200));
+                }));
+
+        // 截止时间短的跟随者只有自己的结果失败，共享的请求照常进行
+        ExecutionException e = assertThrows(ExecutionException.class, () -> shortFollower.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof DeadlineExceededException);
+        assertFalse(sent.isDone());
+
+        // 首个请求因自身截止时间失败，截止时间未到的跟随者重新发送
+        DeadlineExceededException expired = new DeadlineExceededException("deadline exceeded: " + KEY);
+        sent.completeExceptionally(expired);
+        e = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertSame(expired, e.getCause());
+        assertEquals(200, longFollower.get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(1, retries.get());
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    void syncFollowerReturnsNullAtItsDeadlineAndRetriesAfterLeaderExpires() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(null, registry);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            // 首个请求的截止时间先到，返回null
+            Future<MyHttpResponse> leader = executor.submit(() -> withDeadline(100, () -> coalescer.execute(KEY, () -> {
+                calls.incrementAndGet();
+                leaderStarted.countDown();
+                await(release);
+                return null;
+            })));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            Future<MyHttpResponse> shortFollower = executor.submit(() -> withDeadline(20,
+                    () -> coalescer.execute(KEY, () -> response(500))));
+            Future<MyHttpResponse> longFollower = executor.submit(() -> withDeadline(5000,
+                    () -> coalescer.execute(KEY, () -> {
+                        calls.incrementAndGet();
+                        return response(200);
+                    })));
+            assertNull(shortFollower.get(5, TimeUnit.SECONDS));
+            Thread.sleep(150);
+            release.countDown();
+            assertNull(leader.get(5, TimeUnit.SECONDS));
+            assertEquals(200, longFollower.get(5, TimeUnit.SECONDS).getStatusCode());
+            assertEquals(2, calls.get());
+            assertEquals(0, coalescer.getInFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void asyncFailureIsSharedAndUnwrapped() {
+        RequestCoalescer coalescer = new RequestCoalescer(null, registry);
+        CompletableFuture<MyHttpResponse> sent = new CompletableFuture<>();
+        CompletableFuture<MyHttpResponse> leader = coalescer.executeAsync(KEY, () -> sent);
+        CompletableFuture<MyHttpResponse> follower = coalescer.executeAsync(KEY, CompletableFuture::new);
+        IllegalStateException failure = new IllegalStateException("upstream down");
+        sent.completeExceptionally(failure);
+        for (CompletableFuture<MyHttpResponse> result : Arrays.asList(leader, follower)) {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    void asyncCallThrowingIsNotLeftInFlight() {
+        RequestCoalescer coalescer = new RequestCoalescer(null, registry);
+        CompletableFuture<MyHttpResponse> result = coalescer.executeAsync(KEY, () -> {
+            throw new IllegalArgumentException("bad request");
+        });
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    void concurrentSyncRequestsWaitForLeader() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(null, registry);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MyHttpResponse response = response(200);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MyHttpResponse> leader = executor.submit(() -> coalescer.execute(KEY, () -> {
+                calls.incrementAndGet();
+                leaderStarted.countDown();
+                await(release);
+                return response;
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            Future<MyHttpResponse> follower = executor.submit(() -> coalescer.execute(KEY, () -> {
+                calls.incrementAndGet();
+                return response(500);
+            }));
+            waitForFollower();
+            release.countDown();
+            assertSame(response, leader.get(5, TimeUnit.SECONDS));
+            assertSame(response, follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+            assertEquals(0, coalescer.getInFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void syncFailureIsRethrownToFollowers() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(null, registry);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("upstream down");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MyHttpResponse> leader = executor.submit(() -> coalescer.execute(KEY, () -> {
+                leaderStarted.countDown();
+                await(release);
+                throw failure;
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            Future<MyHttpResponse> follower = executor.submit(() -> coalescer.execute(KEY, () -> response(200)));
+            waitForFollower();
+            release.countDown();
+            for (Future<MyHttpResponse> result : Arrays.asList(leader, follower)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertSame(failure, e.getCause());
+            }
+            assertEquals(0, coalescer.getInFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 等待跟随者加入，跟随者计数在阻塞等待前递增
+     */
+    private void waitForFollower() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("follower") < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, count("follower"));
+    }
+
+    private double count(String role) {
+        return registry.get("httpclient.coalesce.requests").tag("role", role).counter().count();
+    }
+
+    /**
+     * 在指定截止时间内调用
+     */
+    private static <T> T withDeadline(long timeoutMillis, Supplier<T> call) {
+        Deadline.Scope scope = Deadline.after(timeoutMillis, TimeUnit.MILLISECONDS).attach();
+        try {
+            return call.get();
+        } finally {
+            scope.close();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.cent.HttpClientDemo.util.compress;
+
+import org.apache.http.util.ByteArrayBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 增量解压：压缩数据在任意位置分块（gzip头部、尾部被拆开）时结果须与整体解压一致，尾部校验失败或数据不完整时报错
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class StreamingInflaterTests {
+
+    private static final byte[] PLAIN = plain();
+
+    @Test
+    void gzipSplitAtEveryOffset() throws IOException {
+        byte[] gzip = gzip(PLAIN);
+        for (int split = 0; split <= gzip.length; split++) {
+            assertArrayEquals(PLAIN, inflate(ContentCoding.GZIP, gzip, split), "split at " + split);
+        }
+    }
+
+    @Test
+    void gzipByteByByte() throws IOException {
+        assertArrayEquals(PLAIN, inflateByteByByte(ContentCoding.GZIP, gzip(PLAIN)));
+    }
+
+    @Test
+    void gzipOptionalHeaderFieldsSplitAtEveryOffset() throws IOException {
+        byte[] gzip = gzipWithAllHeaderFields(PLAIN);
+        for (int split = 0; split <= gzip.length; split++) {
+            assertArrayEquals(PLAIN, inflate(ContentCoding.GZIP, gzip, split), "split at " + split);
+        }
+        assertArrayEquals(PLAIN, inflateByteByByte(ContentCoding.GZIP, gzip));
+    }
+
+    @Test
+    void gzipCorruptTrailerRejected() throws IOException {
+        byte[] gzip = gzip(PLAIN);
+        // CRC及长度各改一个字节
+        for (int offset : new int[]{gzip.length - 8, gzip.length - 1}) {
+            byte[] corrupt = gzip.clone();
+            corrupt[offset] ^= 1;
+            assertThrows(ZipException.class, () -> inflateByteByByte(ContentCoding.GZIP, corrupt));
+        }
+    }
+
+    @Test
+    void gzipTruncatedRejectedOnFinish() throws IOException {
+        byte[] gzip = gzip(PLAIN);
+        // 截断在头部、压缩数据及尾部中
+        for (int length : new int[]{1, 9, gzip.length / 2, gzip.length - 4, gzip.length - 1}) {
+            byte[] truncated = Arrays.copyOf(gzip, length);
+            assertThrows(ZipException.class, () -> inflate(ContentCoding.GZIP, truncated, length / 2), "length " + length);
+        }
+    }
+
+    @Test
+    void gzipBadMagicRejected() {
+        byte[] notGzip = "definitely not gzip data".getBytes(StandardCharsets.US_ASCII);
+        assertThrows(ZipException.class, () -> inflate(ContentCoding.GZIP, notGzip, 3));
+    }
+
+    @Test
+    void deflateZlibAndRawSplitAtEveryOffset() throws IOException {
+        byte[] zlib = deflate(PLAIN, false);
+        byte[] raw = deflate(PLAIN, true);
+        for (byte[] compressed : new byte[][]{zlib, raw}) {
+            for (int split = 0; split <= compressed.length; split++) {
+                assertArrayEquals(PLAIN, inflate(ContentCoding.DEFLATE, compressed, split), "split at " + split);
+            }
+            assertArrayEquals(PLAIN, inflateByteByByte(ContentCoding.DEFLATE, compressed));
+        }
+    }
+
+    @Test
+    void emptyBodyFinishes() throws ZipException {
+        for (ContentCoding coding : new ContentCoding[]{ContentCoding.GZIP, ContentCoding.DEFLATE}) {
+            StreamingInflater inflater = new StreamingInflater(coding);
+            inflater.finish();
+            inflater.end();
+        }
+    }
+
+    private static byte[] inflate(ContentCoding coding, byte[] compressed, int split) throws ZipException {
+        StreamingInflater inflater = new StreamingInflater(coding);
+        ByteArrayBuffer out = new ByteArrayBuffer(PLAIN.length);
+        try {
+            inflater.inflate(compressed, 0, split, out);
+            inflater.inflate(compressed, split, compressed.length - split, out);
+            inflater.finish();
+        } finally {
+            inflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflateByteByByte(ContentCoding coding, byte[] compressed) throws ZipException {
+        StreamingInflater inflater = new StreamingInflater(coding);
+        ByteArrayBuffer out = new ByteArrayBuffer(PLAIN.length);
+        try {
+            for (int i = 0; i < compressed.length; i++) {
+                inflater.inflate(compressed, i, 1, out);
+            }
+            inflater.finish();
+        } finally {
+            inflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] plain() {
+        // 一半可压缩文本一半随机字节，解压输出跨越多个8K块
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] text = "{\"id\":1,\"name\":\"streaming inflater\"}\n".getBytes(StandardCharsets.US_ASCII);
+        while (out.size() < 20000) {
+            out.write(text, 0, text.length);
+        }
+        byte[] random = new byte[4000];
+        new Random(42).nextBytes(random);
+        out.write(random, 0, random.length);
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflate.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * gzip头带FEXTRA、FNAME、FCOMMENT及FHCRC
+     */
+    private static byte[] gzipWithAllHeaderFields(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[]{0x1f, (byte) 0x8b, 8, 2 | 4 | 8 | 16, 0, 0, 0, 0, 0, (byte) 0xff});
+        byte[] extra = "extra-field".getBytes(StandardCharsets.US_ASCII);
+        out.write(extra.length);
+        out.write(0);
+        out.write(extra);
+        out.write("name.json".getBytes(StandardCharsets.US_ASCII));
+        out.write(0);
+        out.write("a comment".getBytes(StandardCharsets.US_ASCII));
+        out.write(0);
+        out.write(new byte[]{0x12, 0x34});
+        out.write(deflate(data, true));
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        writeUInt(out, crc.getValue());
+        writeUInt(out, data.length);
+        return out.toByteArray();
+    }
+
+    private static void writeUInt(ByteArrayOutputStream out, long value) {
+        for (int i = 0; i < 4; i++) {
+            out.write((int) (value >>> (8 * i)) & 0xff);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.cent.HttpClientDemo.util.deadline;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 截止时间：线程绑定保留较早的截止时间且关闭后恢复，按剩余时间缩短超时，请求头只向更短方向更新，到期以异常完成future
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class DeadlineTests {
+
+    @Test
+    void attachKeepsEarlierDeadlineAndScopeRestores() {
+        Deadline outer = Deadline.after(1, TimeUnit.SECONDS);
+        Deadline later = Deadline.after(10, TimeUnit.SECONDS);
+        Deadline earlier = Deadline.after(100, TimeUnit.MILLISECONDS);
+        assertNull(Deadline.current());
+        Deadline.Scope outerScope = outer.attach();
+        try {
+            Deadline.Scope laterScope = later.attach();
+            try {
+                assertSame(outer, Deadline.current());
+            } finally {
+                laterScope.close();
+            }
+            Deadline.Scope earlierScope = earlier.attach();
+            try {
+                assertSame(earlier, Deadline.current());
+            } finally {
+                earlierScope.close();
+            }
+            assertSame(outer, Deadline.current());
+        } finally {
+            outerScope.close();
+        }
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void clampShortensTimeoutsToRemaining() {
+        Deadline deadline = Deadline.after(500, TimeUnit.MILLISECONDS);
+        RequestConfig clamped = deadline.clamp(RequestConfig.custom()
+                .setConnectionRequestTimeout(100)
+                .setConnectTimeout(-1)
+                .setSocketTimeout(60000)
+                .build());
+        assertEquals(100, clamped.getConnectionRequestTimeout());
+        assertTrue(clamped.getConnectTimeout() > 0 && clamped.getConnectTimeout() <= 500);
+        assertTrue(clamped.getSocketTimeout() > 0 && clamped.getSocketTimeout() <= 500);
+
+        // 已到期时超时至少为1毫秒，不会变成无限等待
+        RequestConfig expired = Deadline.after(0, TimeUnit.MILLISECONDS).clamp(RequestConfig.DEFAULT);
+        assertEquals(1, expired.getSocketTimeout());
+    }
+
+    @Test
+    void propagateOnlyLowersHeader() {
+        Deadline deadline = Deadline.after(5, TimeUnit.SECONDS);
+        HttpGet request = new HttpGet("http://upstream.example/");
+        deadline.propagate(request);
+        long remaining = Long.parseLong(request.getFirstHeader(Deadline.HEADER).getValue());
+        assertTrue(remaining > 4000 && remaining <= 5000, String.valueOf(remaining));
+
+        request.setHeader(Deadline.HEADER, "200");
+        deadline.propagate(request);
+        assertEquals("200", request.getFirstHeader(Deadline.HEADER).getValue());
+
+        request.setHeader(Deadline.HEADER, "not-a-number");
+        deadline.propagate(request);
+        assertTrue(Long.parseLong(request.getFirstHeader(Deadline.HEADER).getValue()) > 4000);
+    }
+
+    @Test
+    void parseHeaderValue() {
+        Deadline deadline = Deadline.parse(" 300 ");
+        assertTrue(deadline.remainingMillis() > 200 && deadline.remainingMillis() <= 300);
+        assertNull(Deadline.parse(null));
+        assertNull(Deadline.parse("soon"));
+        assertTrue(Deadline.parse("-5").isExpired());
+    }
+
+    @Test
+    void bindCompletesExceptionallyOnExpiry() {
+        CompletableFuture<String> future = Deadline.after(50, TimeUnit.MILLISECONDS)
+                .bind(new CompletableFuture<>(), "GET /slow");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof DeadlineExceededException);
+        assertEquals("deadline exceeded: GET /slow", e.getCause().getMessage());
+    }
+
+    @Test
+    void bindLeavesCompletedFutureAlone() throws Exception {
+        CompletableFuture<String> future = Deadline.after(50, TimeUnit.MILLISECONDS)
+                .bind(new CompletableFuture<>(), "GET /fast");
+        future.complete("done");
+        Thread.sleep(100);
+        assertFalse(future.isCompletedExceptionally());
+        assertEquals("done", future.get());
+    }
+}
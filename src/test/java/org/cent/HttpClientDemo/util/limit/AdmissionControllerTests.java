@@ -0,0 +1,181 @@
+package org.cent.HttpClientDemo.util.limit;
+
+import org.apache.http.HttpHost;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.cent.HttpClientDemo.util.breaker.CircuitOpenException;
+import org.cent.HttpClientDemo.util.deadline.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.cent.HttpClientDemo.util.MyHttpResponses.response;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 准入控制：达到并发上限时立即拒绝或有界排队，排队请求按完成顺序放行、等待超时拒绝、取消时让出位置；
+ * 上游过载响应及IO异常使并发上限回退，本地拒绝、取消及截止时间已到不影响上限
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class AdmissionControllerTests {
+
+    private static final HttpHost ROUTE = new HttpHost("upstream.example", 80, "http");
+
+    @Test
+    void rejectsImmediatelyAtLimitWithoutQueue() throws Exception {
+        AdmissionController controller = new AdmissionController(config(1, 0, 1000));
+        CompletableFuture<MyHttpResponse> inFlight = new CompletableFuture<>();
+        controller.submit(ROUTE, () -> inFlight);
+        assertRejected(controller.submit(ROUTE, CompletableFuture::new), "concurrency limit");
+        assertEquals(1, controller.getInFlight(ROUTE));
+    }
+
+    @Test
+    void queuedRequestsStartInOrderAsPermitsFree() throws Exception {
+        AdmissionController controller = new AdmissionController(config(1, 2, 5000));
+        List<CompletableFuture<MyHttpResponse>> sent = new ArrayList<>();
+        List<CompletableFuture<MyHttpResponse>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(controller.submit(ROUTE, () -> track(sent)));
+        }
+        assertEquals(1, sent.size());
+        assertRejected(controller.submit(ROUTE, CompletableFuture::new), "concurrency limit");
+
+        sent.get(0).complete(response(200));
+        assertEquals(200, results.get(0).get().getStatusCode());
+        assertEquals(2, sent.size());
+        sent.get(1).complete(response(201));
+        assertEquals(201, results.get(1).get().getStatusCode());
+        assertEquals(3, sent.size());
+        assertFalse(results.get(2).isDone());
+    }
+
+    @Test
+    void queuedRequestExpiresWhileNothingCompletes() throws Exception {
+        AdmissionController controller = new AdmissionController(config(1, 1, 100));
+        controller.submit(ROUTE, CompletableFuture::new);
+        AtomicInteger calls = new AtomicInteger();
+        long start = System.nanoTime();
+        CompletableFuture<MyHttpResponse> queued = controller.submit(ROUTE, () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        assertRejected(queued, "queue wait timeout");
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertEquals(0, calls.get());
+        // 超时的请求已移出队列，不再占用排队位置
+        assertFalse(controller.submit(ROUTE, CompletableFuture::new).isDone());
+    }
+
+    @Test
+    void cancelledWaiterFreesQueueSlotAndNeverStarts() throws Exception {
+        AdmissionController controller = new AdmissionController(config(1, 1, 5000));
+        CompletableFuture<MyHttpResponse> inFlight = new CompletableFuture<>();
+        controller.submit(ROUTE, () -> inFlight);
+        AtomicInteger cancelledCalls = new AtomicInteger();
+        CompletableFuture<MyHttpResponse> cancelled = controller.submit(ROUTE, () -> {
+            cancelledCalls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        cancelled.cancel(false);
+
+        List<CompletableFuture<MyHttpResponse>> sent = new ArrayList<>();
+        CompletableFuture<MyHttpResponse> next = controller.submit(ROUTE, () -> track(sent));
+        assertFalse(next.isDone());
+        inFlight.complete(response(200));
+        assertEquals(1, sent.size());
+        assertEquals(0, cancelledCalls.get());
+    }
+
+    @Test
+    void rateLimitRejects() throws Exception {
+        AdmissionConfig config = config(10, 0, 1000);
+        config.setRatePerSecond(1);
+        config.setBurst(2);
+        AdmissionController controller = new AdmissionController(config);
+        controller.submit(ROUTE, CompletableFuture::new);
+        controller.submit(ROUTE, CompletableFuture::new);
+        assertRejected(controller.submit(ROUTE, CompletableFuture::new), "rate limit");
+    }
+
+    @Test
+    void overloadResponsesShrinkLimitButCancellationDoesNot() {
+        AdmissionConfig config = config(8, 0, 1000);
+        config.setBackoffRatio(0.5);
+        AdmissionController controller = new AdmissionController(config);
+
+        CompletableFuture<MyHttpResponse> cancelled = new CompletableFuture<>();
+        controller.submit(ROUTE, () -> cancelled);
+        cancelled.cancel(false);
+        assertEquals(8, controller.getLimit(ROUTE));
+
+        CompletableFuture<MyHttpResponse> overloaded = new CompletableFuture<>();
+        controller.submit(ROUTE, () -> overloaded);
+        overloaded.complete(response(503));
+        assertEquals(4, controller.getLimit(ROUTE));
+        assertEquals(0, controller.getInFlight(ROUTE));
+    }
+
+    @Test
+    void localFailuresDoNotShrinkLimit() {
+        AdmissionConfig config = config(8, 0, 1000);
+        config.setBackoffRatio(0.5);
+        AdmissionController controller = new AdmissionController(config);
+        for (Exception local : new Exception[]{new RejectedExecutionException("callback pool full"),
+                new CircuitOpenException("upstream.example"), new DeadlineExceededException("deadline exceeded"),
+                new IllegalStateException("client closed")}) {
+            CompletableFuture<MyHttpResponse> sent = new CompletableFuture<>();
+            controller.submit(ROUTE, () -> sent);
+            sent.completeExceptionally(local);
+        }
+        assertEquals(8, controller.getLimit(ROUTE));
+
+        CompletableFuture<MyHttpResponse> refused = new CompletableFuture<>();
+        controller.submit(ROUTE, () -> refused);
+        refused.completeExceptionally(new ConnectException("connection refused"));
+        assertEquals(4, controller.getLimit(ROUTE));
+        assertEquals(0, controller.getInFlight(ROUTE));
+    }
+
+    @Test
+    void callerCancelPropagatesToSentRequest() {
+        AdmissionController controller = new AdmissionController(config(1, 0, 1000));
+        CompletableFuture<MyHttpResponse> sent = new CompletableFuture<>();
+        controller.submit(ROUTE, () -> sent).cancel(false);
+        assertTrue(sent.isCancelled());
+        assertEquals(0, controller.getInFlight(ROUTE));
+    }
+
+    private static AdmissionConfig config(int limit, int maxQueued, long maxQueueWaitMillis) {
+        AdmissionConfig config = new AdmissionConfig();
+        config.setInitialLimit(limit);
+        config.setMinLimit(1);
+        config.setMaxLimit(limit);
+        config.setMaxQueued(maxQueued);
+        config.setMaxQueueWaitMillis(maxQueueWaitMillis);
+        return config;
+    }
+
+    private static CompletableFuture<MyHttpResponse> track(List<CompletableFuture<MyHttpResponse>> sent) {
+        CompletableFuture<MyHttpResponse> future = new CompletableFuture<>();
+        sent.add(future);
+        return future;
+    }
+
+    private static void assertRejected(CompletableFuture<MyHttpResponse> future, String reason) throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof AdmissionRejectedException, String.valueOf(e.getCause()));
+        assertTrue(e.getCause().getMessage().startsWith(reason), e.getCause().getMessage());
+    }
+}
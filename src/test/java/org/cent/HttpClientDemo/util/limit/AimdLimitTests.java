@@ -0,0 +1,79 @@
+package org.cent.HttpClientDemo.util.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * AIMD并发上限：无拥塞且并发用到一半以上时每个请求加1/limit，失败或耗时超过基线容忍倍数时按比例回退，不越过上下限
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class AimdLimitTests {
+
+    private static final long BASELINE = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void additiveIncreaseUnderHighUtilization() {
+        AimdLimit limit = new AimdLimit(config(10, 2, 12));
+        // 每个样本加1/limit：limit² ≈ 100 + 2n，15个样本约11.4
+        for (int i = 0; i < 15; i++) {
+            limit.onSample(BASELINE, false, limit.getLimit());
+        }
+        assertEquals(11, limit.getLimit());
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(BASELINE, false, limit.getLimit());
+        }
+        assertEquals(12, limit.getLimit());
+    }
+
+    @Test
+    void noIncreaseUnderLowUtilization() {
+        AimdLimit limit = new AimdLimit(config(10, 2, 20));
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(BASELINE, false, 4);
+        }
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void multiplicativeDecreaseOnDropsDownToMinimum() {
+        AimdLimit limit = new AimdLimit(config(10, 2, 20));
+        limit.onSample(BASELINE, true, 10);
+        assertEquals(5, limit.getLimit());
+        limit.onSample(BASELINE, true, 5);
+        assertEquals(2, limit.getLimit());
+        limit.onSample(BASELINE, true, 2);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void decreaseWhenLatencyExceedsToleranceOfBaseline() {
+        AimdLimit limit = new AimdLimit(config(10, 2, 20));
+        limit.onSample(BASELINE, false, 1);
+        // 容忍2倍：1.5倍耗时不回退，3倍耗时回退
+        limit.onSample(BASELINE * 3 / 2, false, 1);
+        assertEquals(10, limit.getLimit());
+        limit.onSample(BASELINE * 3, false, 1);
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    void initialLimitClampedToBounds() {
+        assertEquals(8, new AimdLimit(config(50, 2, 8)).getLimit());
+        assertEquals(4, new AimdLimit(config(1, 4, 8)).getLimit());
+    }
+
+    private static AdmissionConfig config(int initialLimit, int minLimit, int maxLimit) {
+        AdmissionConfig config = new AdmissionConfig();
+        config.setInitialLimit(initialLimit);
+        config.setMinLimit(minLimit);
+        config.setMaxLimit(maxLimit);
+        config.setLatencyTolerance(2.0);
+        config.setBackoffRatio(0.5);
+        return config;
+    }
+}
@@ -0,0 +1,44 @@
+package org.cent.HttpClientDemo.util.limit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 令牌桶：初始为满，允许不超过容量的突发，按速率补充
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class TokenBucketTests {
+
+    @Test
+    void burstUpToCapacityThenRefillAtRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(20, 3);
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        // 每50ms补充一个令牌
+        Thread.sleep(75);
+        assertTrue(bucket.tryAcquire());
+    }
+
+    @Test
+    void refillCappedAtCapacity() throws InterruptedException {
+        // 300ms可补充3个令牌，但不超过容量2
+        TokenBucket bucket = new TokenBucket(10, 2);
+        Thread.sleep(300);
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
@@ -0,0 +1,47 @@
+package org.cent.HttpClientDemo.util.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 重试预算：每个请求积累ratio个额度，每次重试取出1个，额度有上限，额度不足时使用每秒保底额度
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class RetryBudgetTests {
+
+    @Test
+    void retriesLimitedToRatioOfRequests() {
+        RetryBudget budget = new RetryBudget(0.5, 0);
+        assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void balanceIsCapped() {
+        // 上限为1000个请求的额度：积累5000个请求后仍只能重试100次
+        RetryBudget budget = new RetryBudget(0.1, 0);
+        for (int i = 0; i < 5000; i++) {
+            budget.deposit();
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(budget.tryWithdraw(), "withdraw " + i);
+        }
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void reserveAllowsMinimumRetriesWithoutTraffic() {
+        RetryBudget budget = new RetryBudget(0, 2);
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+}
@@ -0,0 +1,238 @@
+package org.cent.HttpClientDemo.util.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpHost;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.cent.HttpClientDemo.util.deadline.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.cent.HttpClientDemo.util.MyHttpResponses.response;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 重试及对冲：可重试状态码与IO异常按次数上限重试，其余失败及截止时间已到不重试，预算耗尽停止重试；
+ * 对冲请求先返回时胜出并取消原请求，调用方取消时取消全部在途请求
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class RetryExecutorTests {
+
+    private static final HttpHost ROUTE = new HttpHost("upstream.example", 80, "http");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void retryableStatusRetriedUpToMaxRetries() throws Exception {
+        RetryExecutor executor = executor(config(2));
+        AtomicInteger attempts = new AtomicInteger();
+        MyHttpResponse response = executor.execute(ROUTE, () -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.completedFuture(response(503));
+        }).get(5, TimeUnit.SECONDS);
+        assertEquals(503, response.getStatusCode());
+        assertEquals(3, attempts.get());
+        assertEquals(2, count("httpclient.retries", "retry"));
+    }
+
+    @Test
+    void ioExceptionRetriedUntilSuccess() throws Exception {
+        RetryExecutor executor = executor(config(2));
+        AtomicInteger attempts = new AtomicInteger();
+        MyHttpResponse response = executor.execute(ROUTE, () -> attempts.incrementAndGet() == 1
+                ? failed(new ConnectException("connection refused"))
+                : CompletableFuture.completedFuture(response(200))).get(5, TimeUnit.SECONDS);
+        assertEquals(200, response.getStatusCode());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void nonRetryableFailuresReturnedImmediately() throws Exception {
+        RetryExecutor executor = executor(config(2));
+        AtomicInteger attempts = new AtomicInteger();
+        assertEquals(404, executor.execute(ROUTE, () -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.completedFuture(response(404));
+        }).get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(1, attempts.get());
+
+        for (Exception failure : new Exception[]{new IllegalStateException("rejected"),
+                new DeadlineExceededException("deadline exceeded")}) {
+            attempts.set(0);
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> executor.execute(ROUTE, () -> {
+                        attempts.incrementAndGet();
+                        return failed(failure);
+                    }).get(5, TimeUnit.SECONDS));
+            assertEquals(failure, e.getCause());
+            assertEquals(1, attempts.get());
+        }
+    }
+
+    @Test
+    void exhaustedBudgetStopsRetries() throws Exception {
+        RetryConfig config = config(3);
+        config.setBudgetRatio(0);
+        config.setMinRetriesPerSecond(0);
+        RetryExecutor executor = executor(config);
+        AtomicInteger attempts = new AtomicInteger();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> executor.execute(ROUTE, () -> {
+            attempts.incrementAndGet();
+            return failed(new IOException("connection reset"));
+        }).get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IOException);
+        assertEquals(1, attempts.get());
+        assertEquals(1, registry.get("httpclient.retries.budget.exhausted").counter().count());
+    }
+
+    @Test
+    void hedgeWinsAndCancelsSlowAttempt() throws Exception {
+        RetryConfig config = config(0);
+        config.setHedgingEnabled(true);
+        config.setMinHedgeDelayMillis(20);
+        RetryExecutor executor = executor(config);
+        warmUp(executor);
+        assertEquals(20, executor.getHedgeDelayMillis(ROUTE));
+
+        List<CompletableFuture<MyHttpResponse>> sent = new CopyOnWriteArrayList<>();
+        MyHttpResponse response = executor.execute(ROUTE, () -> {
+            CompletableFuture<MyHttpResponse> attempt = sent.isEmpty()
+                    ? new CompletableFuture<>()
+                    : CompletableFuture.completedFuture(response(200));
+            sent.add(attempt);
+            return attempt;
+        }).get(5, TimeUnit.SECONDS);
+        assertEquals(200, response.getStatusCode());
+        assertEquals(2, sent.size());
+        // 落败请求在结果完成后取消
+        assertThrows(CancellationException.class, () -> sent.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals(1, count("httpclient.retries", "hedge"));
+        assertEquals(1, registry.get("httpclient.hedge.wins").counter().count());
+    }
+
+    @Test
+    void coldRouteDoesNotHedge() throws Exception {
+        RetryConfig config = config(0);
+        config.setHedgingEnabled(true);
+        config.setMinHedgeDelayMillis(1);
+        RetryExecutor executor = executor(config);
+        assertEquals(-1, executor.getHedgeDelayMillis(ROUTE));
+
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<MyHttpResponse> sent = new CompletableFuture<>();
+        CompletableFuture<MyHttpResponse> result = executor.execute(ROUTE, () -> {
+            attempts.incrementAndGet();
+            return sent;
+        });
+        Thread.sleep(50);
+        sent.complete(response(200));
+        assertEquals(200, result.get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void hedgedCallsRecordWholeCallLatency() throws Exception {
+        RetryConfig config = config(0);
+        config.setHedgingEnabled(true);
+        config.setMinHedgeDelayMillis(1);
+        config.setHedgePercentile(0.5);
+        config.setLatencyWindow(40);
+        config.setBudgetRatio(1);
+        RetryExecutor executor = executor(config);
+        warmUp(executor);
+        assertEquals(1, executor.getHedgeDelayMillis(ROUTE));
+
+        // 原请求一直不返回，对冲请求30ms后返回：记录的是对冲发出前的等待加对冲耗时，分位值随之上升而不是越来越低
+        ScheduledExecutorService upstream = Executors.newSingleThreadScheduledExecutor();
+        try {
+            for (int i = 0; i < 40; i++) {
+                List<CompletableFuture<MyHttpResponse>> sent = new CopyOnWriteArrayList<>();
+                executor.execute(ROUTE, () -> {
+                    CompletableFuture<MyHttpResponse> attempt = new CompletableFuture<>();
+                    if (!sent.isEmpty()) {
+                        upstream.schedule(() -> attempt.complete(response(200)), 30, TimeUnit.MILLISECONDS);
+                    }
+                    sent.add(attempt);
+                    return attempt;
+                }).get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            upstream.shutdownNow();
+        }
+        long delay = executor.getHedgeDelayMillis(ROUTE);
+        assertTrue(delay >= 30, String.valueOf(delay));
+    }
+
+    @Test
+    void cancellingResultCancelsInFlightAttempts() {
+        RetryExecutor executor = executor(config(2));
+        CompletableFuture<MyHttpResponse> sent = new CompletableFuture<>();
+        AtomicInteger attempts = new AtomicInteger();
+        executor.execute(ROUTE, () -> {
+            attempts.incrementAndGet();
+            return sent;
+        }).cancel(true);
+        assertTrue(sent.isCancelled());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void externallyCancelledAttemptCompletesCall() {
+        RetryExecutor executor = executor(config(2));
+        CompletableFuture<MyHttpResponse> sent = new CompletableFuture<>();
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<MyHttpResponse> result = executor.execute(ROUTE, () -> {
+            attempts.incrementAndGet();
+            return sent;
+        });
+        // 如连接池关闭时底层客户端取消请求
+        sent.cancel(false);
+        assertThrows(CancellationException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, attempts.get());
+    }
+
+    /**
+     * 积累足够的耗时样本，之后才会对冲
+     */
+    private static void warmUp(RetryExecutor executor) throws Exception {
+        for (int i = 0; i < 20; i++) {
+            executor.execute(ROUTE, () -> CompletableFuture.completedFuture(response(200))).get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private RetryExecutor executor(RetryConfig config) {
+        return new RetryExecutor(config, registry);
+    }
+
+    private double count(String name, String kind) {
+        return registry.get(name).tag("kind", kind).counter().count();
+    }
+
+    private static RetryConfig config(int maxRetries) {
+        RetryConfig config = new RetryConfig();
+        config.setMaxRetries(maxRetries);
+        config.setInitialBackoffMillis(1);
+        config.setMaxBackoffMillis(5);
+        return config;
+    }
+
+    private static CompletableFuture<MyHttpResponse> failed(Throwable ex) {
+        CompletableFuture<MyHttpResponse> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        return future;
+    }
+}
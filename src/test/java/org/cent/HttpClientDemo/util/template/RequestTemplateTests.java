@@ -0,0 +1,106 @@
+package org.cent.HttpClientDemo.util.template;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 请求模板的查询参数及表单编码须与URIBuilder.addParameter / UrlEncodedFormEntity逐字节一致
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+class RequestTemplateTests {
+
+    private static final String BASE = "http://localhost:8080/api/items";
+
+    private static final List<Map<String, String>> CASES = Arrays.asList(
+            params("a", "1", "b", "2"),
+            params("q", "hello world", "sort", "name,desc"),
+            params("reserved", "&=?/#+%;:@$!'()~", "unreserved", "AZaz09-_.*"),
+            params("名称", "中文值", "latin", "café ñ ü"),
+            params("emoji", "😀🎉", "mixed", "a😀b"),
+            params("lone-high", "x\uD83Dy", "lone-low", "\uDE00"),
+            params("flag", null, "empty", ""),
+            params("", "no-name"));
+
+    @Test
+    void queryEncodingMatchesUriBuilder() throws Exception {
+        RequestTemplate template = RequestTemplate.builder(BASE).build();
+        for (Map<String, String> params : CASES) {
+            URIBuilder builder = new URIBuilder(BASE);
+            params.forEach(builder::addParameter);
+            assertEquals(builder.build().toASCIIString(), template.newGet(params).getURI().toASCIIString(),
+                    "params " + params);
+        }
+    }
+
+    @Test
+    void queryAppendsToFixedQuery() throws Exception {
+        String url = BASE + "?fixed=1";
+        RequestTemplate template = RequestTemplate.builder(url).build();
+        Map<String, String> params = params("q", "a b", "n", "名");
+        URIBuilder builder = new URIBuilder(url);
+        params.forEach(builder::addParameter);
+        assertEquals(builder.build().toASCIIString(), template.newGet(params).getURI().toASCIIString());
+    }
+
+    @Test
+    void emptyQueryReusesTemplateUri() {
+        RequestTemplate template = RequestTemplate.builder(BASE).header("Accept", "application/json").build();
+        HttpGet get = template.newGet(null);
+        assertSame(template.getUri(), get.getURI());
+        assertSame(template.getUri(), template.newGet(new LinkedHashMap<>()).getURI());
+        assertEquals("application/json", get.getFirstHeader("Accept").getValue());
+    }
+
+    @Test
+    void formEncodingMatchesUrlEncodedFormEntity() throws Exception {
+        RequestTemplate template = RequestTemplate.builder(BASE).build();
+        for (Map<String, String> params : CASES) {
+            List<NameValuePair> pairs = new ArrayList<>();
+            params.forEach((name, value) -> pairs.add(new BasicNameValuePair(name, value)));
+            byte[] expected = EntityUtils.toByteArray(new UrlEncodedFormEntity(pairs, StandardCharsets.UTF_8));
+            HttpPost post = template.newPostForm(params);
+            assertArrayEquals(expected, EntityUtils.toByteArray(post.getEntity()), "params " + params);
+            assertEquals("application/x-www-form-urlencoded; charset=UTF-8",
+                    post.getEntity().getContentType().getValue());
+        }
+    }
+
+    @Test
+    void postEncodesWithTemplateCharset() throws Exception {
+        RequestTemplate template = RequestTemplate.builder(BASE)
+                .contentType(ContentType.create("text/plain", StandardCharsets.ISO_8859_1))
+                .build();
+        HttpPost post = template.newPost("café");
+        assertArrayEquals("café".getBytes(StandardCharsets.ISO_8859_1), EntityUtils.toByteArray(post.getEntity()));
+        assertEquals(URI.create(BASE), post.getURI());
+    }
+
+    private static Map<String, String> params(String... namesAndValues) {
+        Map<String, String> params = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            params.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return params;
+    }
+}
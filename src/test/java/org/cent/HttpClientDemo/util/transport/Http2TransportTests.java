@@ -0,0 +1,98 @@
+package org.cent.HttpClientDemo.util.transport;
+
+import com.alibaba.fastjson.JSON;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.cent.HttpClientDemo.util.MyHttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * HTTP/2传输引擎对本地ApiController（H2cServerConfig启用h2c）收发：带请求体的首个请求完成h2c升级，
+ * 超过并发流上限的请求本地排队后全部成功，响应均经HTTP/2返回；jdk11以下跳过
+ *
+ * @author Vincent
+ * @version 1.0 2026/10/16
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class Http2TransportTests {
+
+    @LocalServerPort
+    private int port;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private Http2Transport transport;
+
+    @BeforeAll
+    static void requireJdkHttpClient() {
+        // 在创建测试实例（启动服务端）之前判断，jdk8上不启动应用上下文
+        Assumptions.assumeTrue(Http2Transport.isSupported(), "HTTP/2 transport requires jdk11+");
+    }
+
+    @BeforeEach
+    void createTransport() {
+        transport = new Http2Transport(5000, 10000, 10, registry);
+    }
+
+    @AfterEach
+    void closeTransport() {
+        transport.close();
+    }
+
+    @Test
+    void postStringOverH2c() throws Exception {
+        MyHttpResponse response = transport.send(post("/post-string", "hello h2c", ContentType.TEXT_PLAIN))
+                .get(10, TimeUnit.SECONDS);
+        assertEquals(200, response.getStatusCode());
+        assertEquals("OK", response.getReasonPhrase());
+        assertEquals("hello h2c", response.getBodyAsString());
+        assertEquals(1, http2Responses());
+    }
+
+    @Test
+    void concurrentJsonPostsBeyondStreamLimit() throws Exception {
+        int requests = 50;
+        List<CompletableFuture<MyHttpResponse>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("id", i);
+            json.put("name", "stream-" + i);
+            futures.add(transport.send(post("/post-json", JSON.toJSONString(json), ContentType.APPLICATION_JSON)));
+        }
+        for (int i = 0; i < requests; i++) {
+            MyHttpResponse response = futures.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals(200, response.getStatusCode());
+            assertEquals(i, JSON.parseObject(response.getBodyAsString()).getIntValue("id"));
+        }
+        assertEquals(requests, http2Responses());
+    }
+
+    private HttpPost post(String path, String body, ContentType contentType) {
+        HttpPost post = new HttpPost("http://localhost:" + port + path);
+        post.setEntity(new StringEntity(body, contentType));
+        return post;
+    }
+
+    /**
+     * 经HTTP/2返回的响应数（不含h2c升级探测请求）
+     */
+    private double http2Responses() {
+        return registry.get("httpclient.transport.responses").tag("version", "HTTP_2").counter().count();
+    }
+}